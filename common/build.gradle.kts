@@ -1,8 +1,28 @@
 plugins {
     `java-library`
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 dependencies {
     api("com.fasterxml.jackson.core:jackson-databind:2.16.1")
     api("jakarta.validation:jakarta.validation-api:3.0.2")
+    implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310:2.16.1")
+    implementation("org.slf4j:slf4j-api:2.0.11")
+    compileOnly("ch.qos.logback:logback-classic:1.4.14")
+    compileOnly("org.apache.kafka:kafka-clients:3.6.1")
+    compileOnly("org.springframework.boot:spring-boot-autoconfigure:3.2.2")
+    compileOnly("org.springframework.data:spring-data-redis:3.2.2")
+    compileOnly("org.springframework:spring-web:6.1.3")
+    compileOnly("jakarta.servlet:jakarta.servlet-api:6.0.0")
+
+    testImplementation("ch.qos.logback:logback-classic:1.4.14")
+    testImplementation("org.apache.kafka:kafka-clients:3.6.1")
+
+    jmh("org.apache.kafka:kafka-clients:3.6.1")
+}
+
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
 }
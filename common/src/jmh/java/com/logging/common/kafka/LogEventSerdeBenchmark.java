@@ -0,0 +1,128 @@
+package com.logging.common.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.logging.common.dto.LogEvent;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (as produced by {@code JsonSerializer} and read by
+ * {@code JsonDeserializer}) against {@link LogEventCodec} for a typical
+ * event. Run with {@code ./gradlew :common:jmh}; the {@code bytesPerRecord}
+ * counter reports the encoded size of each format.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class LogEventSerdeBenchmark {
+
+    @Param({"none", "small", "large"})
+    public String metadata;
+
+    private ObjectMapper objectMapper;
+    private LogEventSerializer binarySerializer;
+    private LogEventDeserializer deserializer;
+    private LogEvent logEvent;
+    private byte[] json;
+    private byte[] binary;
+    private RecordHeaders jsonHeaders;
+    private RecordHeaders binaryHeaders;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        binarySerializer = new LogEventSerializer();
+        deserializer = new LogEventDeserializer(objectMapper);
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (!metadata.equals("none")) {
+            fields.put("orderId", "ord-7f3a9c21");
+            fields.put("amount", 129.95);
+            fields.put("attempt", 2);
+            fields.put("retryable", false);
+        }
+        if (metadata.equals("large")) {
+            for (int i = 0; i < 20; i++) {
+                fields.put("field" + i, "value-" + i);
+            }
+            fields.put("items", List.of(Map.of("sku", "A-1", "qty", 1), Map.of("sku", "B-2", "qty", 3)));
+        }
+
+        logEvent = new LogEvent(
+                "payment-service",
+                LogEvent.Severity.ERROR,
+                "Payment failed: card declined by issuer",
+                Instant.parse("2024-01-15T10:30:00.123456789Z"),
+                "3f2b8c1e-9d4a-4c6e-b1f7-2a5d8e9c0b13",
+                "payment-service-7d9f8b6c5-x2k4m",
+                metadata.equals("none") ? null : fields
+        );
+
+        try {
+            json = objectMapper.writeValueAsBytes(logEvent);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        binaryHeaders = new RecordHeaders();
+        binary = binarySerializer.serialize("logs.ingested", binaryHeaders, logEvent);
+        jsonHeaders = new RecordHeaders();
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize(Sizes sizes) throws Exception {
+        byte[] bytes = objectMapper.writeValueAsBytes(logEvent);
+        sizes.bytesPerRecord = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] binarySerialize(Sizes sizes) {
+        byte[] bytes = binarySerializer.serialize("logs.ingested", new RecordHeaders(), logEvent);
+        sizes.bytesPerRecord = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public LogEvent jsonDeserialize() {
+        return deserializer.deserialize("logs.ingested", jsonHeaders, json);
+    }
+
+    @Benchmark
+    public LogEvent binaryDeserialize() {
+        return deserializer.deserialize("logs.ingested", binaryHeaders, binary);
+    }
+
+    /**
+     * Encoded size of the last serialized record, reported next to the timings.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Sizes {
+
+        public long bytesPerRecord;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesPerRecord = 0;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.logging.common.autoconfigure;
+
+import com.logging.common.idempotency.IdempotencyStore;
+import com.logging.common.idempotency.RedisBloomIdempotencyStore;
+import com.logging.common.idempotency.RedisKeyIdempotencyStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * The Redis-backed {@link IdempotencyStore} of a service that de-duplicates
+ * by idempotency key. Applies when {@code app.idempotency.key-prefix} is set;
+ * the prefix keeps each service's keys apart in the shared Redis.
+ */
+@AutoConfiguration(after = RedisAutoConfiguration.class)
+@ConditionalOnClass(name = "org.springframework.data.redis.core.StringRedisTemplate")
+@ConditionalOnProperty(prefix = "app.idempotency", name = "key-prefix")
+public class IdempotencyStoreAutoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStoreAutoConfiguration.class);
+
+    /**
+     * {@code keys} stores one Redis string per key; {@code bloom} stores
+     * hourly Bloom filter bitmaps, trading exactness for a fixed memory cost.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public IdempotencyStore idempotencyStore(
+            StringRedisTemplate redisTemplate,
+            @Value("${app.idempotency.key-prefix}") String keyPrefix,
+            @Value("${app.idempotency.ttl-hours:24}") int ttlHours,
+            @Value("${app.idempotency.store:keys}") String store,
+            @Value("${app.idempotency.bloom.bucket-minutes:60}") int bucketMinutes,
+            @Value("${app.idempotency.bloom.expected-keys-per-bucket:10000000}") long expectedKeysPerBucket,
+            @Value("${app.idempotency.bloom.false-positive-rate:0.001}") double falsePositiveRate) {
+        Duration ttl = Duration.ofHours(ttlHours);
+        if (!"bloom".equalsIgnoreCase(store)) {
+            return new RedisKeyIdempotencyStore(redisTemplate, keyPrefix, ttl);
+        }
+
+        RedisBloomIdempotencyStore bloomStore = new RedisBloomIdempotencyStore(redisTemplate, keyPrefix, ttl,
+                Duration.ofMinutes(bucketMinutes), expectedKeysPerBucket, falsePositiveRate);
+        log.info("Idempotency keys stored in Bloom filter buckets: {} bits x {} buckets ({} MB)",
+                bloomStore.getBitsPerBucket(), bloomStore.getBucketsPerLookup(),
+                bloomStore.getBitsPerBucket() / 8 * bloomStore.getBucketsPerLookup() / (1024 * 1024));
+        return bloomStore;
+    }
+}
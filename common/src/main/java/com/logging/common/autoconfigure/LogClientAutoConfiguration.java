@@ -0,0 +1,75 @@
+package com.logging.common.autoconfigure;
+
+import com.logging.common.client.DiskSpool;
+import com.logging.common.client.HttpLogTransport;
+import com.logging.common.client.KafkaLogTransport;
+import com.logging.common.client.LogClient;
+import com.logging.common.client.LogClientConfig;
+import com.logging.common.client.LogTransport;
+import com.logging.common.client.OverflowPolicy;
+import com.logging.common.web.LogClientController;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * The {@link LogClient} of a service that ships its logs, for any
+ * application that sets {@code app.ingestion.url}. Tuned with
+ * {@code app.ingestion.client.*}; a service can still declare its own
+ * client bean instead. Servlet applications also get
+ * {@code /api/v1/log-client/stats}.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "app.ingestion", name = "url")
+public class LogClientAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public LogClient logClient(
+            @Value("${spring.application.name}") String serviceName,
+            @Value("${app.ingestion.url}") String ingestionUrl,
+            @Value("${app.ingestion.client.buffer-capacity:10000}") int bufferCapacity,
+            @Value("${app.ingestion.client.batch-size:200}") int batchSize,
+            @Value("${app.ingestion.client.flush-interval-ms:500}") long flushIntervalMs,
+            @Value("${app.ingestion.client.max-retries:2}") int maxRetries,
+            @Value("${app.ingestion.client.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+            @Value("${app.ingestion.client.mode:http}") String mode,
+            @Value("${app.ingestion.client.kafka.bootstrap-servers:localhost:9092}") String bootstrapServers,
+            @Value("${app.ingestion.client.kafka.topic:logs.ingested}") String topic,
+            @Value("${app.ingestion.client.spool.path:}") String spoolPath,
+            @Value("${app.ingestion.client.spool.max-bytes:67108864}") int spoolMaxBytes,
+            @Value("${app.ingestion.client.spool.replay-events-per-second:1000}") int replayEventsPerSecond)
+            throws IOException {
+        LogClientConfig config = new LogClientConfig(
+                ingestionUrl,
+                serviceName,
+                null,
+                bufferCapacity,
+                batchSize,
+                Duration.ofMillis(flushIntervalMs),
+                Duration.ofSeconds(5),
+                maxRetries,
+                overflowPolicy
+        );
+        // kafka mode produces straight to the ingested-logs topic, bypassing nginx and ingestion-service
+        LogTransport transport = "kafka".equalsIgnoreCase(mode)
+                ? new KafkaLogTransport(bootstrapServers, topic, config.requestTimeout())
+                : new HttpLogTransport(config);
+        DiskSpool spool = spoolPath.isBlank() ? null : new DiskSpool(Path.of(spoolPath), spoolMaxBytes);
+        return new LogClient(config, transport, spool, replayEventsPerSecond);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnMissingBean
+    public LogClientController logClientController(LogClient logClient) {
+        return new LogClientController(logClient);
+    }
+}
@@ -0,0 +1,24 @@
+package com.logging.common.autoconfigure;
+
+import com.logging.common.logback.TraceIdFilter;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers {@link TraceIdFilter} in servlet applications that ship their
+ * logs (those that set {@code app.ingestion.url}).
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "app.ingestion", name = "url")
+public class TraceIdFilterAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TraceIdFilter traceIdFilter() {
+        return new TraceIdFilter();
+    }
+}
@@ -0,0 +1,206 @@
+package com.logging.common.client;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bounded, memory-mapped FIFO of undeliverable batches. The file is a header
+ * followed by a circular data region; entries are appended at the tail and
+ * consumed from the head, and an entry that does not fit before the end of
+ * the file wraps to the start. Head and tail live in the header, so the spool
+ * survives a restart. Writes reach the page cache immediately and are forced
+ * to disk on {@link #close()}; a process crash loses nothing, a host crash
+ * may lose the most recent entries.
+ *
+ * <p>Entry layout: length (int), event count (int), spooled-at epoch millis
+ * (long), payload.
+ */
+public class DiskSpool implements AutoCloseable {
+
+    private static final int MAGIC = 0x4c53504c; // "LSPL"
+    private static final int HEADER_SIZE = 64;
+    private static final int ENTRY_HEADER_SIZE = 16;
+    private static final int WRAP_MARKER = -1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private int head;
+    private int tail;
+    private long usedBytes;
+    private long entries;
+    private long events;
+
+    public DiskSpool(Path path, int maxBytes) throws IOException {
+        if (maxBytes <= HEADER_SIZE + ENTRY_HEADER_SIZE) {
+            throw new IllegalArgumentException("maxBytes too small: " + maxBytes);
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        this.capacity = maxBytes;
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, maxBytes);
+
+        if (!restoreHeader()) {
+            head = HEADER_SIZE;
+            tail = HEADER_SIZE;
+            writeHeader();
+        }
+    }
+
+    /**
+     * Append a batch.
+     *
+     * @return false if the spool does not have room for it
+     */
+    public synchronized boolean append(byte[] payload, int eventCount, long spooledAtMillis) {
+        int length = ENTRY_HEADER_SIZE + payload.length;
+        // Wraps even when the previous entry ended exactly at the end of the file
+        boolean wrap = tail + length > capacity;
+        int waste = wrap ? capacity - tail : 0;
+        if (length > capacity - HEADER_SIZE || usedBytes + waste + length > capacity - HEADER_SIZE) {
+            return false;
+        }
+
+        if (wrap) {
+            if (waste >= Integer.BYTES) {
+                buffer.putInt(tail, WRAP_MARKER);
+            }
+            usedBytes += waste;
+            tail = HEADER_SIZE;
+        }
+
+        buffer.putInt(tail, payload.length);
+        buffer.putInt(tail + 4, eventCount);
+        buffer.putLong(tail + 8, spooledAtMillis);
+        buffer.put(tail + ENTRY_HEADER_SIZE, payload);
+
+        tail += length;
+        usedBytes += length;
+        entries++;
+        events += eventCount;
+        writeHeader();
+        return true;
+    }
+
+    /**
+     * The oldest entry, or null if the spool is empty.
+     */
+    public synchronized Entry peek() {
+        if (entries == 0) {
+            return null;
+        }
+        skipWrap();
+
+        byte[] payload = new byte[buffer.getInt(head)];
+        buffer.get(head + ENTRY_HEADER_SIZE, payload);
+        return new Entry(payload, buffer.getInt(head + 4), buffer.getLong(head + 8));
+    }
+
+    /**
+     * Drop the oldest entry, normally after {@link #peek()} delivered it.
+     */
+    public synchronized void remove() {
+        if (entries == 0) {
+            return;
+        }
+        skipWrap();
+
+        int length = ENTRY_HEADER_SIZE + buffer.getInt(head);
+        events -= buffer.getInt(head + 4);
+        entries--;
+        usedBytes -= length;
+        head += length;
+        if (entries == 0) {
+            head = HEADER_SIZE;
+            tail = HEADER_SIZE;
+            usedBytes = 0;
+        }
+        writeHeader();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized long getEntries() {
+        return entries;
+    }
+
+    public synchronized long getEvents() {
+        return events;
+    }
+
+    public int getCapacityBytes() {
+        return capacity - HEADER_SIZE;
+    }
+
+    /**
+     * When the oldest entry was spooled, or null if the spool is empty.
+     */
+    public synchronized Long oldestSpooledAtMillis() {
+        if (entries == 0) {
+            return null;
+        }
+        skipWrap();
+        return buffer.getLong(head + 8);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void skipWrap() {
+        if (capacity - head < ENTRY_HEADER_SIZE || buffer.getInt(head) == WRAP_MARKER) {
+            usedBytes -= capacity - head;
+            head = HEADER_SIZE;
+        }
+    }
+
+    private boolean restoreHeader() {
+        if (buffer.getInt(0) != MAGIC) {
+            return false;
+        }
+        int storedHead = buffer.getInt(4);
+        int storedTail = buffer.getInt(8);
+        long storedUsed = buffer.getLong(12);
+        long storedEntries = buffer.getLong(20);
+        long storedEvents = buffer.getLong(28);
+        boolean valid = storedHead >= HEADER_SIZE && storedHead <= capacity
+                && storedTail >= HEADER_SIZE && storedTail <= capacity
+                && storedUsed >= 0 && storedUsed <= capacity - HEADER_SIZE
+                && storedEntries >= 0 && storedEvents >= 0;
+        if (!valid) {
+            return false;
+        }
+        head = storedHead;
+        tail = storedTail;
+        usedBytes = storedUsed;
+        entries = storedEntries;
+        events = storedEvents;
+        return true;
+    }
+
+    private void writeHeader() {
+        buffer.putInt(4, head);
+        buffer.putInt(8, tail);
+        buffer.putLong(12, usedBytes);
+        buffer.putLong(20, entries);
+        buffer.putLong(28, events);
+        buffer.putInt(0, MAGIC);
+    }
+
+    public record Entry(byte[] payload, int eventCount, long spooledAtMillis) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.logging.common.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.logging.common.dto.LogEvent;
+import com.logging.common.kafka.LogRecords;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Posts batches to the ingestion service's {@code /api/v1/logs/batch}. The
+ * batch key is sent as the idempotency key, on every retry and on replay
+ * from the spool, so a resent batch is not ingested twice.
+ */
+public class HttpLogTransport implements LogTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpLogTransport.class);
+    private static final long RETRY_BACKOFF_MS = 200;
+
+    private final LogClientConfig config;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI batchUri;
+    private final LongAdder duplicateEvents = new LongAdder();
+
+    public HttpLogTransport(LogClientConfig config) {
+        this.config = config;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(config.requestTimeout())
+                .build();
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.batchUri = URI.create(config.ingestionUrl() + "/api/v1/logs/batch");
+    }
+
+    @Override
+    public int deliver(LogBatch batch) throws TransportUnavailableException {
+        // Ingestion assigns event ids itself; the batch key de-duplicates a resent batch
+        List<LogEvent> events = new ArrayList<>(batch.size());
+        for (QueuedEvent queued : batch.events()) {
+            events.add(queued.event());
+        }
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(events);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize log batch of {}: {}", batch.size(), e.getMessage());
+            return 0;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(batchUri)
+                .timeout(config.requestTimeout())
+                .header("Content-Type", "application/json")
+                .header(LogRecords.IDEMPOTENCY_KEY_HEADER, batch.key())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        for (int attempt = 0; attempt <= config.maxRetries(); attempt++) {
+            if (attempt > 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(RETRY_BACKOFF_MS << (attempt - 1)));
+            }
+            try {
+                int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status / 100 == 2) {
+                    return batch.size();
+                }
+                // 409 means an earlier attempt of this batch already got through, or a false
+                // positive of the Bloom idempotency store; the two look the same from here
+                if (status == 409) {
+                    log.debug("Ingestion reported log batch {} of {} as a duplicate", batch.key(), batch.size());
+                    duplicateEvents.add(batch.size());
+                    return batch.size();
+                }
+                // 429 is nginx rate limiting and worth retrying; other 4xx will not succeed later
+                if (status / 100 == 4 && status != 429) {
+                    log.error("Ingestion rejected log batch of {} with status {}", batch.size(), status);
+                    return 0;
+                }
+                log.debug("Ingestion returned {} for log batch, attempt {}", status, attempt + 1);
+            } catch (IOException e) {
+                log.debug("Failed to send log batch, attempt {}: {}", attempt + 1, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransportUnavailableException("Interrupted while sending log batch");
+            }
+        }
+
+        throw new TransportUnavailableException(
+                "Ingestion unavailable after " + (config.maxRetries() + 1) + " attempts");
+    }
+
+    @Override
+    public long duplicateEvents() {
+        return duplicateEvents.sum();
+    }
+}
@@ -0,0 +1,105 @@
+package com.logging.common.client;
+
+import com.logging.common.dto.LogEvent;
+import com.logging.common.kafka.LogEventCodec;
+import com.logging.common.kafka.LogEventSerializer;
+import com.logging.common.kafka.LogRecords;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Produces log events straight to the ingested-logs topic, skipping the HTTP
+ * hop through nginx and ingestion-service. Records are keyed, carry the
+ * event id the client assigned on acceptance and are binary-encoded exactly
+ * as {@code LogProducer} writes them, so the monitoring consumer cannot tell
+ * the two paths apart and drops a resent record by its id. Needs
+ * kafka-clients on the application's classpath.
+ */
+public class KafkaLogTransport implements LogTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaLogTransport.class);
+
+    private final Producer<String, byte[]> producer;
+    private final String topic;
+
+    public KafkaLogTransport(String bootstrapServers, String topic, Duration requestTimeout) {
+        this(new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.ACKS_CONFIG, "all",
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                ProducerConfig.LINGER_MS_CONFIG, 5,
+                ProducerConfig.BATCH_SIZE_CONFIG, 64 * 1024,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, requestTimeout.toMillis()
+        ), new StringSerializer(), new ByteArraySerializer()), topic);
+    }
+
+    KafkaLogTransport(Producer<String, byte[]> producer, String topic) {
+        this.producer = producer;
+        this.topic = topic;
+    }
+
+    /**
+     * Send the whole batch asynchronously, then wait for the acks. The
+     * producer retries on its own, so a record that still fails is counted as
+     * lost rather than resent, unless nothing got through at all.
+     */
+    @Override
+    public int deliver(LogBatch batch) throws TransportUnavailableException {
+        List<Future<RecordMetadata>> pending = new ArrayList<>(batch.size());
+        int unreachable = 0;
+        for (QueuedEvent queued : batch.events()) {
+            try {
+                LogEvent logEvent = queued.event();
+                ProducerRecord<String, byte[]> record = new ProducerRecord<>(
+                        topic, LogRecords.key(logEvent), LogEventCodec.encode(logEvent));
+                LogEventSerializer.markBinary(record.headers());
+                record.headers().add(LogRecords.EVENT_ID_HEADER, LogRecords.encodeEventId(queued.eventId()));
+                pending.add(producer.send(record));
+            } catch (RuntimeException e) {
+                log.debug("Failed to produce log event: {}", e.getMessage());
+                unreachable++;
+            }
+        }
+
+        int delivered = 0;
+        for (Future<RecordMetadata> future : pending) {
+            try {
+                future.get();
+                delivered++;
+            } catch (ExecutionException e) {
+                log.debug("Log event not acknowledged: {}", e.getCause().getMessage());
+                unreachable++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransportUnavailableException("Interrupted while waiting for Kafka acks");
+            }
+        }
+        if (delivered == 0 && unreachable > 0) {
+            throw new TransportUnavailableException("Kafka did not acknowledge any of " + batch.size() + " log events");
+        }
+        if (delivered < batch.size()) {
+            log.warn("Delivered {} of {} log events to Kafka", delivered, batch.size());
+        }
+        return delivered;
+    }
+
+    @Override
+    public void close() {
+        producer.close(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,15 @@
+package com.logging.common.client;
+
+import java.util.List;
+
+/**
+ * A batch handed to a {@link LogTransport}. The key is chosen once when the
+ * batch is formed and spooled with it, so a batch replayed after its first
+ * response was lost is recognised as a duplicate by ingestion.
+ */
+public record LogBatch(String key, List<QueuedEvent> events) {
+
+    public int size() {
+        return events.size();
+    }
+}
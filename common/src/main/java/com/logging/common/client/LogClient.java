@@ -0,0 +1,358 @@
+package com.logging.common.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.logging.common.dto.LogEvent;
+import com.logging.common.id.UuidV7;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous log shipper for application services. Events go into a
+ * bounded lock-free {@link RingBuffer} and a single background thread hands
+ * them to a {@link LogTransport} once a batch fills up or the flush interval
+ * passes, so the calling thread never waits on the network. Batches go over
+ * HTTP to ingestion-service unless a {@link KafkaLogTransport} is supplied.
+ * Each event is given its time-ordered id when it is accepted. A
+ * {@link KafkaLogTransport} sends it with the event, so a resent record is
+ * dropped by its id; over HTTP a resent batch is recognised only by its
+ * batch key, and ingestion assigns the ids.
+ *
+ * <p>With a {@link DiskSpool}, batches that cannot be delivered because the
+ * destination is down are spilled to disk instead of dropped, and replayed
+ * by the same thread at no more than the configured rate once deliveries
+ * succeed again. While the destination is down, new batches go straight to
+ * the spool without a delivery attempt, so the flusher keeps draining the
+ * buffer, and one spooled batch is tried every {@link #PROBE_INTERVAL_MS}
+ * to detect recovery. A batch keeps its key in the spool, so replaying one
+ * that did arrive before is recognised as a duplicate.
+ */
+public class LogClient implements AutoCloseable {
+
+    public static final String FLUSHER_THREAD_NAME = "log-client-flusher";
+
+    private static final Logger log = LoggerFactory.getLogger(LogClient.class);
+    private static final long PROBE_INTERVAL_MS = 5000;
+
+    private final LogClientConfig config;
+    private final RingBuffer<QueuedEvent> buffer;
+    private final LogTransport transport;
+    private final DiskSpool spool;
+    private final int replayEventsPerSecond;
+    private final ObjectMapper spoolMapper;
+    private final Thread flusher;
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+
+    private final LongAdder sentEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder failedEvents = new LongAdder();
+    private final LongAdder batchesSent = new LongAdder();
+    private final LongAdder spooledEvents = new LongAdder();
+    private final LongAdder replayedEvents = new LongAdder();
+    private final LongAdder spoolOverflowEvents = new LongAdder();
+    private long reportedDrops;
+
+    // Flusher-thread state for replay pacing
+    private boolean destinationDown;
+    private long nextProbeMillis;
+    private double replayTokens;
+    private long lastRefillNanos = System.nanoTime();
+    private long rateSampleNanos = System.nanoTime();
+    private long rateSampleReplayed;
+    private volatile double replayRate;
+    private volatile boolean running = true;
+
+    public LogClient(LogClientConfig config) {
+        this(config, new HttpLogTransport(config));
+    }
+
+    public LogClient(LogClientConfig config, LogTransport transport) {
+        this(config, transport, null, 0);
+    }
+
+    /**
+     * @param spool                 where undeliverable batches go, or null to drop them
+     * @param replayEventsPerSecond most spooled events replayed per second once the destination is back
+     */
+    public LogClient(LogClientConfig config, LogTransport transport, DiskSpool spool, int replayEventsPerSecond) {
+        this.config = config;
+        this.buffer = new RingBuffer<>(config.bufferCapacity());
+        this.transport = transport;
+        this.spool = spool;
+        this.replayEventsPerSecond = replayEventsPerSecond;
+        this.spoolMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        this.flusher = new Thread(this::runFlusher, FLUSHER_THREAD_NAME);
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public boolean sendLog(LogEvent.Severity severity, String message, String traceId, Map<String, Object> metadata) {
+        return send(new LogEvent(
+                config.serviceName(),
+                severity,
+                message,
+                Instant.now(),
+                traceId,
+                config.host(),
+                metadata
+        ));
+    }
+
+    /**
+     * Queue an event for delivery. Never blocks.
+     *
+     * @return false if the event was dropped because the buffer was full or
+     * the client is closed
+     */
+    public boolean send(LogEvent logEvent) {
+        if (!running) {
+            droppedEvents.increment();
+            return false;
+        }
+
+        QueuedEvent queued = new QueuedEvent(UuidV7.generate(), logEvent);
+        boolean accepted = buffer.offer(queued);
+        if (!accepted && config.overflowPolicy() == OverflowPolicy.DROP_OLDEST) {
+            while (!accepted) {
+                if (buffer.poll() != null) {
+                    droppedEvents.increment();
+                }
+                accepted = buffer.offer(queued);
+            }
+        } else if (!accepted) {
+            droppedEvents.increment();
+            return false;
+        }
+
+        if (buffer.size() >= config.batchSize() && flushRequested.compareAndSet(false, true)) {
+            LockSupport.unpark(flusher);
+        }
+        return true;
+    }
+
+    public String getHost() {
+        return config.host();
+    }
+
+    public LogClientStats getStats() {
+        return new LogClientStats(
+                buffer.size(),
+                sentEvents.sum(),
+                droppedEvents.sum(),
+                failedEvents.sum(),
+                batchesSent.sum(),
+                transport.duplicateEvents(),
+                spool != null ? spoolStats() : null
+        );
+    }
+
+    private SpoolStats spoolStats() {
+        Long oldest = spool.oldestSpooledAtMillis();
+        return new SpoolStats(
+                spool.getUsedBytes(),
+                spool.getCapacityBytes(),
+                spool.getEntries(),
+                spool.getEvents(),
+                oldest != null ? Math.max(0, System.currentTimeMillis() - oldest) : 0,
+                replayRate,
+                spooledEvents.sum(),
+                replayedEvents.sum(),
+                spoolOverflowEvents.sum()
+        );
+    }
+
+    /**
+     * Stop accepting events and deliver what is still buffered, waiting at
+     * most one request timeout per remaining batch.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            long batches = (buffer.size() + config.batchSize() - 1) / config.batchSize();
+            flusher.join(Math.max(1, batches + 1) * config.requestTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        transport.close();
+        if (spool != null) {
+            try {
+                spool.close();
+            } catch (IOException e) {
+                log.warn("Failed to close log spool: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void runFlusher() {
+        long intervalNanos = config.flushInterval().toNanos();
+        long nextFlush = System.nanoTime() + intervalNanos;
+
+        while (running) {
+            long wait = nextFlush - System.nanoTime();
+            if (wait > 0 && buffer.size() < config.batchSize()) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            flushRequested.set(false);
+            try {
+                flushOnce();
+                replaySpooled();
+            } catch (RuntimeException e) {
+                // Never let the flusher die: the service would silently stop shipping logs
+                log.error("Log client flush failed: {}", e.getMessage(), e);
+            }
+            reportDrops();
+            nextFlush = System.nanoTime() + intervalNanos;
+        }
+
+        while (!buffer.isEmpty()) {
+            flushOnce();
+        }
+        reportDrops();
+    }
+
+    private void flushOnce() {
+        List<QueuedEvent> events = new ArrayList<>(config.batchSize());
+        if (buffer.drainTo(events, config.batchSize()) > 0) {
+            try {
+                deliver(new LogBatch(UUID.randomUUID().toString(), events));
+            } catch (RuntimeException e) {
+                log.error("Failed to deliver log batch of {}: {}", events.size(), e.getMessage(), e);
+                failedEvents.add(events.size());
+            }
+        }
+    }
+
+    private void deliver(LogBatch batch) {
+        if (destinationDown && spool != null && System.currentTimeMillis() < nextProbeMillis) {
+            // Wait for the next probe rather than tie up the flusher with retries
+            spill(batch);
+            return;
+        }
+        try {
+            int delivered = transport.deliver(batch);
+            destinationDown = false;
+            recordDelivery(batch.size(), delivered);
+        } catch (TransportUnavailableException e) {
+            log.debug("Log destination unavailable: {}", e.getMessage());
+            markDown();
+            spill(batch);
+        }
+    }
+
+    private void recordDelivery(int batchSize, int delivered) {
+        if (delivered > 0) {
+            sentEvents.add(delivered);
+            batchesSent.increment();
+        }
+        failedEvents.add(batchSize - delivered);
+    }
+
+    private void spill(LogBatch batch) {
+        if (spool == null) {
+            failedEvents.add(batch.size());
+            return;
+        }
+        try {
+            byte[] payload = spoolMapper.writeValueAsBytes(batch);
+            if (spool.append(payload, batch.size(), System.currentTimeMillis())) {
+                spooledEvents.add(batch.size());
+                return;
+            }
+            log.warn("Log spool full, dropping batch of {}", batch.size());
+        } catch (IOException e) {
+            log.error("Failed to spool log batch of {}: {}", batch.size(), e.getMessage());
+        }
+        spoolOverflowEvents.add(batch.size());
+        failedEvents.add(batch.size());
+    }
+
+    /**
+     * Replay spooled batches, oldest first, within the replay rate. Stops at
+     * the first batch the destination is still unable to take.
+     */
+    private void replaySpooled() {
+        if (spool == null) {
+            return;
+        }
+        sampleReplayRate();
+        if (spool.getEntries() == 0) {
+            return;
+        }
+        if (destinationDown && System.currentTimeMillis() < nextProbeMillis) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        double maxTokens = Math.max(replayEventsPerSecond, config.batchSize());
+        replayTokens = Math.min(maxTokens, replayTokens + (now - lastRefillNanos) / 1e9 * replayEventsPerSecond);
+        lastRefillNanos = now;
+
+        DiskSpool.Entry entry;
+        while ((entry = spool.peek()) != null && (replayTokens >= entry.eventCount() || destinationDown)) {
+            LogBatch batch;
+            try {
+                batch = spoolMapper.readValue(entry.payload(), LogBatch.class);
+            } catch (IOException e) {
+                log.error("Discarding unreadable spooled batch of {}: {}", entry.eventCount(), e.getMessage());
+                spool.remove();
+                failedEvents.add(entry.eventCount());
+                continue;
+            }
+
+            try {
+                int delivered = transport.deliver(batch);
+                spool.remove();
+                if (destinationDown) {
+                    log.info("Log destination recovered, replaying {} spooled events", spool.getEvents() + batch.size());
+                }
+                destinationDown = false;
+                replayTokens -= entry.eventCount();
+                replayedEvents.add(delivered);
+                recordDelivery(batch.size(), delivered);
+            } catch (TransportUnavailableException e) {
+                markDown();
+                return;
+            }
+        }
+    }
+
+    private void markDown() {
+        destinationDown = true;
+        nextProbeMillis = System.currentTimeMillis() + PROBE_INTERVAL_MS;
+    }
+
+    private void sampleReplayRate() {
+        long now = System.nanoTime();
+        if (now - rateSampleNanos >= 1_000_000_000L) {
+            long replayed = replayedEvents.sum();
+            replayRate = (replayed - rateSampleReplayed) / ((now - rateSampleNanos) / 1e9);
+            rateSampleReplayed = replayed;
+            rateSampleNanos = now;
+        }
+    }
+
+    private void reportDrops() {
+        long dropped = droppedEvents.sum();
+        if (dropped > reportedDrops) {
+            log.warn("Log buffer full, dropped {} events ({} total)", dropped - reportedDrops, dropped);
+            reportedDrops = dropped;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.logging.common.client;
+
+import java.net.InetAddress;
+import java.time.Duration;
+
+/**
+ * Settings for a {@link LogClient}. {@code host} defaults to the local
+ * hostname when null.
+ *
+ * @param ingestionUrl    base URL of the ingestion service, e.g. {@code http://localhost:80}
+ * @param bufferCapacity  events held in memory before the overflow policy applies
+ * @param batchSize       events per request; a full batch is sent without waiting for the interval
+ * @param flushInterval   longest time an event waits in the buffer
+ * @param requestTimeout  timeout for each batch request
+ * @param maxRetries      retries for a batch after a connection error or 5xx response
+ */
+public record LogClientConfig(
+        String ingestionUrl,
+        String serviceName,
+        String host,
+        int bufferCapacity,
+        int batchSize,
+        Duration flushInterval,
+        Duration requestTimeout,
+        int maxRetries,
+        OverflowPolicy overflowPolicy
+) {
+    public LogClientConfig {
+        if (ingestionUrl == null || ingestionUrl.isBlank()) {
+            throw new IllegalArgumentException("ingestionUrl is required");
+        }
+        if (serviceName == null || serviceName.isBlank()) {
+            throw new IllegalArgumentException("serviceName is required");
+        }
+        if (bufferCapacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("bufferCapacity and batchSize must be positive");
+        }
+        if (host == null) {
+            host = localHostname();
+        }
+        if (ingestionUrl.endsWith("/")) {
+            ingestionUrl = ingestionUrl.substring(0, ingestionUrl.length() - 1);
+        }
+    }
+
+    private static String localHostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
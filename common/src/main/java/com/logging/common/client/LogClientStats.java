@@ -0,0 +1,17 @@
+package com.logging.common.client;
+
+/**
+ * @param duplicateEvents events the destination reported as already received;
+ *                        included in {@code sentEvents}, see {@link LogTransport#duplicateEvents()}
+ * @param spool           null when the client has no disk spool
+ */
+public record LogClientStats(
+        int bufferedEvents,
+        long sentEvents,
+        long droppedEvents,
+        long failedEvents,
+        long batchesSent,
+        long duplicateEvents,
+        SpoolStats spool
+) {
+}
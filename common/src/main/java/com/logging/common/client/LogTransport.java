@@ -0,0 +1,32 @@
+package com.logging.common.client;
+
+/**
+ * How a {@link LogClient} delivers a batch. Called from the client's single
+ * flusher thread only.
+ */
+public interface LogTransport extends AutoCloseable {
+
+    /**
+     * Deliver a batch, retrying as the transport sees fit.
+     *
+     * @return how many events of the batch were delivered; events that were
+     * rejected outright are not retried
+     * @throws TransportUnavailableException if nothing was delivered because
+     * the destination could not be reached
+     */
+    int deliver(LogBatch batch) throws TransportUnavailableException;
+
+    /**
+     * Events counted as delivered because the destination reported their
+     * batch as already received. The client cannot tell a resent batch from
+     * one the destination wrongly took for a duplicate, so a nonzero count
+     * may include events that were never stored.
+     */
+    default long duplicateEvents() {
+        return 0;
+    }
+
+    @Override
+    default void close() {
+    }
+}
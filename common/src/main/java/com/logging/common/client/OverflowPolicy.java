@@ -0,0 +1,12 @@
+package com.logging.common.client;
+
+/**
+ * What a {@link LogClient} does when its buffer is full. Either way the
+ * caller is never blocked.
+ */
+public enum OverflowPolicy {
+    /** Discard the event being submitted. */
+    DROP_NEWEST,
+    /** Evict the oldest buffered event to make room. */
+    DROP_OLDEST
+}
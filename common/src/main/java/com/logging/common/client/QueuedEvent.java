@@ -0,0 +1,15 @@
+package com.logging.common.client;
+
+import com.logging.common.dto.LogEvent;
+
+import java.util.UUID;
+
+/**
+ * An event accepted by a {@link LogClient}, with the time-ordered id it was
+ * given on acceptance. The id travels with the event through batching,
+ * spooling and retries, so every resend of it carries the same id. Only
+ * {@link KafkaLogTransport} sends it on; {@link HttpLogTransport} leaves id
+ * assignment to ingestion.
+ */
+public record QueuedEvent(UUID eventId, LogEvent event) {
+}
@@ -0,0 +1,14 @@
+package com.logging.common.client;
+
+public record SpoolStats(
+        long usedBytes,
+        long capacityBytes,
+        long entries,
+        long events,
+        long oldestEntryAgeMillis,
+        double replayEventsPerSecond,
+        long spooledEvents,
+        long replayedEvents,
+        long overflowEvents
+) {
+}
@@ -0,0 +1,12 @@
+package com.logging.common.client;
+
+/**
+ * The destination could not be reached, as opposed to rejecting the batch.
+ * The batch may succeed later, so {@link LogClient} spools it if it can.
+ */
+public class TransportUnavailableException extends Exception {
+
+    public TransportUnavailableException(String message) {
+        super(message);
+    }
+}
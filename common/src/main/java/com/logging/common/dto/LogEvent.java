@@ -1,10 +1,13 @@
 package com.logging.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.Instant;
 import java.util.Map;
 
+// Raw ingestion forwards the client's bytes as sent, extra fields included
+@JsonIgnoreProperties(ignoreUnknown = true)
 public record LogEvent(
     @NotBlank(message = "serviceName is required")
     String serviceName,
@@ -0,0 +1,67 @@
+package com.logging.common.id;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs (version 7, RFC 9562): a 48-bit Unix millisecond
+ * timestamp, a 12-bit counter and 62 random bits. Ids from one process are
+ * strictly increasing; the counter orders ids within a millisecond and, if it
+ * runs out, carries into the timestamp rather than going backwards. Inserted
+ * as primary keys they land at the right-hand edge of the index instead of on
+ * random pages.
+ */
+public final class UuidV7 {
+
+    private static final int COUNTER_BITS = 12;
+
+    // Unix millis << COUNTER_BITS | counter of the last id handed out
+    private static final AtomicLong lastTick = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID generate() {
+        long tick = nextTick(System.currentTimeMillis() << COUNTER_BITS);
+        long millis = tick >>> COUNTER_BITS;
+        long counter = tick & ((1L << COUNTER_BITS) - 1);
+
+        long mostSigBits = (millis << 16) | 0x7000L | counter;
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() >>> 2) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * A version 7 UUID for the given time whose remaining bits come from
+     * {@code bits} rather than the counter and random source, for an id that
+     * must come out the same each time it is derived. Not ordered within a
+     * millisecond.
+     */
+    public static UUID of(long millis, long bits) {
+        long mostSigBits = ((millis & 0xFFFFFFFFFFFFL) << 16) | 0x7000L | (bits >>> 52);
+        long leastSigBits = (bits & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * The creation time embedded in a version 7 UUID, to millisecond precision.
+     */
+    public static Instant timestamp(UUID id) {
+        if (id.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + id);
+        }
+        return Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16);
+    }
+
+    private static long nextTick(long now) {
+        while (true) {
+            long last = lastTick.get();
+            long next = Math.max(now, last + 1);
+            if (lastTick.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
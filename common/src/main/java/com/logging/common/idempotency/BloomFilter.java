@@ -0,0 +1,50 @@
+package com.logging.common.idempotency;
+
+/**
+ * Sizing and hashing for Bloom filters over strings. Bit positions come from
+ * one 64-bit hash split into two halves and combined Kirsch-Mitzenmacher
+ * style, so a key is hashed once regardless of the number of hash functions.
+ */
+public final class BloomFilter {
+
+    private BloomFilter() {
+    }
+
+    public static long optimalBitCount(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive and falsePositiveRate in (0, 1)");
+        }
+        double bits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        return Math.max(64, (long) Math.ceil(bits));
+    }
+
+    public static int optimalHashCount(long expectedInsertions, long bitCount) {
+        return Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Position of the {@code i}-th bit for a key hashed with {@link #hash64}.
+     */
+    public static long bitIndex(long hash, int i, long bitCount) {
+        long combined = (hash >>> 32) + i * (hash & 0xFFFFFFFFL) + (long) i * i;
+        return Long.remainderUnsigned(combined, bitCount);
+    }
+
+    /**
+     * FNV-1a over the key's UTF-16 code units, finished with the MurmurHash3
+     * 64-bit mix so both halves are well distributed.
+     */
+    public static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,31 @@
+package com.logging.common.idempotency;
+
+import java.util.List;
+
+/**
+ * Where idempotency keys seen within the TTL are recorded.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Record a key.
+     *
+     * @return true if the key was not recorded before
+     */
+    boolean putIfAbsent(String key);
+
+    /**
+     * Record several keys in one round-trip. A key repeated in the list is
+     * new at most once.
+     *
+     * @return for each key, whether it was not recorded before
+     */
+    boolean[] putAllIfAbsent(List<String> keys);
+
+    boolean contains(String key);
+
+    /**
+     * Forget a key so it is accepted again.
+     */
+    void remove(String key);
+}
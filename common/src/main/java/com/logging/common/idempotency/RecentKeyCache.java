@@ -0,0 +1,40 @@
+package com.logging.common.idempotency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded set of recently seen keys, evicting the least recently used.
+ */
+public final class RecentKeyCache {
+
+    private final Map<String, Boolean> keys;
+
+    public RecentKeyCache(int capacity) {
+        this.keys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return false if the key was already present
+     */
+    public synchronized boolean add(String key) {
+        return keys.put(key, Boolean.TRUE) == null;
+    }
+
+    public synchronized boolean contains(String key) {
+        return keys.get(key) != null;
+    }
+
+    public synchronized void remove(String key) {
+        keys.remove(key);
+    }
+
+    public synchronized int size() {
+        return keys.size();
+    }
+}
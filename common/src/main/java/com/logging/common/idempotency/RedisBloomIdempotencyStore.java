@@ -0,0 +1,252 @@
+package com.logging.common.idempotency;
+
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keys recorded in time-bucketed Bloom filters held as Redis bitmaps, one
+ * bitmap per bucket ({@code <prefix>{bloom}:<bucket number>}). A key is
+ * looked up in every bucket that can still hold keys younger than the TTL
+ * and added to the current one; whole buckets expire on their own, so there
+ * is no per-key TTL bookkeeping. Memory is fixed per bucket by the expected
+ * key count and false positive rate rather than growing with each key.
+ * <p>
+ * {@code falsePositiveRate} bounds the chance that a new key is reported as
+ * already seen; it is split evenly across the buckets a lookup consults.
+ * A removed key is remembered by a small marker key, since bits cannot be
+ * cleared, and is treated as absent until it is added again.
+ */
+public class RedisBloomIdempotencyStore implements IdempotencyStore {
+
+    // KEYS = bucket bitmaps newest first, then the key's removal marker.
+    // ARGV = bucket ttl seconds, 1 to add or 0 to only check, bit positions...
+    // Returns 1 if the key was absent.
+    private static final String SCRIPT_SOURCE = """
+            local buckets = #KEYS - 1
+            local removed = redis.call('EXISTS', KEYS[#KEYS]) == 1
+            if not removed then
+                for b = 1, buckets do
+                    local present = true
+                    for i = 3, #ARGV do
+                        if redis.call('GETBIT', KEYS[b], ARGV[i]) == 0 then
+                            present = false
+                            break
+                        end
+                    end
+                    if present then
+                        return 0
+                    end
+                end
+            end
+            if ARGV[2] == '1' then
+                if removed then
+                    redis.call('DEL', KEYS[#KEYS])
+                end
+                for i = 3, #ARGV do
+                    redis.call('SETBIT', KEYS[1], ARGV[i], 1)
+                end
+                redis.call('EXPIRE', KEYS[1], tonumber(ARGV[1]))
+            end
+            return 1
+            """;
+    private static final RedisScript<Long> SCRIPT = new DefaultRedisScript<>(SCRIPT_SOURCE, Long.class);
+    private static final byte[] SCRIPT_BYTES = SCRIPT_SOURCE.getBytes(StandardCharsets.UTF_8);
+    private static final String SCRIPT_SHA = SCRIPT.getSha1();
+
+    /** Redis bitmaps are limited to 2^32 bits. */
+    private static final long MAX_BITS = 1L << 32;
+
+    private final StringRedisTemplate redisTemplate;
+    private final String bucketPrefix;
+    private final String removedPrefix;
+    private final Duration ttl;
+    private final long bucketMillis;
+    private final int bucketsPerLookup;
+    private final long bitsPerBucket;
+    private final int hashCount;
+    private final Clock clock;
+
+    /**
+     * @param expectedKeysPerBucket keys added per bucket at peak
+     * @param falsePositiveRate     bound on a new key being mistaken for a duplicate
+     */
+    public RedisBloomIdempotencyStore(StringRedisTemplate redisTemplate, String prefix, Duration ttl,
+                                      Duration bucket, long expectedKeysPerBucket, double falsePositiveRate) {
+        this(redisTemplate, prefix, ttl, bucket, expectedKeysPerBucket, falsePositiveRate, Clock.systemUTC());
+    }
+
+    RedisBloomIdempotencyStore(StringRedisTemplate redisTemplate, String prefix, Duration ttl, Duration bucket,
+                               long expectedKeysPerBucket, double falsePositiveRate, Clock clock) {
+        this.redisTemplate = redisTemplate;
+        // Hash tag keeps every bucket in one cluster slot so the script may touch them all
+        this.bucketPrefix = prefix + "{bloom}:";
+        this.removedPrefix = prefix + "{bloom}:removed:";
+        this.ttl = ttl;
+        this.bucketMillis = bucket.toMillis();
+        this.bucketsPerLookup = (int) ((ttl.toMillis() + bucketMillis - 1) / bucketMillis) + 1;
+        this.bitsPerBucket = BloomFilter.optimalBitCount(expectedKeysPerBucket, falsePositiveRate / bucketsPerLookup);
+        if (bitsPerBucket > MAX_BITS) {
+            throw new IllegalArgumentException("Bloom bucket of " + bitsPerBucket
+                    + " bits exceeds the Redis bitmap limit; use shorter buckets or a higher false positive rate");
+        }
+        this.hashCount = BloomFilter.optimalHashCount(expectedKeysPerBucket, bitsPerBucket);
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean putIfAbsent(String key) {
+        return run(key, true);
+    }
+
+    /**
+     * Runs the script once per key in a single pipeline, by SHA so that the
+     * source is not resent for every key. Keys that fail because Redis no
+     * longer has the script cached, as after a restart, are run again once it
+     * has been loaded; a key is only ever retried if its script did not run.
+     */
+    @Override
+    public boolean[] putAllIfAbsent(List<String> keys) {
+        List<String> buckets = bucketKeys();
+        byte[][] bucketBytes = new byte[buckets.size()][];
+        for (int i = 0; i < bucketBytes.length; i++) {
+            bucketBytes[i] = bytes(buckets.get(i));
+        }
+        byte[] ttlArg = bytes(String.valueOf(bucketTtlSeconds()));
+
+        List<Object> results;
+        try {
+            results = addPipelined(keys, bucketBytes, ttlArg);
+        } catch (RedisPipelineException e) {
+            results = new ArrayList<>(e.getPipelineResult());
+            List<Integer> missing = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i) instanceof Exception failure) {
+                    if (!isNoScript(failure)) {
+                        throw e;
+                    }
+                    missing.add(i);
+                }
+            }
+            redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.scriptingCommands().scriptLoad(SCRIPT_BYTES));
+            List<String> retryKeys = new ArrayList<>(missing.size());
+            for (int i : missing) {
+                retryKeys.add(keys.get(i));
+            }
+            List<Object> retried = addPipelined(retryKeys, bucketBytes, ttlArg);
+            for (int i = 0; i < missing.size(); i++) {
+                results.set(missing.get(i), retried.get(i));
+            }
+        }
+
+        boolean[] isNew = new boolean[keys.size()];
+        for (int i = 0; i < isNew.length; i++) {
+            isNew[i] = Long.valueOf(1).equals(results.get(i));
+        }
+        return isNew;
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return !run(key, false);
+    }
+
+    @Override
+    public void remove(String key) {
+        redisTemplate.opsForValue().set(removedPrefix + key, "1", ttl);
+    }
+
+    public long getBitsPerBucket() {
+        return bitsPerBucket;
+    }
+
+    public int getBucketsPerLookup() {
+        return bucketsPerLookup;
+    }
+
+    private boolean run(String key, boolean add) {
+        List<String> keys = new ArrayList<>(bucketKeys());
+        keys.add(removedPrefix + key);
+
+        List<String> positions = bitPositions(key);
+        Object[] args = new Object[2 + positions.size()];
+        args[0] = String.valueOf(bucketTtlSeconds());
+        args[1] = add ? "1" : "0";
+        for (int i = 0; i < positions.size(); i++) {
+            args[i + 2] = positions.get(i);
+        }
+        return Long.valueOf(1).equals(redisTemplate.execute(SCRIPT, keys, args));
+    }
+
+    private List<Object> addPipelined(List<String> keys, byte[][] bucketBytes, byte[] ttlArg) {
+        byte[] addArg = bytes("1");
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                List<String> positions = bitPositions(key);
+                byte[][] keysAndArgs = new byte[bucketBytes.length + 1 + 2 + positions.size()][];
+                System.arraycopy(bucketBytes, 0, keysAndArgs, 0, bucketBytes.length);
+                int i = bucketBytes.length;
+                keysAndArgs[i++] = bytes(removedPrefix + key);
+                keysAndArgs[i++] = ttlArg;
+                keysAndArgs[i++] = addArg;
+                for (String position : positions) {
+                    keysAndArgs[i++] = bytes(position);
+                }
+                connection.scriptingCommands().evalSha(SCRIPT_SHA, ReturnType.INTEGER, bucketBytes.length + 1,
+                        keysAndArgs);
+            }
+            return null;
+        });
+    }
+
+    private static boolean isNoScript(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Buckets that may hold keys younger than the TTL, newest first.
+     */
+    private List<String> bucketKeys() {
+        long current = clock.millis() / bucketMillis;
+        List<String> keys = new ArrayList<>(bucketsPerLookup);
+        for (int i = 0; i < bucketsPerLookup; i++) {
+            keys.add(bucketPrefix + (current - i));
+        }
+        return keys;
+    }
+
+    private List<String> bitPositions(String key) {
+        long hash = BloomFilter.hash64(key);
+        List<String> positions = new ArrayList<>(hashCount);
+        for (int i = 0; i < hashCount; i++) {
+            positions.add(Long.toString(BloomFilter.bitIndex(hash, i, bitsPerBucket)));
+        }
+        return positions;
+    }
+
+    /**
+     * A bucket lives until its newest possible key is a TTL old.
+     */
+    private long bucketTtlSeconds() {
+        return (ttl.toMillis() + bucketMillis) / 1000;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
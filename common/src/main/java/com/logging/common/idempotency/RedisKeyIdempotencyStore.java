@@ -0,0 +1,63 @@
+package com.logging.common.idempotency;
+
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * One Redis string per key, {@code <prefix><key>}, expiring after the TTL.
+ * Exact, but costs roughly a hundred bytes of Redis memory per key.
+ */
+public class RedisKeyIdempotencyStore implements IdempotencyStore {
+
+    private static final byte[] VALUE = "1".getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String prefix;
+    private final Duration ttl;
+
+    public RedisKeyIdempotencyStore(StringRedisTemplate redisTemplate, String prefix, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.prefix = prefix;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public boolean putIfAbsent(String key) {
+        // SETNX with expiration - returns true if key was set (new), false if existed
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(prefix + key, "1", ttl));
+    }
+
+    @Override
+    public boolean[] putAllIfAbsent(List<String> keys) {
+        Expiration expiration = Expiration.from(ttl);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.stringCommands().set(
+                        (prefix + key).getBytes(StandardCharsets.UTF_8), VALUE, expiration, SetOption.ifAbsent());
+            }
+            return null;
+        });
+
+        boolean[] isNew = new boolean[keys.size()];
+        for (int i = 0; i < isNew.length; i++) {
+            isNew[i] = Boolean.TRUE.equals(results.get(i));
+        }
+        return isNew;
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(prefix + key));
+    }
+
+    @Override
+    public void remove(String key) {
+        redisTemplate.delete(prefix + key);
+    }
+}
@@ -0,0 +1,331 @@
+package com.logging.common.kafka;
+
+import com.logging.common.dto.LogEvent;
+import com.logging.common.dto.LogEvent.Severity;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of {@link LogEvent}. Layout of version 1:
+ * <pre>
+ *   magic (0xC1) | version (1) | severity ordinal (0xFF = null)
+ *   | timestamp: varint of (nano of second + 1), 0 = null,
+ *     then zigzag varint of epoch seconds if present
+ *   | serviceName | message | traceId | host | metadata
+ * </pre>
+ * Strings are a varint of (UTF-8 length + 1), 0 meaning null. Metadata is a
+ * varint of (entry count + 1) followed by key/value pairs, each value a type
+ * tag and its payload, with lists and maps nested. The magic byte never
+ * starts valid UTF-8, so an encoded value cannot be mistaken for JSON.
+ */
+public final class LogEventCodec {
+
+    public static final byte MAGIC = (byte) 0xC1;
+    public static final byte VERSION = 1;
+
+    private static final byte NULL_SEVERITY = (byte) 0xFF;
+    private static final Severity[] SEVERITIES = Severity.values();
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_TRUE = 5;
+    private static final byte TAG_FALSE = 6;
+    private static final byte TAG_LIST = 7;
+    private static final byte TAG_MAP = 8;
+    private static final byte TAG_DECIMAL = 9;
+    private static final byte TAG_BIG_INTEGER = 10;
+
+    private LogEventCodec() {
+    }
+
+    public static boolean isEncoded(byte[] data) {
+        return data != null && data.length > 1 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(LogEvent logEvent) {
+        Writer out = new Writer(64 + length(logEvent.message()));
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(logEvent.severity() != null ? (byte) logEvent.severity().ordinal() : NULL_SEVERITY);
+        if (logEvent.timestamp() == null) {
+            out.writeVarint(0);
+        } else {
+            out.writeVarint(logEvent.timestamp().getNano() + 1L);
+            out.writeZigZag(logEvent.timestamp().getEpochSecond());
+        }
+        out.writeString(logEvent.serviceName());
+        out.writeString(logEvent.message());
+        out.writeString(logEvent.traceId());
+        out.writeString(logEvent.host());
+        if (logEvent.metadata() == null) {
+            out.writeVarint(0);
+        } else {
+            out.writeMap(logEvent.metadata());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code data} is not a supported encoding
+     */
+    public static LogEvent decode(byte[] data) {
+        if (!isEncoded(data)) {
+            throw new IllegalArgumentException("Not a binary log event");
+        }
+        byte version = data[1];
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported log event encoding version " + version);
+        }
+
+        try {
+            Reader in = new Reader(data, 2);
+            byte severity = in.readByte();
+            Instant timestamp = in.readTimestamp();
+            String serviceName = in.readString();
+            String message = in.readString();
+            String traceId = in.readString();
+            String host = in.readString();
+            int metadataSize = in.readVarint() - 1;
+            Map<String, Object> metadata = metadataSize < 0 ? null : in.readMapEntries(metadataSize);
+
+            return new LogEvent(
+                    serviceName,
+                    severity == NULL_SEVERITY ? null : SEVERITIES[severity],
+                    message,
+                    timestamp,
+                    traceId,
+                    host,
+                    metadata
+            );
+        } catch (ArrayIndexOutOfBoundsException | DateTimeException e) {
+            throw new IllegalArgumentException("Truncated or corrupt binary log event", e);
+        }
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int position;
+
+        Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        void writeByte(byte value) {
+            ensureCapacity(1);
+            buffer[position++] = value;
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeZigZag(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length + 1L);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeMap(Map<?, ?> map) {
+            writeVarint(map.size() + 1L);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(String.valueOf(entry.getKey()));
+                writeValue(entry.getValue());
+            }
+        }
+
+        void writeValue(Object value) {
+            if (value == null) {
+                writeByte(TAG_NULL);
+            } else if (value instanceof String string) {
+                writeByte(TAG_STRING);
+                writeString(string);
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                writeByte(TAG_INT);
+                writeZigZag(((Number) value).intValue());
+            } else if (value instanceof Long number) {
+                writeByte(TAG_LONG);
+                writeZigZag(number);
+            } else if (value instanceof Double || value instanceof Float) {
+                writeByte(TAG_DOUBLE);
+                writeLong(Double.doubleToRawLongBits(((Number) value).doubleValue()));
+            } else if (value instanceof Boolean bool) {
+                writeByte(bool ? TAG_TRUE : TAG_FALSE);
+            } else if (value instanceof BigDecimal decimal) {
+                writeByte(TAG_DECIMAL);
+                writeString(decimal.toString());
+            } else if (value instanceof BigInteger integer) {
+                writeByte(TAG_BIG_INTEGER);
+                writeString(integer.toString());
+            } else if (value instanceof Map<?, ?> map) {
+                writeByte(TAG_MAP);
+                writeMap(map);
+            } else if (value instanceof Collection<?> collection) {
+                writeByte(TAG_LIST);
+                writeVarint(collection.size());
+                for (Object element : collection) {
+                    writeValue(element);
+                }
+            } else if (value instanceof Object[] array) {
+                writeValue(Arrays.asList(array));
+            } else {
+                writeByte(TAG_STRING);
+                writeString(value.toString());
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int needed) {
+            if (position + needed > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + needed));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        byte readByte() {
+            return data[position++];
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (data[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        long readVarlong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        int readVarint() {
+            long value = readVarlong();
+            if (value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Length out of range: " + value);
+            }
+            return (int) value;
+        }
+
+        long readZigZag() {
+            long value = readVarlong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        Instant readTimestamp() {
+            long nanos = readVarlong() - 1;
+            if (nanos < 0) {
+                return null;
+            }
+            if (nanos >= 1_000_000_000L) {
+                throw new IllegalArgumentException("Nano of second out of range: " + nanos);
+            }
+            return Instant.ofEpochSecond(readZigZag(), nanos);
+        }
+
+        String readString() {
+            int length = readVarint() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (length > data.length - position) {
+                throw new ArrayIndexOutOfBoundsException(position + length);
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        Map<String, Object> readMapEntries(int size) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                map.put(readString(), readValue());
+            }
+            return map;
+        }
+
+        Object readValue() {
+            byte tag = readByte();
+            return switch (tag) {
+                case TAG_NULL -> null;
+                case TAG_STRING -> readString();
+                case TAG_INT -> (int) readZigZag();
+                case TAG_LONG -> readZigZag();
+                case TAG_DOUBLE -> Double.longBitsToDouble(readLong());
+                case TAG_TRUE -> Boolean.TRUE;
+                case TAG_FALSE -> Boolean.FALSE;
+                case TAG_DECIMAL -> new BigDecimal(readString());
+                case TAG_BIG_INTEGER -> new BigInteger(readString());
+                case TAG_MAP -> readMapEntries(readVarint() - 1);
+                case TAG_LIST -> {
+                    int size = readVarint();
+                    List<Object> list = new ArrayList<>(Math.min(size, 1024));
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue());
+                    }
+                    yield list;
+                }
+                default -> throw new IllegalArgumentException("Unknown metadata type tag " + tag);
+            };
+        }
+    }
+}
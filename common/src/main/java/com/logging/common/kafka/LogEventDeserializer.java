@@ -0,0 +1,59 @@
+package com.logging.common.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.logging.common.dto.LogEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads {@link LogEvent}s in either wire format: records carrying the
+ * {@link LogRecords#FORMAT_HEADER} are decoded with {@link LogEventCodec},
+ * anything else as JSON, so records written before the binary format, and
+ * raw JSON passed through by ingestion, stay readable.
+ */
+public class LogEventDeserializer implements Deserializer<LogEvent> {
+
+    private final ObjectMapper objectMapper;
+
+    public LogEventDeserializer() {
+        this(new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    public LogEventDeserializer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public LogEvent deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public LogEvent deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            if (isBinary(headers)) {
+                return LogEventCodec.decode(data);
+            }
+            return objectMapper.readValue(data, LogEvent.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new SerializationException("Failed to deserialize log event from " + topic + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean isBinary(Headers headers) {
+        if (headers == null) {
+            return false;
+        }
+        Header format = headers.lastHeader(LogRecords.FORMAT_HEADER);
+        return format != null && LogRecords.BINARY_FORMAT.equals(new String(format.value(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,39 @@
+package com.logging.common.kafka;
+
+import com.logging.common.dto.LogEvent;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes {@link LogEvent}s with {@link LogEventCodec} and marks each record
+ * with the {@link LogRecords#FORMAT_HEADER} so {@link LogEventDeserializer}
+ * can tell it apart from JSON.
+ */
+public class LogEventSerializer implements Serializer<LogEvent> {
+
+    private static final byte[] BINARY_FORMAT = LogRecords.BINARY_FORMAT.getBytes(StandardCharsets.UTF_8);
+
+    @Override
+    public byte[] serialize(String topic, LogEvent data) {
+        return data != null ? LogEventCodec.encode(data) : null;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, LogEvent data) {
+        if (data == null) {
+            return null;
+        }
+        markBinary(headers);
+        return LogEventCodec.encode(data);
+    }
+
+    /**
+     * Set the format header, replacing any copied over from another record.
+     */
+    public static void markBinary(Headers headers) {
+        headers.remove(LogRecords.FORMAT_HEADER);
+        headers.add(LogRecords.FORMAT_HEADER, BINARY_FORMAT);
+    }
+}
@@ -0,0 +1,64 @@
+package com.logging.common.kafka;
+
+import com.logging.common.dto.LogEvent;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Conventions shared by everything that writes log events to Kafka, so
+ * ingestion-service and clients producing directly partition and
+ * de-duplicate records the same way.
+ */
+public final class LogRecords {
+
+    public static final String DEFAULT_TOPIC = "logs.ingested";
+    public static final String IDEMPOTENCY_KEY_HEADER = "X-Idempotency-Key";
+
+    /**
+     * The event's id: a {@link com.logging.common.id.UuidV7} assigned once
+     * when the event is accepted, carried as 16 big-endian bytes and used as
+     * the stored row's key.
+     */
+    public static final String EVENT_ID_HEADER = "X-Event-Id";
+
+    /**
+     * Present with value {@link #BINARY_FORMAT} on records encoded with
+     * {@link LogEventCodec}; records without it are JSON.
+     */
+    public static final String FORMAT_HEADER = "X-Log-Format";
+    public static final String BINARY_FORMAT = "binary";
+
+    private LogRecords() {
+    }
+
+    /**
+     * Record key: the trace id, so one trace stays ordered on one partition,
+     * falling back to the service name.
+     */
+    public static String key(LogEvent logEvent) {
+        return key(logEvent.traceId(), logEvent.serviceName());
+    }
+
+    public static String key(String traceId, String serviceName) {
+        return traceId != null ? traceId : serviceName;
+    }
+
+    public static byte[] encodeEventId(UUID eventId) {
+        return ByteBuffer.allocate(16)
+                .putLong(eventId.getMostSignificantBits())
+                .putLong(eventId.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * @return the event id, or null if the header value is missing or malformed
+     */
+    public static UUID decodeEventId(byte[] value) {
+        if (value == null || value.length != 16) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
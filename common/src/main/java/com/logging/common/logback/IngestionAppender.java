@@ -0,0 +1,154 @@
+package com.logging.common.logback;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import com.logging.common.client.LogClient;
+import com.logging.common.client.LogClientConfig;
+import com.logging.common.client.OverflowPolicy;
+import com.logging.common.dto.LogEvent;
+import com.logging.common.dto.LogEvent.Severity;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Logback appender that ships application log events to the ingestion
+ * service. Events are handed to a {@link LogClient}, whose lock-free ring
+ * buffer and background flusher do the batching and delivery; when the buffer
+ * is full the event is dropped and counted, so the logging thread never
+ * blocks. The trace id is read from the MDC.
+ *
+ * <pre>
+ * &lt;appender name="INGESTION" class="com.logging.common.logback.IngestionAppender"&gt;
+ *     &lt;ingestionUrl&gt;http://localhost:80&lt;/ingestionUrl&gt;
+ *     &lt;serviceName&gt;order-service&lt;/serviceName&gt;
+ * &lt;/appender&gt;
+ * </pre>
+ */
+public class IngestionAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    // The client's own logging must not be shipped, or a delivery failure would feed itself
+    private static final String CLIENT_LOGGER_PREFIX = "com.logging.common.";
+
+    private String ingestionUrl;
+    private String serviceName;
+    private String traceIdKey = "traceId";
+    private int bufferCapacity = 8192;
+    private int batchSize = 200;
+    private long flushIntervalMs = 1000;
+    private long requestTimeoutMs = 5000;
+    private int maxRetries = 2;
+
+    private LogClient client;
+
+    @Override
+    public void start() {
+        if (ingestionUrl == null || ingestionUrl.isBlank() || serviceName == null || serviceName.isBlank()) {
+            addError("ingestionUrl and serviceName are required for appender " + getName());
+            return;
+        }
+
+        client = new LogClient(new LogClientConfig(
+                ingestionUrl,
+                serviceName,
+                null,
+                bufferCapacity,
+                batchSize,
+                Duration.ofMillis(flushIntervalMs),
+                Duration.ofMillis(requestTimeoutMs),
+                maxRetries,
+                OverflowPolicy.DROP_NEWEST
+        ));
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (client != null) {
+            client.close();
+            long dropped = getDroppedCount();
+            if (dropped > 0) {
+                addWarn("Appender " + getName() + " dropped " + dropped + " log events");
+            }
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (event.getLoggerName().startsWith(CLIENT_LOGGER_PREFIX)
+                || LogClient.FLUSHER_THREAD_NAME.equals(event.getThreadName())) {
+            return;
+        }
+        client.send(toLogEvent(event));
+    }
+
+    /**
+     * Events dropped because the buffer was full, since the appender started.
+     */
+    public long getDroppedCount() {
+        return client != null ? client.getStats().droppedEvents() : 0;
+    }
+
+    private LogEvent toLogEvent(ILoggingEvent event) {
+        IThrowableProxy throwable = event.getThrowableProxy();
+        Map<String, Object> metadata = throwable == null
+                ? Map.of("logger", event.getLoggerName(), "thread", event.getThreadName())
+                : Map.of("logger", event.getLoggerName(), "thread", event.getThreadName(),
+                        "exception", throwable.getClassName() + ": " + throwable.getMessage());
+
+        return new LogEvent(
+                serviceName,
+                toSeverity(event.getLevel()),
+                event.getFormattedMessage(),
+                event.getInstant(),
+                event.getMDCPropertyMap().get(traceIdKey),
+                client.getHost(),
+                metadata
+        );
+    }
+
+    private static Severity toSeverity(Level level) {
+        if (level.isGreaterOrEqual(Level.ERROR)) {
+            return Severity.ERROR;
+        }
+        if (level.isGreaterOrEqual(Level.WARN)) {
+            return Severity.WARN;
+        }
+        return Severity.INFO;
+    }
+
+    public void setIngestionUrl(String ingestionUrl) {
+        this.ingestionUrl = ingestionUrl;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public void setTraceIdKey(String traceIdKey) {
+        this.traceIdKey = traceIdKey;
+    }
+
+    public void setBufferCapacity(int bufferCapacity) {
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public void setRequestTimeoutMs(long requestTimeoutMs) {
+        this.requestTimeoutMs = requestTimeoutMs;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+}
@@ -0,0 +1,28 @@
+package com.logging.common.web;
+
+import com.logging.common.client.LogClient;
+import com.logging.common.client.LogClientStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Delivery and spool statistics of the service's {@link LogClient}.
+ * Registered by {@code LogClientAutoConfiguration} in servlet applications.
+ */
+@RestController
+@RequestMapping("/api/v1/log-client")
+public class LogClientController {
+
+    private final LogClient logClient;
+
+    public LogClientController(LogClient logClient) {
+        this.logClient = logClient;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<LogClientStats> getStats() {
+        return ResponseEntity.ok(logClient.getStats());
+    }
+}
@@ -0,0 +1,139 @@
+package com.logging.common.client;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiskSpoolTest {
+
+    // 64-byte header and a 300-byte data region: two 116-byte entries fit, a third does not
+    private static final int MAX_BYTES = 64 + 300;
+    private static final int PAYLOAD = 100;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_thenPeekAndRemove_returnsEntriesInOrder() throws IOException {
+        try (DiskSpool spool = new DiskSpool(directory.resolve("spool"), MAX_BYTES)) {
+            assertTrue(spool.append(payload('a'), 3, 1000));
+            assertTrue(spool.append(payload('b'), 4, 2000));
+
+            assertEquals(2, spool.getEntries());
+            assertEquals(7, spool.getEvents());
+            assertEquals(1000L, spool.oldestSpooledAtMillis());
+
+            DiskSpool.Entry first = spool.peek();
+            assertArrayEquals(payload('a'), first.payload());
+            assertEquals(3, first.eventCount());
+            spool.remove();
+
+            DiskSpool.Entry second = spool.peek();
+            assertArrayEquals(payload('b'), second.payload());
+            assertEquals(2000L, second.spooledAtMillis());
+            spool.remove();
+
+            assertNull(spool.peek());
+            assertEquals(0, spool.getUsedBytes());
+        }
+    }
+
+    @Test
+    void append_whenFull_isRejectedAndLeavesSpoolUnchanged() throws IOException {
+        try (DiskSpool spool = new DiskSpool(directory.resolve("spool"), MAX_BYTES)) {
+            assertTrue(spool.append(payload('a'), 1, 1000));
+            assertTrue(spool.append(payload('b'), 1, 2000));
+
+            assertFalse(spool.append(payload('c'), 1, 3000));
+            assertFalse(spool.append(new byte[MAX_BYTES], 1, 3000));
+
+            assertEquals(2, spool.getEntries());
+            assertEquals(2, spool.getEvents());
+            assertArrayEquals(payload('a'), spool.peek().payload());
+        }
+    }
+
+    @Test
+    void append_pastEndOfFile_wrapsToStart() throws IOException {
+        try (DiskSpool spool = new DiskSpool(directory.resolve("spool"), MAX_BYTES)) {
+            spool.append(payload('a'), 1, 1000);
+            spool.append(payload('b'), 1, 2000);
+            spool.remove();
+
+            // Does not fit after 'b', so it wraps and the tail end of the file is wasted
+            assertTrue(spool.append(payload('c'), 1, 3000));
+            assertEquals(300, spool.getUsedBytes());
+            assertFalse(spool.append(payload('d'), 1, 4000));
+
+            assertArrayEquals(payload('b'), spool.peek().payload());
+            spool.remove();
+            assertArrayEquals(payload('c'), spool.peek().payload());
+            assertEquals(3000L, spool.oldestSpooledAtMillis());
+            assertEquals(PAYLOAD + 16, spool.getUsedBytes());
+            spool.remove();
+
+            assertEquals(0, spool.getEntries());
+            assertTrue(spool.append(payload('d'), 1, 4000));
+        }
+    }
+
+    @Test
+    void append_afterEntryEndingAtEndOfFile_wrapsToStart() throws IOException {
+        try (DiskSpool spool = new DiskSpool(directory.resolve("spool"), MAX_BYTES)) {
+            spool.append(payload('a'), 1, 1000);
+            // 16 + 168 bytes: ends exactly at the end of the file
+            byte[] filler = new byte[300 - (PAYLOAD + 16) - 16];
+            assertTrue(spool.append(filler, 1, 2000));
+            assertEquals(300, spool.getUsedBytes());
+            spool.remove();
+
+            assertTrue(spool.append(payload('c'), 1, 3000));
+            assertEquals(300, spool.getUsedBytes());
+
+            assertArrayEquals(filler, spool.peek().payload());
+            spool.remove();
+            assertArrayEquals(payload('c'), spool.peek().payload());
+            spool.remove();
+            assertEquals(0, spool.getEntries());
+        }
+    }
+
+    @Test
+    void reopen_restoresUnconsumedEntries() throws IOException {
+        Path path = directory.resolve("spool");
+        try (DiskSpool spool = new DiskSpool(path, MAX_BYTES)) {
+            spool.append(payload('a'), 2, 1000);
+            spool.append(payload('b'), 5, 2000);
+            spool.remove();
+            spool.append(payload('c'), 7, 3000);
+        }
+
+        try (DiskSpool spool = new DiskSpool(path, MAX_BYTES)) {
+            assertEquals(2, spool.getEntries());
+            assertEquals(12, spool.getEvents());
+            assertEquals(300, spool.getUsedBytes());
+
+            assertArrayEquals(payload('b'), spool.peek().payload());
+            spool.remove();
+            DiskSpool.Entry wrapped = spool.peek();
+            assertArrayEquals(payload('c'), wrapped.payload());
+            assertEquals(7, wrapped.eventCount());
+            assertEquals(3000L, wrapped.spooledAtMillis());
+        }
+    }
+
+    private static byte[] payload(char fill) {
+        byte[] payload = new byte[PAYLOAD];
+        Arrays.fill(payload, (byte) fill);
+        return payload;
+    }
+}
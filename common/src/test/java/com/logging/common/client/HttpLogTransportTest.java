@@ -0,0 +1,116 @@
+package com.logging.common.client;
+
+import com.logging.common.dto.LogEvent;
+import com.logging.common.dto.LogEvent.Severity;
+import com.logging.common.kafka.LogRecords;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HttpLogTransportTest {
+
+    private HttpServer server;
+    private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+    private final List<String> idempotencyKeys = new CopyOnWriteArrayList<>();
+    private volatile int fallbackStatus = 200;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/logs/batch", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            idempotencyKeys.add(exchange.getRequestHeaders().getFirst(LogRecords.IDEMPOTENCY_KEY_HEADER));
+            Integer status = statuses.poll();
+            exchange.sendResponseHeaders(status != null ? status : fallbackStatus, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void success_countsWholeBatchAsDelivered() throws Exception {
+        HttpLogTransport transport = transport(0);
+
+        assertEquals(3, transport.deliver(batch("batch-1", 3)));
+        assertEquals(List.of("batch-1"), idempotencyKeys);
+        assertEquals(0, transport.duplicateEvents());
+    }
+
+    @Test
+    void conflict_countsBatchAsDeliveredDuplicate() throws Exception {
+        statuses.add(409);
+        HttpLogTransport transport = transport(2);
+
+        assertEquals(2, transport.deliver(batch("batch-1", 2)));
+        assertEquals(1, idempotencyKeys.size());
+        assertEquals(2, transport.duplicateEvents());
+    }
+
+    @Test
+    void clientError_rejectsBatchWithoutRetrying() throws Exception {
+        statuses.add(400);
+        HttpLogTransport transport = transport(2);
+
+        assertEquals(0, transport.deliver(batch("batch-1", 2)));
+        assertEquals(1, idempotencyKeys.size());
+    }
+
+    @Test
+    void rateLimited_retriesWithSameKey() throws Exception {
+        statuses.add(429);
+        HttpLogTransport transport = transport(2);
+
+        assertEquals(2, transport.deliver(batch("batch-1", 2)));
+        assertEquals(List.of("batch-1", "batch-1"), idempotencyKeys);
+    }
+
+    @Test
+    void serverErrorOnEveryAttempt_throwsUnavailable() {
+        fallbackStatus = 503;
+        HttpLogTransport transport = transport(1);
+
+        assertThrows(TransportUnavailableException.class, () -> transport.deliver(batch("batch-1", 2)));
+        assertEquals(List.of("batch-1", "batch-1"), idempotencyKeys);
+    }
+
+    @Test
+    void unreachableServer_throwsUnavailable() {
+        HttpLogTransport transport = transport(0);
+        server.stop(0);
+
+        assertThrows(TransportUnavailableException.class, () -> transport.deliver(batch("batch-1", 1)));
+    }
+
+    private HttpLogTransport transport(int maxRetries) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new HttpLogTransport(new LogClientConfig(url, "order-service", "host-a", 16, 10,
+                Duration.ofSeconds(1), Duration.ofSeconds(2), maxRetries, OverflowPolicy.DROP_NEWEST));
+    }
+
+    private static LogBatch batch(String key, int size) {
+        List<QueuedEvent> events = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            events.add(new QueuedEvent(null,
+                    new LogEvent("order-service", Severity.INFO, "m" + i, null, null, "host-a", null)));
+        }
+        return new LogBatch(key, events);
+    }
+}
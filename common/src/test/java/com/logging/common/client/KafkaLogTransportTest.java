@@ -0,0 +1,143 @@
+package com.logging.common.client;
+
+import com.logging.common.dto.LogEvent;
+import com.logging.common.dto.LogEvent.Severity;
+import com.logging.common.id.UuidV7;
+import com.logging.common.kafka.LogEventCodec;
+import com.logging.common.kafka.LogRecords;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class KafkaLogTransportTest {
+
+    private static final String TOPIC = "logs.ingested";
+
+    private final MockProducer<String, byte[]> producer =
+            new MockProducer<>(false, new StringSerializer(), new ByteArraySerializer());
+    private final KafkaLogTransport transport = new KafkaLogTransport(producer, TOPIC);
+
+    @Test
+    void deliver_sendsKeyedBinaryRecordsWithEventIds() throws Exception {
+        LogBatch batch = batch(2);
+        CompletableFuture<Integer> result = deliverAsync(batch);
+
+        awaitUntil(() -> producer.history().size() == 2);
+        producer.completeNext();
+        producer.completeNext();
+
+        assertEquals(2, result.get(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 2; i++) {
+            ProducerRecord<String, byte[]> record = producer.history().get(i);
+            QueuedEvent queued = batch.events().get(i);
+            assertEquals(TOPIC, record.topic());
+            assertEquals("trace-" + i, record.key());
+            assertEquals(queued.event().message(), LogEventCodec.decode(record.value()).message());
+            assertEquals(queued.eventId(),
+                    LogRecords.decodeEventId(record.headers().lastHeader(LogRecords.EVENT_ID_HEADER).value()));
+            assertEquals(LogRecords.BINARY_FORMAT,
+                    new String(record.headers().lastHeader(LogRecords.FORMAT_HEADER).value()));
+        }
+    }
+
+    @Test
+    void partialAcks_countOnlyAcknowledgedEvents() throws Exception {
+        CompletableFuture<Integer> result = deliverAsync(batch(3));
+
+        awaitUntil(() -> producer.history().size() == 3);
+        producer.completeNext();
+        producer.errorNext(new TimeoutException("expired"));
+        producer.completeNext();
+
+        assertEquals(2, result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void noAcks_throwsUnavailable() throws Exception {
+        CompletableFuture<Integer> result = deliverAsync(batch(2));
+
+        awaitUntil(() -> producer.history().size() == 2);
+        producer.errorNext(new TimeoutException("expired"));
+        producer.errorNext(new TimeoutException("expired"));
+
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(TransportUnavailableException.class, e.getCause());
+    }
+
+    @Test
+    void sendBlockedOnMetadata_throwsUnavailable() {
+        // What KafkaProducer throws once max.block.ms passes without broker metadata
+        producer.sendException = new TimeoutException("metadata not available");
+
+        assertThrows(TransportUnavailableException.class, () -> transport.deliver(batch(2)));
+    }
+
+    @Test
+    void unreachableBroker_spoolsBatchInLogClient(@TempDir Path directory) throws Exception {
+        producer.sendException = new TimeoutException("metadata not available");
+        LogClientConfig config = new LogClientConfig("http://localhost:1", "order-service", "host-a", 64, 2,
+                Duration.ofHours(1), Duration.ofSeconds(1), 0, OverflowPolicy.DROP_NEWEST);
+
+        try (LogClient client = new LogClient(config, transport, new DiskSpool(directory.resolve("spool"), 64 * 1024),
+                100)) {
+            client.send(event(0));
+            client.send(event(1));
+
+            awaitUntil(() -> client.getStats().spool().spooledEvents() == 2);
+            assertEquals(1, client.getStats().spool().entries());
+            assertEquals(0, client.getStats().failedEvents());
+        }
+        assertTrue(producer.closed());
+    }
+
+    private CompletableFuture<Integer> deliverAsync(LogBatch batch) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return transport.deliver(batch);
+            } catch (TransportUnavailableException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private static LogBatch batch(int size) {
+        List<QueuedEvent> events = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            events.add(new QueuedEvent(UuidV7.generate(), event(i)));
+        }
+        return new LogBatch("batch-1", events);
+    }
+
+    private static LogEvent event(int i) {
+        return new LogEvent("order-service", Severity.INFO, "m" + i, null, "trace-" + i, "host-a", null);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("condition not met within 5s");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
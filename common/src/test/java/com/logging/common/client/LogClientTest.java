@@ -0,0 +1,167 @@
+package com.logging.common.client;
+
+import com.logging.common.dto.LogEvent;
+import com.logging.common.dto.LogEvent.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class LogClientTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    private final StubTransport transport = new StubTransport();
+
+    @Test
+    void fullBatch_isSentWithoutWaitingForTheInterval() throws Exception {
+        try (LogClient client = new LogClient(config(64, 3, NEVER, OverflowPolicy.DROP_NEWEST), transport)) {
+            for (int i = 0; i < 3; i++) {
+                client.send(event("m" + i));
+            }
+
+            awaitUntil(() -> transport.batches.size() == 1);
+            assertEquals(List.of("m0", "m1", "m2"), transport.messages());
+            assertEquals(3, client.getStats().sentEvents());
+            assertEquals(1, client.getStats().batchesSent());
+        }
+    }
+
+    @Test
+    void partialBatch_isSentOnceTheIntervalPasses() throws Exception {
+        try (LogClient client = new LogClient(config(64, 100, Duration.ofMillis(50), OverflowPolicy.DROP_NEWEST),
+                transport)) {
+            client.send(event("m0"));
+
+            awaitUntil(() -> transport.batches.size() == 1);
+            assertEquals(List.of("m0"), transport.messages());
+        }
+    }
+
+    @Test
+    void dropNewest_rejectsEventsOnceTheBufferIsFull() {
+        LogClient client = new LogClient(config(4, 100, NEVER, OverflowPolicy.DROP_NEWEST), transport);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(client.send(event("m" + i)));
+        }
+
+        assertFalse(client.send(event("m4")));
+        assertFalse(client.send(event("m5")));
+        assertEquals(2, client.getStats().droppedEvents());
+
+        client.close();
+        assertEquals(List.of("m0", "m1", "m2", "m3"), transport.messages());
+    }
+
+    @Test
+    void dropOldest_evictsTheOldestEventsOnceTheBufferIsFull() {
+        LogClient client = new LogClient(config(4, 100, NEVER, OverflowPolicy.DROP_OLDEST), transport);
+        for (int i = 0; i < 6; i++) {
+            assertTrue(client.send(event("m" + i)));
+        }
+
+        assertEquals(2, client.getStats().droppedEvents());
+
+        client.close();
+        assertEquals(List.of("m2", "m3", "m4", "m5"), transport.messages());
+    }
+
+    @Test
+    void close_deliversEverythingStillBufferedAndRejectsNewEvents() {
+        LogClient client = new LogClient(config(64, 2, NEVER, OverflowPolicy.DROP_NEWEST), transport);
+        for (int i = 0; i < 5; i++) {
+            client.send(event("m" + i));
+        }
+
+        client.close();
+
+        assertEquals(List.of("m0", "m1", "m2", "m3", "m4"), transport.messages());
+        assertFalse(client.send(event("late")));
+        assertTrue(transport.closed);
+    }
+
+    @Test
+    void unreachableDestination_withoutSpool_countsBatchAsFailed() {
+        transport.unavailable = true;
+        LogClient client = new LogClient(config(64, 100, NEVER, OverflowPolicy.DROP_NEWEST), transport);
+        client.send(event("m0"));
+        client.send(event("m1"));
+
+        client.close();
+
+        assertEquals(2, client.getStats().failedEvents());
+        assertEquals(0, client.getStats().sentEvents());
+    }
+
+    @Test
+    void transportThatThrows_doesNotStopTheFlusher() throws Exception {
+        transport.failNext = true;
+        try (LogClient client = new LogClient(config(64, 1, NEVER, OverflowPolicy.DROP_NEWEST), transport)) {
+            client.send(event("lost"));
+            awaitUntil(() -> client.getStats().failedEvents() == 1);
+
+            client.send(event("m1"));
+            awaitUntil(() -> transport.batches.size() == 1);
+            assertEquals(List.of("m1"), transport.messages());
+        }
+    }
+
+    private static LogClientConfig config(int capacity, int batchSize, Duration flushInterval, OverflowPolicy policy) {
+        return new LogClientConfig("http://localhost:1", "order-service", "host-a", capacity, batchSize,
+                flushInterval, Duration.ofSeconds(1), 0, policy);
+    }
+
+    private static LogEvent event(String message) {
+        return new LogEvent("order-service", Severity.INFO, message, null, null, null, null);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("condition not met within 5s");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class StubTransport implements LogTransport {
+
+        final List<LogBatch> batches = new CopyOnWriteArrayList<>();
+        volatile boolean unavailable;
+        volatile boolean failNext;
+        volatile boolean closed;
+
+        @Override
+        public int deliver(LogBatch batch) throws TransportUnavailableException {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("transport bug");
+            }
+            if (unavailable) {
+                throw new TransportUnavailableException("down");
+            }
+            batches.add(batch);
+            return batch.size();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        List<String> messages() {
+            return batches.stream()
+                    .flatMap(batch -> batch.events().stream())
+                    .map(queued -> queued.event().message())
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.logging.common.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int PER_PRODUCER = 100_000;
+
+    @Test
+    void capacity_isRoundedUpToPowerOfTwo() {
+        assertEquals(8, new RingBuffer<>(5).capacity());
+        assertEquals(8, new RingBuffer<>(8).capacity());
+        assertEquals(2, new RingBuffer<>(1).capacity());
+    }
+
+    @Test
+    void offer_whenFull_returnsFalseUntilAnElementIsPolled() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        assertFalse(buffer.offer(4));
+        assertEquals(Integer.valueOf(0), buffer.poll());
+        assertTrue(buffer.offer(4));
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(4, buffer.drainTo(drained, 10));
+        assertEquals(List.of(1, 2, 3, 4), drained);
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void concurrentProducers_singleConsumer_receivesEveryElementOnceInProducerOrder() throws Exception {
+        RingBuffer<long[]> buffer = new RingBuffer<>(1024);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            producers.add(startThread(() -> {
+                await(start);
+                for (int i = 0; i < PER_PRODUCER; i++) {
+                    long[] element = {producer, i};
+                    while (!buffer.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+
+        start.countDown();
+        int[] next = new int[PRODUCERS];
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < PRODUCERS * PER_PRODUCER && System.nanoTime() < deadline) {
+            long[] element = buffer.poll();
+            if (element == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int producer = (int) element[0];
+            assertEquals(next[producer], element[1], "out of order for producer " + producer);
+            next[producer]++;
+            received++;
+        }
+        joinAll(producers);
+
+        assertEquals(PRODUCERS * PER_PRODUCER, received);
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void concurrentProducersAndConsumers_deliverEveryElementExactlyOnce() throws Exception {
+        int total = PRODUCERS * PER_PRODUCER;
+        RingBuffer<Integer> buffer = new RingBuffer<>(256);
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        AtomicInteger consumed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int from = p * PER_PRODUCER;
+            threads.add(startThread(() -> {
+                await(start);
+                for (int i = from; i < from + PER_PRODUCER; i++) {
+                    while (!buffer.offer(i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+        for (int c = 0; c < 2; c++) {
+            threads.add(startThread(() -> {
+                await(start);
+                while (consumed.get() < total) {
+                    Integer element = buffer.poll();
+                    if (element == null) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    seen.incrementAndGet(element);
+                    consumed.incrementAndGet();
+                }
+            }));
+        }
+
+        start.countDown();
+        joinAll(threads);
+
+        assertEquals(total, consumed.get());
+        for (int i = 0; i < total; i++) {
+            assertEquals(1, seen.get(i), "element " + i);
+        }
+    }
+
+    @Test
+    void concurrentProducers_onFullBuffer_acceptExactlyCapacity() throws Exception {
+        RingBuffer<Integer> buffer = new RingBuffer<>(64);
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 8; p++) {
+            int from = p * 1000;
+            producers.add(startThread(() -> {
+                await(start);
+                for (int i = from; i < from + 1000; i++) {
+                    if (buffer.offer(i)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        start.countDown();
+        joinAll(producers);
+
+        assertEquals(64, accepted.get());
+        assertEquals(64, buffer.size());
+        Set<Integer> drained = new HashSet<>();
+        assertEquals(64, buffer.drainTo(drained, 100));
+        assertEquals(64, drained.size());
+        assertTrue(buffer.isEmpty());
+    }
+
+    private static Thread startThread(Runnable task) {
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void joinAll(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+            assertFalse(thread.isAlive(), "thread did not finish");
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.logging.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7Test {
+
+    @Test
+    void generate_setsVersionAndVariant() {
+        for (int i = 0; i < 1000; i++) {
+            UUID id = UuidV7.generate();
+            assertEquals(7, id.version());
+            assertEquals(2, id.variant());
+        }
+    }
+
+    @Test
+    void generate_isStrictlyIncreasing() {
+        // Far more than 4096 per millisecond, so the counter has to carry into the timestamp
+        UUID previous = UuidV7.generate();
+        for (int i = 0; i < 200_000; i++) {
+            UUID next = UuidV7.generate();
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0,
+                    next + " is not after " + previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void generate_fromManyThreads_isUnique() throws InterruptedException {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 25_000; i++) {
+                    ids.add(UuidV7.generate());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(100_000, ids.size());
+    }
+
+    @Test
+    void timestamp_returnsCreationTime() {
+        Instant before = Instant.ofEpochMilli(System.currentTimeMillis());
+        Instant timestamp = UuidV7.timestamp(UuidV7.generate());
+
+        // Never earlier than the clock; later only by however far an earlier burst carried the counter
+        assertFalse(timestamp.isBefore(before));
+        assertTrue(timestamp.isBefore(before.plusSeconds(1)));
+    }
+
+    @Test
+    void of_isReproducibleAndCarriesTime() {
+        UUID id = UuidV7.of(1_700_000_000_123L, 0x0123456789ABCDEFL);
+
+        assertEquals(id, UuidV7.of(1_700_000_000_123L, 0x0123456789ABCDEFL));
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(Instant.ofEpochMilli(1_700_000_000_123L), UuidV7.timestamp(id));
+        assertFalse(id.equals(UuidV7.of(1_700_000_000_123L, 0x0123456789ABCDEEL)));
+    }
+
+    @Test
+    void timestamp_rejectsOtherVersions() {
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.timestamp(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,161 @@
+package com.logging.common.kafka;
+
+import com.logging.common.dto.LogEvent;
+import com.logging.common.dto.LogEvent.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogEventCodecTest {
+
+    private static final Instant TIMESTAMP = Instant.parse("2024-03-01T12:34:56.123456789Z");
+
+    @Test
+    void encodeDecode_roundTripsAllFields() {
+        LogEvent logEvent = new LogEvent("order-service", Severity.WARN, "Order took 1.2s – slow",
+                TIMESTAMP, "trace-1", "host-a", Map.of("orderId", "o-1"));
+
+        assertEquals(logEvent, LogEventCodec.decode(LogEventCodec.encode(logEvent)));
+    }
+
+    @Test
+    void encodeDecode_keepsNullFields() {
+        LogEvent logEvent = new LogEvent(null, null, null, TIMESTAMP, null, null, null);
+
+        LogEvent decoded = LogEventCodec.decode(LogEventCodec.encode(logEvent));
+
+        assertNull(decoded.serviceName());
+        assertNull(decoded.severity());
+        assertNull(decoded.message());
+        assertNull(decoded.traceId());
+        assertNull(decoded.host());
+        assertNull(decoded.metadata());
+        assertEquals(TIMESTAMP, decoded.timestamp());
+    }
+
+    @Test
+    void encodeDecode_timestampsFarFromEpoch() {
+        for (Instant timestamp : List.of(
+                Instant.parse("1500-06-15T08:00:00.000000001Z"),
+                Instant.parse("1969-12-31T23:59:59.999999999Z"),
+                Instant.EPOCH,
+                Instant.parse("9999-12-31T23:59:59.999999999Z"))) {
+            LogEvent logEvent = new LogEvent("svc", Severity.INFO, "m", timestamp, null, null, null);
+
+            assertEquals(timestamp, LogEventCodec.decode(LogEventCodec.encode(logEvent)).timestamp());
+        }
+    }
+
+    @Test
+    void encodeDecode_metadataValueTypes() {
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("depth", 2);
+        nested.put("tags", List.of("a", "b"));
+
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("string", "value");
+        metadata.put("int", -42);
+        metadata.put("long", 1L << 40);
+        metadata.put("double", 3.25);
+        metadata.put("true", true);
+        metadata.put("false", false);
+        metadata.put("null", null);
+        metadata.put("decimal", new BigDecimal("12345.678900"));
+        metadata.put("bigInteger", new BigInteger("123456789012345678901234567890"));
+        metadata.put("list", Arrays.asList(1, "two", null, List.of(3L)));
+        metadata.put("map", nested);
+        metadata.put("emptyMap", Map.of());
+
+        LogEvent decoded = LogEventCodec.decode(LogEventCodec.encode(event(metadata)));
+
+        assertEquals(metadata, decoded.metadata());
+        assertEquals(List.copyOf(metadata.keySet()), List.copyOf(decoded.metadata().keySet()));
+    }
+
+    @Test
+    void encodeDecode_widensAndStringifiesOtherTypes() {
+        UUID id = UUID.randomUUID();
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("short", (short) 7);
+        metadata.put("float", 1.5f);
+        metadata.put("array", new Object[]{"x", 1});
+        metadata.put("uuid", id);
+
+        Map<String, Object> decoded = LogEventCodec.decode(LogEventCodec.encode(event(metadata))).metadata();
+
+        assertEquals(7, decoded.get("short"));
+        assertEquals(1.5, decoded.get("float"));
+        assertEquals(List.of("x", 1), decoded.get("array"));
+        assertEquals(id.toString(), decoded.get("uuid"));
+    }
+
+    @Test
+    void isEncoded_distinguishesBinaryFromJson() {
+        assertTrue(LogEventCodec.isEncoded(LogEventCodec.encode(event(null))));
+        assertFalse(LogEventCodec.isEncoded("{\"message\":\"m\"}".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(LogEventCodec.isEncoded(new byte[]{LogEventCodec.MAGIC}));
+        assertFalse(LogEventCodec.isEncoded(null));
+    }
+
+    @Test
+    void decode_rejectsNonBinaryInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> LogEventCodec.decode("{}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void decode_rejectsUnknownVersion() {
+        byte[] data = LogEventCodec.encode(event(null));
+        data[1] = 9;
+
+        assertThrows(IllegalArgumentException.class, () -> LogEventCodec.decode(data));
+    }
+
+    @Test
+    void decode_rejectsEveryTruncation() {
+        byte[] data = LogEventCodec.encode(event(Map.of("key", List.of("value", 1L))));
+
+        for (int length = 2; length < data.length; length++) {
+            byte[] truncated = Arrays.copyOf(data, length);
+            assertThrows(IllegalArgumentException.class, () -> LogEventCodec.decode(truncated),
+                    "truncated to " + length + " bytes");
+        }
+    }
+
+    @Test
+    void decode_rejectsCorruptBytes() {
+        byte[] badSeverity = LogEventCodec.encode(event(null));
+        badSeverity[2] = 17;
+        assertThrows(IllegalArgumentException.class, () -> LogEventCodec.decode(badSeverity));
+
+        byte[] valid = LogEventCodec.encode(event(null));
+        // Nano-of-second + 1 as a varint: 0xFF 0xFF 0xFF 0xFF 0x0F is far beyond 10^9
+        byte[] withBadNanos = new byte[valid.length + 5];
+        System.arraycopy(valid, 0, withBadNanos, 0, 3);
+        System.arraycopy(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F}, 0, withBadNanos, 3, 5);
+        assertThrows(IllegalArgumentException.class, () -> LogEventCodec.decode(withBadNanos));
+
+        byte[] badTag = LogEventCodec.encode(event(Map.of("k", "v")));
+        // The metadata value's type tag sits before its string: [tag][len + 1]['v']
+        badTag[badTag.length - 3] = 99;
+        assertThrows(IllegalArgumentException.class, () -> LogEventCodec.decode(badTag));
+    }
+
+    private static LogEvent event(Map<String, Object> metadata) {
+        return new LogEvent("svc", Severity.INFO, "message", TIMESTAMP, "trace", "host", metadata);
+    }
+}
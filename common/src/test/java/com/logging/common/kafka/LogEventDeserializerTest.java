@@ -0,0 +1,101 @@
+package com.logging.common.kafka;
+
+import com.logging.common.dto.LogEvent;
+import com.logging.common.dto.LogEvent.Severity;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LogEventDeserializerTest {
+
+    private static final String TOPIC = "logs.ingested";
+    private static final LogEvent EVENT = new LogEvent("user-service", Severity.ERROR, "Login failed",
+            Instant.parse("2024-03-01T12:00:00.5Z"), "trace-9", "host-b", Map.of("attempt", 3));
+
+    private final LogEventSerializer serializer = new LogEventSerializer();
+    private final LogEventDeserializer deserializer = new LogEventDeserializer();
+
+    @Test
+    void deserialize_binaryRecord_usesCodec() {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] data = serializer.serialize(TOPIC, headers, EVENT);
+
+        assertEquals(EVENT, deserializer.deserialize(TOPIC, headers, data));
+    }
+
+    @Test
+    void deserialize_withoutFormatHeader_readsJson() {
+        String json = """
+                {"serviceName":"user-service","severity":"ERROR","message":"Login failed",
+                 "timestamp":"2024-03-01T12:00:00.5Z","traceId":"trace-9","host":"host-b",
+                 "metadata":{"attempt":3}}
+                """;
+
+        LogEvent logEvent = deserializer.deserialize(TOPIC, new RecordHeaders(), json.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(EVENT, logEvent);
+    }
+
+    @Test
+    void deserialize_withoutHeaders_readsJson() {
+        byte[] json = "{\"serviceName\":\"svc\",\"severity\":\"INFO\",\"message\":\"m\"}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        LogEvent logEvent = deserializer.deserialize(TOPIC, json);
+
+        assertEquals("svc", logEvent.serviceName());
+        assertEquals(Severity.INFO, logEvent.severity());
+    }
+
+    @Test
+    void deserialize_unknownField_isIgnored() {
+        byte[] json = "{\"serviceName\":\"svc\",\"severity\":\"WARN\",\"message\":\"m\",\"env\":\"prod\"}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        LogEvent logEvent = deserializer.deserialize(TOPIC, new RecordHeaders(), json);
+
+        assertEquals("svc", logEvent.serviceName());
+        assertEquals(Severity.WARN, logEvent.severity());
+    }
+
+    @Test
+    void deserialize_null_returnsNull() {
+        assertNull(deserializer.deserialize(TOPIC, new RecordHeaders(), null));
+    }
+
+    @Test
+    void deserialize_corruptBinary_throwsSerializationException() {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] data = serializer.serialize(TOPIC, headers, EVENT);
+        byte[] truncated = Arrays.copyOf(data, data.length / 2);
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, headers, truncated));
+    }
+
+    @Test
+    void deserialize_invalidJson_throwsSerializationException() {
+        byte[] data = "{not json".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, new RecordHeaders(), data));
+    }
+
+    @Test
+    void serialize_replacesCopiedFormatHeader() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(LogRecords.FORMAT_HEADER, "json".getBytes(StandardCharsets.UTF_8));
+
+        byte[] data = serializer.serialize(TOPIC, headers, EVENT);
+
+        assertEquals(1, headers.toArray().length);
+        assertEquals(EVENT, deserializer.deserialize(TOPIC, headers, data));
+    }
+}
@@ -0,0 +1,181 @@
+package com.logging.common.logback;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logging.common.client.LogClient;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class IngestionAppenderTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    private final List<Map<String, Object>> received = new CopyOnWriteArrayList<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int firstStatus = 200;
+
+    private HttpServer server;
+    private IngestionAppender appender;
+    private Logger appLogger;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/logs/batch", exchange -> {
+            received.addAll(MAPPER.readValue(exchange.getRequestBody(), new TypeReference<List<Map<String, Object>>>() {
+            }));
+            int status = requests.getAndIncrement() == 0 ? firstStatus : 200;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+
+        appender = new IngestionAppender();
+        appender.setContext(context);
+        appender.setName("INGESTION");
+        appender.setIngestionUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        appender.setServiceName("order-service");
+        appender.setMaxRetries(0);
+        appender.setRequestTimeoutMs(2000);
+
+        appLogger = context.getLogger("com.example.orders.OrderService");
+        appLogger.setAdditive(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        appLogger.detachAppender(appender);
+        appLogger.setAdditive(true);
+        context.getLogger(Logger.ROOT_LOGGER_NAME).detachAppender(appender);
+        appender.stop();
+        server.stop(0);
+        MDC.clear();
+    }
+
+    @Test
+    void event_isShippedWithTraceIdFromMdcAndMappedSeverity() {
+        start(1, 50);
+
+        MDC.put("traceId", "trace-1");
+        appLogger.warn("Payment {} retried", 42);
+        appender.stop();
+
+        assertEquals(1, received.size());
+        Map<String, Object> event = received.get(0);
+        assertEquals("order-service", event.get("serviceName"));
+        assertEquals("WARN", event.get("severity"));
+        assertEquals("Payment 42 retried", event.get("message"));
+        assertEquals("trace-1", event.get("traceId"));
+        assertEquals("com.example.orders.OrderService", ((Map<?, ?>) event.get("metadata")).get("logger"));
+    }
+
+    @Test
+    void customTraceIdKey_isReadFromMdc() {
+        appender.setTraceIdKey("X-B3-TraceId");
+        start(1, 50);
+
+        MDC.put("X-B3-TraceId", "b3-trace");
+        appLogger.info("Order placed");
+        appender.stop();
+
+        assertEquals("b3-trace", received.get(0).get("traceId"));
+    }
+
+    @Test
+    void clientLoggersAndFlusherThread_areNeverShipped() throws Exception {
+        start(1, 50);
+        Logger clientLogger = context.getLogger("com.logging.common.client.LogClient");
+        clientLogger.setAdditive(false);
+        clientLogger.addAppender(appender);
+        try {
+            clientLogger.error("Log client flush failed");
+            Thread flusherNamed = new Thread(() -> appLogger.info("from flusher"), LogClient.FLUSHER_THREAD_NAME);
+            flusherNamed.start();
+            flusherNamed.join();
+            appLogger.info("application event");
+            appender.stop();
+        } finally {
+            clientLogger.detachAppender(appender);
+            clientLogger.setAdditive(true);
+        }
+
+        assertEquals(List.of("application event"), messages());
+    }
+
+    @Test
+    void deliveryFailureLoggedByTransport_doesNotReenterClient() throws Exception {
+        // The transport logs the rejected batch through the same logback context
+        firstStatus = 400;
+        start(1, 50);
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(appender);
+
+        appLogger.info("rejected");
+        appLogger.info("accepted");
+        awaitRequests(2);
+        appender.stop();
+
+        assertEquals(List.of("rejected", "accepted"), messages());
+    }
+
+    @Test
+    void fullBuffer_dropsNewestAndCountsDrops() {
+        appender.setBufferCapacity(2);
+        start(100, 60_000);
+
+        for (int i = 0; i < 5; i++) {
+            appLogger.info("event " + i);
+        }
+
+        assertEquals(3, appender.getDroppedCount());
+        appender.stop();
+        assertEquals(List.of("event 0", "event 1"), messages());
+    }
+
+    @Test
+    void missingServiceName_doesNotStart() {
+        appender.setServiceName(null);
+
+        appender.start();
+
+        assertFalse(appender.isStarted());
+    }
+
+    private void start(int batchSize, long flushIntervalMs) {
+        appender.setBatchSize(batchSize);
+        appender.setFlushIntervalMs(flushIntervalMs);
+        appender.start();
+        appLogger.addAppender(appender);
+    }
+
+    private List<Object> messages() {
+        return received.stream().map(event -> event.get("message")).toList();
+    }
+
+    private void awaitRequests(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (requests.get() < count) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("expected " + count + " requests, got " + requests.get());
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -3,24 +3,27 @@ import { LogFilters } from './components/LogFilters';
 import { LogTable } from './components/LogTable';
 import { LiveLogs } from './components/LiveLogs';
 import { MetricsPanel } from './components/MetricsPanel';
-import { fetchLogs } from './api/logs';
-import type { Log, LogFilters as LogFiltersType, PagedResponse } from './types/log';
+import { fetchLogsByCursor } from './api/logs';
+import type { CursorPage, Log, LogFilters as LogFiltersType } from './types/log';
 
 type Tab = 'search' | 'live';
 
 function App() {
   const [activeTab, setActiveTab] = useState<Tab>('search');
   const [filters, setFilters] = useState<LogFiltersType>({ size: 20 });
-  const [logs, setLogs] = useState<PagedResponse<Log> | null>(null);
+  const [logs, setLogs] = useState<CursorPage<Log> | null>(null);
+  // Cursor of every page visited so far; the last one is the page shown
+  const [cursors, setCursors] = useState<string[]>([]);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState<string | null>(null);
 
-  const handleSearch = useCallback(async () => {
+  const loadPage = useCallback(async (pageCursors: string[]) => {
     setLoading(true);
     setError(null);
     try {
-      const data = await fetchLogs(filters);
+      const data = await fetchLogsByCursor(filters, pageCursors[pageCursors.length - 1], 'estimate');
       setLogs(data);
+      setCursors(pageCursors);
     } catch (e) {
       setError(e instanceof Error ? e.message : 'Failed to fetch logs');
     } finally {
@@ -28,19 +31,19 @@ function App() {
     }
   }, [filters]);
 
-  const handlePageChange = useCallback(async (page: number) => {
-    setFilters((prev) => ({ ...prev, page }));
-    setLoading(true);
-    setError(null);
-    try {
-      const data = await fetchLogs({ ...filters, page });
-      setLogs(data);
-    } catch (e) {
-      setError(e instanceof Error ? e.message : 'Failed to fetch logs');
-    } finally {
-      setLoading(false);
+  const handleSearch = useCallback(() => loadPage(['']), [loadPage]);
+
+  const handleNext = useCallback(() => {
+    if (logs?.nextCursor) {
+      loadPage([...cursors, logs.nextCursor]);
     }
-  }, [filters]);
+  }, [logs, cursors, loadPage]);
+
+  const handlePrevious = useCallback(() => {
+    if (cursors.length > 1) {
+      loadPage(cursors.slice(0, -1));
+    }
+  }, [cursors, loadPage]);
 
   return (
     <div className="min-h-screen bg-gray-100">
@@ -101,8 +104,10 @@ function App() {
 
             <LogTable
               data={logs}
+              page={cursors.length - 1}
               loading={loading}
-              onPageChange={handlePageChange}
+              onPrevious={handlePrevious}
+              onNext={handleNext}
             />
           </div>
         ) : (
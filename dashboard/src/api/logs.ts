@@ -1,16 +1,19 @@
-import type { Log, LogFilters, PagedResponse, ServiceLogCount, SeverityCount } from '../types/log';
+import type { CursorPage, Log, LogFilters, ServiceLogCount, SeverityCount } from '../types/log';
 
 const API_BASE = 'http://localhost:8083/api/v1';
 
-export async function fetchLogs(filters: LogFilters = {}): Promise<PagedResponse<Log>> {
-  const params = new URLSearchParams();
+export async function fetchLogsByCursor(
+  filters: LogFilters = {},
+  cursor = '',
+  total: 'none' | 'exact' | 'estimate' = 'none'
+): Promise<CursorPage<Log>> {
+  const params = new URLSearchParams({ cursor, total });
 
   if (filters.serviceName) params.append('serviceName', filters.serviceName);
   if (filters.severity) params.append('severity', filters.severity);
   if (filters.traceId) params.append('traceId', filters.traceId);
   if (filters.startTime) params.append('startTime', filters.startTime);
   if (filters.endTime) params.append('endTime', filters.endTime);
-  if (filters.page !== undefined) params.append('page', String(filters.page));
   if (filters.size !== undefined) params.append('size', String(filters.size));
 
   const response = await fetch(`${API_BASE}/logs?${params.toString()}`);
@@ -20,6 +23,17 @@ export async function fetchLogs(filters: LogFilters = {}): Promise<PagedResponse
   return response.json();
 }
 
+export async function fetchRecentLogs(serviceName?: string, limit = 100): Promise<Log[]> {
+  const params = new URLSearchParams({ limit: String(limit) });
+  if (serviceName) params.append('serviceName', serviceName);
+
+  const response = await fetch(`${API_BASE}/logs/recent?${params.toString()}`);
+  if (!response.ok) {
+    throw new Error(`Failed to fetch recent logs: ${response.statusText}`);
+  }
+  return response.json();
+}
+
 export async function fetchLogById(id: string): Promise<Log> {
   const response = await fetch(`${API_BASE}/logs/${id}`);
   if (!response.ok) {
@@ -1,4 +1,10 @@
+import { useMemo, useState } from 'react';
+import { useDebouncedValue } from '../hooks/useDebouncedValue';
 import { useLogStream } from '../hooks/useLogStream';
+import type { LogSubscription, Severity } from '../types/log';
+
+const SEVERITIES: Severity[] = ['INFO', 'WARN', 'ERROR'];
+const FILTER_DEBOUNCE_MS = 300;
 
 function formatTimestamp(ts: string): string {
   return new Date(ts).toLocaleTimeString();
@@ -19,7 +25,23 @@ function SeverityBadge({ severity }: { severity: string }) {
 }
 
 export function LiveLogs() {
-  const { logs, isConnected, error, clearLogs } = useLogStream();
+  const [serviceName, setServiceName] = useState('');
+  const [severity, setSeverity] = useState<Severity | ''>('');
+  const [text, setText] = useState('');
+
+  // Filtered on the server, so only matching logs are sent
+  const subscription = useMemo<LogSubscription | undefined>(() => {
+    if (!serviceName && !severity && !text) return undefined;
+    return {
+      services: serviceName ? [serviceName] : undefined,
+      severities: severity ? [severity] : undefined,
+      messageContains: text || undefined,
+    };
+  }, [serviceName, severity, text]);
+
+  // Resubscribe and refetch the seed once typing pauses, not on every keystroke
+  const debouncedSubscription = useDebouncedValue(subscription, FILTER_DEBOUNCE_MS);
+  const { logs, isConnected, error, clearLogs } = useLogStream(debouncedSubscription);
 
   return (
     <div className="bg-gray-900 rounded-lg shadow overflow-hidden">
@@ -39,6 +61,33 @@ export function LiveLogs() {
         </button>
       </div>
 
+      <div className="bg-gray-800 px-4 pb-3 flex gap-2">
+        <input
+          type="text"
+          value={serviceName}
+          onChange={(e) => setServiceName(e.target.value.trim())}
+          placeholder="Service"
+          className="px-2 py-1 rounded bg-gray-700 text-gray-200 text-sm placeholder-gray-500 focus:outline-none focus:ring-1 focus:ring-blue-500"
+        />
+        <select
+          value={severity}
+          onChange={(e) => setSeverity(e.target.value as Severity | '')}
+          className="px-2 py-1 rounded bg-gray-700 text-gray-200 text-sm focus:outline-none focus:ring-1 focus:ring-blue-500"
+        >
+          <option value="">All severities</option>
+          {SEVERITIES.map((s) => (
+            <option key={s} value={s}>{s}</option>
+          ))}
+        </select>
+        <input
+          type="text"
+          value={text}
+          onChange={(e) => setText(e.target.value)}
+          placeholder="Message contains"
+          className="flex-1 px-2 py-1 rounded bg-gray-700 text-gray-200 text-sm placeholder-gray-500 focus:outline-none focus:ring-1 focus:ring-blue-500"
+        />
+      </div>
+
       {error && (
         <div className="bg-red-900 text-red-200 px-4 py-2 text-sm">
           {error}
@@ -1,9 +1,11 @@
-import type { Log, PagedResponse } from '../types/log';
+import type { CursorPage, Log } from '../types/log';
 
 interface Props {
-  data: PagedResponse<Log> | null;
+  data: CursorPage<Log> | null;
+  page: number;
   loading: boolean;
-  onPageChange: (page: number) => void;
+  onPrevious: () => void;
+  onNext: () => void;
 }
 
 function formatTimestamp(ts: string): string {
@@ -24,7 +26,7 @@ function SeverityBadge({ severity }: { severity: string }) {
   );
 }
 
-export function LogTable({ data, loading, onPageChange }: Props) {
+export function LogTable({ data, page, loading, onPrevious, onNext }: Props) {
   if (loading) {
     return (
       <div className="bg-white rounded-lg shadow p-8 text-center">
@@ -82,19 +84,21 @@ export function LogTable({ data, loading, onPageChange }: Props) {
       {/* Pagination */}
       <div className="bg-gray-50 px-4 py-3 flex items-center justify-between border-t border-gray-200">
         <div className="text-sm text-gray-700">
-          Showing page {data.page + 1} of {data.totalPages} ({data.totalElements} total logs)
+          Showing page {page + 1}
+          {data.totalElements !== null &&
+            ` (${data.totalEstimated ? 'about ' : ''}${data.totalElements} total logs)`}
         </div>
         <div className="flex gap-2">
           <button
-            onClick={() => onPageChange(data.page - 1)}
-            disabled={data.first}
+            onClick={onPrevious}
+            disabled={page === 0}
             className="px-3 py-1 border rounded text-sm disabled:opacity-50 disabled:cursor-not-allowed hover:bg-gray-100"
           >
             Previous
           </button>
           <button
-            onClick={() => onPageChange(data.page + 1)}
-            disabled={data.last}
+            onClick={onNext}
+            disabled={!data.hasMore}
             className="px-3 py-1 border rounded text-sm disabled:opacity-50 disabled:cursor-not-allowed hover:bg-gray-100"
           >
             Next
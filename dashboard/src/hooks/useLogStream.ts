@@ -1,5 +1,6 @@
 import { useEffect, useRef, useState, useCallback } from 'react';
-import type { Log } from '../types/log';
+import { fetchRecentLogs } from '../api/logs';
+import type { Log, LogSubscription } from '../types/log';
 
 const WS_URL = 'ws://localhost:8083/ws/logs';
 const MAX_LOGS = 100;
@@ -11,12 +12,41 @@ interface UseLogStreamResult {
   clearLogs: () => void;
 }
 
-export function useLogStream(): UseLogStreamResult {
+/**
+ * Whether a log passes the subscription, as the server decides for streamed
+ * logs; used for the rows seeded from the recent-logs cache.
+ */
+function matchesSubscription(log: Log, subscription?: LogSubscription): boolean {
+  if (!subscription) return true;
+  const { services, severities, traceId, messageContains, messageRegex } = subscription;
+  if (services?.length && !services.includes(log.serviceName)) return false;
+  if (severities?.length && !severities.includes(log.severity)) return false;
+  if (traceId && log.traceId !== traceId) return false;
+  if (messageContains && !log.message.includes(messageContains)) return false;
+  if (messageRegex) {
+    try {
+      if (!new RegExp(messageRegex).test(log.message)) return false;
+    } catch {
+      return false;
+    }
+  }
+  return true;
+}
+
+// Seed the view with the latest logs from the recent-logs cache that pass the subscription
+function fetchSeed(subscription?: LogSubscription): Promise<Log[]> {
+  const services = subscription?.services;
+  return fetchRecentLogs(services?.length === 1 ? services[0] : undefined, MAX_LOGS)
+    .then((recent) => recent.filter((log) => matchesSubscription(log, subscription)));
+}
+
+export function useLogStream(subscription?: LogSubscription): UseLogStreamResult {
   const [logs, setLogs] = useState<Log[]>([]);
   const [isConnected, setIsConnected] = useState(false);
   const [error, setError] = useState<string | null>(null);
   const wsRef = useRef<WebSocket | null>(null);
   const reconnectTimeoutRef = useRef<number | null>(null);
+  const subscriptionRef = useRef<LogSubscription | undefined>(subscription);
 
   const connect = useCallback(() => {
     if (wsRef.current?.readyState === WebSocket.OPEN) {
@@ -28,12 +58,27 @@ export function useLogStream(): UseLogStreamResult {
     ws.onopen = () => {
       setIsConnected(true);
       setError(null);
+      // Let the server filter the stream instead of discarding logs here
+      if (subscriptionRef.current) {
+        ws.send(JSON.stringify({ type: 'subscribe', ...subscriptionRef.current }));
+      }
+      fetchSeed(subscriptionRef.current)
+        .then((recent) => {
+          setLogs((prev) => (prev.length > 0 ? prev : recent));
+        })
+        .catch((e) => console.error('Failed to fetch recent logs:', e));
     };
 
     ws.onmessage = (event) => {
       try {
-        const log: Log = JSON.parse(event.data);
-        setLogs((prev) => [log, ...prev].slice(0, MAX_LOGS));
+        // Coalesced frames carry several logs as an array, oldest first
+        const parsed: Log | Log[] = JSON.parse(event.data);
+        if (!Array.isArray(parsed) && 'type' in parsed) {
+          setError(`Subscription rejected: ${(parsed as { message?: string }).message ?? 'unknown error'}`);
+          return;
+        }
+        const incoming = Array.isArray(parsed) ? [...parsed].reverse() : [parsed];
+        setLogs((prev) => [...incoming, ...prev].slice(0, MAX_LOGS));
       } catch (e) {
         console.error('Failed to parse log:', e);
       }
@@ -66,6 +111,23 @@ export function useLogStream(): UseLogStreamResult {
     };
   }, [connect]);
 
+  const subscriptionKey = JSON.stringify(subscription ?? null);
+  useEffect(() => {
+    subscriptionRef.current = subscription;
+    const ws = wsRef.current;
+    if (ws?.readyState === WebSocket.OPEN) {
+      ws.send(JSON.stringify(subscription ? { type: 'subscribe', ...subscription } : { type: 'unsubscribe' }));
+      // Rows shown so far were chosen by the previous subscription
+      fetchSeed(subscription)
+        .then((recent) => {
+          if (subscriptionRef.current === subscription) setLogs(recent);
+        })
+        .catch((e) => console.error('Failed to fetch recent logs:', e));
+    }
+    // subscriptionKey captures the subscription contents
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [subscriptionKey]);
+
   const clearLogs = useCallback(() => {
     setLogs([]);
   }, []);
@@ -12,14 +12,13 @@ export interface Log {
   createdAt?: string;
 }
 
-export interface PagedResponse<T> {
+export interface CursorPage<T> {
   content: T[];
-  page: number;
   size: number;
-  totalElements: number;
-  totalPages: number;
-  first: boolean;
-  last: boolean;
+  nextCursor: string | null;
+  hasMore: boolean;
+  totalElements: number | null;
+  totalEstimated: boolean;
 }
 
 export interface SeverityCount {
@@ -38,6 +37,13 @@ export interface LogFilters {
   traceId?: string;
   startTime?: string;
   endTime?: string;
-  page?: number;
   size?: number;
 }
+
+export interface LogSubscription {
+  services?: string[];
+  severities?: Severity[];
+  traceId?: string;
+  messageContains?: string;
+  messageRegex?: string;
+}
@@ -0,0 +1,50 @@
+package com.logging.ingestion.controller;
+
+import com.logging.ingestion.raw.InvalidLogEventException;
+import com.logging.ingestion.wal.EventTooLargeException;
+import com.logging.ingestion.wal.WalFullException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Error responses of the ingestion endpoints, the same in parsed and raw mode.
+ */
+@RestControllerAdvice(assignableTypes = {LogIngestionController.class, RawLogIngestionController.class})
+public class IngestionExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionExceptionHandler.class);
+
+    @ExceptionHandler(InvalidLogEventException.class)
+    public ResponseEntity<Map<String, String>> handleInvalid(InvalidLogEventException e) {
+        return ResponseEntity.badRequest()
+                .body(Map.of(
+                        "status", "invalid",
+                        "message", e.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(EventTooLargeException.class)
+    public ResponseEntity<Map<String, String>> handleTooLarge(EventTooLargeException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(Map.of(
+                        "status", "too_large",
+                        "message", e.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(WalFullException.class)
+    public ResponseEntity<Map<String, String>> handleWalFull(WalFullException e) {
+        log.warn("Rejecting logs: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of(
+                        "status", "unavailable",
+                        "message", "Ingestion backlog is full, retry later"
+                ));
+    }
+}
@@ -0,0 +1,92 @@
+package com.logging.ingestion.controller;
+
+import com.logging.ingestion.dto.NdjsonIngestResult;
+import com.logging.ingestion.service.IdempotencyService;
+import com.logging.ingestion.service.NdjsonIngestionService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Request handling shared by {@link LogIngestionController} and
+ * {@link RawLogIngestionController}, so both ingestion modes treat
+ * idempotency keys and uploads the same way.
+ */
+@Component
+public class IngestionRequestHandler {
+
+    private final IdempotencyService idempotencyService;
+    private final NdjsonIngestionService ndjsonIngestionService;
+
+    public IngestionRequestHandler(
+            IdempotencyService idempotencyService,
+            NdjsonIngestionService ndjsonIngestionService) {
+        this.idempotencyService = idempotencyService;
+        this.ndjsonIngestionService = ndjsonIngestionService;
+    }
+
+    /**
+     * Forward already validated events under the request's idempotency key.
+     * A duplicate key gets 409; if forwarding fails for any reason the key is
+     * released so the client's retry is not taken for a duplicate. A failure
+     * part way through a batch may already have sent some of its events; a
+     * retry sends those again, which is preferred over losing the rest.
+     */
+    public ResponseEntity<Map<String, Object>> accept(String idempotencyKey, Runnable forward,
+                                                      Map<String, Object> accepted) {
+        if (!idempotencyService.tryAcquire(idempotencyKey)) {
+            return duplicate();
+        }
+
+        try {
+            forward.run();
+        } catch (RuntimeException e) {
+            idempotencyService.release(idempotencyKey);
+            throw e;
+        }
+
+        return ResponseEntity.ok(accepted);
+    }
+
+    /**
+     * Newline-delimited JSON upload, one event per line. Invalid lines are
+     * rejected individually; the rest are accepted. If the backlog fills up
+     * mid-upload the response is 503 and {@code lastLine} tells the client
+     * where to resume: resend with the same idempotency key and
+     * {@code X-Resume-After-Line: <lastLine>}. The key is only kept once an
+     * upload completes; the lines accepted by an incomplete one carry keys of
+     * their own, so resending it whole does not duplicate them either.
+     */
+    public ResponseEntity<?> ingestNdjson(InputStream body, String idempotencyKey, long resumeAfterLine)
+            throws IOException {
+        if (!idempotencyService.tryAcquire(idempotencyKey)) {
+            return duplicate();
+        }
+
+        boolean complete = false;
+        try {
+            NdjsonIngestResult result = ndjsonIngestionService.ingest(body, idempotencyKey, resumeAfterLine);
+            complete = result.complete();
+            return complete
+                    ? ResponseEntity.ok(result)
+                    : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result);
+        } finally {
+            // Includes a client that disconnected mid-upload
+            if (!complete) {
+                idempotencyService.release(idempotencyKey);
+            }
+        }
+    }
+
+    private static ResponseEntity<Map<String, Object>> duplicate() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of(
+                        "status", "duplicate",
+                        "message", "Request with this idempotency key was already processed"
+                ));
+    }
+}
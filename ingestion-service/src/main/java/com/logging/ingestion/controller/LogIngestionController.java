@@ -1,12 +1,11 @@
 package com.logging.ingestion.controller;
 
 import com.logging.common.dto.LogEvent;
-import com.logging.ingestion.kafka.LogProducer;
-import com.logging.ingestion.service.IdempotencyService;
+import com.logging.ingestion.service.LogForwarder;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -14,43 +13,40 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/logs")
+@ConditionalOnProperty(name = "app.ingestion.mode", havingValue = "parsed", matchIfMissing = true)
 public class LogIngestionController {
 
     private static final Logger log = LoggerFactory.getLogger(LogIngestionController.class);
+    private static final String NDJSON = "application/x-ndjson";
 
-    private final LogProducer logProducer;
-    private final IdempotencyService idempotencyService;
+    private final LogForwarder logForwarder;
+    private final IngestionRequestHandler requestHandler;
 
-    public LogIngestionController(LogProducer logProducer, IdempotencyService idempotencyService) {
-        this.logProducer = logProducer;
-        this.idempotencyService = idempotencyService;
+    public LogIngestionController(
+            LogForwarder logForwarder,
+            IngestionRequestHandler requestHandler) {
+        this.logForwarder = logForwarder;
+        this.requestHandler = requestHandler;
     }
 
     @PostMapping
-    public ResponseEntity<Map<String, String>> ingestLog(
+    public ResponseEntity<Map<String, Object>> ingestLog(
             @Valid @RequestBody LogEvent logEvent,
             @RequestHeader(value = "X-Idempotency-Key", required = false) String idempotencyKey) {
 
         log.debug("Received log: service={}, severity={}, traceId={}, idempotencyKey={}",
                 logEvent.serviceName(), logEvent.severity(), logEvent.traceId(), idempotencyKey);
 
-        // Check idempotency - reject duplicates
-        if (!idempotencyService.tryAcquire(idempotencyKey)) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of(
-                            "status", "duplicate",
-                            "message", "Request with this idempotency key was already processed"
-                    ));
-        }
-
-        logProducer.send(logEvent, idempotencyKey);
-
-        return ResponseEntity.ok(Map.of("status", "accepted"));
+        return requestHandler.accept(idempotencyKey,
+                () -> logForwarder.forward(logEvent, idempotencyKey),
+                Map.of("status", "accepted"));
     }
 
     @PostMapping("/batch")
@@ -60,20 +56,26 @@ public class LogIngestionController {
 
         log.debug("Received batch of {} logs, idempotencyKey={}", logEvents.size(), idempotencyKey);
 
-        // Check idempotency for batch request
-        if (!idempotencyService.tryAcquire(idempotencyKey)) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of(
-                            "status", "duplicate",
-                            "message", "Request with this idempotency key was already processed"
-                    ));
-        }
+        return requestHandler.accept(idempotencyKey,
+                () -> logForwarder.forwardAll(logEvents),
+                Map.of(
+                        "status", "accepted",
+                        "count", logEvents.size()
+                ));
+    }
+
+    /**
+     * See {@link IngestionRequestHandler#ingestNdjson}.
+     */
+    @PostMapping(value = "/batch", consumes = NDJSON)
+    public ResponseEntity<?> ingestNdjson(
+            InputStream body,
+            @RequestHeader(value = "X-Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = "X-Resume-After-Line", defaultValue = "0") long resumeAfterLine)
+            throws IOException {
 
-        logEvents.forEach(event -> logProducer.send(event, null));
+        log.debug("Received NDJSON batch, idempotencyKey={}, resumeAfterLine={}", idempotencyKey, resumeAfterLine);
 
-        return ResponseEntity.ok(Map.of(
-                "status", "accepted",
-                "count", logEvents.size()
-        ));
+        return requestHandler.ingestNdjson(body, idempotencyKey, resumeAfterLine);
     }
 }
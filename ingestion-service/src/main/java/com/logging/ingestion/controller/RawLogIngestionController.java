@@ -0,0 +1,92 @@
+package com.logging.ingestion.controller;
+
+import com.logging.ingestion.raw.RawLogEvent;
+import com.logging.ingestion.raw.RawLogEventParser;
+import com.logging.ingestion.service.LogForwarder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Same endpoints as {@link LogIngestionController} for
+ * {@code app.ingestion.mode=raw}: request bodies are validated on the JSON
+ * token stream and forwarded to Kafka as received, without binding them to
+ * {@code LogEvent} and serializing them again.
+ */
+@RestController
+@RequestMapping("/api/v1/logs")
+@ConditionalOnProperty(name = "app.ingestion.mode", havingValue = "raw")
+public class RawLogIngestionController {
+
+    private static final Logger log = LoggerFactory.getLogger(RawLogIngestionController.class);
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final LogForwarder logForwarder;
+    private final RawLogEventParser parser;
+    private final IngestionRequestHandler requestHandler;
+
+    public RawLogIngestionController(
+            LogForwarder logForwarder,
+            RawLogEventParser parser,
+            IngestionRequestHandler requestHandler) {
+        this.logForwarder = logForwarder;
+        this.parser = parser;
+        this.requestHandler = requestHandler;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> ingestLog(
+            @RequestBody byte[] body,
+            @RequestHeader(value = "X-Idempotency-Key", required = false) String idempotencyKey) {
+
+        RawLogEvent event = parser.parse(body);
+        log.debug("Received raw log: key={}, bytes={}, idempotencyKey={}", event.key(), body.length, idempotencyKey);
+
+        return requestHandler.accept(idempotencyKey,
+                () -> logForwarder.forwardRaw(event, idempotencyKey),
+                Map.of("status", "accepted"));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> ingestBatch(
+            @RequestBody byte[] body,
+            @RequestHeader(value = "X-Idempotency-Key", required = false) String idempotencyKey) {
+
+        List<RawLogEvent> events = parser.parseBatch(body);
+        log.debug("Received raw batch of {} logs, idempotencyKey={}", events.size(), idempotencyKey);
+
+        return requestHandler.accept(idempotencyKey,
+                () -> logForwarder.forwardAllRaw(events),
+                Map.of(
+                        "status", "accepted",
+                        "count", events.size()
+                ));
+    }
+
+    /**
+     * See {@link IngestionRequestHandler#ingestNdjson}.
+     */
+    @PostMapping(value = "/batch", consumes = NDJSON)
+    public ResponseEntity<?> ingestNdjson(
+            InputStream body,
+            @RequestHeader(value = "X-Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = "X-Resume-After-Line", defaultValue = "0") long resumeAfterLine)
+            throws IOException {
+
+        log.debug("Received raw NDJSON batch, idempotencyKey={}, resumeAfterLine={}", idempotencyKey, resumeAfterLine);
+
+        return requestHandler.ingestNdjson(body, idempotencyKey, resumeAfterLine);
+    }
+}
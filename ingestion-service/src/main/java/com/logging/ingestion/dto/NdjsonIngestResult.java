@@ -0,0 +1,21 @@
+package com.logging.ingestion.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of an NDJSON upload.
+ *
+ * @param rejectedLines first rejected lines with the reason; capped, see {@code rejectedLinesTruncated}
+ * @param lastLine      last line read; with {@code complete} false, lines after it were not accepted
+ *                      and can be sent again with {@code X-Resume-After-Line: <lastLine>}
+ * @param complete      false if ingestion stopped early because the backlog was full
+ */
+public record NdjsonIngestResult(
+        long accepted,
+        long rejected,
+        List<RejectedLine> rejectedLines,
+        boolean rejectedLinesTruncated,
+        long lastLine,
+        boolean complete
+) {
+}
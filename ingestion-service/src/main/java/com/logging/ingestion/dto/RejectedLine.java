@@ -0,0 +1,4 @@
+package com.logging.ingestion.dto;
+
+public record RejectedLine(long line, String error) {
+}
@@ -1,59 +1,97 @@
 package com.logging.ingestion.kafka;
 
 import com.logging.common.dto.LogEvent;
+import com.logging.common.kafka.LogRecords;
+import jakarta.annotation.PreDestroy;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 @Service
 public class LogProducer {
 
     private static final Logger log = LoggerFactory.getLogger(LogProducer.class);
-    private static final String IDEMPOTENCY_KEY_HEADER = "X-Idempotency-Key";
 
     private final KafkaTemplate<String, LogEvent> kafkaTemplate;
+    private final DefaultKafkaProducerFactory<String, byte[]> rawProducerFactory;
+    private final KafkaTemplate<String, byte[]> rawKafkaTemplate;
     private final String topic;
 
     public LogProducer(
             KafkaTemplate<String, LogEvent> kafkaTemplate,
+            KafkaProperties kafkaProperties,
             @Value("${app.kafka.topic}") String topic) {
         this.kafkaTemplate = kafkaTemplate;
+        // Producer is only created on the first raw send
+        this.rawProducerFactory = new DefaultKafkaProducerFactory<>(
+                kafkaProperties.buildProducerProperties(null), new StringSerializer(), new ByteArraySerializer());
+        this.rawKafkaTemplate = new KafkaTemplate<>(rawProducerFactory);
         this.topic = topic;
     }
 
-    public CompletableFuture<SendResult<String, LogEvent>> send(LogEvent logEvent, String idempotencyKey) {
-        String key = logEvent.traceId() != null ? logEvent.traceId() : logEvent.serviceName();
+    @PreDestroy
+    public void close() {
+        rawProducerFactory.destroy();
+    }
+
+    public CompletableFuture<SendResult<String, LogEvent>> send(LogEvent logEvent, String idempotencyKey,
+                                                                UUID eventId) {
+        String key = LogRecords.key(logEvent);
 
         log.debug("Sending log to Kafka: topic={}, key={}, service={}, idempotencyKey={}",
                 topic, key, logEvent.serviceName(), idempotencyKey);
 
         ProducerRecord<String, LogEvent> record = new ProducerRecord<>(topic, key, logEvent);
+        addHeaders(record, idempotencyKey, eventId);
+
+        return kafkaTemplate.send(record).whenComplete(this::logResult);
+    }
+
+    /**
+     * Send an already-serialized event as-is, without the type header the
+     * JSON serializer would add.
+     */
+    public CompletableFuture<SendResult<String, byte[]>> sendRaw(String key, byte[] value, String idempotencyKey,
+                                                                 UUID eventId) {
+        log.debug("Sending raw log to Kafka: topic={}, key={}, bytes={}, idempotencyKey={}",
+                topic, key, value.length, idempotencyKey);
 
-        // Add idempotency key as header if present
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, key, value);
+        addHeaders(record, idempotencyKey, eventId);
+
+        return rawKafkaTemplate.send(record).whenComplete(this::logResult);
+    }
+
+    private void addHeaders(ProducerRecord<String, ?> record, String idempotencyKey, UUID eventId) {
         if (idempotencyKey != null && !idempotencyKey.isBlank()) {
             record.headers().add(new RecordHeader(
-                    IDEMPOTENCY_KEY_HEADER,
+                    LogRecords.IDEMPOTENCY_KEY_HEADER,
                     idempotencyKey.getBytes(StandardCharsets.UTF_8)
             ));
         }
+        record.headers().add(new RecordHeader(LogRecords.EVENT_ID_HEADER, LogRecords.encodeEventId(eventId)));
+    }
 
-        return kafkaTemplate.send(record)
-                .whenComplete((result, ex) -> {
-                    if (ex != null) {
-                        log.error("Failed to send log to Kafka: {}", ex.getMessage());
-                    } else {
-                        log.debug("Log sent to Kafka: partition={}, offset={}",
-                                result.getRecordMetadata().partition(),
-                                result.getRecordMetadata().offset());
-                    }
-                });
+    private void logResult(SendResult<String, ?> result, Throwable ex) {
+        if (ex != null) {
+            log.error("Failed to send log to Kafka: {}", ex.getMessage());
+        } else {
+            log.debug("Log sent to Kafka: partition={}, offset={}",
+                    result.getRecordMetadata().partition(),
+                    result.getRecordMetadata().offset());
+        }
     }
 }
@@ -0,0 +1,8 @@
+package com.logging.ingestion.raw;
+
+public class InvalidLogEventException extends RuntimeException {
+
+    public InvalidLogEventException(String message) {
+        super(message);
+    }
+}
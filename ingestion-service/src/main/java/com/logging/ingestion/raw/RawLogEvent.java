@@ -0,0 +1,8 @@
+package com.logging.ingestion.raw;
+
+/**
+ * A validated event kept as the JSON bytes the client sent, plus the Kafka
+ * record key extracted while validating.
+ */
+public record RawLogEvent(String key, byte[] value) {
+}
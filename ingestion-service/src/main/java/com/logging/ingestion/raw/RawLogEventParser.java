@@ -0,0 +1,246 @@
+package com.logging.ingestion.raw;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logging.common.dto.LogEvent.Severity;
+import com.logging.common.kafka.LogRecords;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Validates log events on the JSON token stream without binding them to
+ * {@code LogEvent}, keeping the original bytes for Kafka. Enforces the same
+ * rules as the {@code LogEvent} constraints plus the field types the
+ * monitoring consumer needs to deserialize the record. Unknown fields are
+ * forwarded with the rest and ignored when {@code LogEvent} is read, as in
+ * parsed mode. An event without a timestamp gets one inserted as its first
+ * field; otherwise the bytes are forwarded untouched.
+ */
+@Component
+public class RawLogEventParser {
+
+    private final JsonFactory jsonFactory;
+
+    public RawLogEventParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Parse a single JSON object occupying {@code data[offset, offset + length)},
+     * surrounded by optional whitespace.
+     */
+    public RawLogEvent parse(byte[] data, int offset, int length) {
+        try (JsonParser parser = jsonFactory.createParser(data, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new InvalidLogEventException("expected a JSON object");
+            }
+            Fields fields = readFields(parser);
+            if (parser.nextToken() != null) {
+                throw new InvalidLogEventException("unexpected content after the event");
+            }
+
+            int start = skipWhitespace(data, offset, offset + length);
+            int end = trimWhitespace(data, start, offset + length);
+            return fields.toEvent(data, start, end);
+        } catch (JsonProcessingException e) {
+            throw new InvalidLogEventException("invalid JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public RawLogEvent parse(byte[] data) {
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Parse a JSON array of events. Fails on the first invalid element, so a
+     * batch is accepted whole or not at all.
+     */
+    public List<RawLogEvent> parseBatch(byte[] data) {
+        try (JsonParser parser = jsonFactory.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidLogEventException("expected a JSON array");
+            }
+            // Parser offsets are translated through the known position of '['
+            // rather than assumed to be absolute
+            long base = skipWhitespace(data, 0, data.length) - parser.currentTokenLocation().getByteOffset();
+
+            List<RawLogEvent> events = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new InvalidLogEventException("element " + events.size() + ": expected a JSON object");
+                }
+                int start = (int) (base + parser.currentTokenLocation().getByteOffset());
+                Fields fields;
+                try {
+                    fields = readFields(parser);
+                } catch (InvalidLogEventException e) {
+                    throw new InvalidLogEventException("element " + events.size() + ": " + e.getMessage());
+                }
+                int end = (int) (base + parser.currentLocation().getByteOffset());
+                events.add(fields.toEvent(data, start, end));
+            }
+            if (parser.nextToken() != null) {
+                throw new InvalidLogEventException("unexpected content after the batch");
+            }
+            return events;
+        } catch (JsonProcessingException e) {
+            throw new InvalidLogEventException("invalid JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the fields of the object whose START_OBJECT is the current token,
+     * leaving the parser on its END_OBJECT. Nested values are skipped.
+     */
+    private Fields readFields(JsonParser parser) throws IOException {
+        String serviceName = null;
+        boolean hasSeverity = false;
+        boolean hasMessage = false;
+        boolean hasTimestamp = false;
+        String traceId = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "serviceName" -> serviceName = isNonBlankString(parser, value) ? parser.getText() : null;
+                case "severity" -> hasSeverity = checkSeverity(parser, value);
+                case "message" -> hasMessage = isNonBlankString(parser, value);
+                case "timestamp" -> hasTimestamp = checkTimestamp(parser, value);
+                case "traceId" -> traceId = optionalString(parser, value, field);
+                case "host" -> optionalString(parser, value, field);
+                case "metadata" -> {
+                    if (value != JsonToken.START_OBJECT && value != JsonToken.VALUE_NULL) {
+                        throw new InvalidLogEventException("metadata must be an object");
+                    }
+                    parser.skipChildren();
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (serviceName == null) {
+            throw new InvalidLogEventException("serviceName is required");
+        }
+        if (!hasSeverity) {
+            throw new InvalidLogEventException("severity is required");
+        }
+        if (!hasMessage) {
+            throw new InvalidLogEventException("message is required");
+        }
+        return new Fields(LogRecords.key(traceId, serviceName), hasTimestamp);
+    }
+
+    private static boolean isNonBlankString(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.VALUE_STRING) {
+            return false;
+        }
+        // Checked in place so large messages are never copied into a String
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int end = offset + parser.getTextLength();
+        for (int i = offset; i < end; i++) {
+            if (!Character.isWhitespace(chars[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean checkSeverity(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            String text = parser.getText();
+            for (Severity severity : Severity.values()) {
+                if (severity.name().equals(text)) {
+                    return true;
+                }
+            }
+        }
+        throw new InvalidLogEventException("severity must be one of " + Arrays.toString(Severity.values()));
+    }
+
+    private static boolean checkTimestamp(JsonParser parser, JsonToken value) throws IOException {
+        return switch (value) {
+            case VALUE_NULL -> false;
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> true;
+            case VALUE_STRING -> {
+                try {
+                    Instant.parse(parser.getText());
+                    yield true;
+                } catch (DateTimeParseException e) {
+                    throw new InvalidLogEventException("timestamp must be an ISO-8601 instant");
+                }
+            }
+            default -> throw new InvalidLogEventException("timestamp must be an ISO-8601 instant");
+        };
+    }
+
+    private static String optionalString(JsonParser parser, JsonToken value, String field) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value != JsonToken.VALUE_STRING) {
+            throw new InvalidLogEventException(field + " must be a string");
+        }
+        return parser.getText();
+    }
+
+    private static int skipWhitespace(byte[] data, int from, int to) {
+        while (from < to && isWhitespace(data[from])) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimWhitespace(byte[] data, int from, int to) {
+        while (to > from && isWhitespace(data[to - 1])) {
+            to--;
+        }
+        return to;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private record Fields(String key, boolean hasTimestamp) {
+
+        /**
+         * Event for the object in {@code data[start, end)}. Reuses {@code data}
+         * when the object spans all of it and already has a timestamp.
+         */
+        RawLogEvent toEvent(byte[] data, int start, int end) {
+            if (hasTimestamp) {
+                byte[] value = start == 0 && end == data.length ? data : Arrays.copyOfRange(data, start, end);
+                return new RawLogEvent(key, value);
+            }
+
+            // Same field a LogEvent would have been given at accept time
+            byte[] timestamp = ("\"timestamp\":\"" + Instant.now() + "\",").getBytes(StandardCharsets.US_ASCII);
+            byte[] value = new byte[end - start + timestamp.length];
+            value[0] = '{';
+            System.arraycopy(timestamp, 0, value, 1, timestamp.length);
+            System.arraycopy(data, start + 1, value, 1 + timestamp.length, end - start - 1);
+            return new RawLogEvent(key, value);
+        }
+    }
+}
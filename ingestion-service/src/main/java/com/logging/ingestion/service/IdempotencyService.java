@@ -1,27 +1,92 @@
 package com.logging.ingestion.service;
 
+import com.logging.common.idempotency.IdempotencyStore;
+import com.logging.common.idempotency.RecentKeyCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Idempotency keys are recorded in the {@link IdempotencyStore} (Redis),
+ * which is the only authority on whether a key is new: every instance
+ * behind the load balancer shares it, so a retry that lands on another
+ * instance, or on this one after a restart, is still rejected. Two local
+ * measures keep the Redis cost per request low:
+ * <ul>
+ *   <li>a key in the recent-key LRU was accepted by this instance and is
+ *       rejected without a round-trip;</li>
+ *   <li>keys from concurrent requests are collected for up to
+ *       {@code max-wait-micros} and checked with one pipelined SET NX EX,
+ *       so under load a request waits for a shared round-trip rather than
+ *       its own.</li>
+ * </ul>
+ * A request is only accepted once Redis has recorded its key, unless
+ * Redis cannot be reached: the request is then accepted without its key
+ * being recorded, since a possible duplicate is preferred over refusing
+ * logs while Redis is down.
+ */
 @Service
 public class IdempotencyService {
 
     private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
-    private static final String KEY_PREFIX = "ingestion:idempotency:";
 
-    private final StringRedisTemplate redisTemplate;
-    private final Duration ttl;
+    private final IdempotencyStore store;
+    private final boolean localEnabled;
+    private final RecentKeyCache recentKeys;
+    private final BlockingQueue<PendingKey> pending = new LinkedBlockingQueue<>();
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final long acquireTimeoutMs;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private final AtomicLong localDuplicates = new AtomicLong();
+    private final AtomicLong redisChecks = new AtomicLong();
+    private final AtomicLong redisRoundTrips = new AtomicLong();
+    private final AtomicLong unrecordedAccepts = new AtomicLong();
 
     public IdempotencyService(
-            StringRedisTemplate redisTemplate,
-            @Value("${app.idempotency.ttl-hours:24}") int ttlHours) {
-        this.redisTemplate = redisTemplate;
-        this.ttl = Duration.ofHours(ttlHours);
+            IdempotencyStore store,
+            @Value("${app.idempotency.local.enabled:true}") boolean localEnabled,
+            @Value("${app.idempotency.local.recent-keys:100000}") int recentKeys,
+            @Value("${app.idempotency.local.batch-size:500}") int batchSize,
+            @Value("${app.idempotency.local.max-wait-micros:500}") long maxWaitMicros,
+            @Value("${app.idempotency.local.acquire-timeout-ms:2000}") long acquireTimeoutMs) {
+        this.store = store;
+        this.localEnabled = localEnabled;
+        this.recentKeys = new RecentKeyCache(recentKeys);
+        this.batchSize = batchSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.thread = new Thread(this::run, "idempotency-batcher");
+        this.thread.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (localEnabled) {
+            thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
     }
 
     /**
@@ -35,19 +100,40 @@ public class IdempotencyService {
         if (idempotencyKey == null || idempotencyKey.isBlank()) {
             return true; // No idempotency key means always process
         }
+        if (!localEnabled) {
+            redisRoundTrips.incrementAndGet();
+            try {
+                return record(idempotencyKey, acquireInRedis(idempotencyKey));
+            } catch (RuntimeException e) {
+                log.warn("Failed to check idempotency key in Redis, accepting it unrecorded: {}", e.getMessage());
+                unrecordedAccepts.incrementAndGet();
+                return true;
+            }
+        }
 
-        String key = KEY_PREFIX + idempotencyKey;
-
-        // SETNX with expiration - returns true if key was set (new), false if existed
-        Boolean isNew = redisTemplate.opsForValue().setIfAbsent(key, "1", ttl);
-
-        if (Boolean.TRUE.equals(isNew)) {
-            log.debug("New idempotency key accepted: {}", idempotencyKey);
-            return true;
-        } else {
+        if (recentKeys.contains(idempotencyKey)) {
+            localDuplicates.incrementAndGet();
             log.info("Duplicate idempotency key rejected: {}", idempotencyKey);
             return false;
         }
+
+        PendingKey request = new PendingKey(idempotencyKey, new CompletableFuture<>());
+        pending.add(request);
+        boolean isNew;
+        try {
+            isNew = request.result().get(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking idempotency key", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out checking idempotency key in Redis", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+        if (isNew) {
+            recentKeys.add(idempotencyKey);
+        }
+        return record(idempotencyKey, isNew);
     }
 
     /**
@@ -57,7 +143,111 @@ public class IdempotencyService {
         if (idempotencyKey == null || idempotencyKey.isBlank()) {
             return false;
         }
-        String key = KEY_PREFIX + idempotencyKey;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+        return store.contains(idempotencyKey);
+    }
+
+    /**
+     * Forget a key that was acquired for a request that was then not accepted,
+     * so the client's retry is not rejected as a duplicate.
+     */
+    public void release(String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return;
+        }
+        recentKeys.remove(idempotencyKey);
+        store.remove(idempotencyKey);
+    }
+
+    public long getLocalDuplicates() {
+        return localDuplicates.get();
+    }
+
+    public long getRedisChecks() {
+        return redisChecks.get();
+    }
+
+    public long getRedisRoundTrips() {
+        return redisRoundTrips.get();
+    }
+
+    /**
+     * Keys accepted without being recorded because Redis could not be reached.
+     */
+    public long getUnrecordedAccepts() {
+        return unrecordedAccepts.get();
+    }
+
+    private void run() {
+        List<PendingKey> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingKey first = pending.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < batchSize) {
+                    PendingKey next = pending.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                checkBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+
+        PendingKey left;
+        while ((left = pending.poll()) != null) {
+            left.result().completeExceptionally(new IllegalStateException("Idempotency check shut down"));
+        }
+    }
+
+    private void checkBatch(List<PendingKey> batch) {
+        List<String> keys = new ArrayList<>(batch.size());
+        for (PendingKey request : batch) {
+            keys.add(request.key());
+        }
+
+        boolean[] isNew;
+        try {
+            redisChecks.addAndGet(keys.size());
+            redisRoundTrips.incrementAndGet();
+            isNew = store.putAllIfAbsent(keys);
+        } catch (RuntimeException e) {
+            log.warn("Failed to check {} idempotency keys in Redis, accepting them unrecorded: {}",
+                    keys.size(), e.getMessage());
+            unrecordedAccepts.addAndGet(batch.size());
+            batch.forEach(request -> request.result().complete(true));
+            return;
+        }
+        // A key repeated within the batch is new at most once, as the store guarantees
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(isNew[i]);
+        }
+        log.debug("Checked {} idempotency keys in one Redis round-trip", keys.size());
+    }
+
+    private boolean acquireInRedis(String idempotencyKey) {
+        redisChecks.incrementAndGet();
+        return store.putIfAbsent(idempotencyKey);
+    }
+
+    private boolean record(String idempotencyKey, boolean isNew) {
+        if (isNew) {
+            log.debug("New idempotency key accepted: {}", idempotencyKey);
+        } else {
+            log.info("Duplicate idempotency key rejected: {}", idempotencyKey);
+        }
+        return isNew;
+    }
+
+    private record PendingKey(String key, CompletableFuture<Boolean> result) {
     }
 }
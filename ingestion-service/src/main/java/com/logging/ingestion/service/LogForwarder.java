@@ -0,0 +1,115 @@
+package com.logging.ingestion.service;
+
+import com.logging.common.dto.LogEvent;
+import com.logging.common.id.UuidV7;
+import com.logging.common.kafka.LogEventCodec;
+import com.logging.common.kafka.LogRecords;
+import com.logging.ingestion.kafka.LogProducer;
+import com.logging.ingestion.raw.RawLogEvent;
+import com.logging.ingestion.wal.WalRecord;
+import com.logging.ingestion.wal.WriteAheadLog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands accepted events on towards Kafka. With the write-ahead log enabled
+ * an event is durable locally once this returns and is produced later by the
+ * WAL drainer, so accept latency does not depend on the broker; otherwise it
+ * is sent with {@link LogProducer} directly. Every event is given its
+ * time-ordered id here, once, so WAL replays and producer retries carry the
+ * same id.
+ */
+@Service
+public class LogForwarder {
+
+    private final LogProducer logProducer;
+    private final WriteAheadLog wal;
+
+    public LogForwarder(LogProducer logProducer, ObjectProvider<WriteAheadLog> wal) {
+        this.logProducer = logProducer;
+        this.wal = wal.getIfAvailable();
+    }
+
+    public void forward(LogEvent logEvent, String idempotencyKey) {
+        if (wal == null) {
+            logProducer.send(logEvent, idempotencyKey, UuidV7.generate());
+            return;
+        }
+        wal.append(List.of(toWalRecord(logEvent, idempotencyKey)));
+    }
+
+    /**
+     * Forward a batch. With the write-ahead log the batch is appended as a
+     * unit, so it is either accepted whole or rejected whole.
+     */
+    public void forwardAll(List<LogEvent> logEvents) {
+        forwardAll(logEvents, null);
+    }
+
+    /**
+     * Forward a batch whose events each carry their own idempotency key.
+     *
+     * @param idempotencyKeys one key per event, or null for none
+     */
+    public void forwardAll(List<LogEvent> logEvents, List<String> idempotencyKeys) {
+        if (wal == null) {
+            for (int i = 0; i < logEvents.size(); i++) {
+                logProducer.send(logEvents.get(i), keyAt(idempotencyKeys, i), UuidV7.generate());
+            }
+            return;
+        }
+        List<WalRecord> records = new ArrayList<>(logEvents.size());
+        for (int i = 0; i < logEvents.size(); i++) {
+            records.add(toWalRecord(logEvents.get(i), keyAt(idempotencyKeys, i)));
+        }
+        wal.append(records);
+    }
+
+    /**
+     * Forward an event whose bytes are passed through unchanged.
+     */
+    public void forwardRaw(RawLogEvent event, String idempotencyKey) {
+        if (wal == null) {
+            logProducer.sendRaw(event.key(), event.value(), idempotencyKey, UuidV7.generate());
+            return;
+        }
+        wal.append(List.of(new WalRecord(event.key(), blankToNull(idempotencyKey), UuidV7.generate(), event.value())));
+    }
+
+    public void forwardAllRaw(List<RawLogEvent> events) {
+        forwardAllRaw(events, null);
+    }
+
+    public void forwardAllRaw(List<RawLogEvent> events, List<String> idempotencyKeys) {
+        if (wal == null) {
+            for (int i = 0; i < events.size(); i++) {
+                RawLogEvent event = events.get(i);
+                logProducer.sendRaw(event.key(), event.value(), keyAt(idempotencyKeys, i), UuidV7.generate());
+            }
+            return;
+        }
+        List<WalRecord> records = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            RawLogEvent event = events.get(i);
+            records.add(new WalRecord(event.key(), blankToNull(keyAt(idempotencyKeys, i)), UuidV7.generate(),
+                    event.value()));
+        }
+        wal.append(records);
+    }
+
+    private WalRecord toWalRecord(LogEvent logEvent, String idempotencyKey) {
+        return new WalRecord(LogRecords.key(logEvent), blankToNull(idempotencyKey), UuidV7.generate(),
+                LogEventCodec.encode(logEvent));
+    }
+
+    private static String keyAt(List<String> idempotencyKeys, int index) {
+        return idempotencyKeys != null ? idempotencyKeys.get(index) : null;
+    }
+
+    private static String blankToNull(String value) {
+        return value != null && !value.isBlank() ? value : null;
+    }
+}
@@ -0,0 +1,302 @@
+package com.logging.ingestion.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.logging.common.dto.LogEvent;
+import com.logging.ingestion.dto.NdjsonIngestResult;
+import com.logging.ingestion.dto.RejectedLine;
+import com.logging.ingestion.raw.InvalidLogEventException;
+import com.logging.ingestion.raw.RawLogEvent;
+import com.logging.ingestion.raw.RawLogEventParser;
+import com.logging.ingestion.wal.EventTooLargeException;
+import com.logging.ingestion.wal.WalFullException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads newline-delimited JSON log events from a request body one line at a
+ * time, validating each and forwarding valid events in small chunks. Memory
+ * per request is bounded by the chunk size and the maximum line length, not
+ * by the size of the upload. In raw ingestion mode lines are validated on the
+ * token stream and forwarded as the bytes received.
+ *
+ * <p>An upload that stops early has had a prefix of its lines accepted. So
+ * that resending it does not duplicate them, each event of an upload with an
+ * idempotency key is forwarded with its own key, {@code <key>:<line number>},
+ * which the monitoring consumer de-duplicates; a client that knows how far
+ * the upload got can also skip the accepted lines by resuming after
+ * {@code lastLine}.
+ */
+@Service
+public class NdjsonIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(NdjsonIngestionService.class);
+    private static final int MAX_REJECTED_LINES = 100;
+
+    private final LogForwarder logForwarder;
+    private final Validator validator;
+    private final ObjectReader eventReader;
+    private final RawLogEventParser rawParser;
+    private final boolean raw;
+    private final int chunkSize;
+    private final int maxLineLength;
+
+    public NdjsonIngestionService(
+            LogForwarder logForwarder,
+            Validator validator,
+            ObjectMapper objectMapper,
+            RawLogEventParser rawParser,
+            @Value("${app.ingestion.mode:parsed}") String mode,
+            @Value("${app.ingestion.ndjson.chunk-size:500}") int chunkSize,
+            @Value("${app.ingestion.ndjson.max-line-length:1048576}") int maxLineLength) {
+        this.logForwarder = logForwarder;
+        this.validator = validator;
+        this.eventReader = objectMapper.readerFor(LogEvent.class);
+        this.rawParser = rawParser;
+        this.raw = "raw".equalsIgnoreCase(mode);
+        this.chunkSize = chunkSize;
+        this.maxLineLength = maxLineLength;
+    }
+
+    public NdjsonIngestResult ingest(InputStream body) throws IOException {
+        return ingest(body, null, 0);
+    }
+
+    /**
+     * @param idempotencyKey  key of the upload, from which each event's key is derived; may be null
+     * @param resumeAfterLine lines up to and including this one are skipped unread
+     */
+    public NdjsonIngestResult ingest(InputStream body, String idempotencyKey, long resumeAfterLine)
+            throws IOException {
+        LineReader reader = new LineReader(body, maxLineLength);
+        String keyPrefix = idempotencyKey != null && !idempotencyKey.isBlank() ? idempotencyKey + ":" : null;
+        List<LogEvent> chunk = new ArrayList<>();
+        List<RawLogEvent> rawChunk = new ArrayList<>();
+        List<Long> chunkLines = new ArrayList<>();
+        Rejections rejections = new Rejections();
+        long accepted = 0;
+        long lineNumber = 0;
+        long skipThrough = Math.max(0, resumeAfterLine);
+        long chunkStartLine = skipThrough + 1;
+
+        try {
+            while (reader.next()) {
+                lineNumber++;
+                if (lineNumber <= skipThrough || (!reader.tooLong && reader.isBlank())) {
+                    continue;
+                }
+
+                String error;
+                if (reader.tooLong) {
+                    error = "line longer than " + maxLineLength + " bytes";
+                } else if (raw) {
+                    error = readRaw(reader, rawChunk);
+                } else {
+                    error = read(reader, chunk);
+                }
+
+                if (error != null) {
+                    rejections.add(lineNumber, error);
+                    continue;
+                }
+                chunkLines.add(lineNumber);
+
+                if (chunkLines.size() >= chunkSize) {
+                    accepted += flush(chunk, rawChunk, chunkLines, keyPrefix, rejections);
+                    chunkStartLine = lineNumber + 1;
+                }
+            }
+            accepted += flush(chunk, rawChunk, chunkLines, keyPrefix, rejections);
+        } catch (WalFullException e) {
+            // The current chunk was not accepted; report where the client should resume
+            log.warn("Stopped NDJSON ingestion at line {}: {}", lineNumber, e.getMessage());
+            return rejections.result(accepted, chunkStartLine - 1, false);
+        }
+
+        log.debug("NDJSON ingestion: {} accepted, {} rejected, {} lines", accepted, rejections.count, lineNumber);
+        return rejections.result(accepted, Math.max(lineNumber, skipThrough), true);
+    }
+
+    private String read(LineReader reader, List<LogEvent> chunk) throws IOException {
+        LogEvent logEvent;
+        try {
+            logEvent = eventReader.readValue(reader.line, 0, reader.length);
+        } catch (JsonProcessingException e) {
+            return "invalid JSON: " + e.getOriginalMessage();
+        }
+        if (logEvent == null) {
+            return "not a JSON object";
+        }
+
+        Set<ConstraintViolation<LogEvent>> violations = validator.validate(logEvent);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        chunk.add(logEvent);
+        return null;
+    }
+
+    private String readRaw(LineReader reader, List<RawLogEvent> chunk) {
+        try {
+            chunk.add(rawParser.parse(Arrays.copyOf(reader.line, reader.length)));
+            return null;
+        } catch (InvalidLogEventException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Forward the chunk. An event too large for Kafka fails the whole append,
+     * so it is taken out and rejected as its line, and the rest is sent again.
+     */
+    private int flush(List<LogEvent> chunk, List<RawLogEvent> rawChunk, List<Long> chunkLines,
+                      String keyPrefix, Rejections rejections) {
+        while (true) {
+            List<String> keys = null;
+            if (keyPrefix != null) {
+                keys = new ArrayList<>(chunkLines.size());
+                for (long line : chunkLines) {
+                    keys.add(keyPrefix + line);
+                }
+            }
+            try {
+                if (!chunk.isEmpty()) {
+                    logForwarder.forwardAll(chunk, keys);
+                } else if (!rawChunk.isEmpty()) {
+                    logForwarder.forwardAllRaw(rawChunk, keys);
+                }
+                int count = chunkLines.size();
+                chunk.clear();
+                rawChunk.clear();
+                chunkLines.clear();
+                return count;
+            } catch (EventTooLargeException e) {
+                (chunk.isEmpty() ? rawChunk : chunk).remove(e.getIndex());
+                rejections.add(chunkLines.remove(e.getIndex()), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rejected line count and the first {@value #MAX_REJECTED_LINES} of them with the reason.
+     */
+    private static final class Rejections {
+
+        private final List<RejectedLine> lines = new ArrayList<>();
+        private long count;
+
+        void add(long lineNumber, String error) {
+            count++;
+            if (lines.size() < MAX_REJECTED_LINES) {
+                lines.add(new RejectedLine(lineNumber, error));
+            }
+        }
+
+        NdjsonIngestResult result(long accepted, long lastLine, boolean complete) {
+            return new NdjsonIngestResult(accepted, count, lines, count > lines.size(), lastLine, complete);
+        }
+    }
+
+    /**
+     * Splits a stream into lines without decoding it. The current line is
+     * {@code line[0, length)} and never grows past {@code maxLength} bytes;
+     * the rest of an over-long line is skipped and {@code tooLong} is set.
+     */
+    private static final class LineReader {
+
+        private final InputStream in;
+        private final int maxLength;
+        private final byte[] buffer = new byte[8192];
+        private int position;
+        private int limit;
+
+        byte[] line = new byte[1024];
+        int length;
+        boolean tooLong;
+
+        LineReader(InputStream in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * Advance to the next line. Returns false at end of stream.
+         */
+        boolean next() throws IOException {
+            length = 0;
+            tooLong = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    int n = in.read(buffer, 0, buffer.length);
+                    if (n <= 0) {
+                        return read && finish();
+                    }
+                    position = 0;
+                    limit = n;
+                }
+                read = true;
+
+                int newline = position;
+                while (newline < limit && buffer[newline] != '\n') {
+                    newline++;
+                }
+                append(position, newline - position);
+                if (newline < limit) {
+                    position = newline + 1;
+                    return finish();
+                }
+                position = limit;
+            }
+        }
+
+        boolean isBlank() {
+            for (int i = 0; i < length; i++) {
+                byte b = line[i];
+                if (b != ' ' && b != '\t') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void append(int from, int count) {
+            if (tooLong || count == 0) {
+                return;
+            }
+            if (length + count > maxLength) {
+                tooLong = true;
+                length = 0;
+                return;
+            }
+            if (length + count > line.length) {
+                line = Arrays.copyOf(line, Math.min(maxLength, Math.max(line.length * 2, length + count)));
+            }
+            System.arraycopy(buffer, from, line, length, count);
+            length += count;
+        }
+
+        private boolean finish() {
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            return true;
+        }
+    }
+}
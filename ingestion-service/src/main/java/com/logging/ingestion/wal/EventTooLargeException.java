@@ -0,0 +1,23 @@
+package com.logging.ingestion.wal;
+
+/**
+ * An event is larger than Kafka will accept in one request, so appending it
+ * would leave a record the drainer can never deliver. Nothing from the
+ * rejected append was written.
+ */
+public class EventTooLargeException extends RuntimeException {
+
+    private final int index;
+
+    public EventTooLargeException(String message, int index) {
+        super(message);
+        this.index = index;
+    }
+
+    /**
+     * Position of the offending record in the list passed to append.
+     */
+    public int getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,13 @@
+package com.logging.ingestion.wal;
+
+/**
+ * When appended records are forced from the page cache to disk.
+ */
+public enum FsyncPolicy {
+    /** Before every append returns. Survives a host crash; slowest. */
+    ALWAYS,
+    /** On a fixed interval. A host crash loses at most one interval. */
+    INTERVAL,
+    /** Left to the OS. Survives a process crash only. */
+    NEVER
+}
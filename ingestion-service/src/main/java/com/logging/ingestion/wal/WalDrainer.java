@@ -0,0 +1,211 @@
+package com.logging.ingestion.wal;
+
+import com.logging.common.kafka.LogEventCodec;
+import com.logging.common.kafka.LogEventSerializer;
+import com.logging.common.kafka.LogRecords;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.InvalidRecordException;
+import org.apache.kafka.common.errors.RecordBatchTooLargeException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves records from the {@link WriteAheadLog} to Kafka on a dedicated
+ * thread. A batch is committed only after every record in it has been
+ * acknowledged; on failure the batch is resent after a backoff, so delivery
+ * is at-least-once (records carrying an idempotency key are de-duplicated by
+ * the consumer). A record Kafka rejects for good, such as one over
+ * {@code max.request.size}, is moved to the WAL's quarantine file instead of
+ * being retried, so it cannot stall draining. Values are the bytes already
+ * serialized at accept time: binary-encoded events, or JSON passed through
+ * in raw ingestion mode.
+ */
+@Component
+@ConditionalOnProperty(name = "app.wal.enabled", havingValue = "true")
+public class WalDrainer {
+
+    private static final Logger log = LoggerFactory.getLogger(WalDrainer.class);
+    private static final long MIN_BACKOFF_MS = 100;
+    private static final long MAX_BACKOFF_MS = 5000;
+
+    private final WriteAheadLog wal;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final String topic;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final Thread thread;
+    // Entries of the current batch already quarantined, by the position after them
+    private final Set<WalPosition> quarantined = new HashSet<>();
+    private final AtomicLong quarantinedRecords = new AtomicLong();
+    private volatile boolean running = true;
+
+    public WalDrainer(
+            WriteAheadLog wal,
+            KafkaProperties kafkaProperties,
+            @Value("${app.kafka.topic}") String topic,
+            @Value("${app.wal.drain-batch-size:500}") int batchSize,
+            @Value("${app.wal.send-timeout-ms:30000}") long sendTimeoutMs) {
+        this.wal = wal;
+        this.kafkaTemplate = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                kafkaProperties.buildProducerProperties(null), new StringSerializer(), new ByteArraySerializer()));
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.thread = new Thread(this::run, "wal-drainer");
+        this.thread.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+        kafkaTemplate.destroy();
+    }
+
+    public long getQuarantinedRecords() {
+        return quarantinedRecords.get();
+    }
+
+    private void run() {
+        long backoffMs = MIN_BACKOFF_MS;
+        while (running) {
+            try {
+                List<WriteAheadLog.WalEntry> entries = wal.read(wal.committedPosition(), batchSize, 1000);
+                if (entries.isEmpty()) {
+                    continue;
+                }
+                if (send(entries)) {
+                    wal.commit(entries.get(entries.size() - 1).next());
+                    quarantined.clear();
+                    backoffMs = MIN_BACKOFF_MS;
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("WAL drainer failed, will retry: {}", e.getMessage(), e);
+            }
+
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+        }
+    }
+
+    /**
+     * @return true if every record was either acknowledged or quarantined
+     */
+    private boolean send(List<WriteAheadLog.WalEntry> entries) throws InterruptedException {
+        List<CompletableFuture<SendResult<String, byte[]>>> futures = new ArrayList<>(entries.size());
+        for (WriteAheadLog.WalEntry entry : entries) {
+            futures.add(quarantined.contains(entry.next()) ? null : send(entry.record()));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.stream().filter(Objects::nonNull).toArray(CompletableFuture[]::new))
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            log.debug("Drained {} records from WAL to Kafka", entries.size());
+            return true;
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (ExecutionException e) {
+            // Every send has completed; quarantine the permanent failures and retry if any others remain
+            boolean retry = false;
+            for (int i = 0; i < entries.size(); i++) {
+                CompletableFuture<SendResult<String, byte[]>> future = futures.get(i);
+                if (future == null || !future.isCompletedExceptionally()) {
+                    continue;
+                }
+                Throwable failure = future.exceptionNow();
+                if (isPermanent(failure)) {
+                    quarantine(entries.get(i), failure);
+                } else {
+                    retry = true;
+                }
+            }
+            if (retry) {
+                log.warn("Failed to drain {} WAL records to Kafka, will retry: {}", entries.size(), e.getMessage());
+            }
+            return !retry;
+        } catch (TimeoutException e) {
+            log.warn("Timed out draining {} WAL records to Kafka, will retry", entries.size());
+            return false;
+        }
+    }
+
+    private CompletableFuture<SendResult<String, byte[]>> send(WalRecord walRecord) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, walRecord.key(), walRecord.value());
+        if (LogEventCodec.isEncoded(walRecord.value())) {
+            LogEventSerializer.markBinary(record.headers());
+        }
+        if (walRecord.idempotencyKey() != null) {
+            record.headers().add(LogRecords.IDEMPOTENCY_KEY_HEADER,
+                    walRecord.idempotencyKey().getBytes(StandardCharsets.UTF_8));
+        }
+        record.headers().add(LogRecords.EVENT_ID_HEADER, LogRecords.encodeEventId(walRecord.eventId()));
+        try {
+            return kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void quarantine(WriteAheadLog.WalEntry entry, Throwable failure) {
+        wal.quarantine(entry.record());
+        quarantined.add(entry.next());
+        quarantinedRecords.incrementAndGet();
+        log.error("Quarantined WAL record key={} eventId={} that Kafka rejected: {}",
+                entry.record().key(), entry.record().eventId(), failure.getMessage());
+    }
+
+    /**
+     * Failures that resending the same record can never fix.
+     */
+    static boolean isPermanent(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RecordTooLargeException
+                    || cause instanceof RecordBatchTooLargeException
+                    || cause instanceof InvalidRecordException
+                    || cause instanceof SerializationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
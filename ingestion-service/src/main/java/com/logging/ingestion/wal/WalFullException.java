@@ -0,0 +1,12 @@
+package com.logging.ingestion.wal;
+
+/**
+ * The write-ahead log has reached its size limit because the drainer is not
+ * keeping up; the caller should reject the request rather than drop events.
+ */
+public class WalFullException extends RuntimeException {
+
+    public WalFullException(String message) {
+        super(message);
+    }
+}
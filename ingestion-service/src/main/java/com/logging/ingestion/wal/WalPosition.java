@@ -0,0 +1,13 @@
+package com.logging.ingestion.wal;
+
+/**
+ * A point in the log: segment id and byte offset within that segment.
+ */
+public record WalPosition(long segmentId, int offset) implements Comparable<WalPosition> {
+
+    @Override
+    public int compareTo(WalPosition other) {
+        int bySegment = Long.compare(segmentId, other.segmentId);
+        return bySegment != 0 ? bySegment : Integer.compare(offset, other.offset);
+    }
+}
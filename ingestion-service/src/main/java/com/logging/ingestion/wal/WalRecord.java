@@ -0,0 +1,50 @@
+package com.logging.ingestion.wal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * One accepted event as it will be produced to Kafka: record key, optional
+ * idempotency key, the event id and the serialized value.
+ */
+public record WalRecord(String key, String idempotencyKey, UUID eventId, byte[] value) {
+
+    byte[] encode() {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] idempotencyBytes = idempotencyKey != null ? idempotencyKey.getBytes(StandardCharsets.UTF_8) : null;
+        int size = 16 + 4 + keyBytes.length + 4 + (idempotencyBytes != null ? idempotencyBytes.length : 0)
+                + value.length;
+
+        ByteBuffer buffer = ByteBuffer.allocate(size)
+                .putLong(eventId.getMostSignificantBits())
+                .putLong(eventId.getLeastSignificantBits());
+        buffer.putInt(keyBytes.length).put(keyBytes);
+        if (idempotencyBytes != null) {
+            buffer.putInt(idempotencyBytes.length).put(idempotencyBytes);
+        } else {
+            buffer.putInt(-1);
+        }
+        buffer.put(value);
+        return buffer.array();
+    }
+
+    static WalRecord decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        UUID eventId = new UUID(buffer.getLong(), buffer.getLong());
+        byte[] keyBytes = new byte[buffer.getInt()];
+        buffer.get(keyBytes);
+
+        int idempotencyLength = buffer.getInt();
+        String idempotencyKey = null;
+        if (idempotencyLength >= 0) {
+            byte[] idempotencyBytes = new byte[idempotencyLength];
+            buffer.get(idempotencyBytes);
+            idempotencyKey = new String(idempotencyBytes, StandardCharsets.UTF_8);
+        }
+
+        byte[] value = new byte[buffer.remaining()];
+        buffer.get(value);
+        return new WalRecord(new String(keyBytes, StandardCharsets.UTF_8), idempotencyKey, eventId, value);
+    }
+}
@@ -0,0 +1,162 @@
+package com.logging.ingestion.wal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size, memory-mapped segment file. Entries are
+ * {@code [length][crc32c][payload]}; a zero length marks the end of written
+ * data, since a new file is zero-filled. Appends are made by one thread at a
+ * time; readers only look below the published end offset.
+ */
+class WalSegment {
+
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_OVERHEAD = 8;
+    private static final int MAGIC = 0x57414c31; // "WAL1"
+
+    private final long id;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int size;
+    private volatile int end;
+    private int forcedEnd;
+
+    private WalSegment(long id, Path path, FileChannel channel, MappedByteBuffer buffer, int size, int end) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.size = size;
+        this.end = end;
+        this.forcedEnd = end;
+    }
+
+    static WalSegment create(Path directory, long id, int size) throws IOException {
+        Path path = directory.resolve(fileName(id));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.putInt(0, MAGIC);
+        buffer.putLong(4, id);
+        return new WalSegment(id, path, channel, buffer, size, HEADER_SIZE);
+    }
+
+    /**
+     * Map an existing segment and find where its valid entries end. A torn or
+     * corrupt tail entry from a crash is treated as the end.
+     */
+    static WalSegment open(Path path, long id) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int size = (int) channel.size();
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (buffer.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException("Not a WAL segment: " + path);
+        }
+
+        int offset = HEADER_SIZE;
+        while (offset + ENTRY_OVERHEAD <= size) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + ENTRY_OVERHEAD + length > size
+                    || checksum(buffer, offset + ENTRY_OVERHEAD, length) != buffer.getInt(offset + 4)) {
+                break;
+            }
+            offset += ENTRY_OVERHEAD + length;
+        }
+        // Clear whatever a crash left behind so the end marker is unambiguous
+        if (offset + 4 <= size) {
+            buffer.putInt(offset, 0);
+        }
+        return new WalSegment(id, path, channel, buffer, size, offset);
+    }
+
+    static String fileName(long id) {
+        return String.format("%020d.wal", id);
+    }
+
+    static long parseId(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - ".wal".length()));
+    }
+
+    boolean hasRoom(int payloadLength) {
+        return end + ENTRY_OVERHEAD + payloadLength <= size;
+    }
+
+    /**
+     * Write an entry; the caller has checked {@link #hasRoom}.
+     */
+    void append(byte[] payload) {
+        int offset = end;
+        buffer.put(offset + ENTRY_OVERHEAD, payload);
+        buffer.putInt(offset + 4, checksum(payload));
+        buffer.putInt(offset, payload.length);
+        end = offset + ENTRY_OVERHEAD + payload.length;
+    }
+
+    /**
+     * Payload of the entry at {@code offset}, or null if nothing has been
+     * written there yet.
+     */
+    byte[] read(int offset) {
+        if (offset >= end) {
+            return null;
+        }
+        byte[] payload = new byte[buffer.getInt(offset)];
+        buffer.get(offset + ENTRY_OVERHEAD, payload);
+        return payload;
+    }
+
+    int nextOffset(int offset, int payloadLength) {
+        return offset + ENTRY_OVERHEAD + payloadLength;
+    }
+
+    void force() {
+        int current = end;
+        if (current > forcedEnd) {
+            buffer.force(forcedEnd, current - forcedEnd);
+            forcedEnd = current;
+        }
+    }
+
+    void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    long id() {
+        return id;
+    }
+
+    int end() {
+        return end;
+    }
+
+    int usableBytes() {
+        return size - HEADER_SIZE;
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,293 @@
+package com.logging.ingestion.wal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Segmented, memory-mapped write-ahead log of accepted events. Request
+ * threads append; {@link WalDrainer} reads from the committed position,
+ * produces to Kafka and commits once the broker has acknowledged. Segments
+ * that are fully drained are deleted. The committed position is kept in a
+ * checkpoint file, so after a restart draining resumes where it stopped and
+ * anything not yet acknowledged by Kafka is sent again. Records Kafka
+ * rejects for good are moved to a quarantine file so they do not hold up
+ * the rest of the log.
+ */
+@Component
+@ConditionalOnProperty(name = "app.wal.enabled", havingValue = "true")
+public class WriteAheadLog {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteAheadLog.class);
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String QUARANTINE_FILE = "quarantine";
+    // Room left for the record batch header, record framing and headers Kafka adds
+    private static final int KAFKA_RECORD_OVERHEAD = 512;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final FsyncPolicy fsyncPolicy;
+    private final int maxRecordBytes;
+    private final ConcurrentSkipListMap<Long, WalSegment> segments = new ConcurrentSkipListMap<>();
+
+    private WalSegment active;
+    private volatile WalPosition committed;
+
+    public WriteAheadLog(
+            @Value("${app.wal.directory:data/wal}") String directory,
+            @Value("${app.wal.segment-bytes:67108864}") int segmentBytes,
+            @Value("${app.wal.max-segments:16}") int maxSegments,
+            @Value("${app.wal.fsync-policy:INTERVAL}") FsyncPolicy fsyncPolicy,
+            @Value("${spring.kafka.producer.properties.max.request.size:1048576}") int maxRequestSize) {
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        this.fsyncPolicy = fsyncPolicy;
+        this.maxRecordBytes = Math.min(maxRequestSize - KAFKA_RECORD_OVERHEAD,
+                segmentBytes - WalSegment.HEADER_SIZE - WalSegment.ENTRY_OVERHEAD);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.filter(p -> p.getFileName().toString().endsWith(".wal")).toList()) {
+                long id = WalSegment.parseId(path);
+                segments.put(id, WalSegment.open(path, id));
+            }
+        }
+
+        committed = readCheckpoint();
+        if (segments.isEmpty()) {
+            active = WalSegment.create(directory, 0, segmentBytes);
+            segments.put(active.id(), active);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+        if (committed == null || segments.floorKey(committed.segmentId()) == null) {
+            committed = new WalPosition(segments.firstKey(), WalSegment.HEADER_SIZE);
+        }
+        log.info("Write-ahead log opened at {}: {} segments, fsync={}", directory, segments.size(), fsyncPolicy);
+    }
+
+    /**
+     * Append records as one unit: either all are written or, if the log is
+     * at its size limit, none are.
+     *
+     * @throws WalFullException       if there is not enough room
+     * @throws EventTooLargeException if a record is larger than the producer's {@code max.request.size}
+     */
+    public synchronized void append(List<WalRecord> records) {
+        List<byte[]> payloads = new ArrayList<>(records.size());
+        long total = 0;
+        int largest = 0;
+        for (int i = 0; i < records.size(); i++) {
+            byte[] payload = records.get(i).encode();
+            if (payload.length > maxRecordBytes) {
+                throw new EventTooLargeException("Event of " + payload.length + " bytes exceeds the "
+                        + maxRecordBytes + " bytes Kafka accepts", i);
+            }
+            payloads.add(payload);
+            total += payload.length + WalSegment.ENTRY_OVERHEAD;
+            largest = Math.max(largest, payload.length + WalSegment.ENTRY_OVERHEAD);
+        }
+        if (!hasRoom(total, largest)) {
+            throw new WalFullException("Write-ahead log is full (" + segments.size() + " segments)");
+        }
+
+        try {
+            for (byte[] payload : payloads) {
+                if (!active.hasRoom(payload.length)) {
+                    roll();
+                }
+                active.append(payload);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to write-ahead log", e);
+        }
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            active.force();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Up to {@code maxRecords} records after {@code from}, waiting up to
+     * {@code timeoutMs} for something to be appended if there is nothing yet.
+     */
+    public List<WalEntry> read(WalPosition from, int maxRecords, long timeoutMs) throws InterruptedException {
+        List<WalEntry> entries = readAvailable(from, maxRecords);
+        if (entries.isEmpty() && timeoutMs > 0) {
+            synchronized (this) {
+                if (isCaughtUp(from)) {
+                    wait(timeoutMs);
+                }
+            }
+            entries = readAvailable(from, maxRecords);
+        }
+        return entries;
+    }
+
+    /**
+     * Record that everything before {@code position} has reached Kafka and
+     * delete segments that are now fully drained.
+     */
+    public void commit(WalPosition position) {
+        committed = position;
+        writeCheckpoint(position);
+
+        for (Long id : segments.headMap(position.segmentId()).keySet()) {
+            WalSegment segment = segments.remove(id);
+            try {
+                segment.delete();
+            } catch (IOException e) {
+                log.warn("Failed to delete drained WAL segment {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Set aside a record Kafka will never accept, as {@code [length][record]}
+     * appended to the quarantine file, so draining can move past it.
+     */
+    public synchronized void quarantine(WalRecord record) {
+        byte[] payload = record.encode();
+        ByteBuffer buffer = ByteBuffer.allocate(4 + payload.length).putInt(payload.length).put(payload).flip();
+        try (FileChannel channel = FileChannel.open(directory.resolve(QUARANTINE_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write quarantined WAL record", e);
+        }
+    }
+
+    public WalPosition committedPosition() {
+        return committed;
+    }
+
+    /**
+     * Bytes appended but not yet committed, approximately.
+     */
+    public long pendingBytes() {
+        WalPosition position = committed;
+        long pending = 0;
+        for (WalSegment segment : segments.tailMap(position.segmentId()).values()) {
+            pending += segment.end() - (segment.id() == position.segmentId() ? position.offset() : WalSegment.HEADER_SIZE);
+        }
+        return pending;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.wal.fsync-interval-ms:200}")
+    public synchronized void forceOnInterval() {
+        if (fsyncPolicy == FsyncPolicy.INTERVAL && active != null) {
+            active.force();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        for (WalSegment segment : segments.values()) {
+            segment.close();
+        }
+    }
+
+    private List<WalEntry> readAvailable(WalPosition from, int maxRecords) {
+        List<WalEntry> entries = new ArrayList<>();
+        WalPosition position = from;
+        while (entries.size() < maxRecords) {
+            WalSegment segment = segments.get(position.segmentId());
+            if (segment == null) {
+                break;
+            }
+            byte[] payload = segment.read(position.offset());
+            if (payload == null) {
+                // Nothing more in this segment; move on only if a newer one exists
+                Long next = segments.higherKey(position.segmentId());
+                if (next == null) {
+                    break;
+                }
+                // The append that rolled may have written here after the read above;
+                // the segment is sealed now that a newer one exists, so look once more
+                payload = segment.read(position.offset());
+                if (payload == null) {
+                    position = new WalPosition(next, WalSegment.HEADER_SIZE);
+                    continue;
+                }
+            }
+            position = new WalPosition(position.segmentId(), segment.nextOffset(position.offset(), payload.length));
+            entries.add(new WalEntry(WalRecord.decode(payload), position));
+        }
+        return entries;
+    }
+
+    private boolean isCaughtUp(WalPosition position) {
+        return position.segmentId() == active.id() && position.offset() >= active.end();
+    }
+
+    private boolean hasRoom(long bytes, int largest) {
+        long room = active.usableBytes() - (active.end() - WalSegment.HEADER_SIZE)
+                + (long) (maxSegments - segments.size()) * (segmentBytes - WalSegment.HEADER_SIZE);
+        // Each segment roll can leave up to one entry's worth of unused space behind
+        long rolls = bytes / (segmentBytes - WalSegment.HEADER_SIZE) + 1;
+        return bytes + rolls * largest <= room;
+    }
+
+    private void roll() throws IOException {
+        if (fsyncPolicy != FsyncPolicy.NEVER) {
+            active.force();
+        }
+        active = WalSegment.create(directory, active.id() + 1, segmentBytes);
+        segments.put(active.id(), active);
+    }
+
+    private WalPosition readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        return buffer.remaining() >= 12 ? new WalPosition(buffer.getLong(), buffer.getInt()) : null;
+    }
+
+    private void writeCheckpoint(WalPosition position) {
+        ByteBuffer buffer = ByteBuffer.allocate(12).putLong(position.segmentId()).putInt(position.offset());
+        try {
+            Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            Files.write(temp, buffer.array());
+            Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Not fatal: on restart the drainer resends from the previous checkpoint
+            log.warn("Failed to write WAL checkpoint: {}", e.getMessage());
+        }
+    }
+
+    public record WalEntry(WalRecord record, WalPosition next) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.logging.ingestion;
+
+import com.logging.common.idempotency.IdempotencyStore;
+import com.logging.common.idempotency.RedisBloomIdempotencyStore;
+import com.logging.common.idempotency.RedisKeyIdempotencyStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Redis memory per million idempotency keys for the per-key layout and the
+ * Bloom bucket layout, plus the Bloom store's observed false positive rate.
+ * Needs the docker-compose Redis instance; run with
+ * {@code RUN_BENCHMARKS=true ./gradlew :ingestion-service:test --tests '*IdempotencyStoreMemoryTest'}.
+ * Keys are written under a throwaway prefix and deleted afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class IdempotencyStoreMemoryTest {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStoreMemoryTest.class);
+    private static final int KEYS = 1_000_000;
+    private static final int BATCH = 1_000;
+    private static final Duration TTL = Duration.ofHours(24);
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory("localhost", 6379);
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        prefix = "bench:" + UUID.randomUUID() + ":";
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<String> keys = new ArrayList<>();
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            try (var cursor = connection.keyCommands().scan(ScanOptions.scanOptions().match(prefix + "*").count(10_000).build())) {
+                cursor.forEachRemaining(key -> keys.add(new String(key)));
+            }
+            return null;
+        });
+        for (int i = 0; i < keys.size(); i += BATCH) {
+            redisTemplate.unlink(keys.subList(i, Math.min(keys.size(), i + BATCH)));
+        }
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void perKeyLayout() {
+        long bytes = measure(new RedisKeyIdempotencyStore(redisTemplate, prefix, TTL));
+        log.info("Per-key strings: {} MB per million keys", String.format("%.1f", bytes / 1e6 * 1_000_000 / KEYS));
+    }
+
+    @Test
+    void bloomLayout() {
+        double falsePositiveRate = 0.001;
+        RedisBloomIdempotencyStore store = new RedisBloomIdempotencyStore(
+                redisTemplate, prefix, TTL, Duration.ofHours(1), KEYS, falsePositiveRate);
+        long bytes = measure(store);
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (store.contains(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        double observed = (double) falsePositives / probes;
+        log.info("Bloom buckets: {} MB per million keys, {} buckets per lookup, false positive rate {} (bound {})",
+                String.format("%.1f", bytes / 1e6 * 1_000_000 / KEYS), store.getBucketsPerLookup(),
+                observed, falsePositiveRate);
+        assertTrue(observed <= falsePositiveRate * 2, "false positive rate above bound: " + observed);
+    }
+
+    private long measure(IdempotencyStore store) {
+        long before = usedMemory();
+        List<String> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < KEYS; i++) {
+            batch.add(UUID.randomUUID().toString());
+            if (batch.size() == BATCH) {
+                store.putAllIfAbsent(batch);
+                batch.clear();
+            }
+        }
+        return usedMemory() - before;
+    }
+
+    private long usedMemory() {
+        Properties info = redisTemplate.execute((RedisCallback<Properties>) connection ->
+                connection.serverCommands().info("memory"));
+        return Long.parseLong(info.getProperty("used_memory"));
+    }
+}
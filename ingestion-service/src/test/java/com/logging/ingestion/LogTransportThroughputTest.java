@@ -0,0 +1,151 @@
+package com.logging.ingestion;
+
+import com.logging.common.client.HttpLogTransport;
+import com.logging.common.client.KafkaLogTransport;
+import com.logging.common.client.LogClient;
+import com.logging.common.client.LogClientConfig;
+import com.logging.common.client.LogClientStats;
+import com.logging.common.client.LogTransport;
+import com.logging.common.client.OverflowPolicy;
+import com.logging.common.dto.LogEvent.Severity;
+import com.logging.ingestion.service.IdempotencyService;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * End-to-end events/sec of the two LogClient transports against an embedded
+ * broker: HTTP through LogIngestionController and LogProducer, versus
+ * producing straight to the topic. Each run is timed from the first send
+ * until the last record can be consumed. Run with
+ * {@code RUN_BENCHMARKS=true ./gradlew :ingestion-service:test --tests '*LogTransportThroughputTest'}.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+                "app.kafka.topic=" + LogTransportThroughputTest.HTTP_TOPIC,
+                "app.wal.directory=build/wal-bench",
+                "logging.level.com.logging=INFO"
+        })
+@EmbeddedKafka(partitions = 3, topics = {LogTransportThroughputTest.HTTP_TOPIC, LogTransportThroughputTest.KAFKA_TOPIC})
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class LogTransportThroughputTest {
+
+    static final String HTTP_TOPIC = "logs.bench.http";
+    static final String KAFKA_TOPIC = "logs.bench.kafka";
+
+    private static final Logger log = LoggerFactory.getLogger(LogTransportThroughputTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.embedded.kafka.brokers}")
+    private String brokers;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        when(idempotencyService.tryAcquire(any())).thenReturn(true);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000})
+    void compareTransports(int events) {
+        double http = run("http", HTTP_TOPIC, events);
+        double kafka = run("kafka", KAFKA_TOPIC, events);
+        log.info("{} events: http {} events/sec, kafka {} events/sec ({}x)",
+                events, Math.round(http), Math.round(kafka), String.format("%.2f", kafka / http));
+    }
+
+    private double run(String mode, String topic, int events) {
+        LogClientConfig config = new LogClientConfig(
+                "http://localhost:" + port,
+                "bench-service",
+                "bench-host",
+                events,
+                500,
+                Duration.ofMillis(50),
+                Duration.ofSeconds(10),
+                2,
+                OverflowPolicy.DROP_NEWEST
+        );
+        LogTransport transport = "kafka".equals(mode)
+                ? new KafkaLogTransport(brokers, topic, config.requestTimeout())
+                : new HttpLogTransport(config);
+
+        try (KafkaConsumer<String, byte[]> consumer = consumer(topic)) {
+            consumer.poll(Duration.ofMillis(100));
+            long consumed = drain(consumer, Long.MAX_VALUE, Duration.ofMillis(500));
+
+            LogClient client = new LogClient(config, transport);
+            long start = System.nanoTime();
+            for (int i = 0; i < events; i++) {
+                client.sendLog(Severity.INFO, "benchmark event " + i, null, Map.of("seq", i));
+            }
+            long received = drain(consumer, events, Duration.ofSeconds(60));
+            long elapsed = System.nanoTime() - start;
+            client.close();
+
+            LogClientStats stats = client.getStats();
+            assertEquals(0, stats.droppedEvents(), "buffer should hold every event");
+            assertEquals(events, received, "all events should reach the topic (" + consumed + " left over)");
+
+            double perSecond = events / (elapsed / 1e9);
+            log.info("{}: {} events in {} ms, {} events/sec",
+                    mode, events, elapsed / 1_000_000, Math.round(perSecond));
+            return perSecond;
+        }
+    }
+
+    private KafkaConsumer<String, byte[]> consumer(String topic) {
+        KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, brokers,
+                ConsumerConfig.GROUP_ID_CONFIG, "bench-" + UUID.randomUUID(),
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5000
+        ), new StringDeserializer(), new ByteArrayDeserializer());
+        consumer.subscribe(List.of(topic));
+        return consumer;
+    }
+
+    /**
+     * Poll until {@code expected} records arrive or nothing arrives for
+     * {@code idle}.
+     */
+    private long drain(KafkaConsumer<String, byte[]> consumer, long expected, Duration idle) {
+        long received = 0;
+        long lastRecord = System.nanoTime();
+        while (received < expected && System.nanoTime() - lastRecord < idle.toNanos()) {
+            int count = consumer.poll(Duration.ofMillis(50)).count();
+            if (count > 0) {
+                received += count;
+                lastRecord = System.nanoTime();
+            }
+        }
+        return received;
+    }
+}
@@ -1,16 +1,37 @@
 package com.logging.ingestion.controller;
 
-import com.logging.ingestion.kafka.LogProducer;
+import com.logging.ingestion.raw.RawLogEventParser;
 import com.logging.ingestion.service.IdempotencyService;
+import com.logging.ingestion.service.LogForwarder;
+import com.logging.ingestion.service.NdjsonIngestionService;
+import com.logging.ingestion.wal.WalFullException;
+import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -18,13 +39,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest({LogIngestionController.class, HealthController.class})
+@Import({IngestionRequestHandler.class, NdjsonIngestionService.class, RawLogEventParser.class})
 class LogIngestionControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
     @MockBean
-    private LogProducer logProducer;
+    private LogForwarder logForwarder;
 
     @MockBean
     private IdempotencyService idempotencyService;
@@ -180,4 +202,147 @@ class LogIngestionControllerTest {
                 .andExpect(status().isConflict())
                 .andExpect(jsonPath("$.status").value("duplicate"));
     }
+
+    @Test
+    void ingestLog_walFull_returnsServiceUnavailable() throws Exception {
+        doThrow(new WalFullException("full")).when(logForwarder).forward(any(), any());
+
+        String json = """
+                {
+                    "serviceName": "order-service",
+                    "severity": "INFO",
+                    "message": "Order created"
+                }
+                """;
+
+        mockMvc.perform(post("/api/v1/logs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("unavailable"));
+    }
+
+    @Test
+    void ingestBatch_walFull_returnsServiceUnavailable() throws Exception {
+        doThrow(new WalFullException("full")).when(logForwarder).forwardAll(anyList());
+
+        String json = """
+                [
+                    {"serviceName": "user-service", "severity": "INFO", "message": "Log 1"}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/v1/logs/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void ingestBatch_forwardFails_releasesKeySoRetryIsAccepted() throws Exception {
+        Set<String> heldKeys = new HashSet<>();
+        when(idempotencyService.tryAcquire("batch-1")).thenAnswer(call -> heldKeys.add("batch-1"));
+        doAnswer(call -> heldKeys.remove(call.<String>getArgument(0)))
+                .when(idempotencyService).release(anyString());
+        doThrow(new UncheckedIOException(new IOException("disk error")))
+                .doNothing()
+                .when(logForwarder).forwardAll(anyList());
+
+        String json = """
+                [
+                    {"serviceName": "user-service", "severity": "INFO", "message": "Log 1"}
+                ]
+                """;
+
+        assertThrows(ServletException.class, () -> mockMvc.perform(post("/api/v1/logs/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Idempotency-Key", "batch-1")
+                .content(json)));
+        verify(idempotencyService).release("batch-1");
+
+        mockMvc.perform(post("/api/v1/logs/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Idempotency-Key", "batch-1")
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("accepted"));
+    }
+
+    @Test
+    void ingestNdjson_mixedLines_reportsRejectedLineNumbers() throws Exception {
+        String ndjson = """
+                {"serviceName": "user-service", "severity": "INFO", "message": "Log 1"}
+                {"serviceName": "user-service", "message": "Missing severity"}
+
+                {"serviceName": "order-service", "severity": "ERROR", "message": "Log 3"}
+                not json
+                """;
+
+        mockMvc.perform(post("/api/v1/logs/batch")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.rejectedLines[0].line").value(2))
+                .andExpect(jsonPath("$.rejectedLines[1].line").value(5))
+                .andExpect(jsonPath("$.complete").value(true));
+
+        verify(logForwarder).forwardAll(anyList(), isNull());
+    }
+
+    @Test
+    void ingestNdjson_resumeAfterLine_skipsAcceptedLinesAndKeysEachEvent() throws Exception {
+        String ndjson = """
+                {"serviceName": "user-service", "severity": "INFO", "message": "Log 1"}
+                {"serviceName": "user-service", "severity": "INFO", "message": "Log 2"}
+                {"serviceName": "user-service", "severity": "INFO", "message": "Log 3"}
+                """;
+
+        mockMvc.perform(post("/api/v1/logs/batch")
+                        .contentType("application/x-ndjson")
+                        .header("X-Idempotency-Key", "upload-1")
+                        .header("X-Resume-After-Line", "1")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.lastLine").value(3));
+
+        verify(logForwarder).forwardAll(argThat(events -> events.size() == 2),
+                eq(List.of("upload-1:2", "upload-1:3")));
+        verify(idempotencyService, never()).release(anyString());
+    }
+
+    @Test
+    void ingestNdjson_duplicateKey_returnsConflictBody() throws Exception {
+        when(idempotencyService.tryAcquire("upload-1")).thenReturn(false);
+
+        mockMvc.perform(post("/api/v1/logs/batch")
+                        .contentType("application/x-ndjson")
+                        .header("X-Idempotency-Key", "upload-1")
+                        .content("{\"serviceName\": \"user-service\", \"severity\": \"INFO\", \"message\": \"Log 1\"}\n"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value("duplicate"));
+
+        verify(logForwarder, never()).forwardAll(anyList(), any());
+    }
+
+    @Test
+    void ingestNdjson_walFull_returnsServiceUnavailable() throws Exception {
+        doThrow(new WalFullException("full")).when(logForwarder).forwardAll(anyList(), any());
+
+        String ndjson = """
+                {"serviceName": "user-service", "severity": "INFO", "message": "Log 1"}
+                """;
+
+        mockMvc.perform(post("/api/v1/logs/batch")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.accepted").value(0))
+                .andExpect(jsonPath("$.lastLine").value(0))
+                .andExpect(jsonPath("$.complete").value(false));
+
+        verify(idempotencyService).release(null);
+    }
 }
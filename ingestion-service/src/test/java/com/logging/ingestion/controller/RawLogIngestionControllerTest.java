@@ -0,0 +1,173 @@
+package com.logging.ingestion.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.logging.common.dto.LogEvent;
+import com.logging.ingestion.raw.RawLogEvent;
+import com.logging.ingestion.raw.RawLogEventParser;
+import com.logging.ingestion.service.IdempotencyService;
+import com.logging.ingestion.service.LogForwarder;
+import com.logging.ingestion.service.NdjsonIngestionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = RawLogIngestionController.class, properties = "app.ingestion.mode=raw")
+@Import({IngestionRequestHandler.class, RawLogEventParser.class, NdjsonIngestionService.class})
+class RawLogIngestionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LogForwarder logForwarder;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        when(idempotencyService.tryAcquire(anyString())).thenReturn(true);
+        when(idempotencyService.tryAcquire(null)).thenReturn(true);
+    }
+
+    @Test
+    void ingestLog_withTimestamp_forwardsOriginalBytes() throws Exception {
+        String json = """
+                {"serviceName":"user-service","severity":"INFO","message":"User logged in","timestamp":"2024-01-15T10:30:00Z","traceId":"abc-123","metadata":{"userId":7}}""";
+
+        mockMvc.perform(post("/api/v1/logs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Idempotency-Key", "key-1")
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("accepted"));
+
+        ArgumentCaptor<RawLogEvent> captor = ArgumentCaptor.forClass(RawLogEvent.class);
+        verify(logForwarder).forwardRaw(captor.capture(), eq("key-1"));
+        assertThat(captor.getValue().key()).isEqualTo("abc-123");
+        assertThat(new String(captor.getValue().value(), StandardCharsets.UTF_8)).isEqualTo(json);
+    }
+
+    @Test
+    void ingestLog_withoutTimestamp_addsOne() throws Exception {
+        String json = """
+                {"serviceName":"payment-service","severity":"ERROR","message":"Payment failed"}""";
+
+        mockMvc.perform(post("/api/v1/logs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<RawLogEvent> captor = ArgumentCaptor.forClass(RawLogEvent.class);
+        verify(logForwarder).forwardRaw(captor.capture(), any());
+        String forwarded = new String(captor.getValue().value(), StandardCharsets.UTF_8);
+        assertThat(captor.getValue().key()).isEqualTo("payment-service");
+        assertThat(forwarded).startsWith("{\"timestamp\":\"")
+                .endsWith("\"serviceName\":\"payment-service\",\"severity\":\"ERROR\",\"message\":\"Payment failed\"}");
+    }
+
+    @Test
+    void ingestLog_unknownField_forwardedAndReadableByConsumer() throws Exception {
+        String json = """
+                {"serviceName":"order-service","severity":"WARN","message":"Slow query","env":"prod","tags":["db"]}""";
+
+        mockMvc.perform(post("/api/v1/logs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<RawLogEvent> captor = ArgumentCaptor.forClass(RawLogEvent.class);
+        verify(logForwarder).forwardRaw(captor.capture(), any());
+
+        // Read back the way the monitoring consumer does, with a plain mapper
+        ObjectMapper consumerMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        LogEvent logEvent = consumerMapper.readValue(captor.getValue().value(), LogEvent.class);
+        assertThat(logEvent.serviceName()).isEqualTo("order-service");
+        assertThat(logEvent.message()).isEqualTo("Slow query");
+    }
+
+    @Test
+    void ingestLog_blankMessage_returnsBadRequest() throws Exception {
+        String json = """
+                {"serviceName": "user-service", "severity": "WARN", "message": "  "}
+                """;
+
+        mockMvc.perform(post("/api/v1/logs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("message is required"));
+
+        verify(logForwarder, never()).forwardRaw(any(), any());
+    }
+
+    @Test
+    void ingestLog_unknownSeverity_returnsBadRequest() throws Exception {
+        String json = """
+                {"serviceName": "user-service", "severity": "DEBUG", "message": "Hello"}
+                """;
+
+        mockMvc.perform(post("/api/v1/logs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ingestBatch_forwardsEachElementsBytes() throws Exception {
+        String first = "{\"serviceName\":\"user-service\",\"severity\":\"INFO\",\"message\":\"Log 1\",\"timestamp\":\"2024-01-15T10:30:00Z\"}";
+        String second = "{\"serviceName\":\"user-service\",\"severity\":\"WARN\",\"message\":\"Log 2\",\"timestamp\":1705314600}";
+
+        mockMvc.perform(post("/api/v1/logs/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\n  " + first + ",\n  " + second + "\n]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2));
+
+        ArgumentCaptor<List<RawLogEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(logForwarder).forwardAllRaw(captor.capture());
+        assertThat(captor.getValue())
+                .extracting(event -> new String(event.value(), StandardCharsets.UTF_8))
+                .containsExactly(first, second);
+    }
+
+    @Test
+    void ingestBatch_invalidElement_rejectsBatch() throws Exception {
+        String json = """
+                [
+                    {"serviceName": "user-service", "severity": "INFO", "message": "Log 1"},
+                    {"severity": "INFO", "message": "Log 2"}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/v1/logs/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("element 1: serviceName is required"));
+
+        verify(logForwarder, never()).forwardAllRaw(any());
+    }
+}
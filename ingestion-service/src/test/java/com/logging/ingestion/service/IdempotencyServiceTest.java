@@ -0,0 +1,177 @@
+package com.logging.ingestion.service;
+
+import com.logging.common.idempotency.IdempotencyStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyServiceTest {
+
+    // Long enough that a batch is only ever closed by reaching its size
+    private static final long MAX_WAIT_MICROS = TimeUnit.SECONDS.toMicros(5);
+
+    private final FakeStore store = new FakeStore();
+    private final ExecutorService requests = Executors.newCachedThreadPool();
+    private IdempotencyService service;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        requests.shutdownNow();
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void mixedBatch_acceptsNewKeysAndRejectsDuplicatesInOneRoundTrip() throws Exception {
+        store.keys.add("seen-before");
+        start(true, 3);
+
+        Future<Boolean> first = acquireAsync("new-1");
+        Future<Boolean> duplicate = acquireAsync("seen-before");
+        Future<Boolean> second = acquireAsync("new-2");
+
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertFalse(duplicate.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, store.batches.size());
+        assertEquals(Set.of("new-1", "seen-before", "new-2"), new HashSet<>(store.batches.get(0)));
+        assertEquals(1, service.getRedisRoundTrips());
+        assertEquals(3, service.getRedisChecks());
+    }
+
+    @Test
+    void sameKeyTwiceInOneBatch_isAcceptedOnce() throws Exception {
+        start(true, 2);
+
+        Future<Boolean> one = acquireAsync("retry");
+        Future<Boolean> other = acquireAsync("retry");
+
+        assertTrue(one.get(5, TimeUnit.SECONDS) ^ other.get(5, TimeUnit.SECONDS));
+        assertEquals(1, store.batches.size());
+    }
+
+    @Test
+    void keyAcceptedByThisInstance_isRejectedWithoutRoundTrip() {
+        start(true, 1);
+
+        assertTrue(service.tryAcquire("batch-1"));
+        assertFalse(service.tryAcquire("batch-1"));
+
+        assertEquals(1, service.getRedisRoundTrips());
+        assertEquals(1, service.getLocalDuplicates());
+    }
+
+    @Test
+    void releasedKey_isAcceptedAgain() {
+        start(true, 1);
+
+        assertTrue(service.tryAcquire("batch-1"));
+        service.release("batch-1");
+
+        assertTrue(service.tryAcquire("batch-1"));
+        assertEquals(2, service.getRedisRoundTrips());
+    }
+
+    @Test
+    void redisFailure_acceptsWholeBatchUnrecorded() throws Exception {
+        store.failing = true;
+        start(true, 2);
+
+        Future<Boolean> first = acquireAsync("batch-1");
+        Future<Boolean> second = acquireAsync("batch-2");
+
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, service.getUnrecordedAccepts());
+    }
+
+    @Test
+    void redisFailure_withoutBatching_acceptsKeyUnrecorded() {
+        store.failing = true;
+        start(false, 1);
+
+        assertTrue(service.tryAcquire("batch-1"));
+        assertEquals(1, service.getUnrecordedAccepts());
+    }
+
+    @Test
+    void withoutBatching_redisDecidesEachKey() {
+        store.keys.add("seen-before");
+        start(false, 1);
+
+        assertTrue(service.tryAcquire("batch-1"));
+        assertFalse(service.tryAcquire("seen-before"));
+        assertEquals(2, service.getRedisRoundTrips());
+    }
+
+    @Test
+    void missingKey_isAlwaysAccepted() {
+        start(true, 1);
+
+        assertTrue(service.tryAcquire(null));
+        assertTrue(service.tryAcquire(" "));
+        assertEquals(0, service.getRedisRoundTrips());
+    }
+
+    private void start(boolean batching, int batchSize) {
+        service = new IdempotencyService(store, batching, 1000, batchSize, MAX_WAIT_MICROS, 10_000);
+        service.start();
+    }
+
+    private Future<Boolean> acquireAsync(String key) {
+        return requests.submit(() -> service.tryAcquire(key));
+    }
+
+    private static final class FakeStore implements IdempotencyStore {
+
+        final Set<String> keys = new HashSet<>();
+        final List<List<String>> batches = new ArrayList<>();
+        volatile boolean failing;
+
+        @Override
+        public synchronized boolean putIfAbsent(String key) {
+            checkAvailable();
+            return keys.add(key);
+        }
+
+        @Override
+        public synchronized boolean[] putAllIfAbsent(List<String> batch) {
+            checkAvailable();
+            batches.add(List.copyOf(batch));
+            boolean[] isNew = new boolean[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                isNew[i] = keys.add(batch.get(i));
+            }
+            return isNew;
+        }
+
+        @Override
+        public synchronized boolean contains(String key) {
+            return keys.contains(key);
+        }
+
+        @Override
+        public synchronized void remove(String key) {
+            keys.remove(key);
+        }
+
+        private void checkAvailable() {
+            if (failing) {
+                throw new IllegalStateException("Redis connection refused");
+            }
+        }
+    }
+}
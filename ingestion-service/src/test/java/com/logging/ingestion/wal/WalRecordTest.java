@@ -0,0 +1,36 @@
+package com.logging.ingestion.wal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WalRecordTest {
+
+    private static final byte[] VALUE = {(byte) 0xC1, 1, 0, 7};
+
+    @Test
+    void encodeDecode_roundTripsEveryField() {
+        UUID eventId = UUID.randomUUID();
+        WalRecord record = new WalRecord("trace-1", "idem-1", eventId, VALUE);
+
+        WalRecord decoded = WalRecord.decode(record.encode());
+
+        assertEquals("trace-1", decoded.key());
+        assertEquals("idem-1", decoded.idempotencyKey());
+        assertEquals(eventId, decoded.eventId());
+        assertArrayEquals(VALUE, decoded.value());
+    }
+
+    @Test
+    void encodeDecode_keepsNullAndEmptyIdempotencyKeysApart() {
+        WalRecord withoutKey = WalRecord.decode(new WalRecord("k", null, UUID.randomUUID(), VALUE).encode());
+        WalRecord emptyKey = WalRecord.decode(new WalRecord("k", "", UUID.randomUUID(), VALUE).encode());
+
+        assertNull(withoutKey.idempotencyKey());
+        assertEquals("", emptyKey.idempotencyKey());
+    }
+}
@@ -0,0 +1,118 @@
+package com.logging.ingestion.wal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WalSegmentTest {
+
+    private static final int SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopen_findsEveryWrittenEntry() throws IOException {
+        WalSegment segment = WalSegment.create(directory, 3, SIZE);
+        segment.append(payload('a', 10));
+        segment.append(payload('b', 20));
+        int end = segment.end();
+        segment.close();
+
+        WalSegment reopened = WalSegment.open(directory.resolve(WalSegment.fileName(3)), 3);
+        assertEquals(end, reopened.end());
+        int first = WalSegment.HEADER_SIZE;
+        assertArrayEquals(payload('a', 10), reopened.read(first));
+        int second = reopened.nextOffset(first, 10);
+        assertArrayEquals(payload('b', 20), reopened.read(second));
+        assertNull(reopened.read(reopened.nextOffset(second, 20)));
+        reopened.close();
+    }
+
+    @Test
+    void reopen_afterTornTail_endsAtLastCompleteEntry() throws IOException {
+        WalSegment segment = WalSegment.create(directory, 0, SIZE);
+        segment.append(payload('a', 10));
+        segment.append(payload('b', 20));
+        int end = segment.end();
+        segment.close();
+
+        // A crash after the length was written but before the payload and checksum
+        Path path = directory.resolve(WalSegment.fileName(0));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(30).flip(), end);
+            channel.write(ByteBuffer.wrap(payload('c', 12)), end + WalSegment.ENTRY_OVERHEAD);
+        }
+
+        WalSegment reopened = WalSegment.open(path, 0);
+        assertEquals(end, reopened.end());
+        assertNull(reopened.read(end));
+
+        // The torn entry is overwritten and the segment stays readable after another restart
+        reopened.append(payload('d', 5));
+        reopened.close();
+        WalSegment again = WalSegment.open(path, 0);
+        assertArrayEquals(payload('d', 5), again.read(end));
+        assertEquals(end + WalSegment.ENTRY_OVERHEAD + 5, again.end());
+        again.close();
+    }
+
+    @Test
+    void reopen_withCorruptPayload_endsBeforeIt() throws IOException {
+        WalSegment segment = WalSegment.create(directory, 0, SIZE);
+        segment.append(payload('a', 10));
+        int second = segment.end();
+        segment.append(payload('b', 20));
+        segment.close();
+
+        Path path = directory.resolve(WalSegment.fileName(0));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'x'}), second + WalSegment.ENTRY_OVERHEAD + 3);
+        }
+
+        WalSegment reopened = WalSegment.open(path, 0);
+        assertEquals(second, reopened.end());
+        reopened.close();
+    }
+
+    @Test
+    void open_rejectsFileWithoutMagic() throws IOException {
+        Path path = directory.resolve(WalSegment.fileName(0));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(SIZE));
+        }
+
+        assertThrows(IOException.class, () -> WalSegment.open(path, 0));
+    }
+
+    @Test
+    void hasRoom_accountsForEntryOverhead() throws IOException {
+        WalSegment segment = WalSegment.create(directory, 0, SIZE);
+        int capacity = SIZE - WalSegment.HEADER_SIZE - WalSegment.ENTRY_OVERHEAD;
+
+        assertTrue(segment.hasRoom(capacity));
+        assertFalse(segment.hasRoom(capacity + 1));
+        segment.append(payload('a', capacity));
+        assertFalse(segment.hasRoom(0));
+        segment.close();
+    }
+
+    private static byte[] payload(char fill, int length) {
+        byte[] payload = new byte[length];
+        Arrays.fill(payload, (byte) fill);
+        return payload;
+    }
+}
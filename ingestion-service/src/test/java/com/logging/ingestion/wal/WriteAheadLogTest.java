@@ -0,0 +1,181 @@
+package com.logging.ingestion.wal;
+
+import com.logging.ingestion.wal.WriteAheadLog.WalEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteAheadLogTest {
+
+    // Each test record encodes to 83 bytes, so two entries fit in a 256-byte segment and a third rolls
+    private static final int SEGMENT_BYTES = 256;
+    private static final int VALUE_BYTES = 50;
+    private static final int MAX_REQUEST_SIZE = 1048576;
+
+    @TempDir
+    Path directory;
+
+    private final List<WriteAheadLog> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (WriteAheadLog wal : opened) {
+            wal.close();
+        }
+    }
+
+    @Test
+    void append_pastSegmentEnd_rollsAndReadsInOrder() throws Exception {
+        WriteAheadLog wal = open(16);
+        wal.append(List.of(record(0), record(1), record(2)));
+        wal.append(List.of(record(3), record(4)));
+
+        assertEquals(3, wal.segmentCount());
+        List<WalEntry> entries = wal.read(wal.committedPosition(), 10, 0);
+        assertEquals(5, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals("key-" + i, entries.get(i).record().key());
+        }
+        assertEquals(2, entries.get(4).next().segmentId());
+    }
+
+    @Test
+    void read_respectsMaxRecordsAndResumesFromNext() throws Exception {
+        WriteAheadLog wal = open(16);
+        wal.append(List.of(record(0), record(1), record(2)));
+
+        List<WalEntry> first = wal.read(wal.committedPosition(), 2, 0);
+        assertEquals(2, first.size());
+        List<WalEntry> rest = wal.read(first.get(1).next(), 10, 0);
+        assertEquals(1, rest.size());
+        assertEquals("key-2", rest.get(0).record().key());
+        assertTrue(wal.read(rest.get(0).next(), 10, 0).isEmpty());
+    }
+
+    @Test
+    void commit_deletesDrainedSegments() throws Exception {
+        WriteAheadLog wal = open(16);
+        wal.append(List.of(record(0), record(1), record(2), record(3), record(4)));
+        List<WalEntry> entries = wal.read(wal.committedPosition(), 10, 0);
+
+        wal.commit(entries.get(3).next());
+
+        assertEquals(2, wal.segmentCount());
+        assertEquals(2, countSegmentFiles());
+        assertEquals(entries.get(3).next(), wal.committedPosition());
+    }
+
+    @Test
+    void reopen_resumesFromCheckpoint() throws Exception {
+        WriteAheadLog wal = open(16);
+        wal.append(List.of(record(0), record(1), record(2), record(3), record(4)));
+        List<WalEntry> entries = wal.read(wal.committedPosition(), 10, 0);
+        wal.commit(entries.get(2).next());
+        wal.close();
+        opened.remove(wal);
+
+        WriteAheadLog reopened = open(16);
+        assertEquals(entries.get(2).next(), reopened.committedPosition());
+        List<WalEntry> remaining = reopened.read(reopened.committedPosition(), 10, 0);
+        assertEquals(List.of("key-3", "key-4"), remaining.stream().map(entry -> entry.record().key()).toList());
+
+        // New appends continue after what survived the restart
+        reopened.append(List.of(record(5)));
+        List<WalEntry> appended = reopened.read(remaining.get(1).next(), 10, 0);
+        assertEquals("key-5", appended.get(0).record().key());
+    }
+
+    @Test
+    void reopen_withoutCheckpoint_startsAtFirstSegment() throws Exception {
+        WriteAheadLog wal = open(16);
+        wal.append(List.of(record(0), record(1)));
+        wal.close();
+        opened.remove(wal);
+
+        WriteAheadLog reopened = open(16);
+        assertEquals(new WalPosition(0, WalSegment.HEADER_SIZE), reopened.committedPosition());
+        assertEquals(2, reopened.read(reopened.committedPosition(), 10, 0).size());
+    }
+
+    @Test
+    void append_whenFull_throwsAndWritesNothing() throws Exception {
+        WriteAheadLog wal = open(1);
+        wal.append(List.of(record(0)));
+
+        assertThrows(WalFullException.class, () -> wal.append(List.of(record(1))));
+
+        assertEquals(1, wal.read(wal.committedPosition(), 10, 0).size());
+    }
+
+    @Test
+    void append_recordTooLarge_reportsItsIndexAndWritesNothing() throws Exception {
+        WriteAheadLog wal = open(16);
+        WalRecord large = new WalRecord("key-large", null, UUID.randomUUID(), new byte[SEGMENT_BYTES]);
+
+        EventTooLargeException e = assertThrows(EventTooLargeException.class,
+                () -> wal.append(List.of(record(0), large, record(2))));
+
+        assertEquals(1, e.getIndex());
+        assertTrue(wal.read(wal.committedPosition(), 10, 0).isEmpty());
+    }
+
+    @Test
+    void quarantine_appendsLengthPrefixedRecords() throws Exception {
+        WriteAheadLog wal = open(16);
+        WalRecord first = record(0);
+        WalRecord second = new WalRecord("key-1", "idem-1", UUID.randomUUID(), new byte[]{1, 2, 3});
+
+        wal.quarantine(first);
+        wal.quarantine(second);
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(directory.resolve("quarantine")));
+        WalRecord readFirst = WalRecord.decode(next(buffer));
+        WalRecord readSecond = WalRecord.decode(next(buffer));
+        assertEquals(0, buffer.remaining());
+        assertEquals(first.eventId(), readFirst.eventId());
+        assertArrayEquals(first.value(), readFirst.value());
+        assertEquals("idem-1", readSecond.idempotencyKey());
+        assertArrayEquals(new byte[]{1, 2, 3}, readSecond.value());
+    }
+
+    private WriteAheadLog open(int maxSegments) throws IOException {
+        WriteAheadLog wal = new WriteAheadLog(directory.toString(), SEGMENT_BYTES, maxSegments,
+                FsyncPolicy.NEVER, MAX_REQUEST_SIZE);
+        wal.open();
+        opened.add(wal);
+        return wal;
+    }
+
+    private long countSegmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".wal")).count();
+        }
+    }
+
+    private static WalRecord record(int index) {
+        byte[] value = new byte[VALUE_BYTES];
+        Arrays.fill(value, (byte) index);
+        return new WalRecord("key-" + index, null, UUID.randomUUID(), value);
+    }
+
+    private static byte[] next(ByteBuffer buffer) {
+        byte[] payload = new byte[buffer.getInt()];
+        buffer.get(payload);
+        return payload;
+    }
+}
@@ -1,8 +1,10 @@
 -- Database schema for Distributed Logging System
 
--- Logs table
+-- Logs table, range-partitioned by event timestamp. monitoring-service creates
+-- partitions ahead of time and drops whole partitions past retention
+-- (app.partitions.*). Rows outside every partition land in logs_default.
 CREATE TABLE IF NOT EXISTS logs (
-    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
     service_name VARCHAR(100) NOT NULL,
     severity VARCHAR(10) NOT NULL,
     message TEXT NOT NULL,
@@ -10,15 +12,62 @@ CREATE TABLE IF NOT EXISTS logs (
     trace_id VARCHAR(50),
     host VARCHAR(100),
     metadata JSONB,
-    created_at TIMESTAMPTZ DEFAULT NOW()
-);
+    created_at TIMESTAMPTZ DEFAULT NOW(),
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE IF NOT EXISTS logs_default PARTITION OF logs DEFAULT;
 
--- Indexes for common query patterns
+-- Daily partitions for the first week, so logs arriving before monitoring-service
+-- starts do not all land in the default partition
+DO $$
+DECLARE
+    day DATE;
+BEGIN
+    FOR i IN 0..7 LOOP
+        day := (NOW() AT TIME ZONE 'UTC')::date + i;
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF logs FOR VALUES FROM (%L) TO (%L)',
+            'logs_p' || to_char(day, 'YYYYMMDD'),
+            day::timestamp AT TIME ZONE 'UTC',
+            (day + 1)::timestamp AT TIME ZONE 'UTC');
+    END LOOP;
+END;
+$$;
+
+-- Indexes for common query patterns (created on every partition)
 CREATE INDEX IF NOT EXISTS idx_logs_service_timestamp ON logs(service_name, timestamp DESC);
 CREATE INDEX IF NOT EXISTS idx_logs_severity_timestamp ON logs(severity, timestamp DESC);
 CREATE INDEX IF NOT EXISTS idx_logs_trace_id ON logs(trace_id) WHERE trace_id IS NOT NULL;
 CREATE INDEX IF NOT EXISTS idx_logs_timestamp ON logs(timestamp DESC);
 
+-- Per-minute log counts, maintained by monitoring-service as it persists logs.
+-- Buckets are keyed by the event timestamp, so late events land in the right minute.
+CREATE TABLE IF NOT EXISTS log_counts_minute (
+    bucket TIMESTAMPTZ NOT NULL,
+    service_name VARCHAR(100) NOT NULL,
+    severity VARCHAR(10) NOT NULL,
+    count BIGINT NOT NULL,
+    PRIMARY KEY (bucket, service_name, severity)
+);
+
+CREATE INDEX IF NOT EXISTS idx_log_counts_minute_service_bucket ON log_counts_minute(service_name, bucket);
+
+-- On an existing database monitoring-service creates this table at startup and
+-- backfills it from the logs already stored (LogRollupInitializer).
+
+-- Kafka offsets of the log-processors group, written in the same transaction as
+-- the log rows when monitoring-service runs with app.persistence.offsets: database.
+-- next_offset is the offset of the next record to consume.
+CREATE TABLE IF NOT EXISTS consumer_offsets (
+    group_id VARCHAR(255) NOT NULL,
+    topic VARCHAR(255) NOT NULL,
+    partition INT NOT NULL,
+    next_offset BIGINT NOT NULL,
+    updated_at TIMESTAMPTZ DEFAULT NOW(),
+    PRIMARY KEY (group_id, topic, partition)
+);
+
 -- Processed IDs table (for idempotency)
 CREATE TABLE IF NOT EXISTS processed_ids (
     idempotency_key VARCHAR(100) PRIMARY KEY,
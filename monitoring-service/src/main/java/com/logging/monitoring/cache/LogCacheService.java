@@ -2,20 +2,56 @@ package com.logging.monitoring.cache;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logging.monitoring.dto.LogResponse;
 import com.logging.monitoring.entity.LogEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
 public class LogCacheService {
 
     private static final Logger log = LoggerFactory.getLogger(LogCacheService.class);
     private static final String KEY_PREFIX = "logs:recent:";
+    private static final String SERVICES_KEY = "logs:services";
+
+    // LPUSH + LTRIM + EXPIRE as one atomic round-trip, also registering the service
+    // for merged reads. KEYS = list, services set; ARGV = limit, ttlSeconds, service, values...
+    private static final String PUSH_SCRIPT_SOURCE = """
+            redis.call('LPUSH', KEYS[1], unpack(ARGV, 4))
+            redis.call('LTRIM', KEYS[1], 0, tonumber(ARGV[1]) - 1)
+            redis.call('EXPIRE', KEYS[1], tonumber(ARGV[2]))
+            redis.call('SADD', KEYS[2], ARGV[3])
+            redis.call('EXPIRE', KEYS[2], tonumber(ARGV[2]))
+            return 1
+            """;
+    private static final RedisScript<Long> PUSH_SCRIPT = new DefaultRedisScript<>(PUSH_SCRIPT_SOURCE, Long.class);
+    private static final byte[] PUSH_SCRIPT_BYTES = PUSH_SCRIPT_SOURCE.getBytes(StandardCharsets.UTF_8);
+    private static final String PUSH_SCRIPT_SHA = PUSH_SCRIPT.getSha1();
+    private static final Comparator<LogResponse> NEWEST_FIRST = Comparator
+            .comparing(LogResponse::timestamp, Comparator.nullsLast(Comparator.<Instant>reverseOrder()))
+            .thenComparing(LogResponse::id, Comparator.nullsLast(Comparator.<UUID>reverseOrder()));
 
     private final StringRedisTemplate redisTemplate;
     private final ObjectMapper objectMapper;
@@ -38,12 +74,207 @@ public class LogCacheService {
 
         try {
             String logJson = objectMapper.writeValueAsString(logEntity);
-            redisTemplate.opsForList().leftPush(key, logJson);
-            redisTemplate.opsForList().trim(key, 0, recentLogsLimit - 1);
-            redisTemplate.expire(key, ttl);
+            redisTemplate.execute(PUSH_SCRIPT, List.of(key, SERVICES_KEY),
+                    String.valueOf(recentLogsLimit), String.valueOf(ttl.toSeconds()),
+                    logEntity.getServiceName(), logJson);
             log.debug("Cached log for service: {}", logEntity.getServiceName());
         } catch (JsonProcessingException e) {
             log.error("Failed to serialize log for caching: {}", e.getMessage());
         }
     }
+
+    /**
+     * Cache a consumed batch. Logs are grouped per service and every service's
+     * list update is sent in a single pipelined exchange; each update is still
+     * atomic on the Redis side. The script is run by SHA; services whose update
+     * failed because Redis no longer has it cached are sent again once it has
+     * been loaded.
+     */
+    public void cacheRecentLogs(List<LogEntity> logEntities) {
+        if (logEntities.isEmpty()) {
+            return;
+        }
+        if (logEntities.size() == 1) {
+            cacheRecentLog(logEntities.get(0));
+            return;
+        }
+
+        Map<String, List<String>> logsByService = new LinkedHashMap<>();
+        for (LogEntity logEntity : logEntities) {
+            try {
+                logsByService.computeIfAbsent(logEntity.getServiceName(), service -> new ArrayList<>())
+                        .add(objectMapper.writeValueAsString(logEntity));
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize log for caching: {}", e.getMessage());
+            }
+        }
+
+        byte[] limitArg = bytes(String.valueOf(recentLogsLimit));
+        byte[] ttlArg = bytes(String.valueOf(ttl.toSeconds()));
+        byte[] servicesKey = bytes(SERVICES_KEY);
+
+        List<byte[][]> updates = new ArrayList<>(logsByService.size());
+        for (Map.Entry<String, List<String>> entry : logsByService.entrySet()) {
+            List<String> logs = entry.getValue();
+            // Anything older than the newest recentLogsLimit entries would be trimmed anyway
+            List<String> kept = logs.subList(Math.max(0, logs.size() - recentLogsLimit), logs.size());
+
+            byte[][] keysAndArgs = new byte[kept.size() + 5][];
+            keysAndArgs[0] = bytes(KEY_PREFIX + entry.getKey());
+            keysAndArgs[1] = servicesKey;
+            keysAndArgs[2] = limitArg;
+            keysAndArgs[3] = ttlArg;
+            keysAndArgs[4] = bytes(entry.getKey());
+            for (int i = 0; i < kept.size(); i++) {
+                keysAndArgs[i + 5] = bytes(kept.get(i));
+            }
+            updates.add(keysAndArgs);
+        }
+
+        try {
+            pushPipelined(updates);
+        } catch (RedisPipelineException e) {
+            List<byte[][]> missing = new ArrayList<>();
+            List<Object> results = e.getPipelineResult();
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i) instanceof Exception failure) {
+                    if (!isNoScript(failure)) {
+                        throw e;
+                    }
+                    missing.add(updates.get(i));
+                }
+            }
+            redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.scriptingCommands().scriptLoad(PUSH_SCRIPT_BYTES));
+            pushPipelined(missing);
+        }
+        log.debug("Cached {} logs for {} services", logEntities.size(), logsByService.size());
+    }
+
+    private void pushPipelined(List<byte[][]> updates) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[][] keysAndArgs : updates) {
+                connection.scriptingCommands().evalSha(PUSH_SCRIPT_SHA, ReturnType.INTEGER, 2, keysAndArgs);
+            }
+            return null;
+        });
+    }
+
+    private static boolean isNoScript(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Most recent cached logs for one service, newest first.
+     *
+     * @return empty if the service has nothing cached (cache miss)
+     */
+    public Optional<List<LogResponse>> getRecentLogs(String serviceName, int limit) {
+        List<String> cached = redisTemplate.opsForList().range(KEY_PREFIX + serviceName, 0, cappedLimit(limit) - 1);
+        if (cached == null || cached.isEmpty()) {
+            return Optional.empty();
+        }
+        List<LogResponse> logs = deserialize(cached);
+        logs.sort(NEWEST_FIRST);
+        return Optional.of(mergeByTimestamp(List.of(logs), logs.size()));
+    }
+
+    /**
+     * Most recent cached logs across all services, merged by timestamp. The
+     * per-service lists are fetched in one pipelined round-trip.
+     *
+     * @return empty if nothing is cached (cache miss)
+     */
+    public Optional<List<LogResponse>> getRecentLogs(int limit) {
+        Set<String> services = redisTemplate.opsForSet().members(SERVICES_KEY);
+        if (services == null || services.isEmpty()) {
+            return Optional.empty();
+        }
+
+        int capped = cappedLimit(limit);
+        List<String> serviceList = List.copyOf(services);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String service : serviceList) {
+                connection.listCommands().lRange(bytes(KEY_PREFIX + service), 0, capped - 1);
+            }
+            return null;
+        });
+
+        List<List<LogResponse>> perService = new ArrayList<>(results.size());
+        for (Object result : results) {
+            if (result instanceof List<?> cached && !cached.isEmpty()) {
+                List<LogResponse> logs = deserialize(cached.stream().map(String::valueOf).toList());
+                if (!logs.isEmpty()) {
+                    logs.sort(NEWEST_FIRST);
+                    perService.add(logs);
+                }
+            }
+        }
+        if (perService.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(mergeByTimestamp(perService, capped));
+    }
+
+    /**
+     * K-way merge of per-service lists that are each sorted newest first.
+     * A list is kept in push order, which is consume order, and one service's
+     * logs can be consumed out of timestamp order across partitions, so
+     * callers sort each list before merging. A log pushed twice, as when its
+     * batch was redelivered, is returned once.
+     */
+    static List<LogResponse> mergeByTimestamp(List<List<LogResponse>> lists, int limit) {
+        // Each heap entry is {list index, position in list}
+        PriorityQueue<int[]> heads = new PriorityQueue<>(lists.size(), Comparator.comparing(
+                (int[] head) -> lists.get(head[0]).get(head[1]), NEWEST_FIRST));
+        for (int i = 0; i < lists.size(); i++) {
+            if (!lists.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+
+        List<LogResponse> merged = new ArrayList<>(limit);
+        Set<UUID> seen = new HashSet<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<LogResponse> list = lists.get(head[0]);
+            LogResponse next = list.get(head[1]);
+            if (next.id() == null || seen.add(next.id())) {
+                merged.add(next);
+            }
+            if (head[1] + 1 < list.size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    private List<LogResponse> deserialize(List<String> cached) {
+        List<LogResponse> logs = new ArrayList<>(cached.size());
+        for (String json : cached) {
+            try {
+                logs.add(objectMapper.readValue(json, LogResponse.class));
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping unreadable cached log: {}", e.getMessage());
+            }
+        }
+        return logs;
+    }
+
+    public int getRecentLogsLimit() {
+        return recentLogsLimit;
+    }
+
+    private int cappedLimit(int limit) {
+        return Math.max(1, Math.min(limit, recentLogsLimit));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
 }
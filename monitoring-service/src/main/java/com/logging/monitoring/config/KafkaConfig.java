@@ -3,7 +3,10 @@ package com.logging.monitoring.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.logging.common.dto.LogEvent;
+import com.logging.common.kafka.LogEventDeserializer;
+import com.logging.common.kafka.LogEventSerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.slf4j.Logger;
@@ -18,11 +21,10 @@ import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static org.apache.kafka.clients.consumer.ConsumerConfig.*;
@@ -50,6 +52,12 @@ public class KafkaConfig {
     @Value("${app.retry.max-interval-ms:10000}")
     private long maxIntervalMs;
 
+    @Value("${app.kafka.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${app.kafka.concurrency:3}")
+    private int concurrency;
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -59,17 +67,16 @@ public class KafkaConfig {
 
     @Bean
     public ConsumerFactory<String, LogEvent> consumerFactory(ObjectMapper objectMapper) {
-        JsonDeserializer<LogEvent> jsonDeserializer = new JsonDeserializer<>(LogEvent.class, objectMapper);
-        jsonDeserializer.addTrustedPackages("com.logging.common.dto");
-
+        // Binary records are recognised by header; anything else is read as JSON
         ErrorHandlingDeserializer<LogEvent> errorHandlingDeserializer =
-                new ErrorHandlingDeserializer<>(jsonDeserializer);
+                new ErrorHandlingDeserializer<>(new LogEventDeserializer(objectMapper));
 
         Map<String, Object> props = new HashMap<>();
         props.put(BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(GROUP_ID_CONFIG, groupId);
         props.put(AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(MAX_POLL_RECORDS_CONFIG, maxPollRecords);
 
         return new DefaultKafkaConsumerFactory<>(
                 props,
@@ -79,15 +86,26 @@ public class KafkaConfig {
     }
 
     @Bean
-    public ProducerFactory<String, LogEvent> producerFactory(ObjectMapper objectMapper) {
+    public ProducerFactory<String, LogEvent> producerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, LogEventSerializer.class);
 
-        DefaultKafkaProducerFactory<String, LogEvent> factory = new DefaultKafkaProducerFactory<>(props);
-        factory.setValueSerializer(new JsonSerializer<>(objectMapper));
-        return factory;
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+
+    /**
+     * For dead-lettering records that could not be deserialized; their
+     * original bytes are republished unchanged.
+     */
+    @Bean
+    public KafkaTemplate<String, byte[]> rawKafkaTemplate() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                props, new StringSerializer(), new ByteArraySerializer()));
     }
 
     @Bean
@@ -96,17 +114,26 @@ public class KafkaConfig {
     }
 
     @Bean
-    public CommonErrorHandler errorHandler(KafkaTemplate<String, LogEvent> kafkaTemplate) {
-        ExponentialBackOff backOff = new ExponentialBackOff(initialIntervalMs, multiplier);
-        backOff.setMaxInterval(maxIntervalMs);
-        backOff.setMaxElapsedTime(maxIntervalMs * maxAttempts);
-
-        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+    public DeadLetterPublishingRecoverer deadLetterRecoverer(
+            KafkaTemplate<String, LogEvent> kafkaTemplate,
+            KafkaTemplate<String, byte[]> rawKafkaTemplate) {
+        Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+        templates.put(LogEvent.class, kafkaTemplate);
+        templates.put(byte[].class, rawKafkaTemplate);
+
+        return new DeadLetterPublishingRecoverer(templates,
                 (record, ex) -> {
-                    log.error("Sending record to DLQ after {} retries. Topic: {}, Partition: {}, Offset: {}, Error: {}",
-                            maxAttempts, record.topic(), record.partition(), record.offset(), ex.getMessage());
+                    log.error("Sending record to DLQ. Topic: {}, Partition: {}, Offset: {}, Error: {}",
+                            record.topic(), record.partition(), record.offset(), ex.getMessage());
                     return new org.apache.kafka.common.TopicPartition("logs.dlq", record.partition() % 3);
                 });
+    }
+
+    @Bean
+    public CommonErrorHandler errorHandler(DeadLetterPublishingRecoverer recoverer) {
+        ExponentialBackOff backOff = new ExponentialBackOff(initialIntervalMs, multiplier);
+        backOff.setMaxInterval(maxIntervalMs);
+        backOff.setMaxElapsedTime(maxIntervalMs * maxAttempts);
 
         DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, backOff);
         errorHandler.setRetryListeners((record, ex, deliveryAttempt) ->
@@ -125,8 +152,11 @@ public class KafkaConfig {
                 new ConcurrentKafkaListenerContainerFactory<>();
 
         factory.setConsumerFactory(consumerFactory);
+        // Deliver the whole poll to the listener so it can be persisted with one batched insert
+        factory.setBatchListener(true);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
-        factory.setConcurrency(3);
+        // Initial value; ListenerAutoscaler adjusts it at runtime when enabled
+        factory.setConcurrency(concurrency);
         factory.setCommonErrorHandler(errorHandler);
 
         return factory;
@@ -1,11 +1,18 @@
 package com.logging.monitoring.controller;
 
+import com.logging.monitoring.dto.ConsumerLag;
+import com.logging.monitoring.dto.CursorPage;
 import com.logging.monitoring.dto.LogResponse;
 import com.logging.monitoring.dto.PagedResponse;
+import com.logging.monitoring.dto.RealtimeStats;
 import com.logging.monitoring.dto.ServiceLogCount;
 import com.logging.monitoring.dto.SeverityCount;
+import com.logging.monitoring.kafka.ConsumerLagMonitor;
+import com.logging.monitoring.metrics.RealtimeMetricsService;
 import com.logging.monitoring.service.LogService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -14,6 +21,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -21,9 +30,14 @@ import java.util.UUID;
 public class LogController {
 
     private final LogService logService;
+    private final RealtimeMetricsService realtimeMetrics;
+    private final ConsumerLagMonitor lagMonitor;
 
-    public LogController(LogService logService) {
+    public LogController(LogService logService, RealtimeMetricsService realtimeMetrics,
+                         ConsumerLagMonitor lagMonitor) {
         this.logService = logService;
+        this.realtimeMetrics = realtimeMetrics;
+        this.lagMonitor = lagMonitor;
     }
 
     @GetMapping("/logs")
@@ -42,6 +56,36 @@ public class LogController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Keyset mode of {@link #searchLogs}: selected when a {@code cursor}
+     * parameter is present (empty for the first page).
+     */
+    @GetMapping(value = "/logs", params = "cursor")
+    public ResponseEntity<CursorPage<LogResponse>> searchLogsByCursor(
+            @RequestParam(required = false) String serviceName,
+            @RequestParam(required = false) String severity,
+            @RequestParam(required = false) String traceId,
+            @RequestParam(required = false) Instant startTime,
+            @RequestParam(required = false) Instant endTime,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "none") String total
+    ) {
+        CursorPage<LogResponse> response = logService.searchLogsByCursor(
+                serviceName, severity, traceId, startTime, endTime, cursor, size,
+                LogService.TotalMode.valueOf(total.toUpperCase(Locale.ROOT))
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/logs/recent")
+    public ResponseEntity<List<LogResponse>> getRecentLogs(
+            @RequestParam(required = false) String serviceName,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ResponseEntity.ok(logService.getRecentLogs(serviceName, limit));
+    }
+
     @GetMapping("/logs/{id}")
     public ResponseEntity<LogResponse> getLogById(@PathVariable UUID id) {
         return logService.getLogById(id)
@@ -60,20 +104,42 @@ public class LogController {
 
     @GetMapping("/metrics/counts")
     public ResponseEntity<List<SeverityCount>> getCountsBySeverity(
-            @RequestParam(required = false) String serviceName
+            @RequestParam(required = false) String serviceName,
+            @RequestParam(required = false) Instant startTime,
+            @RequestParam(required = false) Instant endTime
     ) {
-        List<SeverityCount> counts;
-        if (serviceName != null && !serviceName.isBlank()) {
-            counts = logService.getCountsBySeverityForService(serviceName);
-        } else {
-            counts = logService.getCountsBySeverity();
-        }
+        List<SeverityCount> counts = logService.getCountsBySeverity(serviceName, startTime, endTime);
         return ResponseEntity.ok(counts);
     }
 
     @GetMapping("/metrics/services")
-    public ResponseEntity<List<ServiceLogCount>> getCountsByService() {
-        List<ServiceLogCount> counts = logService.getCountsByService();
+    public ResponseEntity<List<ServiceLogCount>> getCountsByService(
+            @RequestParam(required = false) Instant startTime,
+            @RequestParam(required = false) Instant endTime
+    ) {
+        List<ServiceLogCount> counts = logService.getCountsByService(startTime, endTime);
         return ResponseEntity.ok(counts);
     }
+
+    @GetMapping("/metrics/realtime")
+    public ResponseEntity<RealtimeStats> getRealtimeMetrics(
+            @RequestParam(required = false) String serviceName,
+            @RequestParam(defaultValue = "300") int windowSeconds
+    ) {
+        return ResponseEntity.ok(realtimeMetrics.getStats(serviceName, windowSeconds));
+    }
+
+    @GetMapping("/metrics/consumer-lag")
+    public ResponseEntity<ConsumerLag> getConsumerLag() {
+        ConsumerLag lag = lagMonitor.getLatest();
+        if (lag == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(lag);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", "Bad Request", "message", String.valueOf(e.getMessage())));
+    }
 }
@@ -0,0 +1,24 @@
+package com.logging.monitoring.controller;
+
+import com.logging.monitoring.dto.StreamStats;
+import com.logging.monitoring.websocket.LogWebSocketHandler;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/stream")
+public class StreamController {
+
+    private final LogWebSocketHandler webSocketHandler;
+
+    public StreamController(LogWebSocketHandler webSocketHandler) {
+        this.webSocketHandler = webSocketHandler;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<StreamStats> getStats() {
+        return ResponseEntity.ok(webSocketHandler.getStats());
+    }
+}
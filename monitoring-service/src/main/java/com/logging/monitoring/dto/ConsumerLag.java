@@ -0,0 +1,16 @@
+package com.logging.monitoring.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ConsumerLag(
+        String groupId,
+        String topic,
+        long totalLag,
+        double recordsPerSecond,
+        double avgRecordMillis,
+        int members,
+        Instant sampledAt,
+        List<PartitionLag> partitions
+) {
+}
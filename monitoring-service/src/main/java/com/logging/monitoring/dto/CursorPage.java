@@ -0,0 +1,19 @@
+package com.logging.monitoring.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated search. Pass {@code nextCursor} back as the
+ * {@code cursor} parameter to get the following page. {@code totalElements}
+ * is only set when requested, and {@code totalEstimated} says whether it is
+ * a planner estimate rather than an exact count.
+ */
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        boolean hasMore,
+        Long totalElements,
+        boolean totalEstimated
+) {
+}
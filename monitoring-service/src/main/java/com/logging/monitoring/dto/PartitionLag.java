@@ -0,0 +1,9 @@
+package com.logging.monitoring.dto;
+
+public record PartitionLag(
+        int partition,
+        long committedOffset,
+        long endOffset,
+        long lag
+) {
+}
@@ -0,0 +1,15 @@
+package com.logging.monitoring.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record RealtimeStats(
+        String serviceName,
+        int windowSeconds,
+        long total,
+        double eventsPerSecond,
+        double errorRatio,
+        Map<String, Long> countsBySeverity,
+        List<ServiceLogCount> services
+) {
+}
@@ -0,0 +1,4 @@
+package com.logging.monitoring.dto;
+
+public record StreamSessionStats(String sessionId, int queueDepth, long sent, long dropped) {
+}
@@ -0,0 +1,12 @@
+package com.logging.monitoring.dto;
+
+import java.util.List;
+
+public record StreamStats(
+        int activeSessions,
+        int fanoutQueueDepth,
+        long fanoutDropped,
+        String overflowPolicy,
+        List<StreamSessionStats> sessions
+) {
+}
@@ -3,9 +3,9 @@ package com.logging.monitoring.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -18,7 +18,8 @@ import java.util.UUID;
 public class LogEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue(generator = "uuid-v7")
+    @GenericGenerator(name = "uuid-v7", type = UuidV7Generator.class)
     private UUID id;
 
     @Column(name = "service_name", nullable = false, length = 100)
@@ -51,6 +52,12 @@ public class LogEntity {
 
     public LogEntity(String serviceName, String severity, String message, Instant timestamp,
                      String traceId, String host, Map<String, Object> metadata) {
+        this(null, serviceName, severity, message, timestamp, traceId, host, metadata);
+    }
+
+    public LogEntity(UUID id, String serviceName, String severity, String message, Instant timestamp,
+                     String traceId, String host, Map<String, Object> metadata) {
+        this.id = id;
         this.serviceName = serviceName;
         this.severity = severity;
         this.message = message;
@@ -0,0 +1,18 @@
+package com.logging.monitoring.entity;
+
+import com.logging.common.id.UuidV7;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Assigns time-ordered {@link UuidV7} ids to entities saved through JPA
+ * without one. Logs consumed from Kafka already carry the id assigned at
+ * ingestion.
+ */
+public class UuidV7Generator implements IdentifierGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return UuidV7.generate();
+    }
+}
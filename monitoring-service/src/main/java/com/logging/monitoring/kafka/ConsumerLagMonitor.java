@@ -0,0 +1,156 @@
+package com.logging.monitoring.kafka;
+
+import com.logging.monitoring.dto.ConsumerLag;
+import com.logging.monitoring.dto.PartitionLag;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples the lag of the log-processors group (end offset minus committed
+ * offset, per partition) and its current member count with the admin
+ * client, together with how many records the listener processed since the
+ * previous sample and how long they took.
+ */
+@Service
+public class ConsumerLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsumerLagMonitor.class);
+
+    private final AdminClient adminClient;
+    private final String groupId;
+    private final String topic;
+    private final long timeoutMs;
+
+    private final LongAdder processedRecords = new LongAdder();
+    private final LongAdder processingNanos = new LongAdder();
+    private long sampledRecords;
+    private long sampledNanos;
+    private long sampledAtNanos = System.nanoTime();
+    private volatile ConsumerLag latest;
+
+    @Autowired
+    public ConsumerLagMonitor(
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+            @Value("${spring.kafka.consumer.group-id}") String groupId,
+            @Value("${app.kafka.topic}") String topic,
+            @Value("${app.kafka.lag.timeout-ms:5000}") long timeoutMs) {
+        this(AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers)),
+                groupId, topic, timeoutMs);
+    }
+
+    ConsumerLagMonitor(AdminClient adminClient, String groupId, String topic, long timeoutMs) {
+        this.adminClient = adminClient;
+        this.groupId = groupId;
+        this.topic = topic;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @PreDestroy
+    public void close() {
+        adminClient.close();
+    }
+
+    /**
+     * Called by the listener after each batch, with the batch's wall-clock
+     * processing time.
+     */
+    public void recordProcessed(int records, long nanos) {
+        processedRecords.add(records);
+        processingNanos.add(nanos);
+    }
+
+    /**
+     * The most recent scheduled sample, or null until the first one has been
+     * taken. Never samples itself: a sample is several blocking admin calls
+     * and this is read on request threads.
+     */
+    public ConsumerLag getLatest() {
+        return latest;
+    }
+
+    @Scheduled(fixedDelayString = "${app.kafka.lag.sample-interval-ms:10000}")
+    public synchronized void sample() {
+        try {
+            Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(groupId)
+                    .partitionsToOffsetAndMetadata().get(timeoutMs, TimeUnit.MILLISECONDS);
+            TopicDescription description = adminClient.describeTopics(List.of(topic))
+                    .allTopicNames().get(timeoutMs, TimeUnit.MILLISECONDS).get(topic);
+            // One member per consumer, across every instance in the group
+            int members = adminClient.describeConsumerGroups(List.of(groupId))
+                    .describedGroups().get(groupId).get(timeoutMs, TimeUnit.MILLISECONDS).members().size();
+
+            Map<TopicPartition, OffsetSpec> latestSpec = new HashMap<>();
+            Map<TopicPartition, OffsetSpec> earliestSpec = new HashMap<>();
+            for (TopicPartitionInfo info : description.partitions()) {
+                TopicPartition partition = new TopicPartition(topic, info.partition());
+                latestSpec.put(partition, OffsetSpec.latest());
+                earliestSpec.put(partition, OffsetSpec.earliest());
+            }
+            Map<TopicPartition, ListOffsetsResultInfo> ends = adminClient.listOffsets(latestSpec)
+                    .all().get(timeoutMs, TimeUnit.MILLISECONDS);
+            Map<TopicPartition, ListOffsetsResultInfo> starts = adminClient.listOffsets(earliestSpec)
+                    .all().get(timeoutMs, TimeUnit.MILLISECONDS);
+
+            List<PartitionLag> partitions = new ArrayList<>(ends.size());
+            long totalLag = 0;
+            for (TopicPartitionInfo info : description.partitions()) {
+                TopicPartition partition = new TopicPartition(topic, info.partition());
+                long end = ends.get(partition).offset();
+                OffsetAndMetadata offset = committed.get(partition);
+                // Nothing committed yet: everything still retained is unconsumed
+                long position = offset != null ? offset.offset() : starts.get(partition).offset();
+                long lag = Math.max(0, end - position);
+                partitions.add(new PartitionLag(info.partition(), position, end, lag));
+                totalLag += lag;
+            }
+
+            latest = withProcessingRates(totalLag, members, partitions);
+            log.debug("Consumer lag for {}: {} records over {} partitions, {} members",
+                    groupId, totalLag, partitions.size(), members);
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Failed to sample consumer lag for {}: {}", groupId, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ConsumerLag withProcessingRates(long totalLag, int members, List<PartitionLag> partitions) {
+        long now = System.nanoTime();
+        long records = processedRecords.sum();
+        long nanos = processingNanos.sum();
+        long deltaRecords = records - sampledRecords;
+        long deltaNanos = nanos - sampledNanos;
+        double elapsedSeconds = (now - sampledAtNanos) / 1_000_000_000.0;
+        sampledRecords = records;
+        sampledNanos = nanos;
+        sampledAtNanos = now;
+
+        double recordsPerSecond = elapsedSeconds > 0 ? deltaRecords / elapsedSeconds : 0;
+        double avgRecordMillis = deltaRecords > 0 ? deltaNanos / 1_000_000.0 / deltaRecords : 0;
+        return new ConsumerLag(groupId, topic, totalLag, recordsPerSecond, avgRecordMillis, members,
+                Instant.now(), partitions);
+    }
+}
@@ -0,0 +1,167 @@
+package com.logging.monitoring.kafka;
+
+import com.logging.monitoring.dto.ConsumerLag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Scales the log-processors listener between configured bounds from the
+ * sampled lag and per-record processing time. The lag is the whole group's,
+ * so the time to drain it is estimated over every consumer in the group, on
+ * all instances: lag / (group members / per-record time); above the target
+ * it scales up, and after several samples well below it, down.
+ * <p>
+ * Worker lanes are changed first since that takes effect on the next poll
+ * with no rebalance. The number of consumers (container concurrency) is only
+ * changed once lanes are at their bound and at most once per cooldown,
+ * because it means restarting the container and rebalancing the group. It is
+ * never raised past the partitions the other members leave free, since a
+ * consumer beyond the partition count is assigned nothing.
+ */
+@Service
+@ConditionalOnProperty(name = "app.kafka.autoscale.enabled", havingValue = "true")
+public class ListenerAutoscaler {
+
+    private static final Logger log = LoggerFactory.getLogger(ListenerAutoscaler.class);
+
+    private final ConsumerLagMonitor lagMonitor;
+    private final KafkaListenerEndpointRegistry registry;
+    private final LogStreamConsumer consumer;
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final int minWorkers;
+    private final int maxWorkers;
+    private final double targetDrainSeconds;
+    private final Duration concurrencyCooldown;
+    private final int scaleDownSamples;
+    private final Clock clock;
+
+    private Instant lastEvaluated = Instant.EPOCH;
+    private Instant lastConcurrencyChange = Instant.EPOCH;
+    private int calmSamples;
+
+    @Autowired
+    public ListenerAutoscaler(
+            ConsumerLagMonitor lagMonitor,
+            KafkaListenerEndpointRegistry registry,
+            LogStreamConsumer consumer,
+            @Value("${app.kafka.autoscale.min-concurrency:1}") int minConcurrency,
+            @Value("${app.kafka.autoscale.max-concurrency:6}") int maxConcurrency,
+            @Value("${app.kafka.autoscale.min-workers:1}") int minWorkers,
+            @Value("${app.kafka.autoscale.max-workers:8}") int maxWorkers,
+            @Value("${app.kafka.autoscale.target-drain-seconds:30}") double targetDrainSeconds,
+            @Value("${app.kafka.autoscale.concurrency-cooldown-ms:300000}") long concurrencyCooldownMs,
+            @Value("${app.kafka.autoscale.scale-down-samples:6}") int scaleDownSamples) {
+        this(lagMonitor, registry, consumer, minConcurrency, maxConcurrency, minWorkers, maxWorkers,
+                targetDrainSeconds, concurrencyCooldownMs, scaleDownSamples, Clock.systemUTC());
+    }
+
+    ListenerAutoscaler(ConsumerLagMonitor lagMonitor, KafkaListenerEndpointRegistry registry,
+                       LogStreamConsumer consumer, int minConcurrency, int maxConcurrency, int minWorkers,
+                       int maxWorkers, double targetDrainSeconds, long concurrencyCooldownMs,
+                       int scaleDownSamples, Clock clock) {
+        this.lagMonitor = lagMonitor;
+        this.registry = registry;
+        this.consumer = consumer;
+        this.minConcurrency = Math.max(1, minConcurrency);
+        this.maxConcurrency = Math.max(this.minConcurrency, maxConcurrency);
+        // Lanes can only be scaled as far as the consumer allows; with offsets in the database, not at all
+        this.minWorkers = Math.min(consumer.getMaxKeyLanes(), Math.max(1, minWorkers));
+        this.maxWorkers = Math.min(consumer.getMaxKeyLanes(), Math.max(this.minWorkers, maxWorkers));
+        this.targetDrainSeconds = targetDrainSeconds;
+        this.concurrencyCooldown = Duration.ofMillis(concurrencyCooldownMs);
+        this.scaleDownSamples = scaleDownSamples;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${app.kafka.lag.sample-interval-ms:10000}")
+    public synchronized void evaluate() {
+        ConsumerLag lag = lagMonitor.getLatest();
+        if (lag == null || !lag.sampledAt().isAfter(lastEvaluated)) {
+            return;
+        }
+        lastEvaluated = lag.sampledAt();
+
+        MessageListenerContainer listener = registry.getListenerContainer(LogStreamConsumer.LISTENER_ID);
+        if (!(listener instanceof ConcurrentMessageListenerContainer<?, ?> container) || !container.isRunning()) {
+            return;
+        }
+        if (lag.totalLag() > 0 && lag.avgRecordMillis() == 0) {
+            // Lag but nothing processed since the last sample: starting up or stuck, not slow
+            return;
+        }
+
+        int concurrency = container.getConcurrency();
+        // Members can lag the container by a rebalance; this instance's consumers are always in the group
+        int groupConsumers = Math.max(lag.members(), concurrency);
+        double drainSeconds = lag.totalLag() * lag.avgRecordMillis() / 1000.0 / groupConsumers;
+        if (drainSeconds > targetDrainSeconds) {
+            calmSamples = 0;
+            scaleUp(container, concurrency, groupConsumers, lag, drainSeconds);
+        } else if (drainSeconds < targetDrainSeconds / 4) {
+            if (++calmSamples >= scaleDownSamples) {
+                calmSamples = 0;
+                scaleDown(container, concurrency, lag);
+            }
+        } else {
+            calmSamples = 0;
+        }
+    }
+
+    private void scaleUp(ConcurrentMessageListenerContainer<?, ?> container, int concurrency, int groupConsumers,
+                         ConsumerLag lag, double drainSeconds) {
+        int workers = consumer.getKeyLanes();
+        if (workers < maxWorkers) {
+            int target = Math.min(maxWorkers, workers * 2);
+            log.info("Lag {} would take ~{}s to drain; worker lanes {} -> {}",
+                    lag.totalLag(), Math.round(drainSeconds), workers, target);
+            consumer.setKeyLanes(target);
+            return;
+        }
+        int otherConsumers = groupConsumers - concurrency;
+        int ceiling = Math.min(maxConcurrency, lag.partitions().size() - otherConsumers);
+        if (concurrency < ceiling && cooledDown()) {
+            log.info("Lag {} would take ~{}s to drain with {} worker lanes; consumers {} -> {}",
+                    lag.totalLag(), Math.round(drainSeconds), workers, concurrency, concurrency + 1);
+            restart(container, concurrency + 1);
+        }
+    }
+
+    private void scaleDown(ConcurrentMessageListenerContainer<?, ?> container, int concurrency, ConsumerLag lag) {
+        int workers = consumer.getKeyLanes();
+        if (workers > minWorkers) {
+            int target = Math.max(minWorkers, workers / 2);
+            log.info("Lag {} is low; worker lanes {} -> {}", lag.totalLag(), workers, target);
+            consumer.setKeyLanes(target);
+            return;
+        }
+        if (concurrency > minConcurrency && cooledDown()) {
+            log.info("Lag {} is low; consumers {} -> {}", lag.totalLag(), concurrency, concurrency - 1);
+            restart(container, concurrency - 1);
+        }
+    }
+
+    private boolean cooledDown() {
+        return clock.instant().isAfter(lastConcurrencyChange.plus(concurrencyCooldown));
+    }
+
+    private void restart(ConcurrentMessageListenerContainer<?, ?> container, int concurrency) {
+        lastConcurrencyChange = clock.instant();
+        container.stop(() -> {
+            container.setConcurrency(concurrency);
+            container.start();
+        });
+    }
+}
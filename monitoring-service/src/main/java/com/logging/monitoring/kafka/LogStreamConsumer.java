@@ -1,71 +1,314 @@
 package com.logging.monitoring.kafka;
 
 import com.logging.common.dto.LogEvent;
+import com.logging.common.id.UuidV7;
+import com.logging.common.kafka.LogRecords;
 import com.logging.monitoring.cache.LogCacheService;
 import com.logging.monitoring.entity.LogEntity;
-import com.logging.monitoring.repository.LogRepository;
+import com.logging.monitoring.metrics.RealtimeMetricsService;
+import com.logging.monitoring.repository.ConsumerOffsetRepository;
 import com.logging.monitoring.service.IdempotencyService;
+import com.logging.monitoring.service.LogPersistenceService;
+import com.logging.monitoring.websocket.LiveTailRelay;
 import com.logging.monitoring.websocket.LogWebSocketHandler;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Headers;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Persists consumed logs. Offsets are tracked in one of two ways, chosen with
+ * {@code app.persistence.offsets}:
+ * <ul>
+ *   <li>{@code kafka}: records are de-duplicated by idempotency key in Redis
+ *       and offsets are committed to Kafka after the batch is persisted;</li>
+ *   <li>{@code database}: offsets are stored in PostgreSQL in the same
+ *       transaction as the batch's rows, and partitions are sought to the
+ *       stored offsets on assignment, so records are persisted without the
+ *       Redis check. When a batch falls back to one row per transaction the
+ *       offsets are stored after the rows; a record redelivered after a crash
+ *       in between is skipped by its event id, which for records produced
+ *       without one is derived from the record's position. Offsets are still
+ *       acknowledged to Kafka, where they only serve lag monitoring. Key
+ *       lanes are not available in this mode, since each lane commits on its
+ *       own.</li>
+ * </ul>
+ * With {@code app.kafka.key-lanes} above 1, each polled batch is split into
+ * that many lanes by record key (trace id, else service name) and the lanes
+ * are processed in parallel on a worker pool, so a few partitions can still
+ * use every core and a slow record only holds up its own lane. Records with
+ * the same key stay in order within their lane. The lane count can be changed
+ * at runtime by {@link ListenerAutoscaler}; it takes effect from the next poll.
+ */
 @Service
-public class LogStreamConsumer {
+public class LogStreamConsumer implements ConsumerSeekAware {
+
+    public static final String LISTENER_ID = "log-processors";
 
     private static final Logger log = LoggerFactory.getLogger(LogStreamConsumer.class);
-    private static final String IDEMPOTENCY_KEY_HEADER = "X-Idempotency-Key";
 
-    private final LogRepository logRepository;
+    private static final int DEAD_LETTERED_CAPACITY = 10_000;
+
+    private final LogPersistenceService persistenceService;
     private final LogCacheService logCacheService;
     private final IdempotencyService idempotencyService;
     private final LogWebSocketHandler webSocketHandler;
+    private final RealtimeMetricsService realtimeMetrics;
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
+    private final ConsumerOffsetRepository offsetRepository;
+    private final ConsumerLagMonitor lagMonitor;
+    private final LiveTailRelay liveTailRelay;
+    private final boolean databaseOffsets;
+    /**
+     * Positions of the records most recently dead-lettered. A batch that fails
+     * after some of its records were dead-lettered is redelivered, and
+     * those records are not published to the DLQ again.
+     */
+    private final Set<RecordPosition> deadLettered = Collections.newSetFromMap(
+            new LinkedHashMap<RecordPosition, Boolean>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<RecordPosition, Boolean> eldest) {
+                    return size() > DEAD_LETTERED_CAPACITY;
+                }
+            });
+    private volatile int keyLanes = 1;
+    private volatile ThreadPoolExecutor lanePool;
 
     public LogStreamConsumer(
-            LogRepository logRepository,
+            LogPersistenceService persistenceService,
             LogCacheService logCacheService,
             IdempotencyService idempotencyService,
-            LogWebSocketHandler webSocketHandler) {
-        this.logRepository = logRepository;
+            LogWebSocketHandler webSocketHandler,
+            RealtimeMetricsService realtimeMetrics,
+            DeadLetterPublishingRecoverer deadLetterRecoverer,
+            ConsumerOffsetRepository offsetRepository,
+            ConsumerLagMonitor lagMonitor,
+            ObjectProvider<LiveTailRelay> liveTailRelay,
+            @Value("${app.persistence.offsets:kafka}") String offsets,
+            @Value("${app.kafka.key-lanes:1}") int keyLanes) {
+        this.persistenceService = persistenceService;
         this.logCacheService = logCacheService;
         this.idempotencyService = idempotencyService;
         this.webSocketHandler = webSocketHandler;
+        this.realtimeMetrics = realtimeMetrics;
+        this.deadLetterRecoverer = deadLetterRecoverer;
+        this.offsetRepository = offsetRepository;
+        this.lagMonitor = lagMonitor;
+        this.liveTailRelay = liveTailRelay.getIfAvailable();
+        this.databaseOffsets = "database".equalsIgnoreCase(offsets);
+        if (databaseOffsets && keyLanes > 1) {
+            throw new IllegalStateException("app.kafka.key-lanes must be 1 with app.persistence.offsets=database");
+        }
+        setKeyLanes(keyLanes);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        ThreadPoolExecutor pool = lanePool;
+        if (pool != null) {
+            pool.shutdown();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    public int getKeyLanes() {
+        return keyLanes;
+    }
+
+    /**
+     * The most lanes {@link #setKeyLanes} will use: 1 with offsets in the
+     * database, where the whole batch is stored in one transaction.
+     */
+    public int getMaxKeyLanes() {
+        return databaseOffsets ? 1 : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Change the number of lanes, and with it the worker threads. Batches
+     * already being processed finish with the old count.
+     */
+    public synchronized void setKeyLanes(int lanes) {
+        int target = Math.min(getMaxKeyLanes(), Math.max(1, lanes));
+        ThreadPoolExecutor pool = lanePool;
+        if (pool == null && target > 1) {
+            lanePool = new ThreadPoolExecutor(target, target, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), new CustomizableThreadFactory("log-lane-"));
+        } else if (pool != null && target > pool.getMaximumPoolSize()) {
+            pool.setMaximumPoolSize(target);
+            pool.setCorePoolSize(target);
+        } else if (pool != null) {
+            pool.setCorePoolSize(target);
+            pool.setMaximumPoolSize(target);
+        }
+        keyLanes = target;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        if (!databaseOffsets) {
+            return;
+        }
+        Map<TopicPartition, Long> stored = offsetRepository.find(assignments.keySet());
+        stored.forEach((partition, offset) -> callback.seek(partition.topic(), partition.partition(), offset));
+        log.info("Assigned {} partitions, {} sought to offsets stored in PostgreSQL",
+                assignments.size(), stored.size());
     }
 
     @KafkaListener(
+            id = LISTENER_ID,
             topics = "${app.kafka.topic}",
             groupId = "${spring.kafka.consumer.group-id}"
     )
-    public void consume(
-            @Payload LogEvent logEvent,
-            @Headers Map<String, Object> headers,
-            Acknowledgment acknowledgment) {
-
-        int partition = (int) headers.get(KafkaHeaders.RECEIVED_PARTITION);
-        long offset = (long) headers.get(KafkaHeaders.OFFSET);
-        String idempotencyKey = extractIdempotencyKey(headers);
-
-        log.debug("Received log: partition={}, offset={}, service={}, severity={}",
-                partition, offset, logEvent.serviceName(), logEvent.severity());
-
-        // Check idempotency - skip if already processed
-        if (!idempotencyService.tryMarkAsProcessed(idempotencyKey)) {
-            log.info("Skipping duplicate message: partition={}, offset={}", partition, offset);
-            acknowledgment.acknowledge();
-            return;
+    public void consume(List<ConsumerRecord<String, LogEvent>> records, Acknowledgment acknowledgment) {
+        log.debug("Received batch of {} logs", records.size());
+        long start = System.nanoTime();
+
+        Map<TopicPartition, Long> nextOffsets = databaseOffsets ? nextOffsets(records) : Map.of();
+        int lanes = keyLanes;
+        if (lanes < 2 || records.size() < 2) {
+            publish(persist(prepare(records), nextOffsets));
+        } else {
+            consumeInLanes(records, lanes, lanePool);
         }
 
-        try {
-            // Persist to PostgreSQL
+        acknowledgment.acknowledge();
+        lagMonitor.recordProcessed(records.size(), System.nanoTime() - start);
+    }
+
+    /**
+     * Process each lane of the batch on the worker pool and wait for all of
+     * them. If any lane fails, the batch is failed at the first record of the
+     * earliest failed lane: every record before it has been processed, so the
+     * error handler commits up to there and redelivers the rest, and records
+     * redelivered after being persisted are skipped by id.
+     */
+    private void consumeInLanes(List<ConsumerRecord<String, LogEvent>> records, int laneCount, Executor pool) {
+        List<List<Integer>> lanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, LogEvent> record = records.get(i);
+            int hash = record.key() != null ? record.key().hashCode() : record.partition();
+            lanes.get(Math.floorMod(hash, laneCount)).add(i);
+        }
+
+        List<List<Integer>> active = lanes.stream().filter(lane -> !lane.isEmpty()).toList();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(active.size());
+        for (List<Integer> lane : active) {
+            List<ConsumerRecord<String, LogEvent>> laneRecords = lane.stream().map(records::get).toList();
+            futures.add(CompletableFuture.runAsync(
+                    () -> publish(persist(prepare(laneRecords), Map.of())), pool));
+        }
+
+        int failedAt = Integer.MAX_VALUE;
+        RuntimeException failure = null;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).join();
+            } catch (CompletionException e) {
+                int first = active.get(i).get(0);
+                if (first < failedAt) {
+                    failedAt = first;
+                    failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw new BatchListenerFailedException("Lane failed: " + failure.getMessage(), failure, failedAt);
+        }
+    }
+
+    private void publish(List<PendingLog> persisted) {
+        // Cache in Redis (one pipelined round-trip for the whole batch)
+        logCacheService.cacheRecentLogs(persisted.stream().map(PendingLog::entity).toList());
+
+        persisted.forEach(pendingLog -> {
+            LogEvent logEvent = pendingLog.record().value();
+            realtimeMetrics.record(logEvent.serviceName(), logEvent.severity(), logEvent.timestamp());
+        });
+
+        // Broadcast to WebSocket clients; in cluster mode through every instance
+        if (liveTailRelay != null) {
+            liveTailRelay.publish(persisted.stream().map(pendingLog -> pendingLog.record().value()).toList());
+        } else {
+            persisted.forEach(pendingLog -> webSocketHandler.broadcast(pendingLog.record().value()));
+        }
+    }
+
+    /**
+     * Turn records into entities ready for insert, dropping duplicates and
+     * dead-lettering records that cannot be processed at all. Idempotency
+     * keys for the whole batch are checked in one round-trip.
+     */
+    private List<PendingLog> prepare(List<ConsumerRecord<String, LogEvent>> records) {
+        List<ConsumerRecord<String, LogEvent>> valid = new ArrayList<>(records.size());
+        List<String> idempotencyKeys = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, LogEvent> record : records) {
+            LogEvent logEvent = record.value();
+            if (logEvent == null) {
+                // ErrorHandlingDeserializer hands us a null value for records it could not read
+                deadLetter(record, new IllegalArgumentException("Record value could not be deserialized"));
+            } else if (logEvent.severity() == null) {
+                deadLetter(record, new IllegalArgumentException("Record has no severity"));
+            } else {
+                valid.add(record);
+                idempotencyKeys.add(extractIdempotencyKey(record.headers()));
+            }
+        }
+
+        // Check idempotency - skip records already processed. With offsets in the
+        // database a record is only ever persisted once, so there is nothing to check.
+        boolean[] isNew;
+        if (databaseOffsets) {
+            isNew = new boolean[valid.size()];
+            Arrays.fill(isNew, true);
+        } else {
+            isNew = idempotencyService.tryMarkAllAsProcessed(idempotencyKeys);
+        }
+
+        List<PendingLog> pending = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            ConsumerRecord<String, LogEvent> record = valid.get(i);
+            if (!isNew[i]) {
+                log.info("Skipping duplicate message: partition={}, offset={}", record.partition(), record.offset());
+                continue;
+            }
+
+            LogEvent logEvent = record.value();
             LogEntity entity = new LogEntity(
+                    eventId(record),
                     logEvent.serviceName(),
                     logEvent.severity().name(),
                     logEvent.message(),
@@ -74,34 +317,132 @@ public class LogStreamConsumer {
                     logEvent.host(),
                     logEvent.metadata()
             );
-            logRepository.save(entity);
+            pending.add(new PendingLog(record, entity, idempotencyKeys.get(i)));
+        }
+        return pending;
+    }
 
-            // Cache in Redis
-            logCacheService.cacheRecentLog(entity);
+    /**
+     * Persist the batch with one batched insert. If the batch is rejected for a
+     * data error, fall back to one row at a time so only the offending records
+     * go to the DLQ. Any other failure is rethrown so the whole batch is retried
+     * by the container's error handler. Records whose event id is already
+     * stored (a redelivery) are left out of the result. {@code nextOffsets},
+     * if any, are stored with the batch.
+     */
+    private List<PendingLog> persist(List<PendingLog> pending, Map<TopicPartition, Long> nextOffsets) {
+        if (pending.isEmpty()) {
+            // Everything was a duplicate or dead-lettered; still move the stored offsets on
+            if (!nextOffsets.isEmpty()) {
+                persistenceService.persist(List.of(), nextOffsets);
+            }
+            return pending;
+        }
 
-            // Broadcast to WebSocket clients
-            webSocketHandler.broadcast(logEvent);
+        try {
+            List<LogEntity> entities = pending.stream().map(PendingLog::entity).toList();
+            return inserted(pending, persistenceService.persist(entities, nextOffsets));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Batch insert of {} logs rejected, retrying row by row: {}", pending.size(), e.getMessage());
+        } catch (RuntimeException e) {
+            failBatch(pending, e);
+        }
 
-            acknowledgment.acknowledge();
+        List<PendingLog> persisted = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            PendingLog pendingLog = pending.get(i);
+            try {
+                if (!persistenceService.persist(List.of(pendingLog.entity())).isEmpty()) {
+                    persisted.add(pendingLog);
+                }
+            } catch (DataIntegrityViolationException e) {
+                deadLetter(pendingLog.record(), e);
+            } catch (RuntimeException e) {
+                failBatch(pending.subList(i, pending.size()), e);
+            }
+        }
+        if (!nextOffsets.isEmpty()) {
+            // Rows already written are skipped by event id if this fails and the batch is redelivered
+            persistenceService.persist(List.of(), nextOffsets);
+        }
+        return persisted;
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to process log: partition={}, offset={}, error={}",
-                    partition, offset, e.getMessage(), e);
-            idempotencyService.removeProcessedKey(idempotencyKey);
-            throw e;
+    private List<PendingLog> inserted(List<PendingLog> pending, List<LogEntity> inserted) {
+        if (inserted.size() == pending.size()) {
+            return pending;
         }
+        log.info("Skipped {} logs already stored", pending.size() - inserted.size());
+        Set<LogEntity> insertedEntities = Collections.newSetFromMap(new IdentityHashMap<>());
+        insertedEntities.addAll(inserted);
+        return pending.stream().filter(pendingLog -> insertedEntities.contains(pendingLog.entity())).toList();
     }
 
-    private String extractIdempotencyKey(Map<String, Object> headers) {
-        Object headerValue = headers.get(IDEMPOTENCY_KEY_HEADER);
-        if (headerValue == null) {
-            return null;
+    private void failBatch(List<PendingLog> unpersisted, RuntimeException e) {
+        log.error("Failed to persist batch of {} logs: {}", unpersisted.size(), e.getMessage(), e);
+        // Release keys so the redelivered records are not mistaken for duplicates
+        if (!databaseOffsets) {
+            unpersisted.forEach(pendingLog -> idempotencyService.removeProcessedKey(pendingLog.idempotencyKey()));
         }
-        if (headerValue instanceof byte[] bytes) {
-            return new String(bytes, StandardCharsets.UTF_8);
-        } else if (headerValue instanceof String str) {
-            return str;
+        throw e;
+    }
+
+    /**
+     * Publish the record to the DLQ unless it was already published by an
+     * earlier delivery of the same batch. It is only remembered once published,
+     * so a record whose publish failed is tried again on redelivery.
+     */
+    private void deadLetter(ConsumerRecord<String, LogEvent> record, Exception e) {
+        RecordPosition position = new RecordPosition(record.topic(), record.partition(), record.offset());
+        synchronized (deadLettered) {
+            if (deadLettered.contains(position)) {
+                log.debug("Skipping record already dead-lettered: partition={}, offset={}",
+                        record.partition(), record.offset());
+                return;
+            }
+        }
+        log.error("Failed to process log: partition={}, offset={}, error={}",
+                record.partition(), record.offset(), e.getMessage());
+        deadLetterRecoverer.accept(record, e);
+        synchronized (deadLettered) {
+            deadLettered.add(position);
+        }
+    }
+
+    /**
+     * The id assigned at ingestion. A record produced without one gets an id
+     * derived from its position, so a redelivery gets the same id again.
+     */
+    private static UUID eventId(ConsumerRecord<String, LogEvent> record) {
+        Header header = record.headers().lastHeader(LogRecords.EVENT_ID_HEADER);
+        UUID eventId = header != null ? LogRecords.decodeEventId(header.value()) : null;
+        if (eventId != null) {
+            return eventId;
+        }
+        byte[] position = (record.topic() + "/" + record.partition() + "/" + record.offset())
+                .getBytes(StandardCharsets.UTF_8);
+        return UuidV7.of(Math.max(0, record.timestamp()), UUID.nameUUIDFromBytes(position).getLeastSignificantBits());
+    }
+
+    private static Map<TopicPartition, Long> nextOffsets(List<ConsumerRecord<String, LogEvent>> records) {
+        Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+        for (ConsumerRecord<String, LogEvent> record : records) {
+            nextOffsets.merge(new TopicPartition(record.topic(), record.partition()), record.offset() + 1, Math::max);
         }
-        return null;
+        return nextOffsets;
+    }
+
+    private String extractIdempotencyKey(Headers headers) {
+        Header header = headers.lastHeader(LogRecords.IDEMPOTENCY_KEY_HEADER);
+        if (header == null || header.value() == null) {
+            return null;
+        }
+        return new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private record RecordPosition(String topic, int partition, long offset) {
+    }
+
+    private record PendingLog(ConsumerRecord<String, LogEvent> record, LogEntity entity, String idempotencyKey) {
     }
 }
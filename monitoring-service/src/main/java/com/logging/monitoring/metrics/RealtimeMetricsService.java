@@ -0,0 +1,253 @@
+package com.logging.monitoring.metrics;
+
+import com.logging.common.dto.LogEvent.Severity;
+import com.logging.monitoring.dto.RealtimeStats;
+import com.logging.monitoring.dto.ServiceLogCount;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sliding-window event counts per service and severity, kept entirely in
+ * memory for "last N minutes" panels. Events are bucketed by their own
+ * timestamp; anything older than the window is ignored. The counters are
+ * snapshotted to local disk periodically and on shutdown, and reloaded on
+ * start so a restart does not reset the panels. Service names come from
+ * clients, so a service with nothing inside the window is evicted rather
+ * than kept for good.
+ */
+@Service
+public class RealtimeMetricsService {
+
+    private static final Logger log = LoggerFactory.getLogger(RealtimeMetricsService.class);
+    private static final int SNAPSHOT_MAGIC = 0x524d5331; // "RMS1"
+
+    private final Map<String, SlidingWindowCounter> counters = new ConcurrentHashMap<>();
+    private final int windowSeconds;
+    private final Path snapshotPath;
+    private final Clock clock;
+
+    @Autowired
+    public RealtimeMetricsService(
+            @Value("${app.metrics.realtime.window-seconds:3600}") int windowSeconds,
+            @Value("${app.metrics.realtime.snapshot-path:}") String snapshotPath) {
+        this(windowSeconds, snapshotPath, Clock.systemUTC());
+    }
+
+    RealtimeMetricsService(int windowSeconds, String snapshotPath, Clock clock) {
+        this.windowSeconds = windowSeconds;
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.clock = clock;
+    }
+
+    public void record(String serviceName, Severity severity, Instant timestamp) {
+        long now = clock.instant().getEpochSecond();
+        // Clock skew can put events slightly in the future; count them as now
+        long second = Math.min(timestamp != null ? timestamp.getEpochSecond() : now, now);
+        if (second <= now - windowSeconds) {
+            return;
+        }
+        SlidingWindowCounter counter = counter(serviceName);
+        counter.add(second, severity, 1);
+        // Evicted between the lookup and the add: count it in the one that replaced it
+        if (counters.get(serviceName) != counter) {
+            counter(serviceName).add(second, severity, 1);
+        }
+    }
+
+    /**
+     * Counts over the last {@code seconds} seconds, for one service or across
+     * all of them.
+     */
+    public RealtimeStats getStats(String serviceName, int seconds) {
+        if (seconds < 1 || seconds > windowSeconds) {
+            throw new IllegalArgumentException("windowSeconds must be between 1 and " + windowSeconds);
+        }
+
+        long now = clock.instant().getEpochSecond();
+        long from = now - seconds + 1;
+        boolean perService = serviceName != null && !serviceName.isBlank();
+
+        long[] totals = new long[SlidingWindowCounter.SEVERITIES.length];
+        List<ServiceLogCount> services = new ArrayList<>();
+        for (Map.Entry<String, SlidingWindowCounter> entry : counters.entrySet()) {
+            if (perService && !entry.getKey().equals(serviceName)) {
+                continue;
+            }
+            long[] counts = entry.getValue().sum(from, now);
+            long serviceTotal = 0;
+            for (int i = 0; i < counts.length; i++) {
+                totals[i] += counts[i];
+                serviceTotal += counts[i];
+            }
+            if (serviceTotal > 0) {
+                services.add(new ServiceLogCount(entry.getKey(), serviceTotal));
+            }
+        }
+        services.sort(Comparator.comparingLong(ServiceLogCount::count).reversed());
+
+        Map<String, Long> bySeverity = new LinkedHashMap<>();
+        long total = 0;
+        for (Severity severity : SlidingWindowCounter.SEVERITIES) {
+            bySeverity.put(severity.name(), totals[severity.ordinal()]);
+            total += totals[severity.ordinal()];
+        }
+
+        return new RealtimeStats(
+                perService ? serviceName : null,
+                seconds,
+                total,
+                (double) total / seconds,
+                total == 0 ? 0.0 : (double) totals[Severity.ERROR.ordinal()] / total,
+                bySeverity,
+                perService ? List.of() : services
+        );
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    int getTrackedServiceCount() {
+        return counters.size();
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (snapshotPath == null || !Files.exists(snapshotPath)) {
+            return;
+        }
+
+        long oldest = clock.instant().getEpochSecond() - windowSeconds + 1;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                log.warn("Ignoring realtime metrics snapshot {} with unknown format", snapshotPath);
+                return;
+            }
+            Severity[] severities = readSeverities(in);
+            int serviceCount = in.readInt();
+            for (int s = 0; s < serviceCount; s++) {
+                String serviceName = in.readUTF();
+                int bucketCount = in.readInt();
+                for (int b = 0; b < bucketCount; b++) {
+                    long second = in.readLong();
+                    for (Severity severity : severities) {
+                        long count = in.readLong();
+                        if (severity != null && count > 0 && second >= oldest) {
+                            counter(serviceName).add(second, severity, count);
+                        }
+                    }
+                }
+            }
+            log.info("Restored realtime metrics for {} services from {}", serviceCount, snapshotPath);
+        } catch (IOException e) {
+            log.warn("Failed to restore realtime metrics from {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Write the current window to disk. The file is replaced atomically, so a
+     * crash mid-write leaves the previous snapshot intact.
+     */
+    @Scheduled(fixedDelayString = "${app.metrics.realtime.snapshot-interval-ms:10000}")
+    @PreDestroy
+    public void snapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+
+        long oldest = clock.instant().getEpochSecond() - windowSeconds + 1;
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "realtime-metrics", ".tmp");
+            try {
+                write(temp, oldest);
+                Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to snapshot realtime metrics to {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the counters of services with no event inside the window.
+     */
+    @Scheduled(fixedDelayString = "${app.metrics.realtime.snapshot-interval-ms:10000}")
+    public void evictIdle() {
+        long oldest = clock.instant().getEpochSecond() - windowSeconds + 1;
+        counters.entrySet().removeIf(entry -> !entry.getValue().hasBucketSince(oldest));
+    }
+
+    private void write(Path file, long oldest) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SlidingWindowCounter.SEVERITIES.length);
+            for (Severity severity : SlidingWindowCounter.SEVERITIES) {
+                out.writeUTF(severity.name());
+            }
+
+            Map<String, SlidingWindowCounter> services = Map.copyOf(counters);
+            out.writeInt(services.size());
+            for (Map.Entry<String, SlidingWindowCounter> entry : services.entrySet()) {
+                List<long[]> buckets = new ArrayList<>();
+                entry.getValue().forEachBucket(oldest, (second, counts) -> {
+                    long[] row = new long[counts.length + 1];
+                    row[0] = second;
+                    System.arraycopy(counts, 0, row, 1, counts.length);
+                    buckets.add(row);
+                });
+
+                out.writeUTF(entry.getKey());
+                out.writeInt(buckets.size());
+                for (long[] row : buckets) {
+                    for (long value : row) {
+                        out.writeLong(value);
+                    }
+                }
+            }
+        }
+    }
+
+    private SlidingWindowCounter counter(String serviceName) {
+        return counters.computeIfAbsent(serviceName, name -> new SlidingWindowCounter(windowSeconds));
+    }
+
+    // Severities are stored by name so a reordered or extended enum still reads old snapshots
+    private static Severity[] readSeverities(DataInputStream in) throws IOException {
+        Severity[] severities = new Severity[in.readInt()];
+        for (int i = 0; i < severities.length; i++) {
+            String name = in.readUTF();
+            for (Severity severity : SlidingWindowCounter.SEVERITIES) {
+                if (severity.name().equals(name)) {
+                    severities[i] = severity;
+                }
+            }
+        }
+        return severities;
+    }
+}
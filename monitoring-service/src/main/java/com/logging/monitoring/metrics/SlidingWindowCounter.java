@@ -0,0 +1,112 @@
+package com.logging.monitoring.metrics;
+
+import com.logging.common.dto.LogEvent.Severity;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ring of per-second buckets holding one {@link LongAdder} per severity. A
+ * slot is recycled by swapping in a fresh bucket with compare-and-set when a
+ * newer second reaches it, so recording never takes a lock and readers simply
+ * ignore slots whose second falls outside the window they ask for.
+ */
+final class SlidingWindowCounter {
+
+    static final Severity[] SEVERITIES = Severity.values();
+
+    private final AtomicReferenceArray<Bucket> ring;
+    private final int size;
+
+    SlidingWindowCounter(int windowSeconds) {
+        this.size = windowSeconds;
+        this.ring = new AtomicReferenceArray<>(windowSeconds);
+    }
+
+    void add(long epochSecond, Severity severity, long delta) {
+        Bucket bucket = bucketFor(epochSecond);
+        if (bucket != null) {
+            bucket.counts[severity.ordinal()].add(delta);
+        }
+    }
+
+    /**
+     * Per-severity totals for seconds in {@code [fromSecond, toSecond]},
+     * indexed by {@link Severity#ordinal()}.
+     */
+    long[] sum(long fromSecond, long toSecond) {
+        long[] totals = new long[SEVERITIES.length];
+        long start = Math.max(fromSecond, toSecond - size + 1);
+        for (long second = start; second <= toSecond; second++) {
+            Bucket bucket = ring.get(slot(second));
+            if (bucket != null && bucket.second == second) {
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += bucket.counts[i].sum();
+                }
+            }
+        }
+        return totals;
+    }
+
+    boolean hasBucketSince(long fromSecond) {
+        for (int i = 0; i < size; i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.second >= fromSecond) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void forEachBucket(long fromSecond, BucketVisitor visitor) {
+        for (int i = 0; i < size; i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.second >= fromSecond) {
+                long[] counts = new long[SEVERITIES.length];
+                for (int s = 0; s < counts.length; s++) {
+                    counts[s] = bucket.counts[s].sum();
+                }
+                visitor.visit(bucket.second, counts);
+            }
+        }
+    }
+
+    private Bucket bucketFor(long second) {
+        int slot = slot(second);
+        while (true) {
+            Bucket current = ring.get(slot);
+            if (current != null && current.second == second) {
+                return current;
+            }
+            if (current != null && current.second > second) {
+                // Slot already belongs to a newer second: the event is older than the window
+                return null;
+            }
+            Bucket fresh = new Bucket(second);
+            if (ring.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private int slot(long second) {
+        return (int) Math.floorMod(second, (long) size);
+    }
+
+    @FunctionalInterface
+    interface BucketVisitor {
+        void visit(long second, long[] counts);
+    }
+
+    private static final class Bucket {
+        private final long second;
+        private final LongAdder[] counts = new LongAdder[SEVERITIES.length];
+
+        private Bucket(long second) {
+            this.second = second;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+    }
+}
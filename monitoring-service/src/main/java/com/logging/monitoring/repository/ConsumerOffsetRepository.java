@@ -0,0 +1,80 @@
+package com.logging.monitoring.repository;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offsets consumed by the log-processors group, kept in
+ * {@code consumer_offsets} as one row per partition holding the offset of the
+ * next record to consume. Saved in the caller's transaction so the offsets
+ * commit or roll back together with the rows consumed up to them.
+ */
+@Repository
+public class ConsumerOffsetRepository {
+
+    // Offsets only move forward, so a consumer still finishing a batch for a
+    // partition that has been reassigned cannot rewind it
+    private static final String UPSERT_SQL = """
+            INSERT INTO consumer_offsets (group_id, topic, partition, next_offset, updated_at)
+            VALUES (?, ?, ?, ?, NOW())
+            ON CONFLICT (group_id, topic, partition)
+            DO UPDATE SET next_offset = GREATEST(consumer_offsets.next_offset, EXCLUDED.next_offset),
+                          updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String SELECT_SQL =
+            "SELECT topic, partition, next_offset FROM consumer_offsets WHERE group_id = ?";
+
+    // Rows are upserted in partition order so concurrent consumers lock them in the same order
+    private static final Comparator<TopicPartition> PARTITION_ORDER = Comparator
+            .comparing(TopicPartition::topic)
+            .thenComparingInt(TopicPartition::partition);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String groupId;
+
+    public ConsumerOffsetRepository(
+            JdbcTemplate jdbcTemplate,
+            @Value("${spring.kafka.consumer.group-id}") String groupId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.groupId = groupId;
+    }
+
+    public void save(Map<TopicPartition, Long> nextOffsets) {
+        if (nextOffsets.isEmpty()) {
+            return;
+        }
+        List<TopicPartition> partitions = new ArrayList<>(nextOffsets.keySet());
+        partitions.sort(PARTITION_ORDER);
+
+        List<Object[]> rows = new ArrayList<>(partitions.size());
+        for (TopicPartition partition : partitions) {
+            rows.add(new Object[]{groupId, partition.topic(), partition.partition(), nextOffsets.get(partition)});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    /**
+     * Stored offsets for the given partitions; partitions with none stored
+     * are absent from the result.
+     */
+    public Map<TopicPartition, Long> find(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            TopicPartition partition = new TopicPartition(rs.getString("topic"), rs.getInt("partition"));
+            if (partitions.contains(partition)) {
+                offsets.put(partition, rs.getLong("next_offset"));
+            }
+        }, groupId);
+        return offsets;
+    }
+}
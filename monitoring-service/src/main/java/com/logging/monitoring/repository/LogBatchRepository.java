@@ -0,0 +1,104 @@
+package com.logging.monitoring.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logging.monitoring.entity.LogEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Writes logs with plain JDBC, bypassing Hibernate entity-state tracking.
+ * Each chunk of rows is sent as one multi-row INSERT over unnested arrays, so
+ * a chunk costs one statement and one round-trip, and rows whose id is
+ * already stored are skipped ({@code ON CONFLICT DO NOTHING}) with the ids
+ * actually inserted returned.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.persistence.writer", havingValue = "jdbc", matchIfMissing = true)
+public class LogBatchRepository implements LogWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO logs (id, service_name, severity, message, timestamp, trace_id, host, metadata, created_at)
+            SELECT id::uuid, service_name, severity, message, timestamp::timestamptz, trace_id, host,
+                   metadata::jsonb, created_at::timestamptz
+            FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[],
+                        ?::text[], ?::text[], ?::text[], ?::text[])
+                AS t(id, service_name, severity, message, timestamp, trace_id, host, metadata, created_at)
+            ON CONFLICT DO NOTHING
+            RETURNING id
+            """;
+
+    private static final int COLUMNS = 9;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public LogBatchRepository(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${app.persistence.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional
+    public List<LogEntity> saveAll(List<LogEntity> entities) {
+        if (entities.isEmpty()) {
+            return entities;
+        }
+
+        Set<UUID> inserted = new HashSet<>();
+        for (int from = 0; from < entities.size(); from += batchSize) {
+            List<LogEntity> chunk = entities.subList(from, Math.min(entities.size(), from + batchSize));
+            inserted.addAll(jdbcTemplate.query(
+                    connection -> prepare(connection, chunk),
+                    (rs, rowNum) -> rs.getObject(1, UUID.class)));
+        }
+        return LogWriter.inserted(entities, inserted);
+    }
+
+    private PreparedStatement prepare(Connection connection, List<LogEntity> chunk) throws SQLException {
+        String[][] columns = new String[COLUMNS][chunk.size()];
+        for (int row = 0; row < chunk.size(); row++) {
+            LogEntity entity = chunk.get(row);
+            columns[0][row] = entity.getId().toString();
+            columns[1][row] = entity.getServiceName();
+            columns[2][row] = entity.getSeverity();
+            columns[3][row] = entity.getMessage();
+            columns[4][row] = entity.getTimestamp().toString();
+            columns[5][row] = entity.getTraceId();
+            columns[6][row] = entity.getHost();
+            columns[7][row] = entity.getMetadata() != null ? toJson(entity.getMetadata()) : null;
+            columns[8][row] = entity.getCreatedAt().toString();
+        }
+
+        PreparedStatement ps = connection.prepareStatement(INSERT_SQL);
+        for (int column = 0; column < COLUMNS; column++) {
+            ps.setArray(column + 1, connection.createArrayOf("text", columns[column]));
+        }
+        return ps;
+    }
+
+    private String toJson(Map<String, Object> metadata) throws SQLException {
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Failed to serialize metadata: " + e.getMessage(), "22023", e);
+        }
+    }
+}
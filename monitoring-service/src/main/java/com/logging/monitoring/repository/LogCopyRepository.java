@@ -0,0 +1,173 @@
+package com.logging.monitoring.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logging.monitoring.entity.LogEntity;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Streams logs into PostgreSQL with {@code COPY ... FROM STDIN (FORMAT csv)}.
+ * Rows are encoded into a fixed-size buffer and flushed to the server as it
+ * fills, so memory stays flat regardless of how many rows are written.
+ * COPY cannot skip conflicting rows, so it loads a session-local staging
+ * table which is then moved into logs with {@code ON CONFLICT DO NOTHING}.
+ * Runs on the connection bound to the current transaction, which must stay
+ * open across both steps; the staging table is truncated on commit.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.persistence.writer", havingValue = "copy")
+public class LogCopyRepository implements LogWriter {
+
+    private static final String STAGING_SQL = """
+            CREATE TEMP TABLE IF NOT EXISTS logs_staging (LIKE logs INCLUDING DEFAULTS) ON COMMIT DELETE ROWS
+            """;
+
+    private static final String COPY_SQL = """
+            COPY logs_staging (id, service_name, severity, message, timestamp, trace_id, host, metadata, created_at)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    private static final String MOVE_SQL = """
+            INSERT INTO logs (id, service_name, severity, message, timestamp, trace_id, host, metadata, created_at)
+            SELECT id, service_name, severity, message, timestamp, trace_id, host, metadata, created_at
+            FROM logs_staging
+            ON CONFLICT DO NOTHING
+            RETURNING id
+            """;
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final SQLExceptionTranslator exceptionTranslator = new SQLStateSQLExceptionTranslator();
+
+    public LogCopyRepository(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            @Value("${app.persistence.copy-buffer-bytes:65536}") int bufferSize) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    @Transactional
+    public List<LogEntity> saveAll(List<LogEntity> entities) {
+        if (entities.isEmpty()) {
+            return entities;
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(STAGING_SQL);
+            }
+            copy(connection.unwrap(PGConnection.class), entities);
+            return LogWriter.inserted(entities, move(connection));
+        } catch (SQLException e) {
+            throw exceptionTranslator.translate("COPY logs", COPY_SQL, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private List<UUID> move(Connection connection) throws SQLException {
+        List<UUID> inserted = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(MOVE_SQL)) {
+            while (rs.next()) {
+                inserted.add(rs.getObject(1, UUID.class));
+            }
+        }
+        return inserted;
+    }
+
+    private void copy(PGConnection connection, List<LogEntity> entities) throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn(COPY_SQL);
+        try {
+            StringBuilder rows = new StringBuilder(bufferSize);
+            for (LogEntity entity : entities) {
+                appendRow(rows, entity);
+                if (rows.length() >= bufferSize) {
+                    write(copyIn, rows);
+                }
+            }
+            write(copyIn, rows);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void write(CopyIn copyIn, StringBuilder rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        rows.setLength(0);
+    }
+
+    private void appendRow(StringBuilder rows, LogEntity entity) {
+        appendField(rows, entity.getId().toString()).append(',');
+        appendField(rows, entity.getServiceName()).append(',');
+        appendField(rows, entity.getSeverity()).append(',');
+        appendField(rows, entity.getMessage()).append(',');
+        appendField(rows, entity.getTimestamp().toString()).append(',');
+        appendField(rows, entity.getTraceId()).append(',');
+        appendField(rows, entity.getHost()).append(',');
+        appendField(rows, toJson(entity.getMetadata())).append(',');
+        appendField(rows, entity.getCreatedAt().toString()).append('\n');
+    }
+
+    /**
+     * In CSV mode an unquoted empty field is NULL, so every non-null value is
+     * quoted to keep empty strings distinct from NULL.
+     */
+    private StringBuilder appendField(StringBuilder rows, String value) {
+        if (value == null) {
+            return rows;
+        }
+        rows.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                rows.append('"');
+            }
+            rows.append(c);
+        }
+        return rows.append('"');
+    }
+
+    private String toJson(Map<String, Object> metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new DataIntegrityViolationException("Failed to serialize metadata: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.logging.monitoring.repository;
+
+import com.logging.monitoring.entity.LogEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a (timestamp DESC, id DESC) ordered scan of the logs table.
+ * Clients only ever see the opaque {@link #encode() encoded} form.
+ */
+public record LogCursor(Instant timestamp, UUID id) {
+
+    public static LogCursor of(LogEntity entity) {
+        return new LogCursor(entity.getTimestamp(), entity.getId());
+    }
+
+    public static LogCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new LogCursor(
+                    Instant.parse(decoded.substring(0, separator)),
+                    UUID.fromString(decoded.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
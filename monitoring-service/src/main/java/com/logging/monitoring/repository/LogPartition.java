@@ -0,0 +1,14 @@
+package com.logging.monitoring.repository;
+
+import java.time.Instant;
+
+/**
+ * One partition of the logs table, covering {@code [from, to)}. Both bounds
+ * are null for the default partition.
+ */
+public record LogPartition(String name, Instant from, Instant to) {
+
+    public boolean isDefault() {
+        return from == null;
+    }
+}
@@ -0,0 +1,137 @@
+package com.logging.monitoring.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * DDL for the range partitions of the logs table. Partition names and bounds
+ * are generated by {@code LogPartitionManager}, never taken from input, so
+ * they are formatted into the statements directly (DDL takes no bind
+ * parameters).
+ */
+@Repository
+public class LogPartitionRepository {
+
+    public static final String DEFAULT_PARTITION = "logs_default";
+
+    private static final String IS_PARTITIONED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'logs'::regclass)";
+
+    // Bounds are read back through timestamptz so PostgreSQL parses its own output
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname AS name,
+                   (regexp_match(pg_get_expr(c.relpartbound, c.oid), 'FROM \\(''([^'']+)''\\)'))[1]::timestamptz AS lower_bound,
+                   (regexp_match(pg_get_expr(c.relpartbound, c.oid), 'TO \\(''([^'']+)''\\)'))[1]::timestamptz AS upper_bound
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'logs'::regclass
+            ORDER BY lower_bound NULLS FIRST
+            """;
+
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(hashtext('logs_partitions'))";
+
+    private static final String DETACH_LOCK_TIMEOUT = "5s";
+
+    private static final String IS_ATTACHED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM pg_inherits WHERE inhparent = 'logs'::regclass AND inhrelid = to_regclass(?))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LogPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Boolean.class));
+    }
+
+    public List<LogPartition> findPartitions() {
+        return jdbcTemplate.query(PARTITIONS_SQL, (rs, rowNum) -> new LogPartition(
+                rs.getString("name"),
+                toInstant(rs.getTimestamp("lower_bound")),
+                toInstant(rs.getTimestamp("upper_bound"))));
+    }
+
+    /**
+     * Create the partition for {@code [from, to)}. It is built detached and
+     * then attached, after moving in any rows the default partition already
+     * holds for the range; creating it in place would fail if there were any.
+     * The default partition is locked first so no row for the range can land
+     * there between the move and the attach. Instances serialize on an
+     * advisory lock; one that does not get it leaves the work to the holder.
+     *
+     * @return false if another instance holds the lock or already created it
+     */
+    @Transactional
+    public boolean createPartition(String name, Instant from, Instant to) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK_SQL, Boolean.class))
+                || Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_ATTACHED_SQL, Boolean.class, name))) {
+            return false;
+        }
+        String lower = literal(from);
+        String upper = literal(to);
+        jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name
+                + " (LIKE logs INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        jdbcTemplate.execute("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE timestamp >= " + lower + " AND timestamp < " + upper + " RETURNING *)"
+                + " INSERT INTO " + name + " SELECT * FROM moved");
+        jdbcTemplate.execute("ALTER TABLE logs ATTACH PARTITION " + name
+                + " FOR VALUES FROM (" + lower + ") TO (" + upper + ")");
+        return true;
+    }
+
+    /**
+     * Detach the partition without blocking reads and inserts on the logs
+     * table. Runs as its own statement outside any transaction, which
+     * {@code CONCURRENTLY} requires; PostgreSQL refuses it while the table
+     * has a default partition, see {@link #detachPartition(String)}.
+     */
+    public void detachPartitionConcurrently(String name) {
+        jdbcTemplate.execute("ALTER TABLE logs DETACH PARTITION " + name + " CONCURRENTLY");
+    }
+
+    /**
+     * Detach the partition under a short lock timeout, for when the table has
+     * a default partition and {@code CONCURRENTLY} is not allowed. The detach
+     * itself only changes the catalog; the timeout keeps it from queueing
+     * reads and inserts behind a long-running query while it waits for the
+     * lock. It fails instead, and the next maintenance run tries again.
+     */
+    @Transactional
+    public void detachPartition(String name) {
+        jdbcTemplate.execute("SET LOCAL lock_timeout = '" + DETACH_LOCK_TIMEOUT + "'");
+        jdbcTemplate.execute("ALTER TABLE logs DETACH PARTITION " + name);
+    }
+
+    /**
+     * Drop a partition that has been detached; this locks only the dropped
+     * table, not the logs table.
+     */
+    public void dropPartition(String name) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+    }
+
+    /**
+     * Delete rows older than {@code before} from the default partition, which
+     * is never dropped.
+     */
+    public int deleteFromDefault(Instant before) {
+        return jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE timestamp < ?",
+                before.atOffset(ZoneOffset.UTC));
+    }
+
+    private static String literal(Instant instant) {
+        return "'" + instant + "'::timestamptz";
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.logging.monitoring.repository;
+
+import com.logging.monitoring.entity.LogEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface LogRepositoryCustom {
+
+    /**
+     * First {@code limit} logs matching the specification, newest first with
+     * id as tiebreaker. Unlike {@code findAll(spec, pageable)} this issues no
+     * count query and no OFFSET.
+     */
+    List<LogEntity> findSeekPage(Specification<LogEntity> spec, int limit);
+}
@@ -0,0 +1,164 @@
+package com.logging.monitoring.repository;
+
+import com.logging.monitoring.dto.ServiceLogCount;
+import com.logging.monitoring.dto.SeverityCount;
+import com.logging.monitoring.entity.LogEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-minute (service, severity) counts in {@code log_counts_minute}. Counts
+ * are added in the same transaction as the log rows, and metrics queries sum
+ * buckets instead of scanning the logs table.
+ */
+@Repository
+public class LogRollupRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO log_counts_minute (bucket, service_name, severity, count)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (bucket, service_name, severity)
+            DO UPDATE SET count = log_counts_minute.count + EXCLUDED.count
+            """;
+
+    private static final String CREATE_TABLE_SQL = """
+            CREATE TABLE IF NOT EXISTS log_counts_minute (
+                bucket TIMESTAMPTZ NOT NULL,
+                service_name VARCHAR(100) NOT NULL,
+                severity VARCHAR(10) NOT NULL,
+                count BIGINT NOT NULL,
+                PRIMARY KEY (bucket, service_name, severity)
+            )
+            """;
+
+    private static final String CREATE_INDEX_SQL =
+            "CREATE INDEX IF NOT EXISTS idx_log_counts_minute_service_bucket ON log_counts_minute(service_name, bucket)";
+
+    private static final String BACKFILL_SQL = """
+            INSERT INTO log_counts_minute (bucket, service_name, severity, count)
+            SELECT date_trunc('minute', timestamp), service_name, severity, COUNT(*)
+            FROM logs
+            GROUP BY 1, 2, 3
+            """;
+
+    // Upserts are applied in key order so concurrent consumers lock rows in the same order
+    private static final Comparator<BucketKey> KEY_ORDER = Comparator
+            .comparing(BucketKey::bucket)
+            .thenComparing(BucketKey::serviceName)
+            .thenComparing(BucketKey::severity);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LogRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Create the table on a database set up before it existed; init.sql only
+     * runs against an empty data volume.
+     */
+    public void createTableIfMissing() {
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+        jdbcTemplate.execute(CREATE_INDEX_SQL);
+    }
+
+    /**
+     * Count the logs already stored if there are no counts at all yet, as when
+     * the table was just created next to existing logs. The table is locked
+     * against concurrent increments first: any consumer transaction that
+     * counted rows has then committed them, and any other waits until the
+     * backfill has committed and then adds only its own rows, so nothing is
+     * counted twice.
+     *
+     * @return the number of buckets written, 0 if there were counts already
+     */
+    @Transactional
+    public int backfillIfEmpty() {
+        jdbcTemplate.execute("LOCK TABLE log_counts_minute IN SHARE ROW EXCLUSIVE MODE");
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM log_counts_minute)", Boolean.class))) {
+            return 0;
+        }
+        return jdbcTemplate.update(BACKFILL_SQL);
+    }
+
+    public void increment(List<LogEntity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        Map<BucketKey, Long> counts = new TreeMap<>(KEY_ORDER);
+        for (LogEntity entity : entities) {
+            BucketKey key = new BucketKey(
+                    entity.getTimestamp().truncatedTo(ChronoUnit.MINUTES),
+                    entity.getServiceName(),
+                    entity.getSeverity());
+            counts.merge(key, 1L, Long::sum);
+        }
+
+        List<Object[]> rows = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> rows.add(new Object[]{
+                key.bucket().atOffset(ZoneOffset.UTC), key.serviceName(), key.severity(), count}));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    /**
+     * Delete buckets that start before {@code before}.
+     */
+    public int deleteBefore(Instant before) {
+        return jdbcTemplate.update("DELETE FROM log_counts_minute WHERE bucket < ?", before.atOffset(ZoneOffset.UTC));
+    }
+
+    public List<SeverityCount> countBySeverity(String serviceName, Instant startTime, Instant endTime) {
+        List<Object> params = new ArrayList<>();
+        String where = where(serviceName, startTime, endTime, params);
+        return jdbcTemplate.query(
+                "SELECT severity, SUM(count) AS total FROM log_counts_minute" + where + " GROUP BY severity",
+                (rs, rowNum) -> new SeverityCount(rs.getString("severity"), rs.getLong("total")),
+                params.toArray());
+    }
+
+    public List<ServiceLogCount> countByService(Instant startTime, Instant endTime) {
+        List<Object> params = new ArrayList<>();
+        String where = where(null, startTime, endTime, params);
+        return jdbcTemplate.query(
+                "SELECT service_name, SUM(count) AS total FROM log_counts_minute" + where
+                        + " GROUP BY service_name ORDER BY total DESC",
+                (rs, rowNum) -> new ServiceLogCount(rs.getString("service_name"), rs.getLong("total")),
+                params.toArray());
+    }
+
+    /**
+     * Range bounds are applied at minute granularity: the bucket containing
+     * startTime and the bucket containing endTime are both included.
+     */
+    private String where(String serviceName, Instant startTime, Instant endTime, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (serviceName != null && !serviceName.isBlank()) {
+            conditions.add("service_name = ?");
+            params.add(serviceName);
+        }
+        if (startTime != null) {
+            conditions.add("bucket >= ?");
+            params.add(startTime.truncatedTo(ChronoUnit.MINUTES).atOffset(ZoneOffset.UTC));
+        }
+        if (endTime != null) {
+            conditions.add("bucket <= ?");
+            params.add(endTime.atOffset(ZoneOffset.UTC));
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private record BucketKey(Instant bucket, String serviceName, String severity) {
+    }
+}
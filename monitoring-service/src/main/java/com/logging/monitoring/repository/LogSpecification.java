@@ -4,6 +4,7 @@ import com.logging.monitoring.entity.LogEntity;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.Instant;
+import java.util.UUID;
 
 public class LogSpecification {
 
@@ -34,6 +35,10 @@ public class LogSpecification {
         };
     }
 
+    /**
+     * Lower bound on the partition key. Kept as a plain comparison on the
+     * column so PostgreSQL can prune partitions that end before it.
+     */
     public static Specification<LogEntity> timestampAfter(Instant startTime) {
         return (root, query, cb) -> {
             if (startTime == null) {
@@ -51,4 +56,24 @@ public class LogSpecification {
             return cb.lessThanOrEqualTo(root.get("timestamp"), endTime);
         };
     }
+
+    /**
+     * Rows strictly after the cursor in (timestamp DESC, id DESC) order.
+     * Written as {@code timestamp <= t AND (timestamp < t OR id < i)} so the
+     * timestamp bound can drive an index range scan.
+     */
+    public static Specification<LogEntity> seekAfter(LogCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return null;
+            }
+            return cb.and(
+                    cb.lessThanOrEqualTo(root.get("timestamp"), cursor.timestamp()),
+                    cb.or(
+                            cb.lessThan(root.get("timestamp"), cursor.timestamp()),
+                            cb.lessThan(root.<UUID>get("id"), cursor.id())
+                    )
+            );
+        };
+    }
 }
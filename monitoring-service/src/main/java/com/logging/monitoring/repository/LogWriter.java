@@ -0,0 +1,43 @@
+package com.logging.monitoring.repository;
+
+import com.logging.monitoring.entity.LogEntity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk write path for consumed logs. The implementation is chosen with
+ * {@code app.persistence.writer} ({@code jdbc} or {@code copy}).
+ */
+public interface LogWriter {
+
+    /**
+     * Insert the entities, skipping any whose id is already stored, such as
+     * a redelivered record.
+     *
+     * @return the entities actually inserted, in their original order
+     */
+    List<LogEntity> saveAll(List<LogEntity> entities);
+
+    /**
+     * The entities whose ids were reported as inserted. An id repeated within
+     * the batch was only inserted once, so only its first entity is kept.
+     */
+    static List<LogEntity> inserted(List<LogEntity> entities, Collection<UUID> insertedIds) {
+        if (insertedIds.size() == entities.size()) {
+            return entities;
+        }
+        Set<UUID> remaining = new HashSet<>(insertedIds);
+        List<LogEntity> inserted = new ArrayList<>(insertedIds.size());
+        for (LogEntity entity : entities) {
+            if (remaining.remove(entity.getId())) {
+                inserted.add(entity);
+            }
+        }
+        return inserted;
+    }
+}
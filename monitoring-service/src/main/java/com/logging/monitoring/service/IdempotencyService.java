@@ -1,50 +1,90 @@
 package com.logging.monitoring.service;
 
+import com.logging.common.idempotency.IdempotencyStore;
+import com.logging.common.idempotency.RecentKeyCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
+/**
+ * Marks consumed records as processed in the {@link IdempotencyStore}. Keys this consumer marked
+ * recently are kept in an LRU so redelivered duplicates are dropped without a
+ * round-trip, and a polled batch is checked with one pipelined exchange
+ * rather than one SETNX per record.
+ */
 @Service
 public class IdempotencyService {
 
     private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
-    private static final String KEY_PREFIX = "processed:";
 
-    private final StringRedisTemplate redisTemplate;
-    private final Duration ttl;
+    private final IdempotencyStore store;
+    private final RecentKeyCache recentKeys;
 
     public IdempotencyService(
-            StringRedisTemplate redisTemplate,
-            @Value("${app.idempotency.ttl-hours:24}") int ttlHours) {
-        this.redisTemplate = redisTemplate;
-        this.ttl = Duration.ofHours(ttlHours);
+            IdempotencyStore store,
+            @Value("${app.idempotency.local.recent-keys:100000}") int recentKeys) {
+        this.store = store;
+        this.recentKeys = new RecentKeyCache(recentKeys);
     }
 
     public boolean tryMarkAsProcessed(String idempotencyKey) {
-        if (idempotencyKey == null || idempotencyKey.isBlank()) {
-            return true;
+        return tryMarkAllAsProcessed(Collections.singletonList(idempotencyKey))[0];
+    }
+
+    /**
+     * Batch form of {@link #tryMarkAsProcessed}. Entries may be null (no key,
+     * always processed) and may repeat, in which case only the first counts
+     * as new.
+     *
+     * @return for each key, whether it is new
+     */
+    public boolean[] tryMarkAllAsProcessed(List<String> idempotencyKeys) {
+        boolean[] isNew = new boolean[idempotencyKeys.size()];
+        List<Integer> unresolved = new ArrayList<>();
+
+        for (int i = 0; i < idempotencyKeys.size(); i++) {
+            String idempotencyKey = idempotencyKeys.get(i);
+            if (idempotencyKey == null || idempotencyKey.isBlank()) {
+                isNew[i] = true;
+            } else if (recentKeys.contains(idempotencyKey)) {
+                log.info("Skipping duplicate message with idempotency key: {}", idempotencyKey);
+            } else {
+                unresolved.add(i);
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return isNew;
         }
 
-        String key = KEY_PREFIX + idempotencyKey;
-        Boolean isNew = redisTemplate.opsForValue().setIfAbsent(key, "1", ttl);
+        List<String> keys = new ArrayList<>(unresolved.size());
+        for (int i : unresolved) {
+            keys.add(idempotencyKeys.get(i));
+        }
+        boolean[] results = store.putAllIfAbsent(keys);
 
-        if (Boolean.TRUE.equals(isNew)) {
-            log.debug("New message processed with idempotency key: {}", idempotencyKey);
-            return true;
-        } else {
-            log.info("Skipping duplicate message with idempotency key: {}", idempotencyKey);
-            return false;
+        for (int j = 0; j < unresolved.size(); j++) {
+            int i = unresolved.get(j);
+            String idempotencyKey = idempotencyKeys.get(i);
+            recentKeys.add(idempotencyKey);
+            if (results[j]) {
+                isNew[i] = true;
+                log.debug("New message processed with idempotency key: {}", idempotencyKey);
+            } else {
+                log.info("Skipping duplicate message with idempotency key: {}", idempotencyKey);
+            }
         }
+        return isNew;
     }
 
     public void removeProcessedKey(String idempotencyKey) {
         if (idempotencyKey != null && !idempotencyKey.isBlank()) {
-            String key = KEY_PREFIX + idempotencyKey;
-            redisTemplate.delete(key);
+            recentKeys.remove(idempotencyKey);
+            store.remove(idempotencyKey);
             log.debug("Removed processed key: {}", idempotencyKey);
         }
     }
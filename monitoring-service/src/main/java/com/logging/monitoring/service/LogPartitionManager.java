@@ -0,0 +1,168 @@
+package com.logging.monitoring.service;
+
+import com.logging.monitoring.repository.LogPartition;
+import com.logging.monitoring.repository.LogPartitionRepository;
+import com.logging.monitoring.repository.LogRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps the range partitions of the logs table in step with time: partitions
+ * for the next {@code premake} intervals are created ahead of the data, and
+ * partitions entirely older than the retention period are dropped, which is
+ * instant and leaves nothing for vacuum, unlike deleting rows. Partitions are
+ * aligned to whole UTC days and named {@code logs_pYYYYMMDD} after their
+ * first day. Per-minute counts are deleted along with the logs they count:
+ * up to the start of the oldest partition that is kept, so for a range that
+ * is still partly retained, counts and logs agree. An expired partition is
+ * detached before it is dropped, so the logs table is never locked for the
+ * drop itself.
+ */
+@Service
+public class LogPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(LogPartitionManager.class);
+    private static final DateTimeFormatter NAME_FORMAT =
+            DateTimeFormatter.ofPattern("'logs_p'yyyyMMdd").withZone(ZoneOffset.UTC);
+    private static final long SECONDS_PER_DAY = Duration.ofDays(1).toSeconds();
+
+    private final LogPartitionRepository partitionRepository;
+    private final LogRollupRepository rollupRepository;
+    private final boolean enabled;
+    private final int intervalDays;
+    private final int premake;
+    private final Duration retention;
+    private final Clock clock;
+
+    @Autowired
+    public LogPartitionManager(
+            LogPartitionRepository partitionRepository,
+            LogRollupRepository rollupRepository,
+            @Value("${app.partitions.enabled:true}") boolean enabled,
+            @Value("${app.partitions.interval-days:1}") int intervalDays,
+            @Value("${app.partitions.premake:7}") int premake,
+            @Value("${app.partitions.retention-days:30}") int retentionDays) {
+        this(partitionRepository, rollupRepository, enabled, intervalDays, premake, retentionDays, Clock.systemUTC());
+    }
+
+    LogPartitionManager(LogPartitionRepository partitionRepository, LogRollupRepository rollupRepository,
+                        boolean enabled, int intervalDays, int premake, int retentionDays, Clock clock) {
+        if (intervalDays < 1) {
+            throw new IllegalArgumentException("app.partitions.interval-days must be at least 1");
+        }
+        this.partitionRepository = partitionRepository;
+        this.rollupRepository = rollupRepository;
+        this.enabled = enabled;
+        this.intervalDays = intervalDays;
+        this.premake = premake;
+        this.retention = Duration.ofDays(retentionDays);
+        this.clock = clock;
+    }
+
+    /**
+     * Create missing partitions and drop expired ones. Runs at startup and
+     * then periodically; each step is idempotent, and retention runs even
+     * when creating partitions fails.
+     */
+    @Scheduled(fixedDelayString = "${app.partitions.maintenance-interval-ms:3600000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        List<LogPartition> partitions;
+        try {
+            if (!partitionRepository.isPartitioned()) {
+                log.warn("logs table is not partitioned; skipping partition maintenance");
+                return;
+            }
+            partitions = partitionRepository.findPartitions();
+        } catch (RuntimeException e) {
+            log.error("Log partition maintenance failed: {}", e.getMessage(), e);
+            return;
+        }
+        try {
+            createAhead(partitions);
+        } catch (RuntimeException e) {
+            log.error("Creating log partitions failed: {}", e.getMessage(), e);
+        }
+        try {
+            dropExpired(partitions);
+        } catch (RuntimeException e) {
+            log.error("Log retention failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void createAhead(List<LogPartition> partitions) {
+        Instant now = clock.instant();
+        Instant horizon = boundaryAfter(now).plus(Duration.ofDays((long) intervalDays * premake));
+
+        // Continue from the newest existing partition so ranges never overlap,
+        // even after interval-days is changed
+        Instant next = alignDown(now);
+        for (LogPartition partition : partitions) {
+            if (!partition.isDefault() && partition.to().isAfter(next)) {
+                next = partition.to();
+            }
+        }
+
+        while (next.isBefore(horizon)) {
+            Instant to = boundaryAfter(next);
+            String name = NAME_FORMAT.format(next);
+            if (partitionRepository.createPartition(name, next, to)) {
+                log.info("Created log partition {} for [{}, {})", name, next, to);
+            }
+            next = to;
+        }
+    }
+
+    private void dropExpired(List<LogPartition> partitions) {
+        Instant cutoff = clock.instant().minus(retention);
+        boolean hasDefault = partitions.stream().anyMatch(LogPartition::isDefault);
+        // Counts go only as far as the logs do: up to the oldest partition that is kept
+        Instant countsCutoff = cutoff;
+        for (LogPartition partition : partitions) {
+            if (partition.isDefault()) {
+                continue;
+            }
+            if (!partition.to().isAfter(cutoff)) {
+                if (hasDefault) {
+                    partitionRepository.detachPartition(partition.name());
+                } else {
+                    partitionRepository.detachPartitionConcurrently(partition.name());
+                }
+                partitionRepository.dropPartition(partition.name());
+                log.info("Dropped log partition {} for [{}, {})", partition.name(), partition.from(), partition.to());
+            } else if (partition.from().isBefore(countsCutoff)) {
+                countsCutoff = partition.from();
+            }
+        }
+        int deleted = partitionRepository.deleteFromDefault(cutoff);
+        if (deleted > 0) {
+            log.info("Deleted {} expired logs from {}", deleted, LogPartitionRepository.DEFAULT_PARTITION);
+        }
+        int buckets = rollupRepository.deleteBefore(countsCutoff);
+        if (buckets > 0) {
+            log.info("Deleted {} expired per-minute log count buckets", buckets);
+        }
+    }
+
+    private Instant alignDown(Instant instant) {
+        long interval = intervalDays * SECONDS_PER_DAY;
+        return Instant.ofEpochSecond(Math.floorDiv(instant.getEpochSecond(), interval) * interval);
+    }
+
+    private Instant boundaryAfter(Instant instant) {
+        return alignDown(instant).plusSeconds(intervalDays * SECONDS_PER_DAY);
+    }
+}
@@ -0,0 +1,70 @@
+package com.logging.monitoring.service;
+
+import com.logging.monitoring.entity.LogEntity;
+import com.logging.monitoring.repository.ConsumerOffsetRepository;
+import com.logging.monitoring.repository.LogRollupRepository;
+import com.logging.monitoring.repository.LogWriter;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class LogPersistenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(LogPersistenceService.class);
+
+    private final LogWriter logWriter;
+    private final LogRollupRepository logRollupRepository;
+    private final ConsumerOffsetRepository offsetRepository;
+
+    public LogPersistenceService(
+            LogWriter logWriter,
+            LogRollupRepository logRollupRepository,
+            ConsumerOffsetRepository offsetRepository) {
+        this.logWriter = logWriter;
+        this.logRollupRepository = logRollupRepository;
+        this.offsetRepository = offsetRepository;
+    }
+
+    /**
+     * Persist a batch of logs in a single transaction. Either every row is
+     * written or none is, so callers can fall back to smaller batches to
+     * isolate a bad row. Rows whose id is already stored are skipped. The
+     * per-minute rollups are updated in the same transaction for the inserted
+     * rows only, so metrics never count a row that was rolled back or
+     * redelivered.
+     *
+     * @return the entities actually inserted
+     */
+    @Transactional
+    public List<LogEntity> persist(List<LogEntity> entities) {
+        return persist(entities, Map.of());
+    }
+
+    /**
+     * Persist a batch together with the Kafka offsets it was consumed up to,
+     * so after a crash the rows and the stored offsets agree and nothing is
+     * written twice or skipped.
+     *
+     * @param nextOffsets per partition, the offset of the next record to consume
+     * @return the entities actually inserted
+     */
+    @Transactional
+    public List<LogEntity> persist(List<LogEntity> entities, Map<TopicPartition, Long> nextOffsets) {
+        List<LogEntity> inserted = logWriter.saveAll(entities);
+        logRollupRepository.increment(inserted);
+        if (inserted.size() < entities.size()) {
+            log.debug("Persisted batch of {} logs, skipped {} already stored",
+                    inserted.size(), entities.size() - inserted.size());
+        } else {
+            log.debug("Persisted batch of {} logs", entities.size());
+        }
+        offsetRepository.save(nextOffsets);
+        return inserted;
+    }
+}
@@ -0,0 +1,36 @@
+package com.logging.monitoring.service;
+
+import com.logging.monitoring.repository.LogRollupRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Brings the per-minute rollups up to date with the logs table at startup,
+ * before the listeners start consuming: creates the table if the database
+ * predates it and backfills counts for logs that were stored without them.
+ * Both steps do nothing once the rollups are in place.
+ */
+@Service
+public class LogRollupInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(LogRollupInitializer.class);
+
+    private final LogRollupRepository logRollupRepository;
+
+    public LogRollupInitializer(LogRollupRepository logRollupRepository) {
+        this.logRollupRepository = logRollupRepository;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        logRollupRepository.createTableIfMissing();
+        long start = System.nanoTime();
+        int buckets = logRollupRepository.backfillIfEmpty();
+        if (buckets > 0) {
+            log.info("Backfilled {} per-minute log count buckets in {} ms",
+                    buckets, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.logging.monitoring.service;
 
+import com.logging.monitoring.cache.LogCacheService;
+import com.logging.monitoring.dto.CursorPage;
 import com.logging.monitoring.dto.LogResponse;
 import com.logging.monitoring.dto.PagedResponse;
 import com.logging.monitoring.dto.ServiceLogCount;
 import com.logging.monitoring.dto.SeverityCount;
 import com.logging.monitoring.entity.LogEntity;
+import com.logging.monitoring.repository.LogCursor;
+import com.logging.monitoring.repository.LogEstimateRepository;
 import com.logging.monitoring.repository.LogRepository;
+import com.logging.monitoring.repository.LogRollupRepository;
 import com.logging.monitoring.repository.LogSpecification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,12 +31,33 @@ public class LogService {
 
     private static final Logger log = LoggerFactory.getLogger(LogService.class);
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    public enum TotalMode {
+        NONE, EXACT, ESTIMATE
+    }
+
     private final LogRepository logRepository;
+    private final LogEstimateRepository logEstimateRepository;
+    private final LogRollupRepository logRollupRepository;
+    private final LogCacheService logCacheService;
 
-    public LogService(LogRepository logRepository) {
+    public LogService(
+            LogRepository logRepository,
+            LogEstimateRepository logEstimateRepository,
+            LogRollupRepository logRollupRepository,
+            LogCacheService logCacheService) {
         this.logRepository = logRepository;
+        this.logEstimateRepository = logEstimateRepository;
+        this.logRollupRepository = logRollupRepository;
+        this.logCacheService = logCacheService;
     }
 
+    /**
+     * Offset-paginated search. The time range is applied to the partition key,
+     * so only partitions overlapping {@code [startTime, endTime]} are scanned,
+     * both for the page and for its count.
+     */
     public PagedResponse<LogResponse> searchLogs(
             String serviceName,
             String severity,
@@ -44,11 +70,7 @@ public class LogService {
         log.debug("Searching logs: service={}, severity={}, traceId={}, start={}, end={}, page={}, size={}",
                 serviceName, severity, traceId, startTime, endTime, page, size);
 
-        Specification<LogEntity> spec = Specification.where(LogSpecification.hasServiceName(serviceName))
-                .and(LogSpecification.hasSeverity(severity))
-                .and(LogSpecification.hasTraceId(traceId))
-                .and(LogSpecification.timestampAfter(startTime))
-                .and(LogSpecification.timestampBefore(endTime));
+        Specification<LogEntity> spec = filters(serviceName, severity, traceId, startTime, endTime);
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
         Page<LogEntity> logPage = logRepository.findAll(spec, pageable);
@@ -57,6 +79,80 @@ public class LogService {
         return PagedResponse.from(responsePage);
     }
 
+    /**
+     * Keyset-paginated search. Seeks past the cursor on (timestamp, id) instead
+     * of using OFFSET, so every page costs the same as the first. The total is
+     * only computed when asked for: {@code EXACT} runs COUNT(*), {@code ESTIMATE}
+     * uses the planner's row estimate and is only available without filters.
+     */
+    public CursorPage<LogResponse> searchLogsByCursor(
+            String serviceName,
+            String severity,
+            String traceId,
+            Instant startTime,
+            Instant endTime,
+            String cursor,
+            int size,
+            TotalMode totalMode
+    ) {
+        log.debug("Searching logs by cursor: service={}, severity={}, traceId={}, start={}, end={}, cursor={}, size={}",
+                serviceName, severity, traceId, startTime, endTime, cursor, size);
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Specification<LogEntity> filters = filters(serviceName, severity, traceId, startTime, endTime);
+        LogCursor position = cursor == null || cursor.isBlank() ? null : LogCursor.decode(cursor);
+
+        // Fetch one extra row to learn whether another page exists
+        List<LogEntity> rows = logRepository.findSeekPage(
+                filters.and(LogSpecification.seekAfter(position)), pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<LogEntity> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? LogCursor.of(page.get(page.size() - 1)).encode() : null;
+
+        boolean unfiltered = isBlank(serviceName) && isBlank(severity) && isBlank(traceId)
+                && startTime == null && endTime == null;
+        Long total = switch (totalMode) {
+            case NONE -> null;
+            case EXACT -> logRepository.count(filters);
+            case ESTIMATE -> unfiltered ? logEstimateRepository.estimateRowCount() : null;
+        };
+
+        return new CursorPage<>(
+                page.stream().map(LogResponse::from).toList(),
+                pageSize,
+                nextCursor,
+                hasMore,
+                total,
+                totalMode == TotalMode.ESTIMATE && total != null
+        );
+    }
+
+    /**
+     * Latest logs, served from the Redis recent-logs cache. PostgreSQL is only
+     * queried when the cache has nothing for the request.
+     */
+    public List<LogResponse> getRecentLogs(String serviceName, int limit) {
+        int capped = Math.max(1, Math.min(limit, logCacheService.getRecentLogsLimit()));
+        boolean perService = serviceName != null && !serviceName.isBlank();
+        Optional<List<LogResponse>> cached = perService
+                ? logCacheService.getRecentLogs(serviceName, capped)
+                : logCacheService.getRecentLogs(capped);
+
+        if (cached.isPresent()) {
+            log.debug("Recent logs served from cache: service={}, count={}", serviceName, cached.get().size());
+            return cached.get();
+        }
+
+        log.debug("Recent logs cache miss, querying database: service={}, limit={}", serviceName, capped);
+        Pageable pageable = PageRequest.of(0, capped);
+        List<LogEntity> entities = perService
+                ? logRepository.findByServiceNameOrderByTimestampDesc(serviceName, pageable)
+                : logRepository.findAllByOrderByTimestampDesc(pageable);
+        return entities.stream()
+                .map(LogResponse::from)
+                .toList();
+    }
+
     public Optional<LogResponse> getLogById(UUID id) {
         log.debug("Getting log by id: {}", id);
         return logRepository.findById(id).map(LogResponse::from);
@@ -70,27 +166,30 @@ public class LogService {
                 .toList();
     }
 
-    public List<SeverityCount> getCountsBySeverity() {
-        log.debug("Getting counts by severity");
-        return logRepository.countBySeverity()
-                .stream()
-                .map(row -> new SeverityCount((String) row[0], (Long) row[1]))
-                .toList();
+    /**
+     * Counts per severity from the per-minute rollups, optionally for one
+     * service and time range. Range bounds have minute granularity.
+     */
+    public List<SeverityCount> getCountsBySeverity(String serviceName, Instant startTime, Instant endTime) {
+        log.debug("Getting counts by severity: service={}, start={}, end={}", serviceName, startTime, endTime);
+        return logRollupRepository.countBySeverity(serviceName, startTime, endTime);
     }
 
-    public List<ServiceLogCount> getCountsByService() {
-        log.debug("Getting counts by service");
-        return logRepository.countByServiceName()
-                .stream()
-                .map(row -> new ServiceLogCount((String) row[0], (Long) row[1]))
-                .toList();
+    public List<ServiceLogCount> getCountsByService(Instant startTime, Instant endTime) {
+        log.debug("Getting counts by service: start={}, end={}", startTime, endTime);
+        return logRollupRepository.countByService(startTime, endTime);
     }
 
-    public List<SeverityCount> getCountsBySeverityForService(String serviceName) {
-        log.debug("Getting counts by severity for service: {}", serviceName);
-        return logRepository.countBySeverityForService(serviceName)
-                .stream()
-                .map(row -> new SeverityCount((String) row[0], (Long) row[1]))
-                .toList();
+    private Specification<LogEntity> filters(
+            String serviceName, String severity, String traceId, Instant startTime, Instant endTime) {
+        return Specification.where(LogSpecification.hasServiceName(serviceName))
+                .and(LogSpecification.hasSeverity(severity))
+                .and(LogSpecification.hasTraceId(traceId))
+                .and(LogSpecification.timestampAfter(startTime))
+                .and(LogSpecification.timestampBefore(endTime));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
     }
 }
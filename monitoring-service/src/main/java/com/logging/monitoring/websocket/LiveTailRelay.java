@@ -0,0 +1,178 @@
+package com.logging.monitoring.websocket;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logging.common.dto.LogEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cluster-wide live tail. Each instance persists only the partitions it owns
+ * in the {@code log-processors} group, so the events it has just persisted
+ * are published on a Redis channel and every instance, itself included,
+ * feeds what it receives there to its WebSocket clients. Live viewers thus
+ * see exactly what was stored: duplicates skipped by idempotency key or event
+ * id, and records that were dead-lettered, never reach them.
+ * <p>
+ * Publishing is best effort, like the fan-out itself: a failure is logged and
+ * the batch is simply not shown live.
+ * <p>
+ * The Kafka listener only hands a batch over: serializing and publishing run
+ * on a single publisher thread behind a bounded queue, and a batch that does
+ * not fit is dropped for live viewers. Batches are not published at all while
+ * no instance has a WebSocket session. Each instance with sessions keeps its
+ * id in a Redis sorted set scored by expiry and refreshes it every
+ * {@code presence-interval-ms}; whether the set has live members is sampled
+ * on the same schedule, so the listener checks a local flag rather than
+ * Redis. A viewer connecting to another instance may therefore miss up to one
+ * interval of logs.
+ */
+@Component
+@ConditionalOnProperty(name = "app.websocket.cluster.enabled", havingValue = "true")
+public class LiveTailRelay implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveTailRelay.class);
+    private static final TypeReference<List<LogEvent>> EVENT_LIST = new TypeReference<>() {
+    };
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final LogWebSocketHandler webSocketHandler;
+    private final String channel;
+    private final RedisMessageListenerContainer container;
+    private final String presenceKey;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final long presenceTtlMs;
+    private final ThreadPoolExecutor publisher;
+    private final AtomicLong publishDropped = new AtomicLong();
+    private volatile boolean anyInstanceViewing;
+    private long reportedDrops;
+
+    public LiveTailRelay(
+            StringRedisTemplate redisTemplate,
+            RedisConnectionFactory connectionFactory,
+            ObjectMapper objectMapper,
+            LogWebSocketHandler webSocketHandler,
+            @Value("${app.websocket.cluster.channel:logs:live}") String channel,
+            @Value("${app.websocket.cluster.presence-interval-ms:1000}") long presenceIntervalMs,
+            @Value("${app.websocket.cluster.publish-queue-capacity:100}") int publishQueueCapacity) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.webSocketHandler = webSocketHandler;
+        this.channel = channel;
+        this.container = new RedisMessageListenerContainer();
+        this.container.setConnectionFactory(connectionFactory);
+        this.container.addMessageListener(this, new ChannelTopic(channel));
+        this.presenceKey = channel + ":viewers";
+        this.presenceTtlMs = presenceIntervalMs * 3;
+
+        CustomizableThreadFactory publisherFactory = new CustomizableThreadFactory("live-tail-publisher-");
+        publisherFactory.setDaemon(true);
+        this.publisher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(publishQueueCapacity), publisherFactory,
+                (task, executor) -> publishDropped.incrementAndGet());
+    }
+
+    @PostConstruct
+    public void start() {
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        container.destroy();
+        publisher.shutdown();
+        redisTemplate.opsForZSet().remove(presenceKey, instanceId);
+    }
+
+    /**
+     * Publish a persisted batch to every instance, as one message. Never
+     * blocks; does nothing while no instance has a WebSocket session.
+     */
+    public void publish(List<LogEvent> persisted) {
+        if (persisted.isEmpty() || !hasViewers()) {
+            return;
+        }
+        publisher.execute(() -> send(persisted));
+    }
+
+    /**
+     * Record whether this instance has sessions, and sample whether any
+     * instance does.
+     */
+    @Scheduled(fixedDelayString = "${app.websocket.cluster.presence-interval-ms:1000}")
+    public void refreshPresence() {
+        long now = System.currentTimeMillis();
+        try {
+            ZSetOperations<String, String> viewers = redisTemplate.opsForZSet();
+            if (webSocketHandler.getActiveSessionCount() > 0) {
+                viewers.add(presenceKey, instanceId, now + presenceTtlMs);
+            } else {
+                viewers.remove(presenceKey, instanceId);
+            }
+            // Instances that stopped without removing themselves
+            viewers.removeRangeByScore(presenceKey, 0, now);
+            Long live = viewers.zCard(presenceKey);
+            anyInstanceViewing = live != null && live > 0;
+        } catch (Exception e) {
+            // Keep publishing rather than hide logs from viewers we cannot see
+            log.warn("Failed to refresh live tail presence: {}", e.getMessage());
+            anyInstanceViewing = true;
+        }
+
+        long dropped = publishDropped.get();
+        if (dropped > reportedDrops) {
+            log.warn("Live tail publish queue full, dropped {} batches ({} total)", dropped - reportedDrops, dropped);
+            reportedDrops = dropped;
+        }
+    }
+
+    private boolean hasViewers() {
+        return anyInstanceViewing || webSocketHandler.getActiveSessionCount() > 0;
+    }
+
+    private void send(List<LogEvent> persisted) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(persisted));
+        } catch (Exception e) {
+            log.warn("Failed to publish {} logs for live tail: {}", persisted.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (webSocketHandler.getActiveSessionCount() == 0) {
+            return;
+        }
+        try {
+            List<LogEvent> events = objectMapper.readValue(message.getBody(), EVENT_LIST);
+            log.debug("Live tail received {} logs", events.size());
+            events.forEach(webSocketHandler::broadcast);
+        } catch (IOException e) {
+            log.warn("Dropped unreadable live tail message: {}", e.getMessage());
+        }
+    }
+}
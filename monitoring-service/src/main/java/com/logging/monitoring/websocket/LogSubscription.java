@@ -0,0 +1,95 @@
+package com.logging.monitoring.websocket;
+
+import com.logging.common.dto.LogEvent;
+import com.logging.common.dto.LogEvent.Severity;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * What a live-stream client wants to receive. Empty service or severity sets
+ * mean "any". Services and severities are resolved through the
+ * {@link SubscriptionIndex}; the remaining fields are checked per event.
+ * <p>
+ * The message pattern comes from the client and runs on the fan-out
+ * dispatcher, so each match may read at most a fixed number of characters
+ * per character of the message; a pattern that backtracks past that budget,
+ * or recurses deep enough to overflow the stack, counts as not matching
+ * rather than stalling every other session.
+ */
+record LogSubscription(
+        Set<String> services,
+        Set<Severity> severities,
+        String traceId,
+        String messageContains,
+        Pattern messagePattern
+) {
+    static final LogSubscription ALL = new LogSubscription(Set.of(), Set.of(), null, null, null);
+
+    private static final long MATCH_BASE_STEPS = 10_000;
+    private static final long MATCH_STEPS_PER_CHAR = 50;
+
+    boolean matchesDetails(LogEvent logEvent) {
+        if (traceId != null && !traceId.equals(logEvent.traceId())) {
+            return false;
+        }
+        String message = logEvent.message() != null ? logEvent.message() : "";
+        if (messageContains != null && !message.contains(messageContains)) {
+            return false;
+        }
+        if (messagePattern == null) {
+            return true;
+        }
+        try {
+            return messagePattern.matcher(new BudgetedCharSequence(message,
+                    MATCH_BASE_STEPS + MATCH_STEPS_PER_CHAR * message.length())).find();
+        } catch (MatchBudgetExceededException | StackOverflowError e) {
+            return false;
+        }
+    }
+
+    /**
+     * A message that throws once the matcher has read more characters than
+     * its budget allows.
+     */
+    private static final class BudgetedCharSequence implements CharSequence {
+
+        private final String text;
+        private long remaining;
+
+        BudgetedCharSequence(String text, long budget) {
+            this.text = text;
+            this.remaining = budget;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--remaining < 0) {
+                throw new MatchBudgetExceededException();
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    private static final class MatchBudgetExceededException extends RuntimeException {
+
+        MatchBudgetExceededException() {
+            super(null, null, false, false);
+        }
+    }
+}
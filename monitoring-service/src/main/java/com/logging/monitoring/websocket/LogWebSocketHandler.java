@@ -3,80 +3,257 @@ package com.logging.monitoring.websocket;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.logging.common.dto.LogEvent;
+import com.logging.common.dto.LogEvent.Severity;
+import com.logging.monitoring.dto.StreamSessionStats;
+import com.logging.monitoring.dto.StreamStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
-import java.io.IOException;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
+/**
+ * Live log stream. {@link #broadcast} only enqueues onto a bounded fan-out
+ * queue; a dedicated dispatcher thread serializes each event once and hands it
+ * to every subscribed session's {@link SessionSender}, so the Kafka consumer
+ * never waits on a browser. Clients narrow what they receive by sending a
+ * {@link SubscriptionRequest}.
+ */
 @Component
 public class LogWebSocketHandler extends TextWebSocketHandler {
 
     private static final Logger log = LoggerFactory.getLogger(LogWebSocketHandler.class);
+    private static final int MAX_REGEX_LENGTH = 200;
 
-    private final Set<WebSocketSession> sessions = ConcurrentHashMap.newKeySet();
+    private final Map<String, SessionSender> senders = new ConcurrentHashMap<>();
+    private final SubscriptionIndex subscriptionIndex = new SubscriptionIndex();
     private final ObjectMapper objectMapper;
+    private final BlockingQueue<LogEvent> fanoutQueue;
+    private final AtomicLong fanoutDropped = new AtomicLong(0);
+    private final int sessionBufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final ExecutorService senderPool;
+    private final Thread dispatcher;
 
-    public LogWebSocketHandler() {
+    public LogWebSocketHandler(
+            @Value("${app.websocket.fanout-queue-capacity:10000}") int fanoutQueueCapacity,
+            @Value("${app.websocket.session-buffer-size:1000}") int sessionBufferSize,
+            @Value("${app.websocket.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+            @Value("${app.websocket.sender-threads:4}") int senderThreads) {
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
+        this.fanoutQueue = new ArrayBlockingQueue<>(fanoutQueueCapacity);
+        this.sessionBufferSize = sessionBufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.senderPool = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("ws-sender-"));
+
+        CustomizableThreadFactory dispatcherFactory = new CustomizableThreadFactory("ws-fanout-");
+        dispatcherFactory.setDaemon(true);
+        this.dispatcher = dispatcherFactory.newThread(this::dispatchLoop);
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        dispatcher.interrupt();
+        senderPool.shutdown();
+        senderPool.awaitTermination(5, TimeUnit.SECONDS);
     }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
-        sessions.add(session);
+        SessionSender sender = new SessionSender(session, sessionBufferSize, overflowPolicy, senderPool);
+        senders.put(session.getId(), sender);
+        subscriptionIndex.add(sender, sender.getSubscription());
         log.info("WebSocket connection established: {}", session.getId());
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
-        sessions.remove(session);
+        SessionSender sender = removeSender(session.getId());
+        if (sender != null) {
+            sender.close(status);
+        }
         log.info("WebSocket connection closed: {} ({})", session.getId(), status);
     }
 
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) {
-        // Client can send filter preferences (future enhancement)
         log.debug("Received message from {}: {}", session.getId(), message.getPayload());
+
+        SessionSender sender = senders.get(session.getId());
+        if (sender == null) {
+            return;
+        }
+
+        try {
+            SubscriptionRequest request = objectMapper.readValue(message.getPayload(), SubscriptionRequest.class);
+            LogSubscription subscription = "unsubscribe".equals(request.type())
+                    ? LogSubscription.ALL
+                    : toSubscription(request);
+            updateSubscription(sender, subscription);
+            log.info("Session {} subscribed: {}", session.getId(), subscription);
+        } catch (Exception e) {
+            log.warn("Rejected subscription from {}: {}", session.getId(), e.getMessage());
+            sender.enqueue(errorMessage(e.getMessage()));
+        }
     }
 
     @Override
     public void handleTransportError(WebSocketSession session, Throwable exception) {
         log.error("WebSocket transport error for session {}: {}", session.getId(), exception.getMessage());
-        sessions.remove(session);
+        SessionSender sender = removeSender(session.getId());
+        if (sender != null) {
+            sender.close(CloseStatus.SERVER_ERROR);
+        }
     }
 
+    /**
+     * Hand an event to the fan-out stage. Never blocks; if the fan-out queue is
+     * full the event is dropped for live viewers (it is already persisted).
+     */
     public void broadcast(LogEvent logEvent) {
-        if (sessions.isEmpty()) {
+        if (senders.isEmpty()) {
             return;
         }
+        if (!fanoutQueue.offer(logEvent)) {
+            fanoutDropped.incrementAndGet();
+        }
+    }
 
-        try {
-            String json = objectMapper.writeValueAsString(logEvent);
-            TextMessage message = new TextMessage(json);
-
-            for (WebSocketSession session : sessions) {
-                if (session.isOpen()) {
-                    try {
-                        session.sendMessage(message);
-                    } catch (IOException e) {
-                        log.error("Failed to send message to session {}: {}", session.getId(), e.getMessage());
-                        sessions.remove(session);
-                    }
-                }
+    public int getActiveSessionCount() {
+        return senders.size();
+    }
+
+    public StreamStats getStats() {
+        return new StreamStats(
+                senders.size(),
+                fanoutQueue.size(),
+                fanoutDropped.get(),
+                overflowPolicy.name(),
+                senders.values().stream()
+                        .map(sender -> new StreamSessionStats(
+                                sender.getSessionId(),
+                                sender.getQueueDepth(),
+                                sender.getSentCount(),
+                                sender.getDroppedCount()))
+                        .toList()
+        );
+    }
+
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                dispatch(fanoutQueue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+                // One bad event or filter must not stop live tail for every session
+                log.error("Failed to dispatch log event: {}", t.toString());
+            }
+        }
+    }
+
+    private void dispatch(LogEvent logEvent) throws Exception {
+        String json = null;
+
+        for (SessionSender sender : subscriptionIndex.candidates(logEvent)) {
+            if (!sender.getSubscription().matchesDetails(logEvent)) {
+                continue;
+            }
+            if (json == null) {
+                json = objectMapper.writeValueAsString(logEvent);
+            }
+            if (!sender.enqueue(json) && sender.isClosed()) {
+                removeSender(sender.getSessionId());
+            }
+        }
+    }
+
+    private SessionSender removeSender(String sessionId) {
+        SessionSender sender = senders.remove(sessionId);
+        if (sender != null) {
+            synchronized (sender) {
+                subscriptionIndex.remove(sender, sender.getSubscription());
+            }
+        }
+        return sender;
+    }
+
+    private void updateSubscription(SessionSender sender, LogSubscription subscription) {
+        synchronized (sender) {
+            subscriptionIndex.remove(sender, sender.getSubscription());
+            sender.setSubscription(subscription);
+            if (senders.containsKey(sender.getSessionId())) {
+                subscriptionIndex.add(sender, subscription);
+            }
+        }
+    }
+
+    private LogSubscription toSubscription(SubscriptionRequest request) {
+        Set<String> services = request.services() != null ? Set.copyOf(request.services()) : Set.of();
+
+        Set<Severity> severities = new HashSet<>();
+        if (request.severities() != null) {
+            for (String severity : request.severities()) {
+                severities.add(Severity.valueOf(severity.toUpperCase(Locale.ROOT)));
+            }
+        }
+
+        Pattern pattern = null;
+        if (request.messageRegex() != null && !request.messageRegex().isBlank()) {
+            if (request.messageRegex().length() > MAX_REGEX_LENGTH) {
+                throw new IllegalArgumentException("messageRegex longer than " + MAX_REGEX_LENGTH + " characters");
+            }
+            try {
+                pattern = Pattern.compile(request.messageRegex());
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid messageRegex: " + e.getDescription());
             }
+        }
+
+        return new LogSubscription(
+                services,
+                Set.copyOf(severities),
+                blankToNull(request.traceId()),
+                blankToNull(request.messageContains()),
+                pattern
+        );
+    }
+
+    private String errorMessage(String message) {
+        try {
+            return objectMapper.writeValueAsString(Map.of("type", "error", "message", String.valueOf(message)));
         } catch (Exception e) {
-            log.error("Failed to serialize log event: {}", e.getMessage());
+            return "{\"type\":\"error\"}";
         }
     }
 
-    public int getActiveSessionCount() {
-        return sessions.size();
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
     }
 }
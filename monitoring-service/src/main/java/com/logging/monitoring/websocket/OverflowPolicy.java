@@ -0,0 +1,13 @@
+package com.logging.monitoring.websocket;
+
+/**
+ * What to do when a WebSocket session's send buffer is full.
+ */
+public enum OverflowPolicy {
+    /** Evict the oldest pending message to make room for the new one. */
+    DROP_OLDEST,
+    /** Close the session; the client is expected to reconnect. */
+    DROP_SESSION,
+    /** Evict the oldest on overflow and send whatever is pending as one JSON array frame. */
+    COALESCE
+}
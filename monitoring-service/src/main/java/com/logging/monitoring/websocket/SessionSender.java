@@ -0,0 +1,188 @@
+package com.logging.monitoring.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded send buffer for one WebSocket session. Messages are written by a
+ * shared sender pool, with at most one drain task per session in flight, so a
+ * slow client only ever backs up its own buffer. The socket is also closed by
+ * that drain task, so it is never closed while a message is being written.
+ */
+class SessionSender {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionSender.class);
+
+    private final WebSocketSession session;
+    private final BlockingQueue<String> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final Executor executor;
+    private final int maxPerDrain;
+
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicBoolean sessionClosed = new AtomicBoolean(false);
+    private final AtomicLong sentCount = new AtomicLong(0);
+    private final AtomicLong droppedCount = new AtomicLong(0);
+    private volatile CloseStatus closeStatus;
+    private volatile boolean closed;
+    private volatile LogSubscription subscription = LogSubscription.ALL;
+
+    SessionSender(WebSocketSession session, int bufferSize, OverflowPolicy overflowPolicy, Executor executor) {
+        this.session = session;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.overflowPolicy = overflowPolicy;
+        this.executor = executor;
+        this.maxPerDrain = bufferSize;
+    }
+
+    /**
+     * Queue a message without blocking. Returns false if the session is closed
+     * or was dropped because of this message.
+     */
+    boolean enqueue(String payload) {
+        if (closed) {
+            return false;
+        }
+
+        while (!buffer.offer(payload)) {
+            droppedCount.incrementAndGet();
+            if (overflowPolicy == OverflowPolicy.DROP_SESSION) {
+                log.warn("Send buffer full for session {}, closing it", session.getId());
+                close(CloseStatus.SESSION_NOT_RELIABLE);
+                return false;
+            }
+            buffer.poll();
+        }
+
+        scheduleDrain();
+        return true;
+    }
+
+    String getSessionId() {
+        return session.getId();
+    }
+
+    LogSubscription getSubscription() {
+        return subscription;
+    }
+
+    void setSubscription(LogSubscription subscription) {
+        this.subscription = subscription;
+    }
+
+    int getQueueDepth() {
+        return buffer.size();
+    }
+
+    long getSentCount() {
+        return sentCount.get();
+    }
+
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Stop accepting messages and close the session from the drain task, after
+     * any send in progress has returned.
+     */
+    void close(CloseStatus status) {
+        if (closed) {
+            return;
+        }
+        closeStatus = status;
+        closed = true;
+        buffer.clear();
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                // Sender pool shut down: no drain task is running, so closing here cannot overlap a send
+                if (closed) {
+                    closeSession();
+                }
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            List<String> pending = new ArrayList<>();
+            int drained = 0;
+            // Bounded per run so one busy session cannot monopolise a sender thread
+            while (!closed && drained < maxPerDrain) {
+                int limit = overflowPolicy == OverflowPolicy.COALESCE ? maxPerDrain - drained : 1;
+                if (buffer.drainTo(pending, limit) == 0) {
+                    break;
+                }
+                send(pending);
+                drained += pending.size();
+                pending.clear();
+            }
+            if (closed) {
+                closeSession();
+            }
+        } finally {
+            draining.set(false);
+        }
+
+        // A message may have been queued, or the session closed, after the last
+        // check but before the flag was cleared
+        if (closed ? !sessionClosed.get() : !buffer.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void closeSession() {
+        if (!sessionClosed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (session.isOpen()) {
+                session.close(closeStatus);
+            }
+        } catch (IOException e) {
+            log.debug("Failed to close session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    private void send(List<String> pending) {
+        if (!session.isOpen()) {
+            close(CloseStatus.GOING_AWAY);
+            return;
+        }
+
+        String payload = pending.size() == 1
+                ? pending.get(0)
+                : "[" + String.join(",", pending) + "]";
+        try {
+            session.sendMessage(new TextMessage(payload));
+            sentCount.addAndGet(pending.size());
+        } catch (IOException | IllegalStateException e) {
+            log.error("Failed to send message to session {}: {}", session.getId(), e.getMessage());
+            close(CloseStatus.SERVER_ERROR);
+        }
+    }
+}
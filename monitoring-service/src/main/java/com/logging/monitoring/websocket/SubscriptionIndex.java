@@ -0,0 +1,89 @@
+package com.logging.monitoring.websocket;
+
+import com.logging.common.dto.LogEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessions indexed by (service, severity), with "*" standing for "any". A
+ * session is registered under every combination its subscription covers, so
+ * an event only has to look at four buckets and the cost of routing it grows
+ * with the number of interested sessions rather than all sessions.
+ */
+class SubscriptionIndex {
+
+    private static final String ANY = "*";
+
+    private final Map<String, Set<SessionSender>> buckets = new ConcurrentHashMap<>();
+
+    void add(SessionSender sender, LogSubscription subscription) {
+        for (String key : keysFor(subscription)) {
+            buckets.compute(key, (k, senders) -> {
+                Set<SessionSender> updated = senders != null ? senders : ConcurrentHashMap.newKeySet();
+                updated.add(sender);
+                return updated;
+            });
+        }
+    }
+
+    void remove(SessionSender sender, LogSubscription subscription) {
+        for (String key : keysFor(subscription)) {
+            buckets.computeIfPresent(key, (k, senders) -> {
+                senders.remove(sender);
+                return senders.isEmpty() ? null : senders;
+            });
+        }
+    }
+
+    /**
+     * Sessions whose service and severity filters accept the event. Each
+     * session appears at most once because its keys never overlap for a
+     * single (service, severity) pair.
+     */
+    List<SessionSender> candidates(LogEvent logEvent) {
+        String service = logEvent.serviceName();
+
+        List<SessionSender> candidates = new ArrayList<>();
+        // An event without a severity only reaches sessions that do not filter on it
+        if (logEvent.severity() != null) {
+            String severity = logEvent.severity().name();
+            collect(candidates, key(service, severity));
+            collect(candidates, key(ANY, severity));
+        }
+        collect(candidates, key(service, ANY));
+        collect(candidates, key(ANY, ANY));
+        return candidates;
+    }
+
+    private void collect(List<SessionSender> candidates, String key) {
+        Set<SessionSender> senders = buckets.get(key);
+        if (senders != null) {
+            candidates.addAll(senders);
+        }
+    }
+
+    private static List<String> keysFor(LogSubscription subscription) {
+        List<String> services = subscription.services().isEmpty()
+                ? List.of(ANY)
+                : List.copyOf(subscription.services());
+        List<String> severities = subscription.severities().isEmpty()
+                ? List.of(ANY)
+                : subscription.severities().stream().map(Enum::name).toList();
+
+        List<String> keys = new ArrayList<>(services.size() * severities.size());
+        for (String service : services) {
+            for (String severity : severities) {
+                keys.add(key(service, severity));
+            }
+        }
+        return keys;
+    }
+
+    private static String key(String service, String severity) {
+        return service + '|' + severity;
+    }
+}
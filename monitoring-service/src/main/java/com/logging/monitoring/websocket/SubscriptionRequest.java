@@ -0,0 +1,18 @@
+package com.logging.monitoring.websocket;
+
+import java.util.List;
+
+/**
+ * Message a client sends over the live-log socket to change what it receives,
+ * e.g. {@code {"type":"subscribe","services":["order-service"],"severities":["ERROR"]}}.
+ * {@code {"type":"unsubscribe"}} goes back to receiving everything.
+ */
+record SubscriptionRequest(
+        String type,
+        List<String> services,
+        List<String> severities,
+        String traceId,
+        String messageContains,
+        String messageRegex
+) {
+}
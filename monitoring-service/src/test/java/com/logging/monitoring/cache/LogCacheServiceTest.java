@@ -0,0 +1,228 @@
+package com.logging.monitoring.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.logging.monitoring.dto.LogResponse;
+import com.logging.monitoring.entity.LogEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LogCacheServiceTest {
+
+    private static final Instant T0 = Instant.parse("2024-03-01T12:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final LogCacheService cache = new LogCacheService(redisTemplate, objectMapper, 2, 24);
+
+    // What each pipelined exchange sent: one {key, ..., values} array per EVALSHA
+    private final List<List<List<String>>> pipelines = new ArrayList<>();
+    private final List<String> scriptLoads = new ArrayList<>();
+    private List<List<String>> currentPipeline;
+    private Function<Integer, List<Object>> pipelineFailures = exchange -> null;
+
+    @BeforeEach
+    void setUp() {
+        RedisScriptingCommands scripting = mock(RedisScriptingCommands.class, invocation -> {
+            switch (invocation.getMethod().getName()) {
+                case "evalSha" -> currentPipeline.add(Arrays.stream((byte[][]) invocation.getRawArguments()[3])
+                        .map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+                        .toList());
+                case "scriptLoad" -> scriptLoads.add(new String(invocation.<byte[]>getArgument(0),
+                        StandardCharsets.UTF_8));
+                default -> throw new UnsupportedOperationException(invocation.getMethod().getName());
+            }
+            return null;
+        });
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.scriptingCommands()).thenReturn(scripting);
+
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            currentPipeline = new ArrayList<>();
+            pipelines.add(currentPipeline);
+            invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+            List<Object> failed = pipelineFailures.apply(pipelines.size());
+            if (failed != null) {
+                throw new RedisPipelineException("Pipeline contained one or more invalid commands", failed);
+            }
+            return currentPipeline.stream().map(update -> (Object) 1L).toList();
+        });
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+    }
+
+    @Test
+    void cacheRecentLogs_sendsOneUpdatePerServiceInOnePipeline() {
+        cache.cacheRecentLogs(List.of(
+                entity("order-service", 0), entity("payment-service", 1), entity("order-service", 2)));
+
+        assertThat(pipelines).hasSize(1);
+        assertThat(pipelines.get(0)).extracting(update -> update.get(0))
+                .containsExactly("logs:recent:order-service", "logs:recent:payment-service");
+        assertThat(pipelines.get(0).get(0).subList(0, 5))
+                .containsExactly("logs:recent:order-service", "logs:services", "2", "86400", "order-service");
+        assertThat(scriptLoads).isEmpty();
+    }
+
+    @Test
+    void cacheRecentLogs_sendsOnlyTheNewestEntriesThatSurviveTheTrim() {
+        cache.cacheRecentLogs(List.of(
+                entity("order-service", 0), entity("order-service", 1), entity("order-service", 2)));
+
+        List<String> update = pipelines.get(0).get(0);
+        assertThat(update).hasSize(5 + 2);
+        assertThat(update.get(5)).contains("\"message\":\"m1\"");
+        assertThat(update.get(6)).contains("\"message\":\"m2\"");
+    }
+
+    @Test
+    void cacheRecentLogs_noScript_loadsScriptAndResendsOnlyFailedUpdates() {
+        pipelineFailures = exchange -> exchange == 1
+                ? List.of(1L, noScript(), 1L)
+                : null;
+
+        cache.cacheRecentLogs(List.of(
+                entity("order-service", 0), entity("payment-service", 1), entity("user-service", 2)));
+
+        assertThat(scriptLoads).hasSize(1);
+        assertThat(scriptLoads.get(0)).contains("LPUSH", "LTRIM", "SADD");
+        assertThat(pipelines).hasSize(2);
+        assertThat(pipelines.get(1)).extracting(update -> update.get(0))
+                .containsExactly("logs:recent:payment-service");
+        assertThat(pipelines.get(1).get(0)).isEqualTo(pipelines.get(0).get(1));
+    }
+
+    @Test
+    void cacheRecentLogs_otherFailure_isRethrownWithoutRetry() {
+        pipelineFailures = exchange -> List.of(1L, new InvalidDataAccessApiUsageException("OOM command not allowed"));
+
+        assertThatThrownBy(() -> cache.cacheRecentLogs(List.of(
+                entity("order-service", 0), entity("payment-service", 1))))
+                .isInstanceOf(RedisPipelineException.class);
+
+        assertThat(scriptLoads).isEmpty();
+        assertThat(pipelines).hasSize(1);
+    }
+
+    @Test
+    void getRecentLogs_acrossServices_mergesNewestFirstWithoutDuplicates() throws Exception {
+        @SuppressWarnings("unchecked")
+        SetOperations<String, String> sets = mock(SetOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(sets);
+        when(sets.members("logs:services")).thenReturn(Set.of("order-service"));
+        LogResponse newest = response("order-service", 3);
+        LogResponse older = response("order-service", 1);
+        // A redelivered batch pushes the same log again
+        doReturn(List.of(List.of(json(older), json(newest), json(older))))
+                .when(redisTemplate).executePipelined(any(RedisCallback.class));
+
+        Optional<List<LogResponse>> recent = cache.getRecentLogs(10);
+
+        assertThat(recent).contains(List.of(newest, older));
+    }
+
+    @Test
+    void mergeByTimestamp_interleavesListsNewestFirst() {
+        LogResponse a3 = response("a", 3);
+        LogResponse a1 = response("a", 1);
+        LogResponse b4 = response("b", 4);
+        LogResponse b2 = response("b", 2);
+        LogResponse c0 = response("c", 0);
+
+        List<LogResponse> merged = LogCacheService.mergeByTimestamp(
+                List.of(List.of(a3, a1), List.of(b4, b2), List.of(c0)), 10);
+
+        assertThat(merged).containsExactly(b4, a3, b2, a1, c0);
+    }
+
+    @Test
+    void mergeByTimestamp_stopsAtLimit() {
+        List<LogResponse> merged = LogCacheService.mergeByTimestamp(List.of(
+                List.of(response("a", 5), response("a", 3)),
+                List.of(response("b", 4), response("b", 2))), 3);
+
+        assertThat(merged).extracting(LogResponse::timestamp)
+                .containsExactly(T0.plusSeconds(5), T0.plusSeconds(4), T0.plusSeconds(3));
+    }
+
+    @Test
+    void mergeByTimestamp_returnsEachLogOnce() {
+        LogResponse shared = response("a", 2);
+        LogResponse other = response("b", 1);
+
+        List<LogResponse> merged = LogCacheService.mergeByTimestamp(
+                List.of(List.of(shared, shared), List.of(shared, other)), 10);
+
+        assertThat(merged).containsExactly(shared, other);
+    }
+
+    @Test
+    void mergeByTimestamp_equalTimestamps_orderedByIdDescending() {
+        LogResponse low = response(new UUID(0, 1), "a", T0);
+        LogResponse high = response(new UUID(0, 2), "b", T0);
+
+        assertThat(LogCacheService.mergeByTimestamp(List.of(List.of(low), List.of(high)), 10))
+                .containsExactly(high, low);
+        assertThat(LogCacheService.mergeByTimestamp(List.of(List.of(high), List.of(low)), 10))
+                .containsExactly(high, low);
+    }
+
+    @Test
+    void mergeByTimestamp_skipsEmptyListsAndKeepsMissingTimestampsLast() {
+        LogResponse undated = response(UUID.randomUUID(), "a", null);
+        LogResponse dated = response("b", 1);
+
+        List<LogResponse> merged = LogCacheService.mergeByTimestamp(
+                List.of(List.of(), List.of(undated), List.of(dated)), 10);
+
+        assertThat(merged).containsExactly(dated, undated);
+    }
+
+    private static LogEntity entity(String serviceName, int second) {
+        return new LogEntity(UUID.randomUUID(), serviceName, "INFO", "m" + second, T0.plusSeconds(second),
+                null, null, null);
+    }
+
+    private static LogResponse response(String serviceName, int second) {
+        return response(UUID.randomUUID(), serviceName, T0.plusSeconds(second));
+    }
+
+    private static LogResponse response(UUID id, String serviceName, Instant timestamp) {
+        return new LogResponse(id, serviceName, "INFO", "message", timestamp, null, null, null, null);
+    }
+
+    private String json(LogResponse response) throws Exception {
+        return objectMapper.writeValueAsString(response);
+    }
+
+    private static Exception noScript() {
+        return new InvalidDataAccessApiUsageException("NOSCRIPT No matching script. Please use EVAL.");
+    }
+}
@@ -0,0 +1,54 @@
+package com.logging.monitoring.controller;
+
+import com.logging.monitoring.cache.LogCacheService;
+import com.logging.monitoring.kafka.ConsumerLagMonitor;
+import com.logging.monitoring.metrics.RealtimeMetricsService;
+import com.logging.monitoring.repository.LogEstimateRepository;
+import com.logging.monitoring.repository.LogRepository;
+import com.logging.monitoring.repository.LogRollupRepository;
+import com.logging.monitoring.service.LogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class LogControllerTest {
+
+    private final LogRepository logRepository = mock(LogRepository.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new LogController(
+            new LogService(logRepository, mock(LogEstimateRepository.class), mock(LogRollupRepository.class),
+                    mock(LogCacheService.class)),
+            mock(RealtimeMetricsService.class),
+            mock(ConsumerLagMonitor.class))).build();
+
+    @Test
+    void cursorSearch_firstPage_returnsOk() throws Exception {
+        when(logRepository.findSeekPage(any(), anyInt())).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/v1/logs").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void cursorSearch_malformedCursor_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/logs").param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Bad Request"));
+    }
+
+    @Test
+    void cursorSearch_unknownTotalMode_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/logs").param("cursor", "").param("total", "sometimes"))
+                .andExpect(status().isBadRequest());
+    }
+}
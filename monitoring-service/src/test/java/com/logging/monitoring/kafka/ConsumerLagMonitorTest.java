@@ -0,0 +1,46 @@
+package com.logging.monitoring.kafka;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsResult;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ConsumerLagMonitorTest {
+
+    private final AdminClient adminClient = mock(AdminClient.class);
+    private final ConsumerLagMonitor monitor =
+            new ConsumerLagMonitor(adminClient, "log-processors", "logs.ingested", 100);
+
+    @Test
+    void getLatest_beforeFirstSample_returnsNullWithoutSampling() {
+        assertThat(monitor.getLatest()).isNull();
+        assertThat(monitor.getLatest()).isNull();
+
+        verifyNoInteractions(adminClient);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getLatest_afterFailedSample_stillReturnsNull() throws Exception {
+        KafkaFuture<Map<TopicPartition, OffsetAndMetadata>> offsets = mock(KafkaFuture.class);
+        when(offsets.get(100, TimeUnit.MILLISECONDS)).thenThrow(new TimeoutException("broker unavailable"));
+        ListConsumerGroupOffsetsResult result = mock(ListConsumerGroupOffsetsResult.class);
+        when(result.partitionsToOffsetAndMetadata()).thenReturn(offsets);
+        when(adminClient.listConsumerGroupOffsets("log-processors")).thenReturn(result);
+
+        monitor.sample();
+
+        assertThat(monitor.getLatest()).isNull();
+    }
+}
@@ -0,0 +1,231 @@
+package com.logging.monitoring.kafka;
+
+import com.logging.monitoring.dto.ConsumerLag;
+import com.logging.monitoring.dto.PartitionLag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ListenerAutoscalerTest {
+
+    private static final Instant START = Instant.parse("2024-03-01T12:00:00Z");
+    private static final int PARTITIONS = 6;
+    private static final long COOLDOWN_MS = Duration.ofMinutes(5).toMillis();
+    private static final int SCALE_DOWN_SAMPLES = 3;
+
+    private final MutableClock clock = new MutableClock(START);
+    private final ConsumerLagMonitor lagMonitor = mock(ConsumerLagMonitor.class);
+    private final KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+    private final LogStreamConsumer consumer = mock(LogStreamConsumer.class);
+    @SuppressWarnings("unchecked")
+    private final ConcurrentMessageListenerContainer<String, byte[]> container =
+            mock(ConcurrentMessageListenerContainer.class);
+
+    private int keyLanes = 1;
+    private int concurrency = 1;
+    private final List<Integer> restarts = new ArrayList<>();
+    private ListenerAutoscaler autoscaler;
+
+    @BeforeEach
+    void setUp() {
+        when(consumer.getMaxKeyLanes()).thenReturn(Integer.MAX_VALUE);
+        when(consumer.getKeyLanes()).thenAnswer(invocation -> keyLanes);
+        doAnswer(invocation -> keyLanes = invocation.getArgument(0)).when(consumer).setKeyLanes(anyInt());
+
+        when(registry.getListenerContainer(LogStreamConsumer.LISTENER_ID)).thenReturn(container);
+        when(container.isRunning()).thenReturn(true);
+        when(container.getConcurrency()).thenAnswer(invocation -> concurrency);
+        doAnswer(invocation -> {
+            concurrency = invocation.getArgument(0);
+            restarts.add(concurrency);
+            return null;
+        }).when(container).setConcurrency(anyInt());
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(container).stop(any(Runnable.class));
+
+        autoscaler = new ListenerAutoscaler(lagMonitor, registry, consumer, 1, 4, 1, 4, 30, COOLDOWN_MS,
+                SCALE_DOWN_SAMPLES, clock);
+    }
+
+    @Test
+    void highLag_doublesWorkerLanesBeforeAddingConsumers() {
+        // 100k records at 1ms each on one consumer: ~100s to drain against a 30s target
+        sample(100_000, 1.0, 1);
+        assertThat(keyLanes).isEqualTo(2);
+
+        sample(100_000, 1.0, 1);
+        assertThat(keyLanes).isEqualTo(4);
+        assertThat(restarts).isEmpty();
+    }
+
+    @Test
+    void highLag_atMaxWorkerLanes_addsOneConsumer() {
+        keyLanes = 4;
+
+        sample(100_000, 1.0, 1);
+
+        assertThat(restarts).containsExactly(2);
+        verify(container).start();
+    }
+
+    @Test
+    void consumerChanges_waitForTheCooldown() {
+        keyLanes = 4;
+        sample(100_000, 1.0, 1);
+        assertThat(restarts).containsExactly(2);
+
+        clock.advance(Duration.ofMinutes(1));
+        sample(100_000, 1.0, 2);
+        assertThat(restarts).containsExactly(2);
+
+        clock.advance(Duration.ofMinutes(5));
+        sample(100_000, 1.0, 2);
+        assertThat(restarts).containsExactly(2, 3);
+    }
+
+    @Test
+    void highLag_neverAddsConsumersBeyondFreePartitions() {
+        keyLanes = 4;
+        concurrency = 2;
+
+        // Four consumers on other instances leave two of the six partitions for this one
+        sample(1_000_000, 1.0, 6);
+
+        assertThat(restarts).isEmpty();
+    }
+
+    @Test
+    void lowLag_scalesDownOnlyAfterConsecutiveCalmSamples() {
+        keyLanes = 4;
+
+        sample(10, 1.0, 1);
+        sample(10, 1.0, 1);
+        assertThat(keyLanes).isEqualTo(4);
+
+        sample(10, 1.0, 1);
+        assertThat(keyLanes).isEqualTo(2);
+    }
+
+    @Test
+    void moderateLag_resetsTheCalmCount() {
+        keyLanes = 4;
+
+        sample(10, 1.0, 1);
+        sample(10, 1.0, 1);
+        // ~15s to drain: neither above the target nor below a quarter of it
+        sample(15_000, 1.0, 1);
+        sample(10, 1.0, 1);
+        sample(10, 1.0, 1);
+
+        assertThat(keyLanes).isEqualTo(4);
+    }
+
+    @Test
+    void lowLag_atMinWorkerLanes_removesConsumerAfterCooldown() {
+        concurrency = 2;
+
+        for (int i = 0; i < SCALE_DOWN_SAMPLES; i++) {
+            sample(10, 1.0, 2);
+        }
+
+        assertThat(restarts).containsExactly(1);
+    }
+
+    @Test
+    void sameSampleTwice_isEvaluatedOnce() {
+        when(lagMonitor.getLatest()).thenReturn(lag(100_000, 1.0, 1));
+
+        autoscaler.evaluate();
+        autoscaler.evaluate();
+
+        assertThat(keyLanes).isEqualTo(2);
+    }
+
+    @Test
+    void lagWithNothingProcessed_isIgnored() {
+        sample(100_000, 0.0, 1);
+
+        verify(consumer, never()).setKeyLanes(anyInt());
+    }
+
+    @Test
+    void noSampleYet_isIgnored() {
+        when(lagMonitor.getLatest()).thenReturn(null);
+
+        autoscaler.evaluate();
+
+        verify(registry, never()).getListenerContainer(any());
+    }
+
+    @Test
+    void stoppedContainer_isLeftAlone() {
+        when(container.isRunning()).thenReturn(false);
+
+        sample(100_000, 1.0, 1);
+
+        verify(consumer, never()).setKeyLanes(anyInt());
+    }
+
+    private void sample(long totalLag, double avgRecordMillis, int members) {
+        clock.advance(Duration.ofSeconds(10));
+        when(lagMonitor.getLatest()).thenReturn(lag(totalLag, avgRecordMillis, members));
+        autoscaler.evaluate();
+    }
+
+    private ConsumerLag lag(long totalLag, double avgRecordMillis, int members) {
+        List<PartitionLag> partitions = new ArrayList<>();
+        for (int i = 0; i < PARTITIONS; i++) {
+            partitions.add(new PartitionLag(i, 0, totalLag / PARTITIONS, totalLag / PARTITIONS));
+        }
+        return new ConsumerLag("log-processors", "logs.ingested", totalLag, 0, avgRecordMillis, members,
+                clock.instant(), partitions);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.logging.monitoring.kafka;
+
+import com.logging.common.dto.LogEvent;
+import com.logging.common.dto.LogEvent.Severity;
+import com.logging.common.kafka.LogRecords;
+import com.logging.monitoring.cache.LogCacheService;
+import com.logging.monitoring.entity.LogEntity;
+import com.logging.monitoring.metrics.RealtimeMetricsService;
+import com.logging.monitoring.repository.ConsumerOffsetRepository;
+import com.logging.monitoring.service.IdempotencyService;
+import com.logging.monitoring.service.LogPersistenceService;
+import com.logging.monitoring.websocket.LogWebSocketHandler;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LogStreamConsumerTest {
+
+    private static final String TOPIC = "logs.ingested";
+
+    private final LogPersistenceService persistenceService = mock(LogPersistenceService.class);
+    private final IdempotencyService idempotencyService = mock(IdempotencyService.class);
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer = mock(DeadLetterPublishingRecoverer.class);
+
+    @BeforeEach
+    void setUp() {
+        when(persistenceService.persist(anyList(), anyMap())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(idempotencyService.tryMarkAllAsProcessed(anyList())).thenAnswer(invocation -> {
+            boolean[] isNew = new boolean[invocation.<List<String>>getArgument(0).size()];
+            Arrays.fill(isNew, true);
+            return isNew;
+        });
+    }
+
+    @Test
+    void databaseOffsets_withKeyLanes_isRefused() {
+        assertThatThrownBy(() -> consumer("database", 4))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("key-lanes");
+    }
+
+    @Test
+    void databaseOffsets_keepOneLaneWhenScaled() {
+        LogStreamConsumer consumer = consumer("database", 1);
+
+        consumer.setKeyLanes(8);
+
+        assertThat(consumer.getKeyLanes()).isEqualTo(1);
+        assertThat(consumer.getMaxKeyLanes()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void databaseOffsets_storeRowsAndOffsetsInOneCall() {
+        LogStreamConsumer consumer = consumer("database", 1);
+        consumer.setKeyLanes(8);
+        List<ConsumerRecord<String, LogEvent>> records = List.of(
+                record(0, 10, "trace-a"), record(1, 20, "trace-b"), record(0, 11, "trace-c"), record(1, 21, "trace-d"));
+
+        consumer.consume(records, mock(Acknowledgment.class));
+
+        ArgumentCaptor<List<LogEntity>> entities = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Map<TopicPartition, Long>> offsets = ArgumentCaptor.forClass(Map.class);
+        verify(persistenceService, times(1)).persist(entities.capture(), offsets.capture());
+        assertThat(entities.getValue()).hasSize(4);
+        assertThat(offsets.getValue()).isEqualTo(Map.of(
+                new TopicPartition(TOPIC, 0), 12L,
+                new TopicPartition(TOPIC, 1), 22L));
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordWithoutEventId_getsSameIdOnRedelivery() {
+        LogStreamConsumer consumer = consumer("database", 1);
+        ConsumerRecord<String, LogEvent> record = record(3, 42, "trace-a");
+
+        consumer.consume(List.of(record), mock(Acknowledgment.class));
+        consumer.consume(List.of(record(3, 42, "trace-a")), mock(Acknowledgment.class));
+        consumer.consume(List.of(record(3, 43, "trace-a")), mock(Acknowledgment.class));
+
+        ArgumentCaptor<List<LogEntity>> entities = ArgumentCaptor.forClass(List.class);
+        verify(persistenceService, times(3)).persist(entities.capture(), anyMap());
+        List<List<LogEntity>> batches = entities.getAllValues();
+        assertThat(batches.get(1).get(0).getId()).isEqualTo(batches.get(0).get(0).getId());
+        assertThat(batches.get(2).get(0).getId()).isNotEqualTo(batches.get(0).get(0).getId());
+    }
+
+    @Test
+    void keyLanes_failedLane_failsBatchAtItsFirstRecordAndReleasesOnlyItsKeys() {
+        // "a" hashes to lane 1 of 2 and "b" to lane 0, so lane 0 holds records 1 and 3
+        failPersistFor("b");
+        LogStreamConsumer consumer = consumer("kafka", 2);
+        List<ConsumerRecord<String, LogEvent>> records = List.of(
+                keyedRecord(10, "a"), keyedRecord(11, "b"), keyedRecord(12, "a"), keyedRecord(13, "b"));
+
+        assertThatThrownBy(() -> consumer.consume(records, mock(Acknowledgment.class)))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getIndex()).isEqualTo(1));
+
+        verify(idempotencyService).removeProcessedKey("key-11");
+        verify(idempotencyService).removeProcessedKey("key-13");
+        verify(idempotencyService, never()).removeProcessedKey("key-10");
+        verify(idempotencyService, never()).removeProcessedKey("key-12");
+    }
+
+    @Test
+    void keyLanes_severalFailedLanes_failBatchAtEarliestFirstRecord() {
+        failPersistFor("a", "b");
+        LogStreamConsumer consumer = consumer("kafka", 2);
+        List<ConsumerRecord<String, LogEvent>> records = List.of(
+                keyedRecord(10, "a"), keyedRecord(11, "b"), keyedRecord(12, "a"));
+
+        assertThatThrownBy(() -> consumer.consume(records, mock(Acknowledgment.class)))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getIndex()).isEqualTo(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void keyLanes_keepRecordsOfOneKeyInOrder() {
+        LogStreamConsumer consumer = consumer("kafka", 2);
+        List<ConsumerRecord<String, LogEvent>> records = List.of(
+                keyedRecord(10, "a"), keyedRecord(11, "b"), keyedRecord(12, "a"), keyedRecord(13, "b"),
+                keyedRecord(14, "a"));
+
+        consumer.consume(records, mock(Acknowledgment.class));
+
+        ArgumentCaptor<List<LogEntity>> entities = ArgumentCaptor.forClass(List.class);
+        verify(persistenceService, times(2)).persist(entities.capture(), anyMap());
+        assertThat(entities.getAllValues())
+                .extracting(batch -> batch.stream().map(LogEntity::getMessage).toList())
+                .containsExactlyInAnyOrder(List.of("10", "12", "14"), List.of("11", "13"));
+        verify(idempotencyService, never()).removeProcessedKey(anyString());
+    }
+
+    @Test
+    void poisonRecord_isNotDeadLetteredAgainWhenBatchIsRedelivered() {
+        failPersistFor("a");
+        LogStreamConsumer consumer = consumer("kafka", 1);
+        ConsumerRecord<String, LogEvent> poison = poisonRecord(10);
+        List<ConsumerRecord<String, LogEvent>> records = List.of(poison, keyedRecord(11, "a"));
+
+        assertThatThrownBy(() -> consumer.consume(records, mock(Acknowledgment.class)))
+                .isInstanceOf(QueryTimeoutException.class);
+        assertThatThrownBy(() -> consumer.consume(records, mock(Acknowledgment.class)))
+                .isInstanceOf(QueryTimeoutException.class);
+        failPersistFor();
+        consumer.consume(List.of(poisonRecord(10), keyedRecord(11, "a")), mock(Acknowledgment.class));
+
+        verify(deadLetterRecoverer, times(1)).accept(any(), any(Exception.class));
+    }
+
+    @Test
+    void poisonRecord_isDeadLetteredAgainIfPublishingFailed() {
+        ConsumerRecord<String, LogEvent> poison = poisonRecord(10);
+        doThrow(new KafkaException("DLQ unavailable")).doNothing()
+                .when(deadLetterRecoverer).accept(eq(poison), any(Exception.class));
+        LogStreamConsumer consumer = consumer("kafka", 1);
+
+        assertThatThrownBy(() -> consumer.consume(List.of(poison), mock(Acknowledgment.class)))
+                .isInstanceOf(KafkaException.class);
+        consumer.consume(List.of(poison), mock(Acknowledgment.class));
+
+        verify(deadLetterRecoverer, times(2)).accept(eq(poison), any(Exception.class));
+    }
+
+    private void failPersistFor(String... keys) {
+        Set<String> failing = Set.of(keys);
+        when(persistenceService.persist(anyList(), anyMap())).thenAnswer(invocation -> {
+            List<LogEntity> entities = invocation.getArgument(0);
+            if (entities.stream().anyMatch(entity -> failing.contains(entity.getTraceId()))) {
+                throw new QueryTimeoutException("statement timeout");
+            }
+            return entities;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private LogStreamConsumer consumer(String offsets, int keyLanes) {
+        return new LogStreamConsumer(
+                persistenceService,
+                mock(LogCacheService.class),
+                idempotencyService,
+                mock(LogWebSocketHandler.class),
+                mock(RealtimeMetricsService.class),
+                deadLetterRecoverer,
+                mock(ConsumerOffsetRepository.class),
+                mock(ConsumerLagMonitor.class),
+                mock(ObjectProvider.class),
+                offsets,
+                keyLanes);
+    }
+
+    private static ConsumerRecord<String, LogEvent> record(int partition, long offset, String traceId) {
+        LogEvent logEvent = new LogEvent("order-service", Severity.INFO, "Order placed", null, traceId, null, null);
+        return new ConsumerRecord<>(TOPIC, partition, offset, traceId, logEvent);
+    }
+
+    /**
+     * A record on partition 0 whose value could not be deserialized.
+     */
+    private static ConsumerRecord<String, LogEvent> poisonRecord(long offset) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, "poison", null);
+    }
+
+    /**
+     * A record on partition 0 keyed by {@code traceId}, whose message is its offset.
+     */
+    private static ConsumerRecord<String, LogEvent> keyedRecord(long offset, String traceId) {
+        LogEvent logEvent = new LogEvent("order-service", Severity.INFO, Long.toString(offset), null, traceId, null, null);
+        ConsumerRecord<String, LogEvent> record = new ConsumerRecord<>(TOPIC, 0, offset, traceId, logEvent);
+        record.headers().add(LogRecords.IDEMPOTENCY_KEY_HEADER, ("key-" + offset).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
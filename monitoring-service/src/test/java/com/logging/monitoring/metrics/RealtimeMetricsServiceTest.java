@@ -0,0 +1,129 @@
+package com.logging.monitoring.metrics;
+
+import com.logging.common.dto.LogEvent.Severity;
+import com.logging.monitoring.dto.RealtimeStats;
+import com.logging.monitoring.dto.ServiceLogCount;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RealtimeMetricsServiceTest {
+
+    private static final int WINDOW = 60;
+    private static final Instant START = Instant.parse("2024-03-01T12:00:00Z");
+
+    private final MutableClock clock = new MutableClock(START);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void getStats_countsOnlyTheRequestedSeconds() {
+        RealtimeMetricsService metrics = new RealtimeMetricsService(WINDOW, "", clock);
+        metrics.record("order-service", Severity.INFO, START);
+        metrics.record("order-service", Severity.ERROR, START.minusSeconds(9));
+        metrics.record("payment-service", Severity.INFO, START.minusSeconds(10));
+
+        RealtimeStats stats = metrics.getStats(null, 10);
+
+        assertThat(stats.total()).isEqualTo(2);
+        assertThat(stats.errorRatio()).isEqualTo(0.5);
+        assertThat(stats.countsBySeverity()).containsEntry("INFO", 1L).containsEntry("ERROR", 1L);
+        assertThat(stats.services()).containsExactly(new ServiceLogCount("order-service", 2));
+
+        assertThat(metrics.getStats(null, 11).total()).isEqualTo(3);
+        assertThat(metrics.getStats("payment-service", 11).total()).isEqualTo(1);
+    }
+
+    @Test
+    void record_ignoresEventsOutsideTheWindowAndCountsFutureOnesAsNow() {
+        RealtimeMetricsService metrics = new RealtimeMetricsService(WINDOW, "", clock);
+        metrics.record("svc", Severity.INFO, START.minusSeconds(WINDOW));
+        metrics.record("svc", Severity.INFO, START.plusSeconds(30));
+        metrics.record("svc", Severity.INFO, null);
+
+        assertThat(metrics.getStats("svc", WINDOW).total()).isEqualTo(2);
+        assertThat(metrics.getStats("svc", 1).total()).isEqualTo(2);
+    }
+
+    @Test
+    void getStats_rejectsWindowsItCannotAnswer() {
+        RealtimeMetricsService metrics = new RealtimeMetricsService(WINDOW, "", clock);
+
+        assertThatThrownBy(() -> metrics.getStats(null, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> metrics.getStats(null, WINDOW + 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void evictIdle_dropsServicesWithNothingInTheWindow() {
+        RealtimeMetricsService metrics = new RealtimeMetricsService(WINDOW, "", clock);
+        metrics.record("idle-service", Severity.INFO, START);
+        clock.advanceSeconds(30);
+        metrics.record("busy-service", Severity.INFO, clock.instant());
+
+        clock.advanceSeconds(WINDOW - 10);
+        metrics.evictIdle();
+
+        assertThat(metrics.getTrackedServiceCount()).isEqualTo(1);
+        assertThat(metrics.getStats("busy-service", WINDOW).total()).isEqualTo(1);
+
+        // An evicted service is tracked again from its next event
+        metrics.record("idle-service", Severity.WARN, clock.instant());
+        assertThat(metrics.getStats("idle-service", 1).total()).isEqualTo(1);
+    }
+
+    @Test
+    void snapshot_isRestoredByTheNextInstance() {
+        String path = directory.resolve("realtime.snapshot").toString();
+        RealtimeMetricsService before = new RealtimeMetricsService(WINDOW, path, clock);
+        before.record("order-service", Severity.INFO, START.minusSeconds(5));
+        before.record("order-service", Severity.ERROR, START);
+        before.record("user-service", Severity.WARN, START.minusSeconds(50));
+        before.snapshot();
+
+        clock.advanceSeconds(20);
+        RealtimeMetricsService after = new RealtimeMetricsService(WINDOW, path, clock);
+        after.restore();
+
+        assertThat(after.getStats(null, WINDOW)).isEqualTo(before.getStats(null, WINDOW));
+        // Seconds that left the window while the service was down are not restored
+        assertThat(after.getStats("user-service", WINDOW).total()).isZero();
+        assertThat(after.getStats("order-service", WINDOW).total()).isEqualTo(2);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advanceSeconds(long seconds) {
+            now = now.plusSeconds(seconds);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
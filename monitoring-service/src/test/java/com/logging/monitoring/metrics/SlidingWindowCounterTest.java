@@ -0,0 +1,78 @@
+package com.logging.monitoring.metrics;
+
+import com.logging.common.dto.LogEvent.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowCounterTest {
+
+    private static final int WINDOW = 10;
+
+    @Test
+    void sum_includesBothEndsOfTheRange() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW);
+        counter.add(100, Severity.INFO, 1);
+        counter.add(101, Severity.INFO, 2);
+        counter.add(102, Severity.ERROR, 4);
+        counter.add(103, Severity.INFO, 8);
+
+        long[] counts = counter.sum(101, 102);
+
+        assertThat(counts[Severity.INFO.ordinal()]).isEqualTo(2);
+        assertThat(counts[Severity.ERROR.ordinal()]).isEqualTo(4);
+        assertThat(counts[Severity.WARN.ordinal()]).isZero();
+    }
+
+    @Test
+    void sum_neverReachesFurtherBackThanTheWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW);
+        counter.add(100, Severity.INFO, 1);
+        counter.add(105, Severity.INFO, 1);
+
+        assertThat(counter.sum(0, 109)[Severity.INFO.ordinal()]).isEqualTo(2);
+        assertThat(counter.sum(0, 110)[Severity.INFO.ordinal()]).isEqualTo(1);
+    }
+
+    @Test
+    void add_recyclesSlotOnceTheWindowRollsOver() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW);
+        counter.add(100, Severity.INFO, 5);
+
+        // Second 110 maps to the same slot as 100
+        counter.add(110, Severity.INFO, 1);
+
+        assertThat(counter.sum(110, 110)[Severity.INFO.ordinal()]).isEqualTo(1);
+        assertThat(counter.sum(100, 100)[Severity.INFO.ordinal()]).isZero();
+    }
+
+    @Test
+    void add_ignoresSecondWhoseSlotBelongsToANewerOne() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW);
+        counter.add(110, Severity.INFO, 1);
+
+        counter.add(100, Severity.INFO, 5);
+
+        assertThat(counter.sum(101, 110)[Severity.INFO.ordinal()]).isEqualTo(1);
+    }
+
+    @Test
+    void hasBucketSince_andForEachBucket_seeOnlyRecentSeconds() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW);
+        counter.add(100, Severity.WARN, 3);
+        counter.add(104, Severity.ERROR, 2);
+
+        assertThat(counter.hasBucketSince(104)).isTrue();
+        assertThat(counter.hasBucketSince(105)).isFalse();
+
+        List<Long> seconds = new ArrayList<>();
+        counter.forEachBucket(101, (second, counts) -> {
+            seconds.add(second);
+            assertThat(counts[Severity.ERROR.ordinal()]).isEqualTo(2);
+        });
+        assertThat(seconds).containsExactly(104L);
+    }
+}
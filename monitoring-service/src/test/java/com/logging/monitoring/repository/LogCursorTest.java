@@ -0,0 +1,41 @@
+package com.logging.monitoring.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogCursorTest {
+
+    @Test
+    void encode_thenDecode_returnsSamePosition() {
+        LogCursor cursor = new LogCursor(Instant.parse("2024-03-01T12:00:00.123456Z"),
+                UUID.fromString("018e0a4c-1b2f-7c3d-9e4f-5a6b7c8d9e0f"));
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(LogCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "bm8tc2VwYXJhdG9y", "bm90LWEtdGltZXxub3QtYS11dWlk"})
+    void decode_malformedCursor_throwsIllegalArgument(String cursor) {
+        assertThatThrownBy(() -> LogCursor.decode(cursor)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void decode_validTimestampWithMalformedId_throwsIllegalArgument() {
+        String cursor = Base64.getUrlEncoder().encodeToString(
+                "2024-03-01T12:00:00Z|not-a-uuid".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> LogCursor.decode(cursor)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
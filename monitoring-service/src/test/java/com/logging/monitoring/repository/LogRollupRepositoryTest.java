@@ -0,0 +1,169 @@
+package com.logging.monitoring.repository;
+
+import com.logging.monitoring.entity.LogEntity;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.invocation.Invocation;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LogRollupRepositoryTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final LogRollupRepository repository = new LogRollupRepository(jdbcTemplate);
+
+    @Test
+    void increment_countsEachMinuteBucketOnce() {
+        repository.increment(List.of(
+                entity("2024-03-01T12:00:00Z", "order-service", "INFO"),
+                entity("2024-03-01T12:00:59.999Z", "order-service", "INFO"),
+                entity("2024-03-01T12:01:00Z", "order-service", "INFO"),
+                entity("2024-03-01T12:00:30Z", "order-service", "ERROR")));
+
+        assertThat(upsertedRows()).containsExactly(
+                List.of(utc("2024-03-01T12:00:00Z"), "order-service", "ERROR", 1L),
+                List.of(utc("2024-03-01T12:00:00Z"), "order-service", "INFO", 2L),
+                List.of(utc("2024-03-01T12:01:00Z"), "order-service", "INFO", 1L));
+    }
+
+    @Test
+    void increment_upsertsInBucketServiceSeverityOrder() {
+        repository.increment(List.of(
+                entity("2024-03-01T12:05:10Z", "payment-service", "WARN"),
+                entity("2024-03-01T12:05:20Z", "order-service", "WARN"),
+                entity("2024-03-01T12:04:59Z", "payment-service", "INFO"),
+                entity("2024-03-01T12:05:30Z", "order-service", "ERROR")));
+
+        assertThat(upsertedRows()).extracting(row -> row.get(0) + " " + row.get(1) + " " + row.get(2))
+                .containsExactly(
+                        "2024-03-01T12:04Z payment-service INFO",
+                        "2024-03-01T12:05Z order-service ERROR",
+                        "2024-03-01T12:05Z order-service WARN",
+                        "2024-03-01T12:05Z payment-service WARN");
+    }
+
+    @Test
+    void increment_nothingToCount_skipsTheDatabase() {
+        repository.increment(List.of());
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void countBySeverity_includesBucketsContainingStartAndEnd() {
+        repository.countBySeverity("order-service",
+                Instant.parse("2024-03-01T12:03:30Z"), Instant.parse("2024-03-01T12:05:30Z"));
+
+        RangeQuery query = lastQuery();
+        assertThat(query.sql()).contains("service_name = ?", "bucket >= ?", "bucket <= ?");
+        assertThat(query.params()).containsExactly("order-service",
+                utc("2024-03-01T12:03:00Z"), utc("2024-03-01T12:05:30Z"));
+
+        assertThat(query.includes("2024-03-01T12:02:00Z")).isFalse();
+        assertThat(query.includes("2024-03-01T12:03:00Z")).isTrue();
+        assertThat(query.includes("2024-03-01T12:05:00Z")).isTrue();
+        assertThat(query.includes("2024-03-01T12:06:00Z")).isFalse();
+    }
+
+    @Test
+    void countBySeverity_startOnMinuteBoundary_includesThatMinute() {
+        repository.countBySeverity(null, Instant.parse("2024-03-01T12:03:00Z"), Instant.parse("2024-03-01T12:05:00Z"));
+
+        RangeQuery query = lastQuery();
+        assertThat(query.sql()).doesNotContain("service_name");
+        assertThat(query.includes("2024-03-01T12:03:00Z")).isTrue();
+        // Logs at exactly the end instant fall in its bucket, so it is included
+        assertThat(query.includes("2024-03-01T12:05:00Z")).isTrue();
+        assertThat(query.includes("2024-03-01T12:06:00Z")).isFalse();
+    }
+
+    @Test
+    void countByService_withoutRange_hasNoWhereClause() {
+        repository.countByService(null, null);
+
+        RangeQuery query = lastQuery();
+        assertThat(query.sql()).doesNotContain("WHERE").contains("ORDER BY total DESC");
+        assertThat(query.params()).isEmpty();
+    }
+
+    @Test
+    void backfillIfEmpty_countsExistingLogsWhenThereAreNoCounts() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class))).thenReturn(false);
+        when(jdbcTemplate.update(startsWith("INSERT INTO log_counts_minute"))).thenReturn(12);
+
+        assertThat(repository.backfillIfEmpty()).isEqualTo(12);
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute("LOCK TABLE log_counts_minute IN SHARE ROW EXCLUSIVE MODE");
+        order.verify(jdbcTemplate).queryForObject(anyString(), eq(Boolean.class));
+        order.verify(jdbcTemplate).update(startsWith("INSERT INTO log_counts_minute"));
+    }
+
+    @Test
+    void backfillIfEmpty_withExistingCounts_writesNothing() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class))).thenReturn(true);
+
+        assertThat(repository.backfillIfEmpty()).isZero();
+
+        verify(jdbcTemplate, never()).update(anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object>> upsertedRows() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO log_counts_minute"), rows.capture());
+        return rows.getValue().stream().map(Arrays::asList).toList();
+    }
+
+    private RangeQuery lastQuery() {
+        Invocation query = mockingDetails(jdbcTemplate).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("query"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        Object[] raw = query.getRawArguments();
+        return new RangeQuery((String) raw[0], Arrays.asList((Object[]) raw[2]));
+    }
+
+    private static LogEntity entity(String timestamp, String serviceName, String severity) {
+        return new LogEntity(serviceName, severity, "message", Instant.parse(timestamp), null, null, null);
+    }
+
+    private static OffsetDateTime utc(String instant) {
+        return Instant.parse(instant).atOffset(ZoneOffset.UTC);
+    }
+
+    private record RangeQuery(String sql, List<Object> params) {
+
+        /**
+         * Whether a bucket passes the query's bounds, compared as PostgreSQL
+         * compares timestamptz values.
+         */
+        boolean includes(String bucket) {
+            Instant value = Instant.parse(bucket);
+            List<Object> bounds = params.stream().filter(OffsetDateTime.class::isInstance).toList();
+            int next = 0;
+            if (sql.contains("bucket >= ?") && value.isBefore(((OffsetDateTime) bounds.get(next++)).toInstant())) {
+                return false;
+            }
+            return !sql.contains("bucket <= ?") || !value.isAfter(((OffsetDateTime) bounds.get(next)).toInstant());
+        }
+    }
+}
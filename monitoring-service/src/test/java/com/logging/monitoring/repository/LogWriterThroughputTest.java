@@ -0,0 +1,110 @@
+package com.logging.monitoring.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.logging.common.id.UuidV7;
+import com.logging.monitoring.entity.LogEntity;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares rows/sec of the JPA, JDBC batch and COPY write paths. Needs the
+ * docker-compose PostgreSQL instance; run with
+ * {@code RUN_BENCHMARKS=true ./gradlew :monitoring-service:test --tests '*LogWriterThroughputTest'}.
+ * Every flush runs in the test transaction and is rolled back afterwards.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class LogWriterThroughputTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LogWriterThroughputTest.class);
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private LogBatchRepository jdbcWriter;
+    private LogCopyRepository copyWriter;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        jdbcWriter = new LogBatchRepository(jdbcTemplate, objectMapper, 500);
+        copyWriter = new LogCopyRepository(dataSource, objectMapper, 65536);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 10_000, 100_000})
+    void compareWritePaths(int rows) {
+        long before = countLogs();
+
+        double jpa = measure(rows, false, entities -> {
+            logRepository.saveAll(entities);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        double jdbc = measure(rows, true, jdbcWriter::saveAll);
+        double copy = measure(rows, true, copyWriter::saveAll);
+
+        assertEquals(before + 3L * rows, countLogs());
+        log.info("Flush of {} rows: jpa={} rows/s, jdbc={} rows/s, copy={} rows/s",
+                rows, Math.round(jpa), Math.round(jdbc), Math.round(copy));
+    }
+
+    private double measure(int rows, boolean assignIds, Consumer<List<LogEntity>> writer) {
+        List<LogEntity> entities = generate(rows, assignIds);
+        long start = System.nanoTime();
+        writer.accept(entities);
+        long elapsed = System.nanoTime() - start;
+        return rows / (elapsed / 1_000_000_000.0);
+    }
+
+    private long countLogs() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM logs", Long.class);
+    }
+
+    private List<LogEntity> generate(int rows, boolean assignIds) {
+        List<LogEntity> entities = new ArrayList<>(rows);
+        Instant now = Instant.now();
+        for (int i = 0; i < rows; i++) {
+            entities.add(new LogEntity(
+                    assignIds ? UuidV7.generate() : null,
+                    "bench-service-" + (i % 5),
+                    i % 10 == 0 ? "ERROR" : "INFO",
+                    "Benchmark log line " + i + " with \"quotes\", commas and text",
+                    now.minusMillis(i),
+                    "trace-" + (i % 1000),
+                    "bench-host",
+                    Map.of("index", i, "orderId", "ORD-" + i)
+            ));
+        }
+        return entities;
+    }
+}
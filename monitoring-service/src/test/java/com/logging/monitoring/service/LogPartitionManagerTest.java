@@ -0,0 +1,159 @@
+package com.logging.monitoring.service;
+
+import com.logging.monitoring.repository.LogPartition;
+import com.logging.monitoring.repository.LogPartitionRepository;
+import com.logging.monitoring.repository.LogRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LogPartitionManagerTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-10T12:00:00Z");
+    private static final LogPartition DEFAULT = new LogPartition("logs_default", null, null);
+
+    private final LogPartitionRepository partitionRepository = mock(LogPartitionRepository.class);
+    private final LogRollupRepository rollupRepository = mock(LogRollupRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        when(partitionRepository.isPartitioned()).thenReturn(true);
+        when(partitionRepository.createPartition(anyString(), any(), any())).thenReturn(true);
+    }
+
+    @Test
+    void maintain_createsTodayAndPremakeDaysAhead() {
+        when(partitionRepository.findPartitions()).thenReturn(List.of(DEFAULT));
+
+        manager(true, 3, 30).maintain();
+
+        verify(partitionRepository).createPartition("logs_p20240310", day(10), day(11));
+        verify(partitionRepository).createPartition("logs_p20240311", day(11), day(12));
+        verify(partitionRepository).createPartition("logs_p20240312", day(12), day(13));
+        verify(partitionRepository).createPartition("logs_p20240313", day(13), day(14));
+        verify(partitionRepository, never()).createPartition("logs_p20240314", day(14), day(15));
+    }
+
+    @Test
+    void maintain_continuesFromNewestExistingPartition() {
+        when(partitionRepository.findPartitions()).thenReturn(List.of(
+                DEFAULT, partition(10), partition(11), partition(12)));
+
+        manager(true, 3, 30).maintain();
+
+        verify(partitionRepository).createPartition("logs_p20240313", day(13), day(14));
+        verify(partitionRepository, never()).createPartition("logs_p20240310", day(10), day(11));
+        verify(partitionRepository, never()).createPartition("logs_p20240312", day(12), day(13));
+    }
+
+    @Test
+    void maintain_dropsOnlyPartitionsEntirelyOlderThanRetention() {
+        // Retention of 5 days puts the cutoff at 2024-03-05T12:00, inside the 5th's partition
+        when(partitionRepository.findPartitions()).thenReturn(List.of(
+                DEFAULT, partition(3), partition(4), partition(5), partition(6)));
+
+        manager(true, 0, 5).maintain();
+
+        verify(partitionRepository).dropPartition("logs_p20240303");
+        verify(partitionRepository).dropPartition("logs_p20240304");
+        verify(partitionRepository, never()).dropPartition("logs_p20240305");
+        verify(partitionRepository, never()).dropPartition("logs_default");
+        verify(partitionRepository).deleteFromDefault(Instant.parse("2024-03-05T12:00:00Z"));
+        // Counts are kept for the whole of the partially retained partition
+        verify(rollupRepository).deleteBefore(day(5));
+    }
+
+    @Test
+    void maintain_detachesBeforeDropping_underLockTimeoutWhileDefaultPartitionExists() {
+        when(partitionRepository.findPartitions()).thenReturn(List.of(DEFAULT, partition(1)));
+
+        manager(true, 0, 5).maintain();
+
+        InOrder order = inOrder(partitionRepository);
+        order.verify(partitionRepository).detachPartition("logs_p20240301");
+        order.verify(partitionRepository).dropPartition("logs_p20240301");
+        verify(partitionRepository, never()).detachPartitionConcurrently(anyString());
+    }
+
+    @Test
+    void maintain_detachesConcurrentlyWithoutDefaultPartition() {
+        when(partitionRepository.findPartitions()).thenReturn(List.of(partition(1)));
+
+        manager(true, 0, 5).maintain();
+
+        InOrder order = inOrder(partitionRepository);
+        order.verify(partitionRepository).detachPartitionConcurrently("logs_p20240301");
+        order.verify(partitionRepository).dropPartition("logs_p20240301");
+        verify(partitionRepository, never()).detachPartition(anyString());
+    }
+
+    @Test
+    void maintain_runsRetentionEvenWhenCreatingPartitionsFails() {
+        when(partitionRepository.findPartitions()).thenReturn(List.of(DEFAULT, partition(1)));
+        when(partitionRepository.createPartition(anyString(), any(), any()))
+                .thenThrow(new IllegalStateException("lock timeout"));
+
+        manager(true, 3, 5).maintain();
+
+        verify(partitionRepository).dropPartition("logs_p20240301");
+    }
+
+    @Test
+    void maintain_multiDayInterval_alignsPartitionsToTheInterval() {
+        when(partitionRepository.findPartitions()).thenReturn(List.of(DEFAULT));
+
+        // 7-day partitions start on epoch days divisible by 7; 2024-03-07 is epoch day 19789
+        new LogPartitionManager(partitionRepository, rollupRepository, true, 7, 1, 30, clock()).maintain();
+
+        verify(partitionRepository).createPartition("logs_p20240307", day(7), day(14));
+        verify(partitionRepository).createPartition("logs_p20240314", day(14), day(21));
+    }
+
+    @Test
+    void maintain_unpartitionedTable_doesNothing() {
+        when(partitionRepository.isPartitioned()).thenReturn(false);
+
+        manager(true, 3, 5).maintain();
+
+        verify(partitionRepository, never()).findPartitions();
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void maintain_disabled_doesNothing() {
+        manager(false, 3, 5).maintain();
+
+        verifyNoInteractions(partitionRepository, rollupRepository);
+    }
+
+    private LogPartitionManager manager(boolean enabled, int premake, int retentionDays) {
+        return new LogPartitionManager(partitionRepository, rollupRepository, enabled, 1, premake, retentionDays,
+                clock());
+    }
+
+    private static Clock clock() {
+        return Clock.fixed(NOW, ZoneOffset.UTC);
+    }
+
+    private static LogPartition partition(int dayOfMonth) {
+        return new LogPartition(String.format("logs_p202403%02d", dayOfMonth), day(dayOfMonth), day(dayOfMonth + 1));
+    }
+
+    private static Instant day(int dayOfMonth) {
+        return Instant.parse("2024-03-01T00:00:00Z").plusSeconds((dayOfMonth - 1) * 86_400L);
+    }
+}
@@ -0,0 +1,37 @@
+package com.logging.monitoring.service;
+
+import com.logging.monitoring.repository.LogRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LogRollupInitializerTest {
+
+    private final LogRollupRepository repository = mock(LogRollupRepository.class);
+
+    @Test
+    void initialize_createsTableBeforeBackfilling() {
+        when(repository.backfillIfEmpty()).thenReturn(120);
+
+        new LogRollupInitializer(repository).initialize();
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).createTableIfMissing();
+        order.verify(repository).backfillIfEmpty();
+    }
+
+    @Test
+    void initialize_withCountsInPlace_stillChecksBothSteps() {
+        when(repository.backfillIfEmpty()).thenReturn(0);
+
+        new LogRollupInitializer(repository).initialize();
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).createTableIfMissing();
+        order.verify(repository).backfillIfEmpty();
+        order.verifyNoMoreInteractions();
+    }
+}
@@ -0,0 +1,295 @@
+package com.logging.monitoring.service;
+
+import com.logging.monitoring.cache.LogCacheService;
+import com.logging.monitoring.dto.CursorPage;
+import com.logging.monitoring.dto.LogResponse;
+import com.logging.monitoring.entity.LogEntity;
+import com.logging.monitoring.repository.LogCursor;
+import com.logging.monitoring.repository.LogEstimateRepository;
+import com.logging.monitoring.repository.LogRepository;
+import com.logging.monitoring.repository.LogRollupRepository;
+import com.logging.monitoring.service.LogService.TotalMode;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LogServiceTest {
+
+    private static final Instant T0 = Instant.parse("2024-03-01T12:00:00Z");
+
+    // PostgreSQL compares uuids byte by byte, i.e. as unsigned numbers
+    private static final Comparator<UUID> UUID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    // The ORDER BY of LogRepositoryCustomImpl.findSeekPage
+    private static final Comparator<LogEntity> NEWEST_FIRST = Comparator
+            .comparing(LogEntity::getTimestamp)
+            .thenComparing(LogEntity::getId, UUID_ORDER)
+            .reversed();
+
+    private final LogRepository logRepository = mock(LogRepository.class);
+    private final LogEstimateRepository estimateRepository = mock(LogEstimateRepository.class);
+    private final LogService logService = new LogService(logRepository, estimateRepository,
+            mock(LogRollupRepository.class), mock(LogCacheService.class));
+
+    private final List<LogEntity> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Runs the real specifications against the rows, so the seek condition itself is tested
+        when(logRepository.findSeekPage(any(), anyInt())).thenAnswer(invocation -> rows.stream()
+                .filter(matcher(invocation.getArgument(0)))
+                .sorted(NEWEST_FIRST)
+                .limit(invocation.<Integer>getArgument(1))
+                .toList());
+    }
+
+    @Test
+    void paging_visitsEveryRowOnceInTimestampThenIdOrder() {
+        // Several rows share a timestamp, with ids chosen so the high bit matters
+        addRow(3, "0000000000000001");
+        addRow(2, "8000000000000002");
+        addRow(2, "0000000000000003");
+        addRow(2, "ffffffffffffffff");
+        addRow(1, "0000000000000004");
+        addRow(1, "8000000000000001");
+        addRow(0, "0000000000000005");
+        List<UUID> expected = rows.stream().sorted(NEWEST_FIRST).map(LogEntity::getId).toList();
+
+        for (int size = 1; size <= rows.size() + 1; size++) {
+            assertThat(pageThrough(size)).as("page size %d", size).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void equalTimestamps_areOrderedByIdDescending() {
+        addRow(0, "0000000000000001");
+        addRow(0, "0000000000000003");
+        addRow(0, "0000000000000002");
+
+        assertThat(pageThrough(1)).containsExactly(id("0000000000000003"), id("0000000000000002"),
+                id("0000000000000001"));
+    }
+
+    @Test
+    void pageBoundary_fullLastPage_hasNoMore() {
+        for (int i = 0; i < 4; i++) {
+            addRow(i, "000000000000000" + i);
+        }
+
+        CursorPage<LogResponse> first = search("", 2, TotalMode.NONE);
+        assertThat(first.hasMore()).isTrue();
+        assertThat(first.nextCursor()).isEqualTo(LogCursor.of(entity(first.content().get(1))).encode());
+
+        CursorPage<LogResponse> second = search(first.nextCursor(), 2, TotalMode.NONE);
+        assertThat(second.content()).hasSize(2);
+        assertThat(second.hasMore()).isFalse();
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void pageBoundary_onePastFullPage_hasMore() {
+        for (int i = 0; i < 3; i++) {
+            addRow(i, "000000000000000" + i);
+        }
+
+        CursorPage<LogResponse> first = search("", 2, TotalMode.NONE);
+        assertThat(first.content()).hasSize(2);
+        assertThat(first.hasMore()).isTrue();
+
+        CursorPage<LogResponse> last = search(first.nextCursor(), 2, TotalMode.NONE);
+        assertThat(last.content()).extracting(LogResponse::timestamp).containsExactly(T0);
+        assertThat(last.hasMore()).isFalse();
+    }
+
+    @Test
+    void emptyResult_hasNoMoreAndNoCursor() {
+        CursorPage<LogResponse> page = search("", 20, TotalMode.NONE);
+
+        assertThat(page.content()).isEmpty();
+        assertThat(page.hasMore()).isFalse();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void size_isClampedAndOneExtraRowIsFetched() {
+        search("", 5000, TotalMode.NONE);
+        verify(logRepository).findSeekPage(any(), eq(1001));
+
+        assertThat(search("", 0, TotalMode.NONE).size()).isEqualTo(1);
+        verify(logRepository).findSeekPage(any(), eq(2));
+    }
+
+    @Test
+    void malformedCursor_throwsIllegalArgument() {
+        assertThatThrownBy(() -> search("not a cursor", 20, TotalMode.NONE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void totalNone_skipsCounting() {
+        CursorPage<LogResponse> page = search("", 20, TotalMode.NONE);
+
+        assertThat(page.totalElements()).isNull();
+        assertThat(page.totalEstimated()).isFalse();
+        verify(logRepository, never()).count(any(Specification.class));
+        verify(estimateRepository, never()).estimateRowCount();
+    }
+
+    @Test
+    void totalExact_countsMatchingRows() {
+        when(logRepository.count(any(Specification.class))).thenReturn(42L);
+
+        CursorPage<LogResponse> page = logService.searchLogsByCursor(
+                "order-service", null, null, null, null, "", 20, TotalMode.EXACT);
+
+        assertThat(page.totalElements()).isEqualTo(42L);
+        assertThat(page.totalEstimated()).isFalse();
+    }
+
+    @Test
+    void totalEstimate_withoutFilters_usesPlannerEstimate() {
+        when(estimateRepository.estimateRowCount()).thenReturn(1_000_000L);
+
+        CursorPage<LogResponse> page = search("", 20, TotalMode.ESTIMATE);
+
+        assertThat(page.totalElements()).isEqualTo(1_000_000L);
+        assertThat(page.totalEstimated()).isTrue();
+    }
+
+    @Test
+    void totalEstimate_withFilters_isNotAvailable() {
+        CursorPage<LogResponse> page = logService.searchLogsByCursor(
+                null, "ERROR", null, null, null, "", 20, TotalMode.ESTIMATE);
+
+        assertThat(page.totalElements()).isNull();
+        assertThat(page.totalEstimated()).isFalse();
+        verify(estimateRepository, never()).estimateRowCount();
+    }
+
+    private List<UUID> pageThrough(int size) {
+        List<UUID> seen = new ArrayList<>();
+        String cursor = "";
+        for (int pages = 0; pages <= rows.size(); pages++) {
+            CursorPage<LogResponse> page = search(cursor, size, TotalMode.NONE);
+            page.content().forEach(log -> seen.add(log.id()));
+            if (!page.hasMore()) {
+                assertThat(page.nextCursor()).isNull();
+                return seen;
+            }
+            cursor = page.nextCursor();
+        }
+        throw new AssertionError("paging did not terminate");
+    }
+
+    private CursorPage<LogResponse> search(String cursor, int size, TotalMode totalMode) {
+        return logService.searchLogsByCursor(null, null, null, null, null, cursor, size, totalMode);
+    }
+
+    private void addRow(int secondsAfterT0, String idSuffix) {
+        rows.add(new LogEntity(id(idSuffix), "order-service", "INFO", "m" + rows.size(),
+                T0.plusSeconds(secondsAfterT0), null, null, null));
+    }
+
+    private LogEntity entity(LogResponse response) {
+        return rows.stream().filter(row -> row.getId().equals(response.id())).findFirst().orElseThrow();
+    }
+
+    private static UUID id(String leastSignificantHex) {
+        return new UUID(0x018e0a4c1b2f7000L, Long.parseUnsignedLong(leastSignificantHex, 16));
+    }
+
+    /**
+     * Evaluates a specification in memory by building it against a criteria
+     * builder whose predicates test entities directly. Supports the
+     * operations the log specifications use.
+     */
+    @SuppressWarnings("unchecked")
+    private static Predicate<LogEntity> matcher(Specification<LogEntity> spec) {
+        Map<Object, String> attributes = new IdentityHashMap<>();
+        Map<Object, Predicate<LogEntity>> tests = new IdentityHashMap<>();
+
+        Root<LogEntity> root = mock(Root.class, invocation -> {
+            Path<Object> path = mock(Path.class);
+            attributes.put(path, invocation.getArgument(0));
+            return path;
+        });
+        CriteriaBuilder cb = mock(CriteriaBuilder.class, invocation -> {
+            Object[] args = invocation.getArguments();
+            Predicate<LogEntity> test = switch (invocation.getMethod().getName()) {
+                case "and" -> entity -> {
+                    for (Object arg : args) {
+                        if (!tests.get(arg).test(entity)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                };
+                case "or" -> entity -> {
+                    for (Object arg : args) {
+                        if (tests.get(arg).test(entity)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                };
+                case "equal" -> entity -> Objects.equals(value(entity, attributes.get(args[0])), args[1]);
+                case "lessThan" -> entity -> compare(value(entity, attributes.get(args[0])), args[1]) < 0;
+                case "lessThanOrEqualTo" -> entity -> compare(value(entity, attributes.get(args[0])), args[1]) <= 0;
+                case "greaterThanOrEqualTo" ->
+                        entity -> compare(value(entity, attributes.get(args[0])), args[1]) >= 0;
+                default -> throw new UnsupportedOperationException(invocation.getMethod().getName());
+            };
+            jakarta.persistence.criteria.Predicate predicate = mock(jakarta.persistence.criteria.Predicate.class);
+            tests.put(predicate, test);
+            return predicate;
+        });
+
+        jakarta.persistence.criteria.Predicate predicate = spec.toPredicate(root, mock(CriteriaQuery.class), cb);
+        return predicate == null ? entity -> true : tests.get(predicate);
+    }
+
+    private static Object value(LogEntity entity, String attribute) {
+        return switch (attribute) {
+            case "id" -> entity.getId();
+            case "timestamp" -> entity.getTimestamp();
+            case "serviceName" -> entity.getServiceName();
+            case "severity" -> entity.getSeverity();
+            case "traceId" -> entity.getTraceId();
+            default -> throw new UnsupportedOperationException(attribute);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object left, Object right) {
+        if (left instanceof UUID leftId) {
+            return UUID_ORDER.compare(leftId, (UUID) right);
+        }
+        return ((Comparable) left).compareTo(right);
+    }
+}
@@ -0,0 +1,56 @@
+package com.logging.monitoring.websocket;
+
+import com.logging.common.dto.LogEvent;
+import com.logging.common.dto.LogEvent.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class LogSubscriptionTest {
+
+    @Test
+    void matchesDetails_checksTraceIdAndMessageText() {
+        LogSubscription subscription = new LogSubscription(Set.of(), Set.of(), "trace-1", "timeout", null);
+
+        assertThat(subscription.matchesDetails(event("trace-1", "payment timeout after 3s"))).isTrue();
+        assertThat(subscription.matchesDetails(event("trace-2", "payment timeout after 3s"))).isFalse();
+        assertThat(subscription.matchesDetails(event("trace-1", "payment declined"))).isFalse();
+        assertThat(subscription.matchesDetails(event("trace-1", null))).isFalse();
+    }
+
+    @Test
+    void matchesDetails_findsPatternAnywhereInMessage() {
+        LogSubscription subscription = regex("order-\\d+ (failed|cancelled)");
+
+        assertThat(subscription.matchesDetails(event(null, "Order order-42 failed at checkout"))).isTrue();
+        assertThat(subscription.matchesDetails(event(null, "Order order-42 shipped"))).isFalse();
+        assertThat(LogSubscription.ALL.matchesDetails(event(null, null))).isTrue();
+    }
+
+    @Test
+    void matchesDetails_catastrophicBacktracking_isCutOffByBudget() {
+        LogSubscription subscription = regex("(a+)+$");
+        // Without a budget this takes on the order of 2^40 steps
+        LogEvent logEvent = event(null, "a".repeat(40) + "!");
+
+        boolean matched = assertTimeoutPreemptively(Duration.ofSeconds(2),
+                () -> subscription.matchesDetails(logEvent));
+
+        assertThat(matched).isFalse();
+        // The budget is per match, so the next event is evaluated normally
+        assertThat(subscription.matchesDetails(event(null, "aaa"))).isTrue();
+    }
+
+    private static LogSubscription regex(String pattern) {
+        return new LogSubscription(Set.of(), Set.of(), null, null, Pattern.compile(pattern));
+    }
+
+    private static LogEvent event(String traceId, String message) {
+        return new LogEvent("order-service", Severity.INFO, message, null, traceId, null, null);
+    }
+}
@@ -0,0 +1,192 @@
+package com.logging.monitoring.websocket;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionSenderTest {
+
+    private final ManualExecutor executor = new ManualExecutor();
+
+    @Test
+    void dropOldest_keepsBufferBoundedAndSendsNewest() throws Exception {
+        WebSocketSession session = session("s1");
+        SessionSender sender = new SessionSender(session, 3, OverflowPolicy.DROP_OLDEST, executor);
+
+        for (int i = 1; i <= 5; i++) {
+            assertThat(sender.enqueue("m" + i)).isTrue();
+        }
+
+        assertThat(sender.getQueueDepth()).isEqualTo(3);
+        assertThat(sender.getDroppedCount()).isEqualTo(2);
+        assertThat(executor.pending()).isEqualTo(1);
+
+        executor.runAll();
+
+        assertThat(sent(session, 3)).containsExactly("m3", "m4", "m5");
+        assertThat(sender.getSentCount()).isEqualTo(3);
+    }
+
+    @Test
+    void dropSession_closesSessionFromDrainTask() throws Exception {
+        WebSocketSession session = session("s1");
+        SessionSender sender = new SessionSender(session, 2, OverflowPolicy.DROP_SESSION, executor);
+
+        assertThat(sender.enqueue("m1")).isTrue();
+        assertThat(sender.enqueue("m2")).isTrue();
+        assertThat(sender.enqueue("m3")).isFalse();
+
+        assertThat(sender.isClosed()).isTrue();
+        assertThat(sender.getQueueDepth()).isZero();
+        assertThat(sender.enqueue("m4")).isFalse();
+        verify(session, never()).close(any());
+
+        executor.runAll();
+
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(session, never()).sendMessage(any());
+    }
+
+    @Test
+    void coalesce_sendsPendingMessagesAsOneArrayFrame() throws Exception {
+        WebSocketSession session = session("s1");
+        SessionSender sender = new SessionSender(session, 3, OverflowPolicy.COALESCE, executor);
+
+        for (String message : List.of("{\"n\":1}", "{\"n\":2}", "{\"n\":3}", "{\"n\":4}")) {
+            sender.enqueue(message);
+        }
+        executor.runAll();
+
+        assertThat(sent(session, 1)).containsExactly("[{\"n\":2},{\"n\":3},{\"n\":4}]");
+        assertThat(sender.getDroppedCount()).isEqualTo(1);
+        assertThat(sender.getSentCount()).isEqualTo(3);
+    }
+
+    @Test
+    void drain_reschedulesForMessagesQueuedPastItsBound() throws Exception {
+        WebSocketSession session = session("s1");
+        SessionSender sender = new SessionSender(session, 2, OverflowPolicy.DROP_OLDEST, executor);
+        // Each send queues another message, so the drain task never finds the buffer empty
+        int[] produced = {2};
+        doAnswer(invocation -> {
+            if (produced[0] < 6) {
+                sender.enqueue("m" + ++produced[0]);
+            }
+            return null;
+        }).when(session).sendMessage(any());
+        sender.enqueue("m1");
+        sender.enqueue("m2");
+
+        executor.runOne();
+
+        // Two messages per run, then the task hands the thread back and is scheduled again
+        assertThat(sender.getSentCount()).isEqualTo(2);
+        assertThat(executor.pending()).isEqualTo(1);
+
+        executor.runAll();
+
+        assertThat(sent(session, 6)).containsExactly("m1", "m2", "m3", "m4", "m5", "m6");
+    }
+
+    @Test
+    void close_duringSend_closesSessionAfterSendReturns() throws Exception {
+        WebSocketSession session = session("s1");
+        SessionSender sender = new SessionSender(session, 4, OverflowPolicy.DROP_OLDEST, executor);
+        doAnswer(invocation -> {
+            sender.close(CloseStatus.GOING_AWAY);
+            return null;
+        }).when(session).sendMessage(any());
+        sender.enqueue("m1");
+        sender.enqueue("m2");
+
+        executor.runAll();
+
+        InOrder order = inOrder(session);
+        order.verify(session).sendMessage(any());
+        order.verify(session).close(CloseStatus.GOING_AWAY);
+        verify(session, times(1)).sendMessage(any());
+    }
+
+    @Test
+    void slowSession_doesNotHoldBackOthers() throws Exception {
+        WebSocketSession slow = session("slow");
+        WebSocketSession fast = session("fast");
+        SessionSender slowSender = new SessionSender(slow, 2, OverflowPolicy.DROP_OLDEST, executor);
+        SessionSender fastSender = new SessionSender(fast, 2, OverflowPolicy.DROP_OLDEST, executor);
+
+        for (int i = 1; i <= 100; i++) {
+            slowSender.enqueue("s" + i);
+        }
+        fastSender.enqueue("f1");
+
+        // One drain task per session; run only the fast session's, as if the slow one were stuck
+        assertThat(executor.pending()).isEqualTo(2);
+        executor.runLast();
+
+        assertThat(sent(fast, 1)).containsExactly("f1");
+        verify(slow, never()).sendMessage(any());
+        assertThat(slowSender.getQueueDepth()).isEqualTo(2);
+        assertThat(slowSender.getDroppedCount()).isEqualTo(98);
+    }
+
+    private static WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    private static List<String> sent(WebSocketSession session, int count) throws Exception {
+        ArgumentCaptor<TextMessage> messages = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, times(count)).sendMessage(messages.capture());
+        return messages.getAllValues().stream().map(TextMessage::getPayload).toList();
+    }
+
+    /**
+     * Runs submitted tasks only when the test asks, on the test thread.
+     */
+    private static final class ManualExecutor implements Executor {
+
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        int pending() {
+            return tasks.size();
+        }
+
+        void runOne() {
+            tasks.remove().run();
+        }
+
+        void runLast() {
+            tasks.removeLast().run();
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                runOne();
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.logging.monitoring.websocket;
+
+import com.logging.common.dto.LogEvent;
+import com.logging.common.dto.LogEvent.Severity;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SubscriptionIndexTest {
+
+    private final SubscriptionIndex index = new SubscriptionIndex();
+
+    @Test
+    void candidates_routeByServiceAndSeverity() {
+        SessionSender orderErrors = subscribe(Set.of("order-service"), Set.of(Severity.ERROR));
+        SessionSender order = subscribe(Set.of("order-service"), Set.of());
+        SessionSender errors = subscribe(Set.of(), Set.of(Severity.ERROR));
+        SessionSender everything = subscribe(Set.of(), Set.of());
+        SessionSender payment = subscribe(Set.of("payment-service"), Set.of());
+
+        assertThat(index.candidates(event("order-service", Severity.ERROR)))
+                .containsExactlyInAnyOrder(orderErrors, order, errors, everything);
+        assertThat(index.candidates(event("order-service", Severity.INFO)))
+                .containsExactlyInAnyOrder(order, everything);
+        assertThat(index.candidates(event("payment-service", Severity.ERROR)))
+                .containsExactlyInAnyOrder(errors, everything, payment);
+        assertThat(index.candidates(event("user-service", Severity.WARN)))
+                .containsExactly(everything);
+    }
+
+    @Test
+    void candidates_listSessionOnceWhateverItsSubscriptionCovers() {
+        SessionSender sender = subscribe(Set.of("order-service", "payment-service"),
+                Set.of(Severity.WARN, Severity.ERROR));
+
+        assertThat(index.candidates(event("payment-service", Severity.ERROR))).containsExactly(sender);
+        assertThat(index.candidates(event("payment-service", Severity.INFO))).isEmpty();
+    }
+
+    @Test
+    void candidates_eventWithoutSeverity_reachesOnlySessionsWithoutSeverityFilter() {
+        subscribe(Set.of(), Set.of(Severity.ERROR));
+        SessionSender order = subscribe(Set.of("order-service"), Set.of());
+
+        assertThat(index.candidates(event("order-service", null))).containsExactly(order);
+    }
+
+    @Test
+    void remove_unregistersEveryKeyOfTheSubscription() {
+        LogSubscription subscription = subscription(Set.of("order-service", "payment-service"), Set.of(Severity.ERROR));
+        SessionSender sender = sender();
+        index.add(sender, subscription);
+        SessionSender other = subscribe(Set.of(), Set.of());
+
+        index.remove(sender, subscription);
+
+        assertThat(index.candidates(event("order-service", Severity.ERROR))).containsExactly(other);
+        assertThat(index.candidates(event("payment-service", Severity.ERROR))).containsExactly(other);
+
+        index.remove(other, LogSubscription.ALL);
+        assertThat(index.candidates(event("order-service", Severity.ERROR))).isEmpty();
+    }
+
+    private SessionSender subscribe(Set<String> services, Set<Severity> severities) {
+        SessionSender sender = sender();
+        index.add(sender, subscription(services, severities));
+        return sender;
+    }
+
+    private static SessionSender sender() {
+        return new SessionSender(mock(WebSocketSession.class), 1, OverflowPolicy.DROP_OLDEST, Runnable::run);
+    }
+
+    private static LogSubscription subscription(Set<String> services, Set<Severity> severities) {
+        return new LogSubscription(services, severities, null, null, null);
+    }
+
+    private static LogEvent event(String serviceName, Severity severity) {
+        return new LogEvent(serviceName, severity, "message", null, null, null, null);
+    }
+}
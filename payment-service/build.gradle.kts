@@ -6,6 +6,7 @@ dependencies {
     implementation(project(":common"))
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-validation")
+    implementation("org.apache.kafka:kafka-clients")
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
 }
@@ -1,5 +1,6 @@
 package com.logging.payment.service;
 
+import com.logging.common.client.LogClient;
 import com.logging.common.dto.LogEvent.Severity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,15 +22,15 @@ public class PaymentService {
     private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
     private static final Random random = new Random();
 
-    private final LogSender logSender;
+    private final LogClient logClient;
     private final RestTemplate restTemplate;
     private final String orderServiceUrl;
 
     public PaymentService(
-            LogSender logSender,
+            LogClient logClient,
             RestTemplate restTemplate,
             @Value("${app.order-service.url}") String orderServiceUrl) {
-        this.logSender = logSender;
+        this.logClient = logClient;
         this.restTemplate = restTemplate;
         this.orderServiceUrl = orderServiceUrl;
     }
@@ -41,7 +42,7 @@ public class PaymentService {
         String paymentId = "PAY-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
 
         // Log payment initiation
-        logSender.sendLog(Severity.INFO, "Payment processing initiated",
+        logClient.sendLog(Severity.INFO, "Payment processing initiated",
                 traceId, Map.of("paymentId", paymentId, "userId", userId, "amount", amount));
 
         // Simulate processing time
@@ -49,19 +50,19 @@ public class PaymentService {
 
         // Simulate payment validation failures (5% rate)
         if (random.nextInt(100) < 5) {
-            logSender.sendLog(Severity.ERROR, "Payment validation failed: insufficient funds",
+            logClient.sendLog(Severity.ERROR, "Payment validation failed: insufficient funds",
                     traceId, Map.of("paymentId", paymentId, "errorCode", "INSUFFICIENT_FUNDS"));
             throw new RuntimeException("Payment failed: insufficient funds");
         }
 
         // Simulate slow processing warning (15% rate)
         if (random.nextInt(100) < 15) {
-            logSender.sendLog(Severity.WARN, "Payment processing slower than expected",
+            logClient.sendLog(Severity.WARN, "Payment processing slower than expected",
                     traceId, Map.of("paymentId", paymentId, "processingTime", "high"));
         }
 
         // Log payment success
-        logSender.sendLog(Severity.INFO, "Payment processed successfully",
+        logClient.sendLog(Severity.INFO, "Payment processed successfully",
                 traceId, Map.of("paymentId", paymentId, "status", "COMPLETED"));
 
         // Call order-service with trace ID propagation
@@ -77,7 +78,7 @@ public class PaymentService {
 
     @SuppressWarnings("unchecked")
     private Map<String, Object> callOrderService(String traceId, String userId, String paymentId) {
-        logSender.sendLog(Severity.INFO, "Calling order-service",
+        logClient.sendLog(Severity.INFO, "Calling order-service",
                 traceId, Map.of("paymentId", paymentId, "targetService", "order-service"));
 
         try {
@@ -98,12 +99,12 @@ public class PaymentService {
                     Map.class
             );
 
-            logSender.sendLog(Severity.INFO, "Order-service call completed",
+            logClient.sendLog(Severity.INFO, "Order-service call completed",
                     traceId, Map.of("paymentId", paymentId, "responseStatus", response.getStatusCode().value()));
 
             return response.getBody() != null ? response.getBody() : Map.of();
         } catch (Exception e) {
-            logSender.sendLog(Severity.ERROR, "Order-service call failed: " + e.getMessage(),
+            logClient.sendLog(Severity.ERROR, "Order-service call failed: " + e.getMessage(),
                     traceId, Map.of("paymentId", paymentId, "error", e.getClass().getSimpleName()));
             throw new RuntimeException("Failed to create order: " + e.getMessage(), e);
         }
@@ -1,8 +1,10 @@
 package com.logging.user.service;
 
+import com.logging.common.client.LogClient;
 import com.logging.common.dto.LogEvent.Severity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -20,16 +22,17 @@ public class UserService {
 
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
     private static final Random random = new Random();
+    private static final String TRACE_ID_MDC_KEY = "traceId";
 
-    private final LogSender logSender;
+    private final LogClient logClient;
     private final RestTemplate restTemplate;
     private final String paymentServiceUrl;
 
     public UserService(
-            LogSender logSender,
+            LogClient logClient,
             RestTemplate restTemplate,
             @Value("${app.payment-service.url}") String paymentServiceUrl) {
-        this.logSender = logSender;
+        this.logClient = logClient;
         this.restTemplate = restTemplate;
         this.paymentServiceUrl = paymentServiceUrl;
     }
@@ -40,12 +43,18 @@ public class UserService {
 
     @SuppressWarnings("unchecked")
     public Map<String, Object> simulateUserActivity(String traceId) {
+        try (MDC.MDCCloseable ignored = MDC.putCloseable(TRACE_ID_MDC_KEY, traceId)) {
+            return runUserActivity(traceId);
+        }
+    }
+
+    private Map<String, Object> runUserActivity(String traceId) {
         String userId = "USR-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
 
         log.info("Simulating user activity [traceId={}, userId={}]", traceId, userId);
 
         // Log user authentication
-        logSender.sendLog(Severity.INFO, "User authentication started",
+        logClient.sendLog(Severity.INFO, "User authentication started",
                 traceId, Map.of("userId", userId, "authMethod", "password"));
 
         // Simulate auth latency
@@ -53,33 +62,33 @@ public class UserService {
 
         // Simulate auth failures (8% rate)
         if (random.nextInt(100) < 8) {
-            logSender.sendLog(Severity.ERROR, "Authentication failed: invalid credentials",
+            logClient.sendLog(Severity.ERROR, "Authentication failed: invalid credentials",
                     traceId, Map.of("userId", userId, "errorCode", "AUTH_FAILED"));
             throw new RuntimeException("Authentication failed for user " + userId);
         }
 
         // Simulate suspicious activity warning (12% rate)
         if (random.nextInt(100) < 12) {
-            logSender.sendLog(Severity.WARN, "Suspicious login attempt detected",
+            logClient.sendLog(Severity.WARN, "Suspicious login attempt detected",
                     traceId, Map.of("userId", userId, "reason", "unusual_location"));
         }
 
         // Log successful auth
-        logSender.sendLog(Severity.INFO, "User authenticated successfully",
+        logClient.sendLog(Severity.INFO, "User authenticated successfully",
                 traceId, Map.of("userId", userId, "sessionId", UUID.randomUUID().toString().substring(0, 8)));
 
         // Simulate some user action that triggers payment
         double amount = 10.0 + random.nextDouble() * 990.0; // $10 - $1000
         amount = Math.round(amount * 100.0) / 100.0;
 
-        logSender.sendLog(Severity.INFO, "User initiated purchase",
+        logClient.sendLog(Severity.INFO, "User initiated purchase",
                 traceId, Map.of("userId", userId, "amount", amount));
 
         // Call payment-service with trace ID propagation
         Map<String, Object> paymentResult = callPaymentService(traceId, userId, amount);
 
         // Log completion
-        logSender.sendLog(Severity.INFO, "User activity completed",
+        logClient.sendLog(Severity.INFO, "User activity completed",
                 traceId, Map.of("userId", userId, "result", "SUCCESS"));
 
         return Map.of(
@@ -92,7 +101,7 @@ public class UserService {
 
     @SuppressWarnings("unchecked")
     private Map<String, Object> callPaymentService(String traceId, String userId, double amount) {
-        logSender.sendLog(Severity.INFO, "Calling payment-service",
+        logClient.sendLog(Severity.INFO, "Calling payment-service",
                 traceId, Map.of("userId", userId, "targetService", "payment-service"));
 
         try {
@@ -113,12 +122,12 @@ public class UserService {
                     Map.class
             );
 
-            logSender.sendLog(Severity.INFO, "Payment-service call completed",
+            logClient.sendLog(Severity.INFO, "Payment-service call completed",
                     traceId, Map.of("userId", userId, "responseStatus", response.getStatusCode().value()));
 
             return response.getBody() != null ? response.getBody() : Map.of();
         } catch (Exception e) {
-            logSender.sendLog(Severity.ERROR, "Payment-service call failed: " + e.getMessage(),
+            logClient.sendLog(Severity.ERROR, "Payment-service call failed: " + e.getMessage(),
                     traceId, Map.of("userId", userId, "error", e.getClass().getSimpleName()));
             throw new RuntimeException("Failed to process payment: " + e.getMessage(), e);
         }